@@ -1,64 +1,84 @@
 package com.mmhq.game;
 
 import com.mmhq.game.arena.ArenaManager;
+import com.mmhq.game.arena.ArenaService;
 import com.mmhq.game.arena.ArenaState;
 import com.mmhq.game.arena.MapDefinition;
 import com.mmhq.game.arena.MapRegistry;
 import com.mmhq.game.arena.MurderMysteryGame;
 import com.mmhq.game.arena.special.CorpseManager;
+import com.mmhq.game.config.GameConfig;
+import com.mmhq.game.stats.Leaderboards;
+import com.mmhq.game.stats.ProfileCache;
+import com.mmhq.game.stats.StatsStore;
 import com.mmhq.sharedapi.game.GameState;
-import com.mmhq.sharedapi.game.MatchPreset;
 import com.mmhq.sharedapi.player.PlayerProfile;
 import org.bukkit.Bukkit;
-import org.bukkit.Location;
 import org.bukkit.World;
-import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.util.ArrayList;
-
-import java.time.Duration;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
-
 public final class GameManager implements Listener {
     // ===== Core References =====
     private final JavaPlugin plugin;
     private final MurderMysteryGame currentGame;
     private final MapRegistry mapRegistry;
-    private final List<MapDefinition> maps;
     private final CorpseManager corpseManager;
     private final ArenaManager arenaManager;
+    private final ArenaService arenaService;
 
-    // ===== State =====
-    private final Map<UUID, PlayerProfile> profiles = new HashMap<>();
+    // ===== Persistence =====
+    private final StatsStore statsStore;
+    private final ProfileCache profiles;
 
-    public GameManager(JavaPlugin plugin, ArenaManager arenaManager) {
+    public GameManager(JavaPlugin plugin, ArenaManager arenaManager, ArenaService arenaService, MapRegistry mapRegistry) {
         this.plugin = plugin;
         this.arenaManager = arenaManager;
+        this.arenaService = arenaService;
         this.corpseManager = new CorpseManager(plugin);
+        this.statsStore = new StatsStore(plugin);
+        this.profiles = new ProfileCache(plugin, statsStore);
+
+        this.mapRegistry = mapRegistry;
+
+        // Default match preset from the compiled config; reloads reach the game through applyConfig
+        this.currentGame = new MurderMysteryGame(plugin, GameConfig.current().preset(), mapRegistry, corpseManager,
+                arenaManager.triggers(), arenaManager.spawnTables());
+        this.currentGame.setPhaseListener(this::onGamePhase);
+        this.currentGame.setResultListener(statsStore::saveMatch);
+        this.currentGame.setArena(arenaService);
+        GameConfig.addListener(currentGame::applyConfig);
+    }
 
-        // Initialize MapRegistry from config
-        this.mapRegistry = new MapRegistry(plugin);
-
-        // Load default match preset from config
-        MatchPreset defaultPreset = new MatchPreset(
-                "default",
-                plugin.getConfig().getInt("preset.default.minPlayers", 4),
-                plugin.getConfig().getInt("preset.default.maxPlayers", 16),
-                Duration.ofSeconds(plugin.getConfig().getInt("preset.default.countdownSeconds", 20)),
-                Duration.ofMinutes(plugin.getConfig().getInt("preset.default.roundMinutes", 5)),
-                plugin.getConfig().getString("preset.default.map", "world")
-        );
-
-        // Keep legacy maps list for backward compatibility
-        this.maps = new ArrayList<>(mapRegistry.all());
-        this.currentGame = new MurderMysteryGame(plugin, defaultPreset, maps, corpseManager);
+    /**
+     * Mirror game phases onto the arena so map features start and stop with the round,
+     * and onto the arena service whose phase heartbeats report. A world a match was
+     * played on goes back to IDLE with joins closed: it needs a PREPARE before the
+     * proxy may send players to it again.
+     */
+    private void onGamePhase(GameState phase) {
+        ArenaState arenaState = arenaManager.getState();
+        ArenaState served = arenaService.state();
+        switch (phase) {
+            case IN_GAME:
+                if (arenaState != ArenaState.IN_PROGRESS) arenaManager.setState(ArenaState.IN_PROGRESS);
+                if (served != ArenaState.IN_PROGRESS) arenaService.setState(ArenaState.IN_PROGRESS);
+                break;
+            case ENDING:
+                if (arenaState == ArenaState.IN_PROGRESS) arenaManager.setState(ArenaState.POST_GAME);
+                if (served == ArenaState.IN_PROGRESS) arenaService.setState(ArenaState.POST_GAME);
+                break;
+            case LOBBY:
+                if (arenaState == ArenaState.IN_PROGRESS) arenaManager.setState(ArenaState.POST_GAME);
+                if (served == ArenaState.IN_PROGRESS || served == ArenaState.POST_GAME) {
+                    arenaService.setJoinOpen(false);
+                    arenaService.setState(ArenaState.IDLE);
+                }
+                break;
+            default:
+                break;
+        }
     }
 
     // ===== Public API =====
@@ -71,8 +91,27 @@ public final class GameManager implements Listener {
     /**
      * Prepare a game from the lobby: load map via registry, validate, and ready arena for players.
      * Does NOT start the game; players joining will trigger countdown when min threshold reached.
+     *
+     * @return false if the map isn't in the registry or the active world isn't loaded
      */
-    public void prepareGameWithMap(String mapName) {
+    public boolean prepareGameWithMap(String mapName) {
+        // Get the active world (pinned by ArenaService at startup)
+        String activeName = arenaService.activeWorldName();
+        World active = Bukkit.getWorld(activeName);
+        if (active == null) {
+            plugin.getLogger().warning("[GameManager] ✗ Active world " + activeName + " is not loaded yet!");
+            return false;
+        }
+        return prepareGameWithMap(mapName, active);
+    }
+
+    /**
+     * As {@link #prepareGameWithMap(String)}, bound to {@code active} - the
+     * world a PREPARE just reset - instead of looking the active world up.
+     *
+     * @return false if the map isn't in the registry
+     */
+    public boolean prepareGameWithMap(String mapName, World active) {
         plugin.getLogger().info("[GameManager] Preparing game from lobby with map: " + mapName);
         
         // Look up template map from registry
@@ -80,18 +119,11 @@ public final class GameManager implements Listener {
         
         if (template == null) {
             plugin.getLogger().warning("[GameManager] ✗ Map not found in registry: " + mapName);
-            return;
+            return false;
         }
         
-        // Get the active world (should be mm_active)
-        World active = Bukkit.getWorld("mm_active");
-        if (active == null) {
-            plugin.getLogger().warning("[GameManager] ✗ Active world mm_active is not loaded yet!");
-            return;
-        }
-        
-        // Bind template spawns to mm_active
-        MapDefinition map = bindToActiveWorld(template, active);
+        // View of the template bound to the active world (no copying)
+        MapDefinition map = template.bind(active);
         
         // Reset game state
         plugin.getLogger().info("[GameManager] Clearing queue and resetting game state");
@@ -103,11 +135,12 @@ public final class GameManager implements Listener {
         // Set arena to WAITING state (ready for players)
         arenaManager.setState(ArenaState.WAITING);
         
-        plugin.getLogger().info("[GameManager] ✓ Game prepared with map: " + mapName + " (bound to mm_active) - READY FOR PLAYERS");
+        plugin.getLogger().info("[GameManager] ✓ Game prepared with map: " + mapName + " (bound to " + active.getName() + ") - READY FOR PLAYERS");
+        return true;
     }
 
-    public List<MapDefinition> maps() {
-        return maps;
+    public MapRegistry maps() {
+        return mapRegistry;
     }
 
     public CorpseManager corpses() {
@@ -118,9 +151,22 @@ public final class GameManager implements Listener {
         return arenaManager;
     }
 
+    /**
+     * Login/quit listener that keeps profiles loaded for online players.
+     */
+    public ProfileCache profiles() {
+        return profiles;
+    }
+
+    /**
+     * Live leaderboards; main thread only.
+     */
+    public Leaderboards leaderboards() {
+        return statsStore.leaderboards();
+    }
+
     public void queue(Player player) {
-        PlayerProfile profile = profiles.computeIfAbsent(player.getUniqueId(),
-                id -> new PlayerProfile(id, player.getName()));
+        PlayerProfile profile = profiles.get(player);
         currentGame.addToQueue(player, profile);
     }
 
@@ -141,72 +187,11 @@ public final class GameManager implements Listener {
     public void shutdown() {
         Bukkit.getOnlinePlayers()
                 .forEach(player -> currentGame.removeFromQueue(player.getUniqueId()));
+        statsStore.close(5000L);
     }
 
     // ===== Private Helpers =====
 
-    /**
-     * Bind a template MapDefinition to the active world.
-     * This ensures all spawn locations reference mm_active instead of template worlds.
-     */
-    private MapDefinition bindToActiveWorld(MapDefinition template, World activeWorld) {
-        if (template == null || activeWorld == null) return template;
-
-        Location waiting = template.waitingSpawn();
-        Location waitingBound = waiting == null ? null : new Location(
-                activeWorld,
-                waiting.getX(), waiting.getY(), waiting.getZ(),
-                waiting.getYaw(), waiting.getPitch()
-        );
-
-        List<Location> boundSpawns = new ArrayList<>();
-        for (Location l : template.gameSpawns()) {
-            if (l == null) continue;
-            boundSpawns.add(new Location(
-                    activeWorld,
-                    l.getX(), l.getY(), l.getZ(),
-                    l.getYaw(), l.getPitch()
-            ));
-        }
-
-        // IMPORTANT: worldName should be activeWorld.getName(), NOT template world name
-        return new MapDefinition(
-                template.name(),
-                activeWorld.getName(),
-                waitingBound,
-                boundSpawns,
-                null
-        );
-    }
-
-    private List<MapDefinition> loadMaps(JavaPlugin plugin, MatchPreset defaultPreset) {
-        List<MapDefinition> maps = new ArrayList<>();
-        ConfigurationSection mapsSection = plugin.getConfig().getConfigurationSection("maps");
-
-        if (mapsSection != null) {
-            for (String key : mapsSection.getKeys(false)) {
-                ConfigurationSection section = mapsSection.getConfigurationSection(key);
-                if (section != null) {
-                    maps.add(MapDefinition.fromConfig(key, section));
-                }
-            }
-        }
-
-        // Fallback to default map if no maps configured
-        if (maps.isEmpty()) {
-            Location defaultLoc = new Location(Bukkit.getWorlds().get(0), 0.5, 70, 0.5);
-            maps.add(new MapDefinition(
-                    defaultPreset.mapName(),
-                    defaultPreset.mapName(),
-                    defaultLoc,
-                    List.of(defaultLoc),
-                    null
-            ));
-        }
-
-        return maps;
-    }
-
     // ===== Event Listeners =====
     // REMOVED: onJoin/onQuit auto-queueing - now handled by ArenaJoinListener
     // Players are routed through ArenaService first, which handles joinOpen gating
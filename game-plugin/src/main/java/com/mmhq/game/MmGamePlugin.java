@@ -4,14 +4,26 @@ import com.mmhq.game.admin.MapEditorListener;
 import com.mmhq.game.arena.ArenaJoinListener;
 import com.mmhq.game.arena.ArenaManager;
 import com.mmhq.game.arena.ArenaService;
+import com.mmhq.game.arena.MapRegistry;
 import com.mmhq.game.commands.JoinCommand;
 import com.mmhq.game.commands.KnifeTestCommand;
 import com.mmhq.game.commands.CorpseTestCommand;
 import com.mmhq.game.commands.LeaveCommand;
 import com.mmhq.game.commands.MapCommand;
+import com.mmhq.game.commands.ReloadCommand;
+import com.mmhq.game.commands.ReplayCommand;
 import com.mmhq.game.commands.StartCommand;
+import com.mmhq.game.commands.TopCommand;
+import com.mmhq.game.messaging.BackendAnnouncer;
 import com.mmhq.game.messaging.LobbyMessageListener;
 import com.mmhq.game.messaging.ProxyMapSelectionListener;
+import com.mmhq.game.config.GameConfig;
+import com.mmhq.game.journal.MatchJournal;
+import com.mmhq.game.effects.EffectBatcher;
+import com.mmhq.game.hud.ActionBarCompositor;
+import com.mmhq.game.metrics.GameMetrics;
+import com.mmhq.game.profiler.TickProfiler;
+import com.mmhq.game.replay.ReplayRecorder;
 import com.mmhq.game.utils.VersionCompat;
 import com.mmhq.sharedapi.Constants;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -20,27 +32,56 @@ public final class MmGamePlugin extends JavaPlugin {
     private GameManager gameManager;
     private ArenaManager arenaManager;
     private ArenaService arenaService;
+    private ReplayCommand replayCommand;
 
     @Override
     public void onEnable() {
         // Load and save default configuration
         saveDefaultConfig();
 
+        // Compile config.yml into the typed snapshot hot paths read (/mm reload swaps it)
+        GameConfig.load(this);
+
         // Log version compatibility info
         VersionCompat.logVersionInfo(this);
 
+        // Start the tick profiler before anything registers tasks or listeners
+        TickProfiler.install(this);
+
+        // Prometheus-format metrics endpoint
+        GameMetrics.start(this);
+
+        // Per-tick batched particles, sounds and block cracks
+        EffectBatcher.install(this);
+
+        // Action bar frames (cooldowns, charge, gold), sent only when they change
+        ActionBarCompositor.install(this);
+
+        // UDP announcements so the proxy registers this server (discovery block in config.yml)
+        BackendAnnouncer.install(this);
+
+        // Per-match event journal (plugins/<name>/journal/*.mmj)
+        MatchJournal.install(this);
+
+        // 20 Hz positional replays (plugins/<name>/replays/*.mmr, /mmreplay)
+        ReplayRecorder.install(this);
+
+        // One map registry shared by the arena service and the game manager
+        MapRegistry mapRegistry = new MapRegistry(this);
+
         // Initialize arena service (new hard-reset system)
-        this.arenaService = new ArenaService(this);
+        this.arenaService = new ArenaService(this, mapRegistry);
 
         // Initialize legacy arena manager (for existing game logic)
         this.arenaManager = new ArenaManager(this);
 
         // Initialize game manager (before registering listener!)
-        this.gameManager = new GameManager(this, arenaManager);
+        this.gameManager = new GameManager(this, arenaManager, arenaService, mapRegistry);
 
         // Register plugin messaging channels
         // Create ONE LobbyMessageListener instance
         LobbyMessageListener lobbyListener = new LobbyMessageListener(this, arenaService, gameManager);
+        BackendAnnouncer.onControl(lobbyListener::handleDatagram);
         
         // BungeeCord channel for cross-server communication
         getServer().getMessenger().registerOutgoingPluginChannel(this, "BungeeCord");
@@ -56,20 +97,23 @@ public final class MmGamePlugin extends JavaPlugin {
         // Velocity proxy map selection channel
         getServer().getMessenger().registerIncomingPluginChannel(this, 
                 ProxyMapSelectionListener.CHANNEL, 
-                new ProxyMapSelectionListener(this, gameManager));
+                new ProxyMapSelectionListener(this, gameManager, arenaService));
+        getServer().getMessenger().registerOutgoingPluginChannel(this, ProxyMapSelectionListener.CHANNEL);
 
-        // Initialize corpse manager (after dependencies are loaded)
+        // Initialize packet corpses (after the worlds are loaded)
         gameManager.corpses().init();
+        TickProfiler.registerEvents(this, gameManager.corpses(), "corpses");
 
         // Register arena join listener (handles routing via ArenaService)
-        getServer().getPluginManager().registerEvents(new ArenaJoinListener(arenaService), this);
+        TickProfiler.registerEvents(this, new ArenaJoinListener(arenaService), "join");
 
         // Register commands and event listeners
         registerCommands();
-        getServer().getPluginManager().registerEvents(gameManager, this);
+        TickProfiler.registerEvents(this, gameManager, "manager");
+        TickProfiler.registerEvents(this, gameManager.profiles(), "profiles");
         
         // Register map editor listener for ops/admins in creative mode
-        getServer().getPluginManager().registerEvents(new MapEditorListener(this), this);
+        TickProfiler.registerEvents(this, new MapEditorListener(this), "editor");
 
         getLogger().info("MMHQ Murder Mystery Plugin enabled on " + VersionCompat.getVersion());
         getLogger().info("ArenaService ready - active world: " + arenaService.activeWorldName());
@@ -77,12 +121,23 @@ public final class MmGamePlugin extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        BackendAnnouncer.shutdown();
+        MatchJournal.shutdown();
+        ReplayRecorder.shutdown();
+        if (replayCommand != null) {
+            replayCommand.stopAll();
+        }
         if (gameManager != null) {
             gameManager.shutdown();
         }
         if (arenaManager != null) {
             arenaManager.setState(com.mmhq.game.arena.ArenaState.RESETTING);
         }
+        ActionBarCompositor.shutdown();
+        EffectBatcher.shutdown();
+        GameConfig.shutdown();
+        TickProfiler.shutdown();
+        GameMetrics.stop();
     }
 
     /**
@@ -100,6 +155,7 @@ public final class MmGamePlugin extends JavaPlugin {
         getCommand("mmleave").setExecutor(new LeaveCommand(gameManager));
         getCommand("mmstart").setExecutor(new StartCommand(gameManager));
         getCommand("mmmap").setExecutor(new MapCommand(gameManager, gameManager.maps()));
+        getCommand("mm").setExecutor(new ReloadCommand(this, gameManager.maps()));
 
         // Optional knife test command for development
         if (getCommand("mmknifetest") != null) {
@@ -115,5 +171,17 @@ public final class MmGamePlugin extends JavaPlugin {
         if (getCommand("mmarena") != null) {
             getCommand("mmarena").setExecutor(new com.mmhq.game.commands.ArenaDebugCommand(gameManager));
         }
+
+        // Replay playback
+        if (getCommand("mmreplay") != null) {
+            replayCommand = new ReplayCommand(this);
+            getCommand("mmreplay").setExecutor(replayCommand);
+            TickProfiler.registerEvents(this, replayCommand, "replay");
+        }
+
+        // Leaderboards
+        if (getCommand("mmtop") != null) {
+            getCommand("mmtop").setExecutor(new TopCommand(gameManager.leaderboards()));
+        }
     }
 }
@@ -1,17 +1,23 @@
 package com.mmhq.game.arena;
 
-import com.mmhq.game.arena.features.AncientTombFeature;
-import com.mmhq.game.arena.features.HypixelWorldFeature;
+import com.mmhq.game.arena.features.FeatureBudget;
+import com.mmhq.game.arena.features.FeatureContext;
+import com.mmhq.game.arena.features.FeatureRegistry;
 import com.mmhq.game.arena.features.MapFeature;
-import com.mmhq.game.arena.features.SubwayFeature;
+import com.mmhq.game.arena.features.MapFeatureFactory;
+import com.mmhq.game.arena.trigger.TriggerEngine;
+import com.mmhq.game.profiler.TickProfiler;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.World;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Manages the arena lifecycle and state transitions.
@@ -25,11 +31,21 @@ public final class ArenaManager {
     private ArenaState currentState = ArenaState.IDLE;
     private MapDefinition currentMap;
     private final List<MapFeature> activeFeatures = new ArrayList<>();
+    private final Map<MapFeature, FeatureContext> featureContexts = new IdentityHashMap<>();
+    private final TriggerEngine triggers;
+    private final FeatureRegistry featureRegistry;
+    private final SpawnTables spawnTables;
     private static final boolean DEBUG = true;
     private long stateChangeTime = System.currentTimeMillis();
 
     public ArenaManager(JavaPlugin plugin) {
         this.plugin = plugin;
+        this.triggers = new TriggerEngine(plugin);
+        this.triggers.start();
+        this.featureRegistry = new FeatureRegistry(plugin);
+        this.featureRegistry.discover();
+        this.spawnTables = new SpawnTables(plugin);
+        Bukkit.getScheduler().runTaskTimer(plugin, TickProfiler.wrap("features.budget-clock", this::tickFeatureBudgets), 1L, 1L);
         debugLog("[ArenaManager] Initialized with state: " + currentState);
     }
 
@@ -91,6 +107,8 @@ public final class ArenaManager {
         plugin.getLogger().info("[Arena] World loaded: " + world.getName());
         
         this.currentMap = map;
+        TickProfiler.setArena(map.name());
+        spawnTables.prepare(map, world);
         
         // Clean up old features
         if (!activeFeatures.isEmpty()) {
@@ -112,6 +130,27 @@ public final class ArenaManager {
         return currentState;
     }
 
+    /**
+     * Verified spawn tables, built when maps are prepared.
+     */
+    public SpawnTables spawnTables() {
+        return spawnTables;
+    }
+
+    /**
+     * Get the region trigger engine for this arena.
+     */
+    public TriggerEngine triggers() {
+        return triggers;
+    }
+
+    /**
+     * Get the map feature registry (other plugins may register factories here).
+     */
+    public FeatureRegistry featureRegistry() {
+        return featureRegistry;
+    }
+
     /**
      * Get the current map.
      */
@@ -183,6 +222,7 @@ public final class ArenaManager {
         int started = 0;
         for (MapFeature feature : activeFeatures) {
             try {
+                featureContexts.get(feature).beginRun();
                 feature.start();
                 started++;
                 debugLog("[Arena-IN_PROGRESS] Started feature: " + feature.getName());
@@ -207,6 +247,8 @@ public final class ArenaManager {
             } catch (Throwable t) {
                 plugin.getLogger().severe("[Arena-POST_GAME] Feature " + feature.getName() + " failed to stop: " + t);
                 t.printStackTrace();
+            } finally {
+                featureContexts.get(feature).endRun();
             }
         }
         plugin.getLogger().info("[Arena] GAME ENDED - " + stopped + "/" + activeFeatures.size() + " features stopped");
@@ -216,6 +258,7 @@ public final class ArenaManager {
         debugLog("[Arena-RESET] Transitioning to RESET state - full cleanup");
         stopAndCleanupFeatures();
         currentMap = null;
+        TickProfiler.setArena(null);
         debugLog("[Arena-RESET] Arena reset complete, ready for next game");
         plugin.getLogger().info("[Arena] ARENA RESET - ready for next game");
     }
@@ -233,35 +276,33 @@ public final class ArenaManager {
         
         debugLog("[Arena-INIT] World loaded: " + world.getName() + " (type: " + world.getEnvironment() + ")");
         
-        MapFeature feature = null;
-        
-        switch (map.name()) {
-            case "AncientTomb":
-                feature = new AncientTombFeature(plugin, world);
-                break;
-            case "Subway":
-                feature = new SubwayFeature(plugin, world);
-                break;
-            case "HypixelWorld":
-                feature = new HypixelWorldFeature(plugin, world);
-                break;
-            default:
-                debugLog("[Arena-INIT] No special features defined for map: " + map.name());
-                plugin.getLogger().info("[Arena] No special features for map: " + map.name());
-                return;
+        ConfigurationSection mapConfig = plugin.getConfig().getConfigurationSection("maps." + map.name());
+        List<MapFeatureFactory> factories = featureRegistry.forMap(map.name(), mapConfig);
+        if (factories.isEmpty()) {
+            debugLog("[Arena-INIT] No special features defined for map: " + map.name());
+            plugin.getLogger().info("[Arena] No special features for map: " + map.name());
+            return;
         }
-        
-        if (feature != null) {
+
+        long budgetNanos = plugin.getConfig().getLong("features.tickBudgetMicros", 1000L) * 1000L;
+        for (MapFeatureFactory factory : factories) {
+            FeatureContext context = new FeatureContext(plugin, world, map.name(), mapConfig, triggers,
+                    new FeatureBudget(budgetNanos));
+            MapFeature feature = null;
             try {
+                feature = factory.create(context);
+                context.bind(feature);
                 debugLog("[Arena-INIT] Initializing feature: " + feature.getName());
                 feature.init();
                 activeFeatures.add(feature);
+                featureContexts.put(feature, context);
                 debugLog("[Arena-INIT] Successfully initialized feature: " + feature.getName());
                 plugin.getLogger().info("[Arena] Feature initialized: " + feature.getName());
             } catch (Throwable t) {
-                plugin.getLogger().severe("[Arena] Failed to init feature " + map.name() + ": " + t);
+                context.close();
+                plugin.getLogger().severe("[Arena] Failed to init feature " + factory.id() + " on " + map.name() + ": " + t);
                 t.printStackTrace();
-                debugLog("[Arena-INIT] ERROR initializing " + feature.getName() + ": " + t.getClass().getSimpleName() + " - " + t.getMessage());
+                debugLog("[Arena-INIT] ERROR initializing " + factory.id() + ": " + t.getClass().getSimpleName() + " - " + t.getMessage());
             }
         }
     }
@@ -271,22 +312,68 @@ public final class ArenaManager {
         
         int cleaned = 0;
         for (MapFeature feature : activeFeatures) {
-            try {
-                debugLog("[Arena-CLEANUP] Stopping: " + feature.getName());
-                feature.stop();
-                debugLog("[Arena-CLEANUP] Cleaning: " + feature.getName());
-                feature.cleanup();
-                cleaned++;
-            } catch (Throwable t) {
-                plugin.getLogger().severe("[Arena] Feature " + feature.getName() + " cleanup failed: " + t);
-                t.printStackTrace();
-                debugLog("[Arena-CLEANUP] ERROR cleaning " + feature.getName() + ": " + t.getMessage());
-            }
+            if (shutdownFeature(feature)) cleaned++;
         }
         activeFeatures.clear();
+        featureContexts.clear();
         debugLog("[Arena-CLEANUP] Cleaned up " + cleaned + " features");
     }
 
+    /**
+     * Stop and clean up one feature, then release everything it registered.
+     * @return true if both stop() and cleanup() completed
+     */
+    private boolean shutdownFeature(MapFeature feature) {
+        FeatureContext context = featureContexts.get(feature);
+        try {
+            debugLog("[Arena-CLEANUP] Stopping: " + feature.getName());
+            feature.stop();
+            debugLog("[Arena-CLEANUP] Cleaning: " + feature.getName());
+            feature.cleanup();
+            return true;
+        } catch (Throwable t) {
+            plugin.getLogger().severe("[Arena] Feature " + feature.getName() + " cleanup failed: " + t);
+            t.printStackTrace();
+            debugLog("[Arena-CLEANUP] ERROR cleaning " + feature.getName() + ": " + t.getMessage());
+            return false;
+        } finally {
+            if (context != null) context.close();
+        }
+    }
+
+    // ===== Feature Budgets =====
+
+    /**
+     * Runs once per tick: closes each feature's budget window, logs throttle
+     * changes, runs trigger callbacks deferred from the last tick, and shuts
+     * down features that stayed over budget at max throttle.
+     */
+    private void tickFeatureBudgets() {
+        if (featureContexts.isEmpty()) return;
+        List<MapFeature> disable = null;
+        for (Map.Entry<MapFeature, FeatureContext> e : featureContexts.entrySet()) {
+            FeatureBudget budget = e.getValue().budget();
+            String change = budget.endTick();
+            if (change != null) {
+                plugin.getLogger().warning("[Feature-" + e.getKey().getName() + "] " + change);
+            }
+            if (budget.disableRequested()) {
+                if (disable == null) disable = new ArrayList<>();
+                disable.add(e.getKey());
+            } else {
+                e.getValue().runDeferred();
+            }
+        }
+        if (disable == null) return;
+        for (MapFeature feature : disable) {
+            FeatureBudget budget = featureContexts.get(feature).budget();
+            plugin.getLogger().severe("[Feature-" + feature.getName() + "] Disabled - persistently over tick budget (" + budget.summary() + ")");
+            shutdownFeature(feature);
+            activeFeatures.remove(feature);
+            featureContexts.remove(feature);
+        }
+    }
+
     // ===== Debug Logging =====
     
     private void debugLog(String msg) {
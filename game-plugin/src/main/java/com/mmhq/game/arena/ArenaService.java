@@ -1,6 +1,7 @@
 package com.mmhq.game.arena;
 
 import com.mmhq.game.arena.reset.ResetPipeline;
+import com.mmhq.game.config.GameConfig;
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.World;
@@ -9,6 +10,9 @@ import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -21,8 +25,7 @@ public final class ArenaService {
     private final MapRegistry registry;
     private final ResetPipeline resetPipeline;
 
-    private final String activeWorldName;
-    private final String lobbyServerName;
+    private final String activeWorldName;   // fixed for the process: the loaded world keeps this name
 
     private volatile ArenaState state = ArenaState.IDLE;
     private volatile String currentMapId = null;
@@ -33,16 +36,18 @@ public final class ArenaService {
     private volatile String lastError = null;
 
     private final AtomicBoolean busy = new AtomicBoolean(false);
+    private final List<ResetPipeline.ProgressListener> progressListeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
 
-    public ArenaService(JavaPlugin plugin) {
+    public ArenaService(JavaPlugin plugin, MapRegistry registry) {
         this.plugin = plugin;
-        this.registry = new MapRegistry(plugin);
+        this.registry = registry;
         this.resetPipeline = new ResetPipeline(plugin);
 
-        this.activeWorldName = plugin.getConfig().getString("arena.activeWorld", "mm_active");
-        this.lobbyServerName = plugin.getConfig().getString("arena.lobbyServerName", "lobby");
-        
-        plugin.getLogger().info("[ArenaService] Initialized - activeWorld=" + activeWorldName + " lobbyServer=" + lobbyServerName);
+        this.activeWorldName = GameConfig.current().arena().activeWorld();
+
+        plugin.getLogger().info("[ArenaService] Initialized - activeWorld=" + activeWorldName
+                + " lobbyServer=" + GameConfig.current().arena().lobbyServerName());
     }
 
     // --- Getters ---
@@ -72,48 +77,75 @@ public final class ArenaService {
     public void setJoinOpen(boolean open) {
         this.joinOpen = open;
         plugin.getLogger().info("[ArenaService] joinOpen set to " + open);
+        changed();
     }
 
     public void setState(ArenaState newState) {
         this.state = newState;
         plugin.getLogger().info("[ArenaService] State changed to " + newState);
+        changed();
+    }
+
+    /**
+     * Be told whenever the state or joinOpen changes. Called on the main thread.
+     */
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Be told about each PREPARE step as it happens. Called on the main thread.
+     */
+    public void addProgressListener(ResetPipeline.ProgressListener listener) {
+        progressListeners.add(listener);
     }
 
     /**
      * Prepare the arena with a specific map.
      * This triggers a hard reset: unload active world, copy template, reload.
+     *
+     * @return completes on the main thread with the loaded active world once
+     *         the arena is WAITING, or exceptionally if the map is unknown,
+     *         a PREPARE is already running, or the reset failed
      */
-    public void prepare(String mapId) {
+    public CompletableFuture<World> prepare(String mapId) {
         MapDefinition map = registry.get(mapId);
         if (map == null) {
             fail("Unknown map: " + mapId);
-            return;
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unknown map: " + mapId));
         }
         
         if (!busy.compareAndSet(false, true)) {
             plugin.getLogger().warning("[ArenaService] Prepare ignored; already busy.");
-            return;
+            return CompletableFuture.failedFuture(new IllegalStateException("Already preparing " + currentMapId));
         }
 
         joinOpen = false;
         state = ArenaState.PREPARING;
         currentMapId = map.id();
         lastError = null;
+        lastProgressStep = "NONE";
+        lastProgressPct = 0;
+        changed();
 
         plugin.getLogger().info("[ArenaService] ===== PREPARING MAP: " + map.id() + " (template: " + map.templateWorld() + ") =====");
 
         // Kick everyone to lobby first (safe even if nobody online)
         kickAllToLobby();
 
+        CompletableFuture<World> ready = new CompletableFuture<>();
         resetPipeline.hardResetToTemplate(map.templateWorld(), activeWorldName, (step, pct) -> {
             lastProgressStep = step;
             lastProgressPct = pct;
             plugin.getLogger().info("[ArenaService] PREPARE " + map.id() + " progress: " + step + " (" + pct + "%)");
-            // TODO: Could send PREPARE_PROGRESS to lobby here
+            onMainThread(() -> {
+                for (ResetPipeline.ProgressListener l : progressListeners) l.onProgress(step, pct);
+            });
         }).whenComplete((world, err) -> {
             if (err != null) {
                 fail("Prepare failed: " + err.getMessage());
                 busy.set(false);
+                ready.completeExceptionally(err);
                 return;
             }
 
@@ -126,15 +158,19 @@ public final class ArenaService {
 
                     state = ArenaState.WAITING;
                     busy.set(false);
+                    changed();
 
                     plugin.getLogger().info("[ArenaService] ✓ Prepared map " + map.id() + " into " + activeWorldName + " - now in WAITING state");
+                    ready.complete(world);
 
                 } catch (Exception e) {
                     fail("Post-prepare failed: " + e.getMessage());
                     busy.set(false);
+                    ready.completeExceptionally(e);
                 }
             });
         });
+        return ready;
     }
 
     /**
@@ -206,6 +242,7 @@ public final class ArenaService {
      * Send a player to the lobby server via BungeeCord/Velocity.
      */
     private void sendToLobby(Player p) {
+        String lobbyServerName = GameConfig.current().arena().lobbyServerName();
         try {
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
             DataOutputStream out = new DataOutputStream(baos);
@@ -220,6 +257,29 @@ public final class ArenaService {
         }
     }
 
+    private void changed() {
+        onMainThread(() -> {
+            for (Runnable l : changeListeners) l.run();
+        });
+    }
+
+    private void onMainThread(Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+
+    /**
+     * Put the arena in ERROR with {@code msg} (reported in heartbeats and
+     * STATUS_RESPONSE), e.g. when the game couldn't take the prepared world.
+     */
+    public void markFailed(String msg) {
+        joinOpen = false;
+        fail(msg);
+    }
+
     /**
      * Set error state with a message.
      */
@@ -227,5 +287,6 @@ public final class ArenaService {
         lastError = msg;
         state = ArenaState.ERROR;
         plugin.getLogger().severe("[ArenaService] " + msg);
+        changed();
     }
 }
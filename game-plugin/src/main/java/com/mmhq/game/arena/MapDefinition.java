@@ -1,5 +1,6 @@
 package com.mmhq.game.arena;
 
+import com.mmhq.sharedapi.mappack.MapPack;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -15,6 +16,10 @@ import java.util.*;
  * Supports two modes:
  * 1. Legacy mode: world() returns Bukkit.getWorld(templateWorld) 
  * 2. New mode: waitingSpawn(activeWorld) returns spawn with world set to activeWorld
+ *
+ * Immutable. {@link #bind(World)} returns a view of the same definition
+ * tied to the active world (shares the spawn list, copies nothing), which
+ * the legacy accessors then resolve against.
  */
 public final class MapDefinition {
     private final String id;
@@ -22,14 +27,36 @@ public final class MapDefinition {
     private final Location waitingSpawn;      // world assigned at runtime to active world
     private final List<Location> gameSpawns;  // world assigned at runtime to active world
     private final Location spectatorSpawn;    // world assigned at runtime to active world
+    private final MapPack pack;               // compiled geometry, null if the map has no pack
+    private final String boundWorld;          // active world for the legacy accessors, null if unbound
 
     public MapDefinition(String id, String templateWorld, Location waitingSpawn,
                          List<Location> gameSpawns, Location spectatorSpawn) {
-        this.id = Objects.requireNonNull(id, "id");
-        this.templateWorld = Objects.requireNonNull(templateWorld, "templateWorld");
-        this.waitingSpawn = Objects.requireNonNull(waitingSpawn, "waitingSpawn");
-        this.gameSpawns = new ArrayList<>(Objects.requireNonNull(gameSpawns, "gameSpawns"));
-        this.spectatorSpawn = Objects.requireNonNull(spectatorSpawn, "spectatorSpawn");
+        this(id, templateWorld, waitingSpawn, gameSpawns, spectatorSpawn, null);
+    }
+
+    /**
+     * @param spectatorSpawn null defaults to 20 blocks above the waiting spawn
+     */
+    public MapDefinition(String id, String templateWorld, Location waitingSpawn,
+                         List<Location> gameSpawns, Location spectatorSpawn, MapPack pack) {
+        this(Objects.requireNonNull(id, "id"),
+                Objects.requireNonNull(templateWorld, "templateWorld"),
+                Objects.requireNonNull(waitingSpawn, "waitingSpawn").clone(),
+                Collections.unmodifiableList(copy(Objects.requireNonNull(gameSpawns, "gameSpawns"))),
+                spectatorSpawn != null ? spectatorSpawn.clone() : defaultSpectator(waitingSpawn),
+                pack, null);
+    }
+
+    private MapDefinition(String id, String templateWorld, Location waitingSpawn, List<Location> gameSpawns,
+                          Location spectatorSpawn, MapPack pack, String boundWorld) {
+        this.id = id;
+        this.templateWorld = templateWorld;
+        this.waitingSpawn = waitingSpawn;
+        this.gameSpawns = gameSpawns;
+        this.spectatorSpawn = spectatorSpawn;
+        this.pack = pack;
+        this.boundWorld = boundWorld;
     }
 
     // ===== NEW API =====
@@ -38,6 +65,42 @@ public final class MapDefinition {
     
     public String templateWorld() { return templateWorld; }
 
+    /**
+     * Precomputed geometry from the map compiler, or null if no pack was found.
+     */
+    public MapPack pack() { return pack; }
+
+    /**
+     * Same map with a compiled pack attached.
+     */
+    public MapDefinition withPack(MapPack pack) {
+        return new MapDefinition(id, templateWorld, waitingSpawn, gameSpawns, spectatorSpawn, pack, boundWorld);
+    }
+
+    /**
+     * This map played in {@code active}: {@link #world()}, {@link #worldName()} and the
+     * no-argument spawn accessors resolve against it. O(1), shares all state.
+     */
+    public MapDefinition bind(World active) {
+        if (active == null || active.getName().equals(boundWorld)) return this;
+        return new MapDefinition(id, templateWorld, waitingSpawn, gameSpawns, spectatorSpawn, pack, active.getName());
+    }
+
+    /**
+     * Number of configured game spawns.
+     */
+    public int spawnCount() { return gameSpawns.size(); }
+
+    /**
+     * {@link MapPack#sourceHash} of the configured points; a pack compiled
+     * from different points is stale.
+     */
+    public long sourceHash() {
+        List<MapPack.Point> spawns = new ArrayList<>(gameSpawns.size());
+        for (Location l : gameSpawns) spawns.add(point(l));
+        return MapPack.sourceHash(point(waitingSpawn), point(spectatorSpawn), spawns);
+    }
+
     /**
      * Get the waiting spawn location for the given active world.
      */
@@ -71,16 +134,16 @@ public final class MapDefinition {
     public String name() { return id; }
     
     /**
-     * Legacy: Get the world name (same as templateWorld).
+     * Legacy: Get the world name (the bound active world, else templateWorld).
      */
-    public String worldName() { return templateWorld; }
+    public String worldName() { return boundWorld != null ? boundWorld : templateWorld; }
     
     /**
-     * Legacy: Get the Bukkit world for this map's template.
+     * Legacy: Get the Bukkit world for this map (bound active world, else template).
      * Returns the world by name from Bukkit, or null if not loaded.
      */
     public World world() { 
-        return Bukkit.getWorld(templateWorld); 
+        return Bukkit.getWorld(worldName()); 
     }
     
     /**
@@ -127,12 +190,9 @@ public final class MapDefinition {
         }
 
         Location waiting = readLoc(sec.getConfigurationSection("waiting"));
-        Location spectator = readLoc(sec.getConfigurationSection("spectator"));
-        if (spectator == null) {
-            // Default spectator to waiting spawn but higher Y
-            spectator = new Location(null, waiting.getX(), waiting.getY() + 20, waiting.getZ(), 
-                    waiting.getYaw(), waiting.getPitch());
-        }
+        // Missing spectator defaults to the waiting spawn but higher Y
+        ConfigurationSection spectatorSec = sec.getConfigurationSection("spectator");
+        Location spectator = spectatorSec == null ? null : readLoc(spectatorSec);
 
         List<Location> spawns = new ArrayList<>();
         ConfigurationSection spawnsSec = sec.getConfigurationSection("spawns");
@@ -168,6 +228,22 @@ public final class MapDefinition {
         return new Location(null, x, y, z, yaw, pitch);
     }
 
+    private static List<Location> copy(List<Location> in) {
+        List<Location> out = new ArrayList<>(in.size());
+        for (Location l : in) {
+            if (l != null) out.add(l.clone());
+        }
+        return out;
+    }
+
+    private static MapPack.Point point(Location l) {
+        return new MapPack.Point(l.getX(), l.getY(), l.getZ(), l.getYaw(), l.getPitch());
+    }
+
+    private static Location defaultSpectator(Location waiting) {
+        return new Location(null, waiting.getX(), waiting.getY() + 20, waiting.getZ(), waiting.getYaw(), waiting.getPitch());
+    }
+
     private static Location withWorld(Location base, World w) {
         return new Location(w, base.getX(), base.getY(), base.getZ(), base.getYaw(), base.getPitch());
     }
@@ -1,73 +1,243 @@
 package com.mmhq.game.arena;
 
+import com.mmhq.sharedapi.mappack.MapPack;
+import com.mmhq.sharedapi.mappack.MapPackFormat;
+import org.bukkit.Bukkit;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
- * Registry for all available maps.
- * Loads map definitions from config on init; provides lookup by name.
+ * Registry for all available maps - one instance per plugin, shared by
+ * {@link ArenaService} and the game manager.
+ *
+ * Maps live in an immutable {@link Snapshot} published through an atomic
+ * reference, so lookups are lock-free from any thread and never see a
+ * half-loaded registry. {@link #reload} parses config.yml and the map packs
+ * off the main thread, validates the result and only then swaps it in; a
+ * reload with any broken map is rejected and the previous snapshot stays
+ * live. A running match holds its own (immutable) {@link MapDefinition}, so
+ * a reload never changes the map under it.
+ *
+ * A compiled pack in {@code <dataFolder>/maps/<id>.mmpack} (see the
+ * map-compiler module) is attached to its map when present.
  */
 public final class MapRegistry {
-    private final Map<String, MapDefinition> maps = new HashMap<>();
     private final JavaPlugin plugin;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicBoolean reloading = new AtomicBoolean(false);
 
     public MapRegistry(JavaPlugin plugin) {
         this.plugin = plugin;
-        loadMaps();
+        // Boot: skip broken maps rather than refusing to start
+        Snapshot first = build(plugin.getConfig(), 1, new ArrayList<>(), true);
+        current.set(first);
+        plugin.getLogger().info("[MapRegistry] " + first.size() + " map(s) loaded");
     }
 
-    private void loadMaps() {
-        ConfigurationSection sec = plugin.getConfig().getConfigurationSection("maps");
-        if (sec == null) {
-            plugin.getLogger().warning("[MapRegistry] No 'maps' section in config");
-            return;
+    /**
+     * Immutable set of maps, keyed by lowercase id.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final long loadedAt;
+        private final Map<String, MapDefinition> maps;
+
+        private Snapshot(long version, Map<String, MapDefinition> maps) {
+            this.version = version;
+            this.loadedAt = System.currentTimeMillis();
+            this.maps = Collections.unmodifiableMap(maps);
         }
 
-        for (String key : sec.getKeys(false)) {
-            ConfigurationSection mapSec = sec.getConfigurationSection(key);
-            if (mapSec != null) {
-                try {
-                    MapDefinition def = MapDefinition.fromConfig(key, mapSec);
-                    maps.put(key.toLowerCase(Locale.ROOT), def);
-                    plugin.getLogger().info("[MapRegistry] Loaded map: " + key + " (template: " + def.templateWorld() + ")");
-                } catch (Exception e) {
-                    plugin.getLogger().warning("[MapRegistry] Failed to load map " + key + ": " + e.getMessage());
-                }
-            }
+        public long version() { return version; }
+
+        public long loadedAt() { return loadedAt; }
+
+        public int size() { return maps.size(); }
+
+        public MapDefinition get(String name) {
+            return name == null ? null : maps.get(name.toLowerCase(Locale.ROOT));
         }
+
+        public Collection<MapDefinition> all() { return maps.values(); }
+
+        public Set<String> ids() { return maps.keySet(); }
+    }
+
+    /**
+     * The live snapshot. Hold on to it to do several lookups against one consistent version.
+     */
+    public Snapshot snapshot() {
+        return current.get();
     }
 
     /**
      * Get a map by name (case-insensitive).
      */
     public MapDefinition get(String name) {
-        if (name == null) return null;
-        return maps.get(name.toLowerCase(Locale.ROOT));
+        return current.get().get(name);
     }
 
     /**
-     * Get all map IDs.
+     * Get all map IDs (lowercase, unmodifiable).
      */
     public Set<String> ids() {
-        return new HashSet<>(maps.keySet());
+        return current.get().ids();
     }
 
     /**
-     * Get all registered maps.
+     * Get all registered maps (unmodifiable).
      */
     public Collection<MapDefinition> all() {
-        return maps.values();
+        return current.get().all();
     }
 
     /**
-     * Reload maps from config.
+     * Result of a {@link #reload}.
      */
-    public void reload() {
-        maps.clear();
-        plugin.reloadConfig();
-        loadMaps();
-        plugin.getLogger().info("[MapRegistry] Maps reloaded");
+    public static final class ReloadResult {
+        private final boolean applied;
+        private final long version;
+        private final int maps;
+        private final List<String> errors;
+
+        ReloadResult(boolean applied, long version, int maps, List<String> errors) {
+            this.applied = applied;
+            this.version = version;
+            this.maps = maps;
+            this.errors = Collections.unmodifiableList(errors);
+        }
+
+        public boolean applied() { return applied; }
+
+        /** Live snapshot version after the reload (unchanged if rejected). */
+        public long version() { return version; }
+
+        public int maps() { return maps; }
+
+        public List<String> errors() { return errors; }
+    }
+
+    /**
+     * Reload maps from config.yml and the map packs on disk. Parsing and pack
+     * IO run async; {@code done} is called on the main thread. Does not touch
+     * the plugin's own {@code getConfig()}.
+     */
+    public void reload(Consumer<ReloadResult> done) {
+        if (!reloading.compareAndSet(false, true)) {
+            done.accept(new ReloadResult(false, current.get().version(), current.get().size(),
+                    List.of("a reload is already running")));
+            return;
+        }
+        File configFile = new File(plugin.getDataFolder(), "config.yml");
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            ReloadResult result;
+            try {
+                Snapshot old = current.get();
+                List<String> errors = new ArrayList<>();
+                YamlConfiguration config = new YamlConfiguration();
+                try {
+                    config.load(configFile);
+                } catch (Exception e) {
+                    errors.add("config.yml: " + e.getMessage());
+                }
+                Snapshot next = errors.isEmpty() ? build(config, old.version() + 1, errors, false) : null;
+                if (next != null && next.size() == 0) errors.add("no maps defined");
+                if (errors.isEmpty() && current.compareAndSet(old, next)) {
+                    result = new ReloadResult(true, next.version(), next.size(), errors);
+                } else {
+                    if (errors.isEmpty()) errors.add("registry changed during reload");
+                    Snapshot live = current.get();
+                    result = new ReloadResult(false, live.version(), live.size(), errors);
+                }
+            } catch (Throwable t) {
+                Snapshot live = current.get();
+                result = new ReloadResult(false, live.version(), live.size(), List.of(String.valueOf(t)));
+            } finally {
+                reloading.set(false);
+            }
+            ReloadResult r = result;
+            if (r.applied()) {
+                plugin.getLogger().info("[MapRegistry] Maps reloaded: " + r.maps() + " map(s), version " + r.version());
+            } else {
+                plugin.getLogger().warning("[MapRegistry] Reload rejected, keeping version " + r.version() + ": " + r.errors());
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> done.accept(r));
+        });
+    }
+
+    // ===== Loading (any thread) =====
+
+    /**
+     * Parse and validate every map. With {@code lenient} a broken map is
+     * logged and skipped; otherwise it is reported in {@code errors}.
+     */
+    private Snapshot build(ConfigurationSection root, long version, List<String> errors, boolean lenient) {
+        Map<String, MapDefinition> maps = new LinkedHashMap<>();
+        ConfigurationSection sec = root.getConfigurationSection("maps");
+        if (sec == null) {
+            plugin.getLogger().warning("[MapRegistry] No 'maps' section in config");
+            return new Snapshot(version, maps);
+        }
+
+        Path container = Bukkit.getWorldContainer().toPath();
+        for (String key : sec.getKeys(false)) {
+            ConfigurationSection mapSec = sec.getConfigurationSection(key);
+            if (mapSec == null) continue;
+            try {
+                MapDefinition def = MapDefinition.fromConfig(key, mapSec);
+                if (!Files.isDirectory(container.resolve(def.templateWorld()))) {
+                    String msg = key + ": template world folder '" + def.templateWorld() + "' not found";
+                    if (!lenient) {
+                        errors.add(msg);
+                        continue;
+                    }
+                    plugin.getLogger().warning("[MapRegistry] " + msg);
+                }
+                MapPack pack = loadPack(def);
+                if (pack != null) def = def.withPack(pack);
+                if (maps.putIfAbsent(key.toLowerCase(Locale.ROOT), def) != null) {
+                    errors.add(key + ": duplicate map id");
+                    continue;
+                }
+                plugin.getLogger().info("[MapRegistry] Loaded map: " + key + " (template: " + def.templateWorld() + ")");
+            } catch (Exception e) {
+                if (!lenient) errors.add(key + ": " + e.getMessage());
+                plugin.getLogger().warning("[MapRegistry] Failed to load map " + key + ": " + e.getMessage());
+            }
+        }
+        return new Snapshot(version, maps);
+    }
+
+    private MapPack loadPack(MapDefinition def) {
+        Path file = plugin.getDataFolder().toPath().resolve("maps").resolve(MapPackFormat.fileName(def.id()));
+        if (!Files.isRegularFile(file)) return null;
+        try {
+            MapPack pack = MapPack.read(file);
+            if (!pack.id().equalsIgnoreCase(def.id()) || !pack.templateWorld().equals(def.templateWorld())) {
+                plugin.getLogger().warning("[MapRegistry] Ignoring " + file.getFileName() + ": compiled for "
+                        + pack.id() + "/" + pack.templateWorld() + " - recompile the map");
+                return null;
+            }
+            if (pack.sourceHash() != def.sourceHash()) {
+                plugin.getLogger().warning("[MapRegistry] Ignoring " + file.getFileName() + ": spawns changed since it was compiled - recompile the map");
+                return null;
+            }
+            plugin.getLogger().info("[MapRegistry] Loaded pack for " + def.id() + " (" + pack.spawns().size() + " spawns, "
+                    + pack.goldCount() + " gold points, " + pack.chunkCount() + " chunks)");
+            return pack;
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().warning("[MapRegistry] Failed to read " + file.getFileName() + ": " + e.getMessage());
+            return null;
+        }
     }
 }
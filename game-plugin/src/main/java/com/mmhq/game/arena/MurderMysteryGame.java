@@ -6,6 +6,7 @@ import com.mmhq.sharedapi.game.GameState;
 import com.mmhq.sharedapi.game.MatchPreset;
 import com.mmhq.sharedapi.game.MurderRole;
 import com.mmhq.sharedapi.game.ServerStatus;
+import com.mmhq.sharedapi.journal.JournalFormat;
 import com.mmhq.sharedapi.player.PlayerProfile;
 
 // Local arena imports
@@ -15,6 +16,18 @@ import com.mmhq.game.arena.managers.GameScoreboardManager;
 import com.mmhq.game.arena.managers.GoldCollectionManager;
 import com.mmhq.game.arena.managers.GoldSpawnManager;
 import com.mmhq.game.arena.managers.HeartbeatPublisher;
+import com.mmhq.game.arena.managers.LoadoutManager;
+import com.mmhq.game.arena.trigger.TriggerEngine;
+import com.mmhq.game.combat.PositionHistory;
+import com.mmhq.game.config.GameConfig;
+import com.mmhq.game.effects.EffectBatcher;
+import com.mmhq.game.hud.ActionBarCompositor;
+import com.mmhq.game.journal.MatchJournal;
+import com.mmhq.game.metrics.GameMetrics;
+import com.mmhq.game.profiler.ProfiledRunnable;
+import com.mmhq.game.profiler.TickProfiler;
+import com.mmhq.game.replay.ReplayRecorder;
+import com.mmhq.game.stats.MatchResult;
 
 // Bukkit API imports - core
 import org.bukkit.Bukkit;
@@ -56,7 +69,6 @@ import org.bukkit.event.inventory.PrepareItemCraftEvent;
 import org.bukkit.event.player.PlayerArmorStandManipulateEvent;
 import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
-import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
 // BungeeCord chat imports
@@ -75,8 +87,9 @@ import java.util.UUID;
 public final class MurderMysteryGame implements Listener {
     // ===== Core Plugin References =====
     private final JavaPlugin plugin;
-    private final MatchPreset preset;
-    private final List<MapDefinition> maps;
+    private MatchPreset preset;
+    private GameConfig.Preset pendingPreset;  // from a config reload during a round; applied back in the lobby
+    private final MapRegistry maps;
 
     // ===== Game State =====
     private GameState state = GameState.LOBBY;
@@ -85,16 +98,16 @@ public final class MurderMysteryGame implements Listener {
 
     // ===== Player Lists & Queues =====
     private final Map<UUID, PlayerProfile> queue = new HashMap<>();
-    private final List<UUID> alive = new ArrayList<>();
+    private final PlayerTable players = new PlayerTable();
     private UUID murdererId;
     private UUID detectiveId;
 
     // ===== Map & Spawn Management =====
     private MapDefinition currentMap;
     private MapDefinition nextMap;
-    private final Location lobbySpawn;
-    private final double lobbySpawnOffsetY;
-    private final Location preGameLobbySpawn;
+    private Location lobbySpawn;
+    private double lobbySpawnOffsetY;
+    private Location preGameLobbySpawn;
 
     // ===== Manager Dependencies =====
     private final GoldCollectionManager goldManager;
@@ -103,59 +116,114 @@ public final class MurderMysteryGame implements Listener {
     private GoldSpawnManager goldSpawnManager;
     private DetectiveBowDropManager bowDropManager;
     private CorpseManager corpseManager;
+    private final LoadoutManager loadouts;
+    private final SpawnTables spawnTables;
     
     // ===== Sword Throwing =====
     private com.mmhq.game.arena.special.SwordThrowHandler swordThrowHandler;
 
+    // ===== Lag Compensation =====
+    private final PositionHistory positions;
+
     // ===== Scheduled Tasks =====
     private BukkitTask countdownTask;
     private BukkitTask roundEndTask;
     private BukkitTask timeUpdateTask;
+    private java.util.function.Consumer<GameState> phaseListener;
+    private java.util.function.Consumer<MatchResult> resultListener;
+    private ArenaService arena;
+    private long mapVersion;        // newest SET_MAP version applied since startup, reported in heartbeats
+    private long matchStartedAt;
+
+    // Per-match metric baselines
+    private long matchStartNanos;
+    private int matchKills;
+    private long matchThrowsAtStart;
+    private long matchGoldAtStart;
+    // Set by killInstant (thrown sword hits) while the forced damage, and so onDeath, runs
+    private byte pendingKillWeapon = JournalFormat.WEAPON_UNKNOWN;
 
     // ===== Knife Mechanics =====
-    private final Map<UUID, Long> knifeCooldowns = new HashMap<>();
     private final Set<UUID> knifeTesters = new HashSet<>();
-    private final Set<UUID> knifeCharging = new HashSet<>();
-    private double knifeMaxRange;
-    private double knifeStep;
-    private int knifeCooldownMs;
-
-    // ===== Constants =====
-    private static final int VERIFY_LOADOUT_DELAY_TICKS = 5;
 
-    public MurderMysteryGame(JavaPlugin plugin, MatchPreset preset, List<MapDefinition> maps, CorpseManager corpseManager) {
+    public MurderMysteryGame(JavaPlugin plugin, GameConfig.Preset preset, MapRegistry maps, CorpseManager corpseManager,
+                             TriggerEngine triggers, SpawnTables spawnTables) {
         this.plugin = plugin;
-        this.preset = preset;
+        this.spawnTables = spawnTables;
         this.maps = maps;
         this.corpseManager = corpseManager;
-        this.lobbySpawnOffsetY = plugin.getConfig().getDouble("preset.default.lobbySpawnOffsetY", 0.0);
-        this.lobbySpawn = resolveLobbySpawn();
-        this.preGameLobbySpawn = resolvePreGameLobbySpawn();
-        this.goldManager = new GoldCollectionManager(plugin);
-        this.scoreboardManager = new GameScoreboardManager(plugin, goldManager, "MM1");
+        applyPreset(preset);
+        this.goldManager = new GoldCollectionManager(plugin, players);
+        this.scoreboardManager = new GameScoreboardManager(plugin, goldManager, players, "MM1");
         this.heartbeatPublisher = new HeartbeatPublisher(plugin, this::buildStatus);
+        this.positions = new PositionHistory(plugin);
         this.roundSecondsLeft = 0;
         this.loadoutsGiven = false;
-        plugin.getServer().getPluginManager().registerEvents(this, plugin);
-        plugin.getServer().getPluginManager().registerEvents(goldManager, plugin);
+        TickProfiler.registerEvents(plugin, this, "game");
+        TickProfiler.registerEvents(plugin, goldManager, "gold");
+        this.loadouts = new LoadoutManager(plugin);
+        TickProfiler.registerEvents(plugin, loadouts, "loadout");
         scoreboardManager.startUpdating();
         // Managers for bow drop
-        this.bowDropManager = new DetectiveBowDropManager(plugin);
+        this.bowDropManager = new DetectiveBowDropManager(plugin, triggers);
+        this.bowDropManager.setPickupHandler(this::onBowPickupRange);
         this.goldManager.setBowDropManager(bowDropManager);
         this.heartbeatPublisher.start();
-        // Load knife settings from config with safe defaults
-        this.knifeMaxRange = plugin.getConfig().getDouble("knife.maxRange", 25.0);
-        this.knifeStep = plugin.getConfig().getDouble("knife.step", 0.2);
-        this.knifeCooldownMs = plugin.getConfig().getInt("knife.cooldownMs", 1100);
         // Register sword throwing handler
-        this.swordThrowHandler = new com.mmhq.game.arena.special.SwordThrowHandler(plugin, new com.mmhq.game.arena.special.SwordSkinManager());
-        plugin.getServer().getPluginManager().registerEvents(swordThrowHandler, plugin);
+        this.swordThrowHandler = new com.mmhq.game.arena.special.SwordThrowHandler(plugin, new com.mmhq.game.arena.special.SwordSkinManager(), positions, players, this::killInstant);
+        TickProfiler.registerEvents(plugin, swordThrowHandler, "sword");
     }
 
     public GameState state() {
         return state;
     }
 
+    /**
+     * Newest map assignment version applied from the proxy (0 until one is).
+     */
+    public long mapVersion() {
+        return mapVersion;
+    }
+
+    /**
+     * Record an applied map assignment; heartbeats report it so the proxy can
+     * tell when this server (e.g. after a restart) has fallen behind.
+     */
+    public void setMapVersion(long version) {
+        this.mapVersion = version;
+        heartbeatPublisher.sendHeartbeat();
+    }
+
+    /**
+     * This server's status as the next heartbeat would report it.
+     */
+    public ServerStatus status() {
+        return buildStatus();
+    }
+
+    /**
+     * Take a reloaded config. Preset and lobby spawns change right away in the
+     * lobby; during a countdown or round they wait until the game is back in the lobby.
+     */
+    public void applyConfig(GameConfig config) {
+        if (state == GameState.LOBBY) {
+            applyPreset(config.preset());
+            scoreboardManager.setPlayerCounts(queue.size(), preset.maxPlayers(), preset.minPlayers());
+            heartbeatPublisher.sendHeartbeat();
+        } else {
+            pendingPreset = config.preset();
+            plugin.getLogger().info("[MM] Config version " + config.version() + " will apply after this round");
+        }
+    }
+
+    private void applyPreset(GameConfig.Preset p) {
+        this.preset = p.match();
+        this.lobbySpawnOffsetY = p.lobbySpawnOffsetY();
+        this.lobbySpawn = resolveLobbySpawn(p.lobbySpawn());
+        this.preGameLobbySpawn = resolvePreGameLobbySpawn(p.preGameLobbySpawn());
+        this.pendingPreset = null;
+    }
+
     public void setNextMap(MapDefinition map) {
         this.nextMap = map;
         heartbeatPublisher.sendHeartbeat();
@@ -200,6 +268,8 @@ public final class MurderMysteryGame implements Listener {
             return;
         }
         queue.put(player.getUniqueId(), profile);
+        players.join(player.getUniqueId());
+        GameMetrics.PLAYERS_QUEUED.set(queue.size());
         
         // Determine spawn location: use selected map's waiting spawn if available
         Location spawnLoc = getWaitingSpawn();
@@ -233,7 +303,17 @@ public final class MurderMysteryGame implements Listener {
         String playerName = p != null ? p.getName() : playerId.toString();
         plugin.getLogger().info("[MM-QUEUE] Player leaving: " + playerName + " | Queue size before: " + queue.size());
         queue.remove(playerId);
+        // Leaving mid-match counts as elimination, as a quit does (not while shutting down)
+        boolean eliminated = state == GameState.IN_GAME && plugin.isEnabled() && players.eliminate(playerId);
+        players.leave(playerId);
+        GameMetrics.PLAYERS_QUEUED.set(queue.size());
         scoreboardManager.setPlayerCounts(queue.size(), preset.maxPlayers(), preset.minPlayers());
+        if (eliminated) {
+            if (p != null) MatchJournal.quit(p);
+            broadcastToQueue(playerName + " left the game.");
+            updateInnocentsCount();
+            checkWinConditions();
+        }
         heartbeatPublisher.sendHeartbeat();
         plugin.getLogger().info("[MM-QUEUE] Queue size after: " + queue.size());
     }
@@ -280,7 +360,7 @@ public final class MurderMysteryGame implements Listener {
         final int[] seconds = { 60 }; // 60 seconds
         scoreboardManager.setCountdownSeconds(seconds[0]);
         scoreboardManager.setPlayerCounts(queue.size(), preset.maxPlayers(), preset.minPlayers());
-        countdownTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+        countdownTask = Bukkit.getScheduler().runTaskTimer(plugin, TickProfiler.wrap("game.countdown", () -> {
             if (seconds[0] <= 0) {
                 plugin.getLogger().info("[MM-COUNTDOWN] ===== COUNTDOWN COMPLETE - STARTING GAME =====");
                 countdownTask.cancel();
@@ -294,7 +374,7 @@ public final class MurderMysteryGame implements Listener {
             }
             scoreboardManager.setCountdownSeconds(seconds[0]); // Update scoreboard
             seconds[0]--;
-        }, 0L, 20L); // Every second (20 ticks)
+        }), 0L, 20L); // Every second (20 ticks)
     }
 
     private void startGame() {
@@ -310,10 +390,21 @@ public final class MurderMysteryGame implements Listener {
         currentMap = pickMap();
         MapDefinition map = currentMap;
         loadoutsGiven = false;
+        loadouts.reset();
         plugin.getLogger().info("[MM-START] Selected map: " + map.name() + " (world: " + map.world() + ")");
+        players.beginMatch();
         assignRoles();
-        alive.clear();
-        alive.addAll(queue.keySet());
+        GameMetrics.MATCHES_STARTED.inc();
+        GameMetrics.PLAYERS_ALIVE.set(players.aliveCount());
+        matchStartNanos = System.nanoTime();
+        matchStartedAt = System.currentTimeMillis();
+        matchKills = 0;
+        matchThrowsAtStart = GameMetrics.KNIFE_THROWS.get();
+        matchGoldAtStart = GameMetrics.GOLD_COLLECTED.get();
+        Map<UUID, MurderRole> roles = new HashMap<>();
+        for (PlayerProfile p : queue.values()) roles.put(p.uniqueId(), p.lastRole());
+        MatchJournal.begin(map.name(), roles);
+        ReplayRecorder.begin(map.name(), map.worldName(), roles);
         plugin.getLogger().info("[MM-START] Assigned roles - Murderer: " + (murdererId != null ? Bukkit.getPlayer(murdererId).getName() : "NONE") + " | Detective: " + (detectiveId != null ? Bukkit.getPlayer(detectiveId).getName() : "NONE"));
         // Detective status & bow status
         scoreboardManager.setDetectiveAlive(true);
@@ -333,7 +424,9 @@ public final class MurderMysteryGame implements Listener {
                 }
             }
         }
-        goldSpawnManager = new GoldSpawnManager(plugin, map.gameSpawns(), queue);
+        goldSpawnManager = new GoldSpawnManager(plugin, map.gameSpawns(), queue, players, goldManager, map.pack());
+        // Record every participant's position each tick so hits can be rewound by the attacker's latency
+        positions.start(gameWorld, players.aliveIds());
         // Do NOT start spawning yet - wait until after grace period
         
         // Setup scoreboard
@@ -348,12 +441,12 @@ public final class MurderMysteryGame implements Listener {
         if (timeUpdateTask != null) {
             timeUpdateTask.cancel();
         }
-        timeUpdateTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+        timeUpdateTask = Bukkit.getScheduler().runTaskTimer(plugin, TickProfiler.wrap("game.round-timer", () -> {
             if (roundSecondsLeft > 0) {
                 roundSecondsLeft--;
                 scoreboardManager.setTimeLeft(roundSecondsLeft);
             }
-        }, 20L, 20L); // Every second
+        }), 20L, 20L); // Every second
         
         teleportAndLoadoutPlayers(map);
         scheduleRoundTimer();
@@ -367,24 +460,18 @@ public final class MurderMysteryGame implements Listener {
             return;
         }
         PlayerProfile murderer = profiles.get(0);
-        murderer.lastRole(MurderRole.MURDERER);
+        setRole(murderer, MurderRole.MURDERER);
         murdererId = murderer.uniqueId();
-        goldManager.setPlayerRole(murderer.uniqueId(), MurderRole.MURDERER);
-        scoreboardManager.setPlayerRole(murderer.uniqueId(), MurderRole.MURDERER);
         plugin.getLogger().info("[MM] Assigned MURDERER: " + Bukkit.getPlayer(murderer.uniqueId()).getName());
         
         if (profiles.size() > 1) {
             PlayerProfile det = profiles.get(1);
-            det.lastRole(MurderRole.DETECTIVE);
+            setRole(det, MurderRole.DETECTIVE);
             detectiveId = det.uniqueId();
-            goldManager.setPlayerRole(det.uniqueId(), MurderRole.DETECTIVE);
-            scoreboardManager.setPlayerRole(det.uniqueId(), MurderRole.DETECTIVE);
             plugin.getLogger().info("[MM] Assigned DETECTIVE: " + Bukkit.getPlayer(det.uniqueId()).getName());
         }
         for (int i = 2; i < profiles.size(); i++) {
-            profiles.get(i).lastRole(MurderRole.INNOCENT);
-            goldManager.setPlayerRole(profiles.get(i).uniqueId(), MurderRole.INNOCENT);
-            scoreboardManager.setPlayerRole(profiles.get(i).uniqueId(), MurderRole.INNOCENT);
+            setRole(profiles.get(i), MurderRole.INNOCENT);
             Player p = Bukkit.getPlayer(profiles.get(i).uniqueId());
             if (p != null) {
                 plugin.getLogger().info("[MM] Assigned INNOCENT: " + p.getName());
@@ -392,45 +479,38 @@ public final class MurderMysteryGame implements Listener {
         }
     }
 
+    /**
+     * The one place a role is set: the player table for this match, the profile for results.
+     */
+    private void setRole(PlayerProfile profile, MurderRole role) {
+        profile.lastRole(role);
+        int slot = players.slot(profile.uniqueId());
+        if (slot != PlayerTable.NO_SLOT) players.setRole(slot, role);
+    }
+
     private void teleportAndLoadoutPlayers(MapDefinition map) {
         plugin.getLogger().info("[MM] teleportAndLoadoutPlayers() called for map: " + map.name());
-        // Assign unique spawns to each player
-        List<Location> availableSpawns = new ArrayList<>(map.gameSpawns());
-        java.util.Collections.shuffle(availableSpawns);
-        plugin.getLogger().info("[MM] Available spawns count: " + availableSpawns.size() + ", queue size: " + queue.size());
+        // Spawns were verified and spread-ordered when the map was prepared; players are shuffled instead
+        World world = map.world();
+        SpawnTable spawns = world != null ? spawnTables.tableFor(map, world) : null;
+        List<UUID> order = new ArrayList<>(queue.keySet());
+        java.util.Collections.shuffle(order);
+        plugin.getLogger().info("[MM] Spawn table: " + (spawns != null ? spawns.size() : 0) + " spawn(s), queue size: " + order.size());
         
         int spawnIndex = 0;
-        for (UUID playerId : new ArrayList<>(queue.keySet())) {
+        for (UUID playerId : order) {
             Player player = Bukkit.getPlayer(playerId);
             if (player == null) {
                 plugin.getLogger().warning("[MM] Player not found for UUID: " + playerId);
                 continue;
             }
             
-            // Try to find a safe spawn, cycling through available spawns if needed
-            Location safeSpawn = null;
-            int attempts = 0;
-            int maxAttempts = Math.min(availableSpawns.size(), 10); // Try up to 10 spawns
-            
-            while (safeSpawn == null && attempts < maxAttempts) {
-                Location candidateSpawn = availableSpawns.get(spawnIndex % availableSpawns.size());
-                safeSpawn = checkAndGetSafeSpawn(candidateSpawn, map.name());
-                if (safeSpawn == null) {
-                    spawnIndex++; // Try next spawn
-                }
-                attempts++;
-            }
-            
-            // Fallback if no safe spawn found
-            if (safeSpawn == null) {
-                plugin.getLogger().severe("[MM] NO SAFE SPAWNS FOUND! Using fallback for " + player.getName());
-                safeSpawn = availableSpawns.get(spawnIndex % availableSpawns.size());
+            Location spawn = spawns != null ? spawns.spawn(spawnIndex++, world) : null;
+            if (spawn == null) {
+                plugin.getLogger().severe("[MM] NO GAME SPAWNS for " + map.name() + "! Using lobby spawn for " + player.getName());
+                spawn = lobbySpawn.clone().add(0, lobbySpawnOffsetY, 0);
             }
-            
-            plugin.getLogger().info("[MM] Teleporting " + player.getName() + " to spawn at Y=" + safeSpawn.getY());
-            spawnIndex++;
-            
-            player.teleport(safeSpawn);
+            player.teleport(spawn);
             
             // CRITICAL: Reset movement speeds to 1.8.9 defaults (version-neutral)
             // Walk speed: 0.2 (1.8.9 default), Fly speed: 0.1 (1.8.9 default)
@@ -453,10 +533,10 @@ public final class MurderMysteryGame implements Listener {
         
         // Wait 10s, then 5s grace countdown with message/sound, then give loadouts
         Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            new org.bukkit.scheduler.BukkitRunnable() {
+            new ProfiledRunnable("game.grace") {
                 int grace = 5;
                 @Override
-                public void run() {
+                protected void tick() {
                     if (grace <= 0) {
                         cancel();
                         plugin.getLogger().info("[MM] Grace period over, giving equipment...");
@@ -465,14 +545,10 @@ public final class MurderMysteryGame implements Listener {
                             if (player == null) continue;
                             PlayerProfile profile = queue.get(playerId);
                             if (profile != null) {
-                                plugin.getLogger().info("[MM] Giving loadout to " + player.getName() + " as " + profile.lastRole());
                                 giveLoadout(player, profile.lastRole());
-                                verifyLoadout(player.getUniqueId(), profile.lastRole());
                             }
                         }
                         loadoutsGiven = true;
-                        ensureRoleItemsForAll();
-                        Bukkit.getScheduler().runTaskLater(plugin, () -> ensureRoleItemsForAll(), 40L); // re-ensure after 2s
                         // Start gold spawning now that weapons are given
                         if (goldSpawnManager != null) {
                             goldSpawnManager.startSpawning();
@@ -516,205 +592,16 @@ public final class MurderMysteryGame implements Listener {
         return spawns.get(idx);
     }
 
+    /**
+     * Role items from the prebuilt templates; only slots that differ are written.
+     */
     private void giveLoadout(Player player, MurderRole role) {
-        PlayerInventory inv = player.getInventory();
-        inv.clear();
-        
-        // Reserve key inventory slots
-        inv.setItem(4, new ItemStack(Material.MAP)); // Slot 5: Map
-        
-        // Gesture item - make non-placeable
-        ItemStack gesture = new ItemStack(Material.ARMOR_STAND);
-        ItemMeta gestureMeta = gesture.getItemMeta();
-        if (gestureMeta != null) {
-            gestureMeta.setDisplayName(ChatColor.YELLOW + "Gesture");
-            List<String> lore = new ArrayList<>();
-            lore.add(ChatColor.GRAY + "Right-click to perform gesture");
-            gestureMeta.setLore(lore);
-            gesture.setItemMeta(gestureMeta);
-        }
-        inv.setItem(6, gesture); // Slot 7: Gesture
-        // Slot 8 (index 8) reserved for gold collection - leave empty
-        
-        switch (role) {
-            case MURDERER -> {
-                ItemStack sword = createMurdererSword();
-                plugin.getLogger().info("[MM] MURDERER LOADOUT: Creating sword for " + player.getName());
-                inv.setItem(1, sword); // Slot 2
-                plugin.getLogger().info("[MM] MURDERER LOADOUT: Set sword to slot 1");
-                inv.setHeldItemSlot(1); // Keep weapon visible in slot 2
-                plugin.getLogger().info("[MM] MURDERER LOADOUT: Set held slot to 1");
-                // Verify immediately
-                ItemStack verify = inv.getItem(1);
-                plugin.getLogger().info("[MM] MURDERER LOADOUT VERIFY: Slot 1 contains: " + (verify != null ? verify.getType() : "NULL"));
-            }
-            case DETECTIVE -> {
-                ItemStack bow = createDetectiveBow();
-                plugin.getLogger().info("[MM] DETECTIVE LOADOUT: Creating bow for " + player.getName());
-                inv.setItem(1, bow); // Slot 2
-                plugin.getLogger().info("[MM] DETECTIVE LOADOUT: Set bow to slot 1");
-                ItemStack arrow = new ItemStack(Material.ARROW);
-                inv.setItem(9, arrow); // Slot 10 (off-hotbar)
-                plugin.getLogger().info("[MM] DETECTIVE LOADOUT: Set arrow to slot 9");
-                inv.setHeldItemSlot(1); // Hold bow in slot 2
-                plugin.getLogger().info("[MM] DETECTIVE LOADOUT: Set held slot to 1");
-                // Verify immediately
-                ItemStack verifyBow = inv.getItem(1);
-                ItemStack verifyArrow = inv.getItem(9);
-                plugin.getLogger().info("[MM] DETECTIVE LOADOUT VERIFY: Slot 1=" + (verifyBow != null ? verifyBow.getType() : "NULL") + ", Slot 9=" + (verifyArrow != null ? verifyArrow.getType() : "NULL"));
-            }
-            default -> {
-                // Innocents get nothing extra
-            }
-        }
-
-        // Redundant saturation refill
+        int written = loadouts.apply(player, role, true);
+        plugin.getLogger().info("[MM] Loadout for " + player.getName() + " as " + role + ": " + written + " slot(s) changed");
         player.setFoodLevel(20);
         player.setSaturation(20f);
     }
 
-    private void verifyLoadout(UUID playerId, MurderRole role) {
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            Player p = Bukkit.getPlayer(playerId);
-            if (p == null) return;
-            PlayerInventory inv = p.getInventory();
-            plugin.getLogger().info("[MM] VERIFY_LOADOUT: Checking " + p.getName() + " as " + role);
-            if (role == MurderRole.MURDERER) {
-                ItemStack sword = inv.getItem(1);
-                plugin.getLogger().info("[MM] VERIFY_LOADOUT: Murderer slot 1 contains: " + (sword != null ? sword.getType() : "NULL"));
-                if (sword == null || sword.getType() != Material.IRON_SWORD) {
-                    plugin.getLogger().warning("[MM] VERIFY_LOADOUT: Murderer missing sword! Re-giving...");
-                    inv.setItem(1, new ItemStack(Material.IRON_SWORD));
-                } else {
-                    plugin.getLogger().info("[MM] VERIFY_LOADOUT: Murderer sword OK");
-                }
-                p.getInventory().setHeldItemSlot(1);
-            } else if (role == MurderRole.DETECTIVE) {
-                ItemStack bow = inv.getItem(1);
-                plugin.getLogger().info("[MM] VERIFY_LOADOUT: Detective slot 1 contains: " + (bow != null ? bow.getType() : "NULL"));
-                if (bow == null || bow.getType() != Material.BOW) {
-                    plugin.getLogger().warning("[MM] VERIFY_LOADOUT: Detective missing bow! Re-giving...");
-                    inv.setItem(1, createDetectiveBow());
-                } else {
-                    plugin.getLogger().info("[MM] VERIFY_LOADOUT: Detective bow OK");
-                }
-                ItemStack arrow = inv.getItem(10);
-                plugin.getLogger().info("[MM] VERIFY_LOADOUT: Detective slot 10 contains: " + (arrow != null ? arrow.getType() : "NULL"));
-                if (arrow == null || arrow.getType() != Material.ARROW) {
-                    plugin.getLogger().warning("[MM] VERIFY_LOADOUT: Detective missing arrow! Re-giving...");
-                    inv.setItem(10, new ItemStack(Material.ARROW));
-                } else {
-                    plugin.getLogger().info("[MM] VERIFY_LOADOUT: Detective arrow OK");
-                }
-                p.getInventory().setHeldItemSlot(1);
-            }
-        }, VERIFY_LOADOUT_DELAY_TICKS);
-    }
-
-    private void ensureRoleItemsForAll() {
-        for (UUID pid : new ArrayList<>(queue.keySet())) {
-            Player p = Bukkit.getPlayer(pid);
-            PlayerProfile profile = queue.get(pid);
-            if (p == null || profile == null) continue;
-            ensureRoleItems(p, profile.lastRole());
-        }
-    }
-
-    private void ensureRoleItems(Player p, MurderRole role) {
-        PlayerInventory inv = p.getInventory();
-        plugin.getLogger().info("[MM] ENSURE_ROLE_ITEMS: Checking " + p.getName() + " as " + role);
-        if (role == MurderRole.MURDERER) {
-            ItemStack sword = inv.getItem(1);
-            plugin.getLogger().info("[MM] ENSURE_ROLE_ITEMS: Murderer slot 1 = " + (sword != null ? sword.getType() : "NULL"));
-            if (sword == null || sword.getType() != Material.IRON_SWORD) {
-                plugin.getLogger().warning("[MM] ENSURE_ROLE_ITEMS: Re-giving murderer sword");
-                inv.setItem(1, new ItemStack(Material.IRON_SWORD));
-            }
-            inv.setHeldItemSlot(1);
-        } else if (role == MurderRole.DETECTIVE) {
-            ItemStack bow = inv.getItem(1);
-            plugin.getLogger().info("[MM] ENSURE_ROLE_ITEMS: Detective slot 1 = " + (bow != null ? bow.getType() : "NULL"));
-            if (bow == null || bow.getType() != Material.BOW) {
-                plugin.getLogger().warning("[MM] ENSURE_ROLE_ITEMS: Re-giving detective bow");
-                inv.setItem(1, createDetectiveBow());
-            }
-            ItemStack arrow = inv.getItem(10);
-            plugin.getLogger().info("[MM] ENSURE_ROLE_ITEMS: Detective slot 10 = " + (arrow != null ? arrow.getType() : "NULL"));
-            if (arrow == null || arrow.getType() != Material.ARROW) {
-                plugin.getLogger().warning("[MM] ENSURE_ROLE_ITEMS: Re-giving detective arrow");
-                inv.setItem(10, new ItemStack(Material.ARROW));
-            }
-            inv.setHeldItemSlot(1);
-        }
-        p.setFoodLevel(20);
-        p.setSaturation(20f);
-    }
-
-    /**
-     * Create murderer sword with 1.8.9-locked combat mechanics.
-     * Removes attack speed attributes for 1.9+ clients.
-     */
-    private ItemStack createMurdererSword() {
-        ItemStack sword = new ItemStack(Material.IRON_SWORD);
-        ItemMeta meta = sword.getItemMeta();
-        
-        if (meta != null) {
-            meta.setDisplayName(ChatColor.RED + "Murderer's Blade");
-            
-            // Remove attack speed attribute for 1.9+ clients
-            // This prevents visual cooldown bar and ensures instant attacks
-            try {
-                // Use reflection to avoid compilation errors on 1.8.8
-                Class<?> attributeClass = Class.forName("org.bukkit.attribute.Attribute");
-                Object attackSpeedAttr = attributeClass.getField("GENERIC_ATTACK_SPEED").get(null);
-                
-                Class<?> modifierClass = Class.forName("org.bukkit.attribute.AttributeModifier");
-                Class<?> operationClass = Class.forName("org.bukkit.attribute.AttributeModifier$Operation");
-                Object addOp = operationClass.getField("ADD_NUMBER").get(null);
-                
-                // Create modifier that adds 1000 to attack speed (effectively removes cooldown)
-                java.lang.reflect.Constructor<?> constructor = modifierClass.getConstructor(
-                    java.util.UUID.class, String.class, double.class, operationClass
-                );
-                Object modifier = constructor.newInstance(
-                    java.util.UUID.randomUUID(),
-                    "generic.attackSpeed",
-                    1000.0,
-                    addOp
-                );
-                
-                // Add to item meta
-                java.lang.reflect.Method addAttr = meta.getClass().getMethod(
-                    "addAttributeModifier",
-                    attributeClass,
-                    modifierClass
-                );
-                addAttr.invoke(meta, attackSpeedAttr, modifier);
-                
-                plugin.getLogger().info("[COMBAT-1.8.9] Added attack speed override to murderer sword (1.9+ support)");
-            } catch (Throwable e) {
-                // 1.8.8 doesn't have attributes - this is expected and fine
-                plugin.getLogger().info("[COMBAT-1.8.9] Skipped attack speed attribute (1.8.8 server)");
-            }
-            
-            sword.setItemMeta(meta);
-        }
-        
-        return sword;
-    }
-    
-    private ItemStack createDetectiveBow() {
-        ItemStack bow = new ItemStack(Material.BOW);
-        try {
-            ItemMeta meta = bow.getItemMeta();
-            if (meta != null) {
-                meta.setDisplayName("Detective Bow");
-                bow.setItemMeta(meta);
-            }
-        } catch (Throwable ignored) {}
-        return bow;
-    }
-
     private void giveMap(Player player) {
         ItemStack map = new ItemStack(Material.MAP);
         player.getInventory().setItem(4, map); // Slot 5
@@ -749,23 +636,24 @@ public final class MurderMysteryGame implements Listener {
             nextMap = null;
             return result;
         }
-        if (!maps.isEmpty()) {
+        MapRegistry.Snapshot snapshot = maps.snapshot();
+        if (snapshot.size() > 0) {
             // Prefer the configured default map name from preset
-            for (MapDefinition m : maps) {
-                if (m.name().equalsIgnoreCase(preset.mapName())) {
-                    return m;
-                }
+            MapDefinition preferred = snapshot.get(preset.mapName());
+            if (preferred != null) {
+                return preferred;
             }
             // Fallback to random if the preset name isn't found
-            return maps.get((int) (Math.random() * maps.size()));
+            List<MapDefinition> all = new ArrayList<>(snapshot.all());
+            return all.get((int) (Math.random() * all.size()));
         }
         // Final fallback: minimal map using lobby location
-        return new MapDefinition(preset.mapName(), preset.mapName(), lobbySpawn, List.of(lobbySpawn), null);
+        return new MapDefinition(preset.mapName(), preset.mapName(), lobbySpawn, List.of(lobbySpawn), lobbySpawn);
     }
 
     private void scheduleRoundTimer() {
         long ticks = preset.roundLength().getSeconds() * 20L;
-        roundEndTask = Bukkit.getScheduler().runTaskLater(plugin, () -> endRound("Time ran out. Innocents win.", "YOU WIN", ChatColor.GREEN), ticks);
+        roundEndTask = Bukkit.getScheduler().runTaskLater(plugin, () -> endRound("Time ran out. Innocents win.", "innocents_timeout", "YOU WIN", ChatColor.GREEN), ticks);
     }
 
     private void broadcastToQueue(String message) {
@@ -791,6 +679,32 @@ public final class MurderMysteryGame implements Listener {
         }
     }
 
+    /**
+     * Called after every phase change (used to drive the arena/feature lifecycle).
+     */
+    public void setPhaseListener(java.util.function.Consumer<GameState> listener) {
+        this.phaseListener = listener;
+    }
+
+    /**
+     * Called once per decided match with every participant's win/loss (used to persist stats).
+     */
+    public void setResultListener(java.util.function.Consumer<MatchResult> listener) {
+        this.resultListener = listener;
+    }
+
+    /**
+     * Arena whose phase is reported in heartbeats, so the proxy can tell
+     * prepared servers from ones still waiting for a PREPARE. Arena changes
+     * and each PREPARE step are heartbeated immediately, so the proxy (and
+     * the lobbies it pushes status to) see them as they happen.
+     */
+    public void setArena(ArenaService arena) {
+        this.arena = arena;
+        arena.addChangeListener(heartbeatPublisher::sendHeartbeat);
+        arena.addProgressListener((step, pct) -> heartbeatPublisher.sendHeartbeat());
+    }
+
     private void updateState(GameState newState) {
         GameState previous = this.state;
         this.state = newState;
@@ -798,6 +712,15 @@ public final class MurderMysteryGame implements Listener {
         plugin.getLogger().info(event.description());
         scoreboardManager.setState(newState);
         heartbeatPublisher.sendHeartbeat();
+        if (previous != newState) MatchJournal.phase(previous, newState);
+        if (phaseListener != null && previous != newState) {
+            try {
+                phaseListener.accept(newState);
+            } catch (Throwable t) {
+                plugin.getLogger().severe("[MM] Phase listener failed for " + newState + ": " + t);
+                t.printStackTrace();
+            }
+        }
     }
 
     @EventHandler
@@ -805,14 +728,23 @@ public final class MurderMysteryGame implements Listener {
         plugin.getLogger().info("[MM] DEBUG: onDeath fired for " + event.getEntity().getName() + ", state=" + state);
         if (state != GameState.IN_GAME) return;
         UUID id = event.getEntity().getUniqueId();
-        plugin.getLogger().info("[MM] DEBUG: Player death during game: " + event.getEntity().getName() + ", was alive: " + alive.contains(id));
-        if (alive.remove(id)) {
+        plugin.getLogger().info("[MM] DEBUG: Player death during game: " + event.getEntity().getName() + ", was alive: " + players.isAlive(id));
+        if (players.eliminate(id)) {
             // Prevent drops and respawn screen
             event.getDrops().clear();
             event.setDeathMessage(null);
             
             Player deadPlayer = event.getEntity();
             plugin.getLogger().info("[MM] DEBUG: Processing death for " + deadPlayer.getName());
+            EntityDamageEvent lastDamage = deadPlayer.getLastDamageCause();
+            GameMetrics.KILLS.labels(lastDamage != null ? lastDamage.getCause().name().toLowerCase(java.util.Locale.ROOT) : "unknown").inc();
+            matchKills++;
+            Player killer = deadPlayer.getKiller();
+            MatchJournal.kill(deadPlayer, deadPlayer.getLocation(), killer, journalWeapon(lastDamage, killer));
+            int killerSlot = killer != null ? players.slot(killer.getUniqueId()) : PlayerTable.NO_SLOT;
+            if (killerSlot != PlayerTable.NO_SLOT && players.role(killerSlot) == MurderRole.DETECTIVE) {
+                players.addKill(killerSlot);
+            }
             
             // Set spectator mode immediately (don't teleport - keep at death location for spectating)
             deadPlayer.setGameMode(GameMode.SPECTATOR);
@@ -841,8 +773,7 @@ public final class MurderMysteryGame implements Listener {
                 plugin.getLogger().info("[MM] DEBUG: CorpseManager unavailable, no corpse spawned");
             }
             // If detective died, drop bow and update scoreboard
-            PlayerProfile profile = queue.get(id);
-            if (profile != null && profile.lastRole() == MurderRole.DETECTIVE) {
+            if (players.roleOf(id) == MurderRole.DETECTIVE) {
                 plugin.getLogger().info("[MM] DEBUG: Detective died, dropping bow");
                 scoreboardManager.setDetectiveAlive(false);
                 bowDropManager.dropBow(deathLoc);
@@ -866,8 +797,9 @@ public final class MurderMysteryGame implements Listener {
         plugin.getLogger().info("[MM] DEBUG: onQuit fired for " + event.getPlayer().getName() + ", state=" + state);
         if (state != GameState.IN_GAME) return;
         UUID id = event.getPlayer().getUniqueId();
-        if (alive.remove(id)) {
-            plugin.getLogger().info("[MM] DEBUG: Removed " + event.getPlayer().getName() + " from alive list");
+        if (players.eliminate(id)) {
+            plugin.getLogger().info("[MM] DEBUG: Eliminated " + event.getPlayer().getName() + " on quit");
+            MatchJournal.quit(event.getPlayer());
             broadcastToQueue(event.getPlayer().getName() + " disconnected.");
             updateInnocentsCount();
             checkWinConditions();
@@ -875,15 +807,10 @@ public final class MurderMysteryGame implements Listener {
     }
 
     private void updateInnocentsCount() {
-        int innocents = 0;
-        for (UUID playerId : alive) {
-            PlayerProfile profile = queue.get(playerId);
-            // Count all non-murderers (innocents + detective)
-            if (profile != null && profile.lastRole() != MurderRole.MURDERER) {
-                innocents++;
-            }
-        }
-        plugin.getLogger().info("[MM] DEBUG: updateInnocentsCount - counted " + innocents + " non-murderers");
+        // All non-murderers (innocents + detective), kept up to date by the player table
+        int innocents = players.innocentsAlive();
+        plugin.getLogger().info("[MM] DEBUG: updateInnocentsCount - " + innocents + " non-murderers alive");
+        GameMetrics.PLAYERS_ALIVE.set(players.aliveCount());
         scoreboardManager.setInnocentsLeft(innocents);
     }
 
@@ -1178,7 +1105,7 @@ public final class MurderMysteryGame implements Listener {
             final double targetDistance = computedTarget;
             plugin.getLogger().info("[MM] DEBUG: raystep chosen targetDistance=" + String.format("%.2f", targetDistance) + " (max=" + maxDistance + ")");
             
-            new org.bukkit.scheduler.BukkitRunnable() {
+            new ProfiledRunnable("game.knife-flight") {
                 int t = 0;
                 double distanceTraveled = 0.0;
                 long startTime = System.currentTimeMillis();
@@ -1186,7 +1113,7 @@ public final class MurderMysteryGame implements Listener {
                 final double standHeightOffset = -0.65; // Lower visual to match trajectory height while leaving ray unchanged
                 
                 @Override
-                public void run() {
+                protected void tick() {
                     if (!stand.isValid()) { cancel(); return; }
                     
                     // 30-second timeout for cleanup
@@ -1219,54 +1146,9 @@ public final class MurderMysteryGame implements Listener {
                                                 if (!glassBlocks.contains(currentBlock)) {
                                                     glassBlocks.add(currentBlock);
                                                     plugin.getLogger().info("[MM] DEBUG: knifeVisual passed through glass pane at " + currentBlock.getLocation());
-                                                    try {
-                                                        currentBlock.getWorld().playSound(currentBlock.getLocation(), Sound.valueOf("BLOCK_GLASS_BREAK"), 1.0f, 1.0f);
-                                                    } catch (Exception e) {
-                                                        try {
-                                                            currentBlock.getWorld().playSound(currentBlock.getLocation(), Sound.valueOf("ITEM_SHIELD_BREAK"), 0.5f, 1.0f);
-                                                        } catch (Exception ignored) {}
-                                                    }
-                                                    // Show vanilla crack animation via packet (client-side only)
-                                                    try {
-                                                        final int id = currentBlock.getX() ^ currentBlock.getY() ^ currentBlock.getZ();
-                                                        final int bx = currentBlock.getX();
-                                                        final int by = currentBlock.getY();
-                                                        final int bz = currentBlock.getZ();
-                                                        // Reflect NMS classes to avoid compile-time dependency
-                                                        Class<?> bpClass = Class.forName("net.minecraft.server.v1_8_R3.BlockPosition");
-                                                        java.lang.reflect.Constructor<?> bpCtor = bpClass.getConstructor(int.class, int.class, int.class);
-                                                        Object pos = bpCtor.newInstance(bx, by, bz);
-                                                        Class<?> packetClass = Class.forName("net.minecraft.server.v1_8_R3.PacketPlayOutBlockBreakAnimation");
-                                                        java.lang.reflect.Constructor<?> pCtor = packetClass.getConstructor(int.class, bpClass, int.class);
-                                                        Object crack = pCtor.newInstance(id, pos, 7);
-                                                        // Send packet to player
-                                                        java.lang.reflect.Method getHandle = player.getClass().getMethod("getHandle");
-                                                        Object nmsPlayer = getHandle.invoke(player);
-                                                        Object conn = nmsPlayer.getClass().getField("playerConnection").get(nmsPlayer);
-                                                        Class<?> packetBase = Class.forName("net.minecraft.server.v1_8_R3.Packet");
-                                                        java.lang.reflect.Method sendPacket = conn.getClass().getMethod("sendPacket", packetBase);
-                                                        sendPacket.invoke(conn, crack);
-                                                        // Clear after 20 ticks
-                                                        new org.bukkit.scheduler.BukkitRunnable() {
-                                                            @Override public void run() {
-                                                                try {
-                                                                    Class<?> bpClass2 = Class.forName("net.minecraft.server.v1_8_R3.BlockPosition");
-                                                                    java.lang.reflect.Constructor<?> bpCtor2 = bpClass2.getConstructor(int.class, int.class, int.class);
-                                                                    Object pos2 = bpCtor2.newInstance(bx, by, bz);
-                                                                    Class<?> packetClass2 = Class.forName("net.minecraft.server.v1_8_R3.PacketPlayOutBlockBreakAnimation");
-                                                                    java.lang.reflect.Constructor<?> pCtor2 = packetClass2.getConstructor(int.class, bpClass2, int.class);
-                                                                    Object clear = pCtor2.newInstance(id, pos2, -1);
-                                                                    java.lang.reflect.Method getHandle2 = player.getClass().getMethod("getHandle");
-                                                                    Object nmsPlayer2 = getHandle2.invoke(player);
-                                                                    Object conn2 = nmsPlayer2.getClass().getField("playerConnection").get(nmsPlayer2);
-                                                                    Class<?> packetBase2 = Class.forName("net.minecraft.server.v1_8_R3.Packet");
-                                                                    java.lang.reflect.Method sendPacket2 = conn2.getClass().getMethod("sendPacket", packetBase2);
-                                                                    sendPacket2.invoke(conn2, clear);
-                                                                } catch (Throwable ignored) {}
-                                                            }
-                                                        }.runTaskLater(plugin, 20L);
-                                                    } catch (Throwable animErr) {
-                                                        plugin.getLogger().info("[MM] DEBUG: glass crack animation unavailable: " + animErr.getClass().getSimpleName());
+                                                    // Crack overlay (stage 7) for everyone nearby, cleared by the batcher after 20 ticks
+                                                    if (EffectBatcher.crack(currentBlock, 7, 20)) {
+                                                        EffectBatcher.sound(currentBlock.getLocation(), 1.0f, 1.0f, "BLOCK_GLASS_BREAK", "GLASS");
                                                     }
                                                 }
                                             } else {
@@ -1319,43 +1201,40 @@ public final class MurderMysteryGame implements Listener {
         }
     }
 
-    private void sendActionBar(Player p, String text) {
-        // Simplified: just use chat messages since action bar rendering is version-dependent
-        try {
-            p.sendMessage(text);
-        } catch (Throwable ignored) {}
-    }
-
     private void startKnifeCooldown(UUID playerId) {
-        final long totalMs = Math.max(500L, knifeCooldownMs);
-        final long started = System.currentTimeMillis();
-        new org.bukkit.scheduler.BukkitRunnable() {
-            @Override
-            public void run() {
-                Player p = Bukkit.getPlayer(playerId);
-                if (p == null) { cancel(); return; }
-                long elapsed = System.currentTimeMillis() - started;
-                long remaining = Math.max(0L, totalMs - elapsed);
-                // Simplified cooldown indicator
-                ChatColor color = remaining <= 500 ? ChatColor.GREEN : ChatColor.RED;
-                p.sendMessage(color + "Knife CD: " + String.format("%.1fs", remaining/1000.0));
-                if (remaining <= 0L) {
-                    // Cooldown expired; ready to throw again (silently, no "Ready!" message)
-                    cancel();
-                }
-            }
-        }.runTaskTimer(plugin, 0L, 2L);
+        Player p = Bukkit.getPlayer(playerId);
+        if (p == null) return;
+        // Cooldown indicator on the action bar; ready again silently, no "Ready!" message
+        ActionBarCompositor.countdown(p, ActionBarCompositor.Slot.KNIFE, (int) (Math.max(500L, GameConfig.current().knife().cooldownMs()) / 50L));
     }
 
     private void killInstant(Player target, Player killer) {
-        // Bypass armor/absorption and force death
+        // Bypass armor/absorption and force death; onDeath runs inside damage() and journals the weapon.
+        // The melee rules in onEntityDamageByEntity skip this damage (see pendingKillWeapon)
+        pendingKillWeapon = JournalFormat.WEAPON_THROWN_KNIFE;
         try {
             target.damage(1000.0, killer);
         } catch (Throwable ignored) {
             target.setHealth(0.0);
+        } finally {
+            pendingKillWeapon = JournalFormat.WEAPON_UNKNOWN;
         }
     }
 
+    /**
+     * Weapon code for the match journal. Legacy arrows deal ENTITY_ATTACK damage,
+     * so non-murderer attackers are attributed to the bow.
+     */
+    private byte journalWeapon(EntityDamageEvent lastDamage, Player killer) {
+        if (pendingKillWeapon != JournalFormat.WEAPON_UNKNOWN) return pendingKillWeapon;
+        if (lastDamage == null) return JournalFormat.WEAPON_UNKNOWN;
+        if (killer == null) return JournalFormat.WEAPON_ENVIRONMENT;
+        if (lastDamage.getCause() == EntityDamageEvent.DamageCause.PROJECTILE) return JournalFormat.WEAPON_ARROW;
+        PlayerProfile profile = queue.get(killer.getUniqueId());
+        return profile != null && profile.lastRole() == MurderRole.MURDERER
+                ? JournalFormat.WEAPON_KNIFE : JournalFormat.WEAPON_ARROW;
+    }
+
     @EventHandler
     public void onEntityDamage(EntityDamageEvent event) {
         if (event.isCancelled()) return;
@@ -1405,9 +1284,9 @@ public final class MurderMysteryGame implements Listener {
 
     @EventHandler
     public void onBlockBreak(BlockBreakEvent event) {
-        // Only protect the active game world (mm_active)
+        // Only protect the active game world (pinned by ArenaService at startup)
         String worldName = event.getBlock().getWorld().getName();
-        if (worldName.equals("mm_active")) {
+        if (arena != null && worldName.equals(arena.activeWorldName())) {
             // Allow ops in creative mode to edit
             if (event.getPlayer().isOp() && event.getPlayer().getGameMode() == org.bukkit.GameMode.CREATIVE) {
                 return;
@@ -1419,9 +1298,9 @@ public final class MurderMysteryGame implements Listener {
 
     @EventHandler
     public void onBlockPlace(BlockPlaceEvent event) {
-        // Only protect the active game world (mm_active)
+        // Only protect the active game world (pinned by ArenaService at startup)
         String worldName = event.getBlock().getWorld().getName();
-        if (worldName.equals("mm_active")) {
+        if (arena != null && worldName.equals(arena.activeWorldName())) {
             // Allow ops in creative mode to edit
             if (event.getPlayer().isOp() && event.getPlayer().getGameMode() == org.bukkit.GameMode.CREATIVE) {
                 return;
@@ -1452,6 +1331,9 @@ public final class MurderMysteryGame implements Listener {
 
         plugin.getLogger().info("[COMBAT] Damage event - Victim: " + victim.getName() + " | Cause: " + event.getCause() + " | Raw damage: " + event.getDamage());
 
+        // Thrown sword hit: judged by SwordThrowHandler, not by the melee reach/weapon rules
+        if (pendingKillWeapon == JournalFormat.WEAPON_THROWN_KNIFE) return;
+
         // ===== MELEE COMBAT: 1.8.9-LOCKED MECHANICS =====
         if (event.getCause() == EntityDamageEvent.DamageCause.ENTITY_ATTACK && event.getDamager() instanceof Player attacker) {
             PlayerProfile attackerProfile = queue.get(attacker.getUniqueId());
@@ -1478,9 +1360,14 @@ public final class MurderMysteryGame implements Listener {
                 return;
             }
             
-            // CRITICAL: Enforce 1.8.9 reach limit (3.0 blocks)
-            double distance = attacker.getLocation().distance(victim.getLocation());
-            plugin.getLogger().info("[COMBAT-MELEE] Distance: " + String.format("%.2f", distance) + "b");
+            // CRITICAL: Enforce 1.8.9 reach limit (3.0 blocks), against where the attacker saw the victim:
+            // the victim rewound by the attacker's latency, or its current position if that is closer
+            Location from = attacker.getLocation();
+            double distance = from.distance(victim.getLocation());
+            int rewind = positions.rewindTicks(attacker);
+            double seen = positions.feetDistance(victim.getUniqueId(), rewind, from.getX(), from.getY(), from.getZ());
+            if (seen < distance) distance = seen; // NaN (no sample) compares false
+            plugin.getLogger().info("[COMBAT-MELEE] Distance: " + String.format("%.2f", distance) + "b (rewound " + rewind + " ticks)");
             if (distance > 3.0) {
                 plugin.getLogger().warning("[COMBAT-MELEE] ✗ BLOCKED: Beyond 1.8.9 reach (>3.0b)");
                 event.setCancelled(true);
@@ -1574,40 +1461,46 @@ public final class MurderMysteryGame implements Listener {
     }
 
     private void checkWinConditions() {
-        plugin.getLogger().info("[MM] DEBUG: checkWinConditions - alive count: " + alive.size());
-        if (alive.isEmpty()) {
+        plugin.getLogger().info("[MM] DEBUG: checkWinConditions - alive count: " + players.aliveCount());
+        if (players.aliveCount() == 0) {
             plugin.getLogger().info("[MM] DEBUG: No players alive - game over");
-            endRound("All players eliminated.", "GAME OVER", ChatColor.RED);
+            endRound("All players eliminated.", "none", "GAME OVER", ChatColor.RED);
             return;
         }
 
-        boolean murdererAlive = alive.contains(murdererId);
-        long innocentsAlive = alive.stream()
-                .map(queue::get)
-                .filter(profile -> profile != null && profile.lastRole() != MurderRole.MURDERER)
-                .count();
+        boolean murdererAlive = players.murdererAlive();
+        int innocentsAlive = players.innocentsAlive();
 
         plugin.getLogger().info("[MM] DEBUG: murdererAlive=" + murdererAlive + ", innocentsAlive=" + innocentsAlive);
 
         if (!murdererAlive) {
             plugin.getLogger().info("[MM] DEBUG: Murderer dead - innocents win");
-            endRound("Innocents win! Murderer eliminated.", "YOU WIN", ChatColor.GREEN);
+            endRound("Innocents win! Murderer eliminated.", "innocents", "YOU WIN", ChatColor.GREEN);
             return;
         }
 
         if (innocentsAlive == 0) {
             plugin.getLogger().info("[MM] DEBUG: All innocents dead - murderer wins");
-            endRound("Murderer wins! All innocents are down.", "GAME OVER", ChatColor.RED);
+            endRound("Murderer wins! All innocents are down.", "murderer", "GAME OVER", ChatColor.RED);
         }
     }
 
-    private void endRound(String reason, String title, ChatColor titleColor) {
+    /**
+     * @param outcome Metrics label for the result (innocents, innocents_timeout, murderer, none)
+     */
+    private void endRound(String reason, String outcome, String title, ChatColor titleColor) {
         plugin.getLogger().info("[MM] DEBUG: endRound called - reason: " + reason + ", current state: " + state);
         if (state != GameState.IN_GAME) {
             plugin.getLogger().warning("[MM] DEBUG: endRound called but state is not IN_GAME, ignoring");
             return;
         }
+        recordMatchMetrics(outcome);
+        recordResults(outcome);
         updateState(GameState.ENDING);
+        MatchJournal.end(outcome);
+        ReplayRecorder.end();
+        positions.stop();
+        loadouts.reset();
         if (countdownTask != null) {
             countdownTask.cancel();
             countdownTask = null;
@@ -1634,13 +1527,54 @@ public final class MurderMysteryGame implements Listener {
         Bukkit.getScheduler().runTaskLater(plugin, this::resetToLobby, 400L); // 20 seconds
     }
 
+    private void recordMatchMetrics(String outcome) {
+        GameMetrics.MATCHES_ENDED.labels(outcome).inc();
+        GameMetrics.MATCH_DURATION.observeNanos(System.nanoTime() - matchStartNanos);
+        GameMetrics.MATCH_KILLS.observe(matchKills);
+        GameMetrics.MATCH_THROWS.observe(GameMetrics.KNIFE_THROWS.get() - matchThrowsAtStart);
+        GameMetrics.MATCH_GOLD.observe(GameMetrics.GOLD_COLLECTED.get() - matchGoldAtStart);
+    }
+
+    /**
+     * Apply wins/losses to participants' profiles and publish the result.
+     * Rounds without a winner ("none") are not counted.
+     */
+    private void recordResults(String outcome) {
+        boolean murdererWon = outcome.equals("murderer");
+        if (!murdererWon && !outcome.startsWith("innocents")) return;
+        List<MatchResult.Entry> entries = new ArrayList<>(queue.size());
+        for (PlayerProfile profile : queue.values()) {
+            boolean won = (profile.lastRole() == MurderRole.MURDERER) == murdererWon;
+            if (won) {
+                profile.recordWin();
+            } else {
+                profile.recordLoss();
+            }
+            entries.add(new MatchResult.Entry(profile.uniqueId(), profile.name(), profile.lastRole(), won,
+                    players.kills(profile.uniqueId())));
+        }
+        if (resultListener == null) return;
+        String mapName = currentMap != null ? currentMap.name() : preset.mapName();
+        try {
+            resultListener.accept(new MatchResult(mapName, outcome, matchStartedAt, System.currentTimeMillis(), entries));
+        } catch (Throwable t) {
+            plugin.getLogger().severe("[MM] Result listener failed: " + t);
+        }
+    }
+
     /**
      * Reset game to lobby state. Can be called externally from GameManager.
      */
     public void resetToLobby() {
         plugin.getLogger().info("[MM-RESET] ===== GAME RESET TO LOBBY =====");
         updateState(GameState.LOBBY);
-        alive.clear();
+        MatchJournal.end("aborted");
+        ReplayRecorder.end();
+        positions.stop();
+        loadouts.reset();
+        players.endMatch();
+        if (pendingPreset != null) applyPreset(pendingPreset);
+        GameMetrics.PLAYERS_ALIVE.set(0);
         murdererId = null;
         detectiveId = null;
         
@@ -1712,10 +1646,19 @@ public final class MurderMysteryGame implements Listener {
 
     private ServerStatus buildStatus() {
         // Some server implementations lack getServerName(); rely on config with a safe default
-        String serverId = plugin.getConfig().getString("server.id", "mm-game");
+        String serverId = GameConfig.current().serverId();
         String mapName = nextMap != null ? nextMap.name() : preset.mapName();
-        boolean joinable = (state == GameState.LOBBY || state == GameState.COUNTDOWN) && queue.size() < preset.maxPlayers();
-        return new ServerStatus(serverId, preset.id(), mapName, state, queue.size(), preset.maxPlayers(), joinable);
+        // nextMap is only bound once the reset finishes; until then report the map being prepared
+        if (arena != null && arena.state() == ArenaState.PREPARING && arena.currentMapId() != null) {
+            mapName = arena.currentMapId();
+        }
+        // Joins are bounced (ArenaService.handlePlayerJoin) until a PREPARE finished and OPEN_JOIN arrived
+        boolean arenaReady = arena == null || (arena.joinOpen() && arena.state() == ArenaState.WAITING);
+        boolean joinable = (state == GameState.LOBBY || state == GameState.COUNTDOWN) && queue.size() < preset.maxPlayers() && arenaReady;
+        // The proxy pre-warms IDLE arenas (fresh, or played on) and sends players only to prepared ones
+        String arenaState = arena != null ? arena.state().name() : "";
+        int prepareProgress = arena != null ? arena.lastProgressPct() : 0;
+        return new ServerStatus(serverId, preset.id(), mapName, state, queue.size(), preset.maxPlayers(), joinable, arenaState, prepareProgress, mapVersion);
     }
 
     @EventHandler
@@ -1751,8 +1694,9 @@ public final class MurderMysteryGame implements Listener {
             // Sim start from shooter eye with current look direction
             Location start = shooter.getEyeLocation();
             org.bukkit.util.Vector dir = start.getDirection();
+            MatchJournal.arrowShot(shooter, start, charge);
 
-            new com.mmhq.game.combat.LegacyArrowSim(plugin)
+            new com.mmhq.game.combat.LegacyArrowSim(plugin, positions)
                     .shootLegacyArrow(shooter, start, dir, speed);
 
             plugin.getLogger().info("[COMBAT-LEGACY] Bow shot charge=" + charge + ", speed=" + speed + " (simulated 1.8)");
@@ -1763,81 +1707,61 @@ public final class MurderMysteryGame implements Listener {
     }
 
     private void startDetectiveCooldown(UUID playerId) {
-        final long totalMs = 5000L;
-        final long started = System.currentTimeMillis();
-        new org.bukkit.scheduler.BukkitRunnable() {
+        final int totalTicks = GameConfig.current().bow().cooldownTicks();
+        Player shooter = Bukkit.getPlayer(playerId);
+        if (shooter != null) ActionBarCompositor.countdown(shooter, ActionBarCompositor.Slot.BOW, totalTicks);
+        new ProfiledRunnable("game.detective-cooldown") {
             @Override
-            public void run() {
+            protected void tick() {
                 Player p = Bukkit.getPlayer(playerId);
-                if (p == null) { cancel(); return; }
-                long elapsed = System.currentTimeMillis() - started;
-                long remaining = Math.max(0L, totalMs - elapsed);
-                // Simplified bow cooldown indicator
-                ChatColor color = remaining <= 500 ? ChatColor.GREEN : ChatColor.YELLOW;
-                p.sendMessage(color + "Bow CD: " + String.format("%.1fs", remaining/1000.0));
-                if (remaining <= 0L) {
-                    if (p.isOnline()) {
-                        p.getInventory().setItem(10, new ItemStack(Material.ARROW));
-                        try {
-                            p.sendMessage(ChatColor.GREEN + "Bow Ready!");
-                            p.playSound(p.getLocation(), resolvePopSound(), 1.0f, 1.2f);
-                        } catch (Throwable ignored) {}
-                    }
-                    cancel();
-                }
+                if (p == null || !p.isOnline()) return;
+                p.getInventory().setItem(10, new ItemStack(Material.ARROW));
+                try {
+                    p.sendMessage(ChatColor.GREEN + "Bow Ready!");
+                    p.playSound(p.getLocation(), resolvePopSound(), 1.0f, 1.2f);
+                } catch (Throwable ignored) {}
             }
-        }.runTaskTimer(plugin, 0L, 2L);
+        }.runTaskLater(plugin, totalTicks);
     }
 
-    @EventHandler
-    public void onPlayerMove(PlayerMoveEvent event) {
+    /**
+     * Bow pickup trigger: fired once when a player steps into range of a dropped
+     * detective bow (replaces the per-move distance check).
+     */
+    private void onBowPickupRange(Player player) {
         if (state != GameState.IN_GAME) return;
-        Player player = event.getPlayer();
         PlayerProfile profile = queue.get(player.getUniqueId());
         if (profile == null) return;
         boolean picked = bowDropManager.tryPickup(player, profile.lastRole());
         if (picked) {
             // Promote to detective
-            profile.lastRole(MurderRole.DETECTIVE);
-            goldManager.setPlayerRole(player.getUniqueId(), MurderRole.DETECTIVE);
-            scoreboardManager.setPlayerRole(player.getUniqueId(), MurderRole.DETECTIVE);
+            setRole(profile, MurderRole.DETECTIVE);
+            loadouts.apply(player, MurderRole.DETECTIVE, false);
             scoreboardManager.setDetectiveAlive(true);
+            scoreboardManager.setBowDropped(false);
             player.sendMessage(ChatColor.YELLOW + "You picked up the Detective's bow! You are now the Detective.");
         }
-        scoreboardManager.setBowDropped(bowDropManager.isDropped());
     }
 
-    private Location resolveLobbySpawn() {
-        String path = "preset.default.lobbySpawn";
-        String worldName = plugin.getConfig().getString(path + ".world", preset.mapName());
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) {
-            world = Bukkit.getWorlds().get(0);
+    private Location resolveLobbySpawn(GameConfig.Spot spot) {
+        Location loc = spot.toLocation();
+        if (loc == null) {
+            World world = Bukkit.getWorlds().get(0);
+            loc = new GameConfig.Spot(world.getName(), spot.x(), spot.y(), spot.z(), spot.yaw(), spot.pitch()).toLocation();
         }
-        double x = plugin.getConfig().getDouble(path + ".x", 0.5);
-        double y = plugin.getConfig().getDouble(path + ".y", world.getSpawnLocation().getY());
-        double z = plugin.getConfig().getDouble(path + ".z", 0.5);
-        float yaw = (float) plugin.getConfig().getDouble(path + ".yaw", 0.0);
-        float pitch = (float) plugin.getConfig().getDouble(path + ".pitch", 0.0);
-        return new Location(world, x, y, z, yaw, pitch);
+        return loc;
     }
 
-    private Location resolvePreGameLobbySpawn() {
-        String path = "preset.default.preGameLobbySpawn";
-        String worldName = plugin.getConfig().getString(path + ".world", "map_ancient_tomb");
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) {
-            plugin.getLogger().warning("[MM] World '" + worldName + "' not found! Using first available world.");
+    private Location resolvePreGameLobbySpawn(GameConfig.Spot spot) {
+        Location loc = spot.toLocation();
+        if (loc == null) {
+            plugin.getLogger().warning("[MM] World '" + spot.world() + "' not found! Using first available world.");
             // Fallback to lobby spawn world to avoid survival world confusion
-            world = lobbySpawn.getWorld() != null ? lobbySpawn.getWorld() : Bukkit.getWorlds().get(0);
-        }
-        double x = plugin.getConfig().getDouble(path + ".x", 5.5);
-        double y = plugin.getConfig().getDouble(path + ".y", 128);
-        double z = plugin.getConfig().getDouble(path + ".z", 0.5);
-        float yaw = (float) plugin.getConfig().getDouble(path + ".yaw", 0.0);
-        float pitch = (float) plugin.getConfig().getDouble(path + ".pitch", 0.0);
-        Location loc = new Location(world, x, y, z, yaw, pitch);
-        plugin.getLogger().info("[MM] Resolved preGameLobbySpawn: world=" + world.getName() + ", coords=(" + x + ", " + y + ", " + z + ")");
+            World world = lobbySpawn.getWorld() != null ? lobbySpawn.getWorld() : Bukkit.getWorlds().get(0);
+            loc = new GameConfig.Spot(world.getName(), spot.x(), spot.y(), spot.z(), spot.yaw(), spot.pitch()).toLocation();
+        }
+        plugin.getLogger().info("[MM] Resolved preGameLobbySpawn: world=" + loc.getWorld().getName() + ", coords=("
+                + loc.getX() + ", " + loc.getY() + ", " + loc.getZ() + ")");
         return loc;
     }
 
@@ -1863,72 +1787,4 @@ public final class MurderMysteryGame implements Listener {
         List<Location> spawns = map.gameSpawns();
         return spawns.get((int) (Math.random() * spawns.size()));
     }
-
-    private Location checkAndGetSafeSpawn(Location base, String mapName) {
-        if (base == null || base.getWorld() == null) return null;
-        
-        // Check if spawn location is safe (feet at Y, head at Y+1)
-        Block feetBlock = base.getBlock();
-        Block headBlock = base.clone().add(0, 1, 0).getBlock();
-        
-        // If both feet and head positions are passable, spawn is safe
-        if (isPassable(feetBlock) && isPassable(headBlock)) {
-            return base;
-        }
-        
-        // Unsafe spawn - log for removal
-        plugin.getLogger().warning("[MM] ========================================");
-        plugin.getLogger().warning("[MM] UNSAFE SPAWN DETECTED - REMOVE FROM MAP CONFIG!");
-        plugin.getLogger().warning("[MM] Map: " + mapName);
-        plugin.getLogger().warning("[MM] Location: X=" + base.getX() + " Y=" + base.getY() + " Z=" + base.getZ());
-        plugin.getLogger().warning("[MM] Feet block: " + feetBlock.getType() + " (solid=" + feetBlock.getType().isSolid() + ")");
-        plugin.getLogger().warning("[MM] Head block: " + headBlock.getType() + " (solid=" + headBlock.getType().isSolid() + ")");
-        plugin.getLogger().warning("[MM] ========================================");
-        
-        return null; // Signal to try another spawn
-    }
-
-    private Location ensureSafeSpawn(Location base) {
-        if (base == null || base.getWorld() == null) return base;
-        
-        // Check if spawn location is safe (feet at Y, head at Y+1, torso at Y+0.5)
-        Location feetLoc = base.clone();
-        Block feetBlock = feetLoc.getBlock();
-        Block headBlock = feetLoc.clone().add(0, 1, 0).getBlock();
-        
-        plugin.getLogger().info("[MM] DEBUG: Checking spawn safety at " + base.getX() + ", " + base.getY() + ", " + base.getZ());
-        plugin.getLogger().info("[MM] DEBUG: Feet block: " + feetBlock.getType() + ", Head block: " + headBlock.getType());
-        
-        // If both feet and head positions are air/passable, spawn is safe
-        if (isPassable(feetBlock) && isPassable(headBlock)) {
-            plugin.getLogger().info("[MM] DEBUG: Spawn is safe");
-            return base;
-        }
-        
-        plugin.getLogger().warning("[MM] DEBUG: Spawn not safe, searching upward...");
-        // Try searching upward for a safe spot
-        Location testLoc = base.clone();
-        for (int i = 0; i < 10; i++) {
-            testLoc.add(0, 1, 0);
-            Block testFeet = testLoc.getBlock();
-            Block testHead = testLoc.clone().add(0, 1, 0).getBlock();
-            
-            if (isPassable(testFeet) && isPassable(testHead)) {
-                plugin.getLogger().info("[MM] DEBUG: Found safe spawn at Y=" + testLoc.getY());
-                return testLoc;
-            }
-        }
-        
-        // Last resort: teleport to highest solid block + 1
-        int highestY = base.getWorld().getHighestBlockYAt(base);
-        Location safeLoc = new Location(base.getWorld(), base.getX(), highestY + 1, base.getZ(), base.getYaw(), base.getPitch());
-        plugin.getLogger().warning("[MM] DEBUG: Using fallback spawn at Y=" + safeLoc.getY());
-        return safeLoc;
-    }
-    
-    private boolean isPassable(Block block) {
-        Material type = block.getType();
-        // Air and other non-solid blocks are passable
-        return type == Material.AIR || !block.getType().isSolid();
-    }
 }
@@ -0,0 +1,299 @@
+package com.mmhq.game.arena;
+
+import com.mmhq.sharedapi.game.MurderRole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-arena player state, one row per queued player.
+ *
+ * Each player gets a small dense slot on joining the queue; every column
+ * (role, alive bit, gold, throw cooldown, kills) is a primitive array indexed
+ * by that slot, so the hot paths do one UUID lookup and then array reads -
+ * or none at all when they iterate slots. Counts the win conditions need
+ * (players, non-murderers and murderers alive) are kept up to date on every
+ * role change and elimination instead of being recounted.
+ *
+ * Rows are only freed while no match runs; a player who leaves mid-match
+ * keeps their row until {@link #endMatch()} so late quit and death events
+ * still resolve. Main thread only.
+ */
+public final class PlayerTable {
+    public static final int NO_SLOT = -1;
+    private static final MurderRole[] ROLES = MurderRole.values();
+    private static final byte NO_ROLE = 0;              // roles are stored as ordinal + 1
+
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private UUID[] ids = new UUID[0];
+    private byte[] roles = new byte[0];
+    private boolean[] alive = new boolean[0];
+    private boolean[] leaving = new boolean[0];
+    private boolean[] charging = new boolean[0];
+    private int[] gold = new int[0];
+    private int[] kills = new int[0];
+    private long[] throwReadyAt = new long[0];          // System.currentTimeMillis() deadline
+    private int size;                                   // slots in use or freed below this mark
+
+    private int[] free = new int[0];
+    private int freeCount;
+
+    private boolean inMatch;
+    private int aliveCount;
+    private int innocentsAlive;                          // non-murderers: innocents and the detective
+    private int murderersAlive;
+
+    // ===== Rows =====
+
+    /**
+     * Slot for {@code id}, allocating a cleared row if the player has none.
+     */
+    public int join(UUID id) {
+        Integer existing = slots.get(id);
+        if (existing != null) {
+            leaving[existing] = false;
+            return existing;
+        }
+        int slot;
+        if (freeCount > 0) {
+            slot = free[--freeCount];
+        } else {
+            if (size == ids.length) grow(Math.max(8, size * 2));
+            slot = size++;
+        }
+        ids[slot] = id;
+        clearRow(slot);
+        slots.put(id, slot);
+        return slot;
+    }
+
+    /**
+     * Drop the player's row, or during a match keep it until {@link #endMatch()}.
+     * Either way they stop counting as alive, so the win counts never wait on them.
+     */
+    public void leave(UUID id) {
+        Integer slot = slots.get(id);
+        if (slot == null) return;
+        if (inMatch) {
+            leaving[slot] = true;
+            eliminate(id);
+        } else {
+            release(slot);
+        }
+    }
+
+    public int slot(UUID id) {
+        Integer slot = slots.get(id);
+        return slot != null ? slot : NO_SLOT;
+    }
+
+    /**
+     * Player in {@code slot}, or null for a free slot. Iterate with {@link #capacity()}.
+     */
+    public UUID id(int slot) {
+        return ids[slot];
+    }
+
+    /**
+     * Upper bound for slot iteration; free slots below it have a null {@link #id}.
+     */
+    public int capacity() {
+        return size;
+    }
+
+    // ===== Match =====
+
+    /**
+     * Mark every queued player alive with fresh match columns. Roles are set
+     * afterwards with {@link #setRole}.
+     */
+    public void beginMatch() {
+        inMatch = true;
+        aliveCount = innocentsAlive = murderersAlive = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (ids[slot] == null) continue;
+            if (leaving[slot]) {
+                release(slot);
+                continue;
+            }
+            clearRow(slot);
+            alive[slot] = true;
+            aliveCount++;
+        }
+    }
+
+    /**
+     * Clear roles and alive bits and free the rows of players who left during the match.
+     */
+    public void endMatch() {
+        inMatch = false;
+        aliveCount = innocentsAlive = murderersAlive = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (ids[slot] == null) continue;
+            if (leaving[slot]) {
+                release(slot);
+            } else {
+                roles[slot] = NO_ROLE;
+                alive[slot] = false;
+                charging[slot] = false;
+            }
+        }
+    }
+
+    public boolean inMatch() {
+        return inMatch;
+    }
+
+    // ===== Role & alive =====
+
+    public void setRole(int slot, MurderRole role) {
+        boolean counted = alive[slot];
+        if (counted) count(roles[slot], -1);
+        roles[slot] = role != null ? (byte) (role.ordinal() + 1) : NO_ROLE;
+        if (counted) count(roles[slot], 1);
+    }
+
+    /**
+     * The player's role this match, or null outside a match.
+     */
+    public MurderRole role(int slot) {
+        byte r = roles[slot];
+        return r == NO_ROLE ? null : ROLES[r - 1];
+    }
+
+    public MurderRole roleOf(UUID id) {
+        int slot = slot(id);
+        return slot == NO_SLOT ? null : role(slot);
+    }
+
+    public boolean isAlive(int slot) {
+        return alive[slot];
+    }
+
+    public boolean isAlive(UUID id) {
+        int slot = slot(id);
+        return slot != NO_SLOT && alive[slot];
+    }
+
+    /**
+     * @return false if the player was not alive (already eliminated or not in the match)
+     */
+    public boolean eliminate(UUID id) {
+        int slot = slot(id);
+        if (slot == NO_SLOT || !alive[slot]) return false;
+        alive[slot] = false;
+        aliveCount--;
+        count(roles[slot], -1);
+        return true;
+    }
+
+    public int aliveCount() {
+        return aliveCount;
+    }
+
+    /**
+     * Non-murderers alive: innocents plus the detective.
+     */
+    public int innocentsAlive() {
+        return innocentsAlive;
+    }
+
+    public boolean murdererAlive() {
+        return murderersAlive > 0;
+    }
+
+    /**
+     * Snapshot of the players alive now.
+     */
+    public List<UUID> aliveIds() {
+        List<UUID> out = new ArrayList<>(aliveCount);
+        for (int slot = 0; slot < size; slot++) {
+            if (alive[slot]) out.add(ids[slot]);
+        }
+        return out;
+    }
+
+    // ===== Gold, cooldowns & stats =====
+
+    public int gold(int slot) {
+        return gold[slot];
+    }
+
+    public void setGold(int slot, int amount) {
+        gold[slot] = amount;
+    }
+
+    public long throwReadyAt(int slot) {
+        return throwReadyAt[slot];
+    }
+
+    public void setThrowReadyAt(int slot, long millis) {
+        throwReadyAt[slot] = millis;
+    }
+
+    public boolean isCharging(int slot) {
+        return charging[slot];
+    }
+
+    public void setCharging(int slot, boolean value) {
+        charging[slot] = value;
+    }
+
+    public int kills(UUID id) {
+        int slot = slot(id);
+        return slot == NO_SLOT ? 0 : kills[slot];
+    }
+
+    public void addKill(int slot) {
+        kills[slot]++;
+    }
+
+    // ===== Internals =====
+
+    private void count(byte role, int delta) {
+        if (role == NO_ROLE) return;
+        if (ROLES[role - 1] == MurderRole.MURDERER) {
+            murderersAlive += delta;
+        } else {
+            innocentsAlive += delta;
+        }
+    }
+
+    private void clearRow(int slot) {
+        roles[slot] = NO_ROLE;
+        alive[slot] = false;
+        leaving[slot] = false;
+        charging[slot] = false;
+        gold[slot] = 0;
+        kills[slot] = 0;
+        throwReadyAt[slot] = 0L;
+    }
+
+    private void release(int slot) {
+        if (alive[slot]) {
+            alive[slot] = false;
+            aliveCount--;
+            count(roles[slot], -1);
+        }
+        slots.remove(ids[slot]);
+        ids[slot] = null;
+        clearRow(slot);
+        if (freeCount == free.length) free = Arrays.copyOf(free, Math.max(8, free.length * 2));
+        free[freeCount++] = slot;
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        roles = Arrays.copyOf(roles, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+        leaving = Arrays.copyOf(leaving, capacity);
+        charging = Arrays.copyOf(charging, capacity);
+        gold = Arrays.copyOf(gold, capacity);
+        kills = Arrays.copyOf(kills, capacity);
+        throwReadyAt = Arrays.copyOf(throwReadyAt, capacity);
+    }
+}
@@ -0,0 +1,173 @@
+package com.mmhq.game.arena;
+
+import com.mmhq.sharedapi.mappack.MapPack;
+import com.mmhq.sharedapi.mappack.MapPackFormat;
+import com.mmhq.sharedapi.mappack.SpawnOrder;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Verified game spawns for one map, in assignment order.
+ *
+ * Built once per map prepare by {@link SpawnTables}: every configured spawn
+ * is checked against a chunk snapshot (feet and head must be passable), an
+ * obstructed spawn is moved up to the first free space within
+ * {@link #MAX_RAISE} blocks or onto the highest block, and the spawns are
+ * ordered so that each next one is as far as possible from those before it.
+ * Handing out spawns in that order spreads any number of players out.
+ *
+ * Stores coordinates only, so a table stays valid across arena resets that
+ * reload the world.
+ */
+public final class SpawnTable {
+    static final int MAX_RAISE = MapPackFormat.MAX_SPAWN_RAISE;
+
+    private final String mapName;
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    private final float[] yaw;
+    private final float[] pitch;
+    private final List<String> corrections;
+
+    private SpawnTable(String mapName, double[] x, double[] y, double[] z, float[] yaw, float[] pitch, List<String> corrections) {
+        this.mapName = mapName;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.yaw = yaw;
+        this.pitch = pitch;
+        this.corrections = Collections.unmodifiableList(corrections);
+    }
+
+    public String mapName() {
+        return mapName;
+    }
+
+    public int size() {
+        return x.length;
+    }
+
+    /**
+     * The {@code index}-th spawn in assignment order (wraps around), or null if the table is empty.
+     */
+    public Location spawn(int index, World world) {
+        if (x.length == 0) return null;
+        int i = Math.floorMod(index, x.length);
+        return new Location(world, x[i], y[i], z[i], yaw[i], pitch[i]);
+    }
+
+    /**
+     * One line per spawn whose Y had to be corrected.
+     */
+    public List<String> corrections() {
+        return corrections;
+    }
+
+    // ===== Building (any thread) =====
+
+    /**
+     * @param spawns    configured spawns (world ignored)
+     * @param snapshots chunk snapshots keyed by {@link #chunkKey}
+     */
+    static SpawnTable build(String mapName, List<Location> spawns, Map<Long, ChunkSnapshot> snapshots, int maxHeight) {
+        int n = spawns.size();
+        double[] sx = new double[n];
+        double[] sy = new double[n];
+        double[] sz = new double[n];
+        List<String> corrections = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Location l = spawns.get(i);
+            sx[i] = l.getX();
+            sz[i] = l.getZ();
+            sy[i] = l.getY();
+            ChunkSnapshot chunk = snapshots.get(chunkKey(l.getBlockX() >> 4, l.getBlockZ() >> 4));
+            if (chunk == null) continue;
+            int bx = l.getBlockX() & 15;
+            int bz = l.getBlockZ() & 15;
+            int feet = l.getBlockY();
+            if (isFree(chunk, bx, feet, bz, maxHeight)) continue;
+            int fixed = -1;
+            for (int up = 1; up <= MAX_RAISE && fixed < 0; up++) {
+                if (isFree(chunk, bx, feet + up, bz, maxHeight)) fixed = feet + up;
+            }
+            if (fixed < 0) fixed = chunk.getHighestBlockYAt(bx, bz) + 1;
+            // Keep the configured offset within the block (e.g. half slabs)
+            sy[i] = fixed + (l.getY() - feet);
+            corrections.add("#" + (i + 1) + " at " + l.getBlockX() + "," + feet + "," + l.getBlockZ()
+                    + " -> Y=" + fixed + " (" + typeAt(chunk, bx, feet, bz, maxHeight) + " in the way)");
+        }
+
+        int[] order = SpawnOrder.farthestFirst(sx, sz);
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] z = new double[n];
+        float[] yaw = new float[n];
+        float[] pitch = new float[n];
+        for (int i = 0; i < n; i++) {
+            int from = order[i];
+            Location l = spawns.get(from);
+            x[i] = sx[from];
+            y[i] = sy[from];
+            z[i] = sz[from];
+            yaw[i] = l.getYaw();
+            pitch[i] = l.getPitch();
+        }
+        return new SpawnTable(mapName, x, y, z, yaw, pitch, corrections);
+    }
+
+    /**
+     * Table straight from a compiled map pack, whose spawns are already validated and ordered.
+     */
+    static SpawnTable fromPack(String mapName, MapPack pack) {
+        List<MapPack.Spawn> spawns = pack.spawns();
+        int n = spawns.size();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] z = new double[n];
+        float[] yaw = new float[n];
+        float[] pitch = new float[n];
+        List<String> corrections = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            MapPack.Spawn s = spawns.get(i);
+            x[i] = s.x();
+            y[i] = s.y();
+            z[i] = s.z();
+            yaw[i] = s.yaw();
+            pitch[i] = s.pitch();
+            if (s.corrected()) {
+                corrections.add("at " + (int) Math.floor(s.x()) + "," + (int) Math.floor(s.configuredY()) + "," + (int) Math.floor(s.z())
+                        + " -> Y=" + (int) Math.floor(s.y()) + " (corrected by the map compiler)");
+            }
+        }
+        return new SpawnTable(mapName, x, y, z, yaw, pitch, corrections);
+    }
+
+    static long chunkKey(int cx, int cz) {
+        return ((long) cx << 32) ^ (cz & 0xFFFFFFFFL);
+    }
+
+    private static boolean isFree(ChunkSnapshot chunk, int x, int y, int z, int maxHeight) {
+        return isPassable(chunk, x, y, z, maxHeight) && isPassable(chunk, x, y + 1, z, maxHeight);
+    }
+
+    private static boolean isPassable(ChunkSnapshot chunk, int x, int y, int z, int maxHeight) {
+        if (y < 0 || y >= maxHeight) return y >= maxHeight;
+        Material type = typeAt(chunk, x, y, z, maxHeight);
+        // Air and other non-solid blocks are passable
+        return type == null || type == Material.AIR || !type.isSolid();
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Material typeAt(ChunkSnapshot chunk, int x, int y, int z, int maxHeight) {
+        if (y < 0 || y >= maxHeight) return Material.AIR;
+        return Material.getMaterial(chunk.getBlockTypeId(x, y, z));
+    }
+}
@@ -0,0 +1,108 @@
+package com.mmhq.game.arena;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Per-map {@link SpawnTable}s, validated when the map is prepared.
+ *
+ * {@link #prepare} snapshots the chunks under the map's spawns on the main
+ * thread (the only part that touches the world) and builds the table on an
+ * async task. At round start {@link #tableFor} just returns the finished
+ * table; a map that was never prepared is validated on the spot instead.
+ * Corrections are logged once per prepare, not once per round.
+ * Maps with a compiled pack skip all of this: the pack's spawns were
+ * validated and ordered offline.
+ */
+public final class SpawnTables {
+    private final JavaPlugin plugin;
+    private final Map<String, CompletableFuture<SpawnTable>> tables = new HashMap<>(); // main thread
+
+    public SpawnTables(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Validate the map's spawns in the background. Main thread.
+     */
+    public CompletableFuture<SpawnTable> prepare(MapDefinition map, World world) {
+        String name = map.name();
+        if (map.pack() != null) {
+            SpawnTable table = SpawnTable.fromPack(name, map.pack());
+            report(table, 0);
+            CompletableFuture<SpawnTable> done = CompletableFuture.completedFuture(table);
+            tables.put(key(name), done);
+            return done;
+        }
+        List<Location> spawns = map.gameSpawns();
+        Map<Long, ChunkSnapshot> snapshots = snapshot(world, spawns);
+        int maxHeight = world.getMaxHeight();
+        CompletableFuture<SpawnTable> future = new CompletableFuture<>();
+        tables.put(key(name), future);
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                long start = System.nanoTime();
+                SpawnTable table = SpawnTable.build(name, spawns, snapshots, maxHeight);
+                report(table, (System.nanoTime() - start) / 1_000_000);
+                future.complete(table);
+            } catch (Throwable t) {
+                plugin.getLogger().warning("[Spawns] Validation failed for " + name + ": " + t);
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Spawn table for the map, validating synchronously if no prepared one is ready. Main thread.
+     */
+    public SpawnTable tableFor(MapDefinition map, World world) {
+        CompletableFuture<SpawnTable> future = tables.get(key(map.name()));
+        if (future != null && future.isDone() && !future.isCompletedExceptionally()) {
+            return future.join();
+        }
+        if (map.pack() != null) {
+            return prepare(map, world).join();
+        }
+        plugin.getLogger().warning("[Spawns] No prepared spawn table for " + map.name() + " - validating now");
+        List<Location> spawns = map.gameSpawns();
+        SpawnTable table = SpawnTable.build(map.name(), spawns, snapshot(world, spawns), world.getMaxHeight());
+        report(table, 0);
+        tables.put(key(map.name()), CompletableFuture.completedFuture(table));
+        return table;
+    }
+
+    private static Map<Long, ChunkSnapshot> snapshot(World world, List<Location> spawns) {
+        Map<Long, ChunkSnapshot> snapshots = new HashMap<>();
+        for (Location l : spawns) {
+            int cx = l.getBlockX() >> 4;
+            int cz = l.getBlockZ() >> 4;
+            long key = SpawnTable.chunkKey(cx, cz);
+            if (!snapshots.containsKey(key)) {
+                snapshots.put(key, world.getChunkAt(cx, cz).getChunkSnapshot());
+            }
+        }
+        return snapshots;
+    }
+
+    private void report(SpawnTable table, long millis) {
+        plugin.getLogger().info("[Spawns] " + table.mapName() + ": " + table.size() + " spawn(s) verified in " + millis + "ms, "
+                + table.corrections().size() + " corrected");
+        for (String line : table.corrections()) {
+            plugin.getLogger().warning("[Spawns] " + table.mapName() + " spawn " + line + " - fix the map config");
+        }
+    }
+
+    private static String key(String mapName) {
+        return mapName.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,6 +1,8 @@
 package com.mmhq.game.arena.features;
 
-import org.bukkit.Bukkit;
+import com.mmhq.game.arena.trigger.Region;
+import com.mmhq.game.arena.trigger.Trigger;
+import com.mmhq.game.arena.trigger.TriggerListener;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.ArmorStand;
@@ -8,9 +10,13 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
-import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
 /**
  * Ancient Tomb map feature: Kali vendor NPC.
  * Players can interact with Kali to spend gold on rewards (stub for now).
@@ -19,13 +25,38 @@ import org.bukkit.plugin.java.JavaPlugin;
 public final class AncientTombFeature implements MapFeature, Listener {
     private final JavaPlugin plugin;
     private final World world;
+    private final FeatureContext context;
+    private final Map<UUID, Trigger> standTriggers = new HashMap<>();
     private ArmorStand kaliNpc;
     private static final String KALI_LOCATION = "Kali location TBD"; // TODO: confirm coords
     private static final boolean DEBUG = true;
+    // sqrt(2): same "walking through" distance the old move check used (distanceSquared < 2)
+    private static final double STAND_CONTACT_RADIUS = 1.4142;
 
-    public AncientTombFeature(JavaPlugin plugin, World world) {
-        this.plugin = plugin;
-        this.world = world;
+    public AncientTombFeature(FeatureContext context) {
+        this.plugin = context.plugin();
+        this.world = context.world();
+        this.context = context;
+    }
+
+    /**
+     * ServiceLoader entry point.
+     */
+    public static final class Factory implements MapFeatureFactory {
+        @Override
+        public String id() {
+            return "ancientTomb";
+        }
+
+        @Override
+        public Set<String> defaultMaps() {
+            return Set.of("AncientTomb");
+        }
+
+        @Override
+        public MapFeature create(FeatureContext context) {
+            return new AncientTombFeature(context);
+        }
     }
 
     @Override
@@ -45,7 +76,8 @@ public final class AncientTombFeature implements MapFeature, Listener {
     @Override
     public void start() {
         debugLog("start() called - registering event listeners");
-        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        context.registerListener(this);
+        armStandTriggers();
         plugin.getLogger().info("[AncientTomb] Feature STARTED - vendors active, armor stands breakable");
         debugLog("start() complete");
     }
@@ -53,6 +85,8 @@ public final class AncientTombFeature implements MapFeature, Listener {
     @Override
     public void stop() {
         debugLog("stop() called");
+        // Listener and triggers are released by the feature context
+        standTriggers.clear();
         plugin.getLogger().info("[AncientTomb] Feature STOPPED");
     }
 
@@ -116,29 +150,35 @@ public final class AncientTombFeature implements MapFeature, Listener {
         if (stand.getCustomName() != null && stand.getCustomName().contains("Armor")) {
             plugin.getLogger().info("[AncientTomb] Armor stand BROKEN by " + damager.getName() + " at " + stand.getLocation());
             debugLog("onEntityDamage() - armor stand destroyed by punch");
+            context.unregisterTrigger(standTriggers.remove(stand.getUniqueId()));
             stand.remove();
         }
     }
 
     /**
-     * Detect if player walks through armor stands (proximity check).
+     * Detect if player walks through armor stands: one small trigger per breakable stand,
+     * registered when the feature starts.
      */
-    @EventHandler
-    public void onPlayerMove(PlayerMoveEvent event) {
-        Player player = event.getPlayer();
-        Location loc = player.getLocation();
-        
+    private void armStandTriggers() {
         for (ArmorStand stand : world.getEntitiesByClass(ArmorStand.class)) {
             if (stand.equals(kaliNpc)) continue;
-            
-            // 1-block proximity = walking through
-            if (loc.distanceSquared(stand.getLocation()) < 2.0) {
-                if (stand.getCustomName() != null && stand.getCustomName().contains("Armor")) {
-                    plugin.getLogger().info("[AncientTomb] Armor stand DESTROYED by walking through (player: " + player.getName() + ")");
-                    debugLog("onPlayerMove() - armor stand destroyed by contact at " + stand.getLocation());
-                    stand.remove();
-                }
-            }
+            if (stand.getCustomName() == null || !stand.getCustomName().contains("Armor")) continue;
+
+            Location l = stand.getLocation();
+            Trigger trigger = context.registerTrigger("stand-" + stand.getEntityId(),
+                    Region.sphere(l.getX(), l.getY(), l.getZ(), STAND_CONTACT_RADIUS),
+                    new TriggerListener() {
+                        @Override
+                        public void onEnter(Player player, Trigger t) {
+                            if (!stand.isValid()) return;
+                            plugin.getLogger().info("[AncientTomb] Armor stand DESTROYED by walking through (player: " + player.getName() + ")");
+                            debugLog("stand trigger - armor stand destroyed by contact at " + stand.getLocation());
+                            stand.remove();
+                            context.unregisterTrigger(standTriggers.remove(stand.getUniqueId()));
+                        }
+                    });
+            standTriggers.put(stand.getUniqueId(), trigger);
         }
+        debugLog("armStandTriggers() - " + standTriggers.size() + " breakable stands armed");
     }
 }
@@ -0,0 +1,111 @@
+package com.mmhq.game.arena.features;
+
+/**
+ * Per-feature tick time budget.
+ *
+ * Every task and event handler registered through a {@link FeatureContext} is
+ * timed into the current tick's usage. At the end of each tick
+ * ({@link #endTick()}) usage is compared against the budget:
+ * - over budget: throttle level goes up, so scheduled tasks only run every 2^level ticks
+ * - comfortably under (half the budget) for {@link #RECOVER_TICKS}: level goes back down
+ * - still over budget at max throttle for {@link #DISABLE_AFTER_TICKS}: the feature is marked for disable
+ * Within a tick, tasks and trigger onStay callbacks are also skipped once the
+ * budget is already spent, and trigger enter/exit callbacks are deferred to the
+ * next tick ({@link FeatureContext}). Event handlers always run, since the
+ * event's outcome is read as soon as they return; their time still counts
+ * towards throttling and disabling.
+ */
+public final class FeatureBudget {
+    static final int MAX_LEVEL = 4;           // run at most every 16 ticks
+    static final int RECOVER_TICKS = 100;
+    static final int DISABLE_AFTER_TICKS = 200;
+
+    private final long budgetNanos;
+    private long usedThisTick;
+    private long tick;
+    private int level;
+    private int goodStreak;
+    private int maxLevelOverrunStreak;
+    private boolean disableRequested;
+
+    // Stats for logging / debug
+    private long overrunTicks;
+    private long skippedRuns;
+    private long deferredRuns;
+    private long worstTickNanos;
+
+    public FeatureBudget(long budgetNanos) {
+        this.budgetNanos = Math.max(1L, budgetNanos);
+    }
+
+    /**
+     * Should a scheduled task run this tick?
+     */
+    boolean allowTask() {
+        if (disableRequested) return false;
+        if (usedThisTick >= budgetNanos || (level > 0 && (tick & ((1L << level) - 1)) != 0)) {
+            skippedRuns++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Has this tick's budget been used up?
+     */
+    boolean spent() {
+        return usedThisTick >= budgetNanos;
+    }
+
+    void deferred() {
+        deferredRuns++;
+    }
+
+    void record(long nanos) {
+        usedThisTick += nanos;
+    }
+
+    /**
+     * Close the current tick.
+     * @return An overrun message if the throttle level changed, else null
+     */
+    public String endTick() {
+        tick++;
+        long used = usedThisTick;
+        usedThisTick = 0;
+        if (used > worstTickNanos) worstTickNanos = used;
+
+        if (used > budgetNanos) {
+            overrunTicks++;
+            goodStreak = 0;
+            if (level == MAX_LEVEL) {
+                if (++maxLevelOverrunStreak >= DISABLE_AFTER_TICKS) disableRequested = true;
+                return null;
+            }
+            level++;
+            return String.format("over budget (%dus > %dus), throttled to every %d ticks",
+                    used / 1000, budgetNanos / 1000, 1 << level);
+        }
+
+        maxLevelOverrunStreak = 0;
+        if (level > 0 && used <= budgetNanos / 2 && ++goodStreak >= RECOVER_TICKS) {
+            goodStreak = 0;
+            level--;
+            return "recovered, now every " + (1 << level) + " ticks";
+        }
+        return null;
+    }
+
+    public boolean disableRequested() {
+        return disableRequested;
+    }
+
+    public int level() {
+        return level;
+    }
+
+    public String summary() {
+        return String.format("budget=%dus level=%d overrunTicks=%d skipped=%d deferred=%d worst=%dus",
+                budgetNanos / 1000, level, overrunTicks, skippedRuns, deferredRuns, worstTickNanos / 1000);
+    }
+}
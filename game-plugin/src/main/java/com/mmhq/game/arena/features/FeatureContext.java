@@ -0,0 +1,247 @@
+package com.mmhq.game.arena.features;
+
+import com.mmhq.game.arena.trigger.Region;
+import com.mmhq.game.arena.trigger.Trigger;
+import com.mmhq.game.arena.trigger.TriggerEngine;
+import com.mmhq.game.arena.trigger.TriggerListener;
+import com.mmhq.game.profiler.TickProfiler;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything a {@link MapFeature} is allowed to touch, scoped to its lifecycle.
+ *
+ * Listeners, tasks and triggers registered while the feature is running
+ * (between {@code start()} and {@code stop()}) are released automatically when
+ * it stops; anything registered during {@code init()} is released on
+ * {@code cleanup()}. Features never call registerEvents or the scheduler
+ * themselves, so nothing can leak from one match to the next.
+ *
+ * All work goes through the feature's {@link FeatureBudget} and shows up in
+ * the tick profiler as {@code feature.<name>}. Once the tick's budget is spent,
+ * repeating tasks and trigger onStay callbacks are skipped for the tick, and
+ * trigger enter/exit callbacks are queued and run in order at the start of
+ * the next tick ({@link #runDeferred()}).
+ */
+public final class FeatureContext {
+    private final JavaPlugin plugin;
+    private final World world;
+    private final String mapName;
+    private final ConfigurationSection mapConfig;
+    private final TriggerEngine triggers;
+    private final FeatureBudget budget;
+    private String featureName = "?";
+    private TickProfiler.Section section = TickProfiler.section("feature.?");
+
+    private final Scope lifeScope = new Scope();
+    private Scope runScope;
+    private final ArrayDeque<Runnable> deferred = new ArrayDeque<>();
+
+    public FeatureContext(JavaPlugin plugin, World world, String mapName, ConfigurationSection mapConfig,
+                   TriggerEngine triggers, FeatureBudget budget) {
+        this.plugin = plugin;
+        this.world = world;
+        this.mapName = mapName;
+        this.mapConfig = mapConfig;
+        this.triggers = triggers;
+        this.budget = budget;
+    }
+
+    public JavaPlugin plugin() {
+        return plugin;
+    }
+
+    public World world() {
+        return world;
+    }
+
+    public String mapName() {
+        return mapName;
+    }
+
+    /**
+     * The map's section in config.yml ({@code maps.<map>}), or null.
+     */
+    public ConfigurationSection mapConfig() {
+        return mapConfig;
+    }
+
+    public FeatureBudget budget() {
+        return budget;
+    }
+
+    // ===== Scoped registration =====
+
+    /**
+     * Register an event listener. Handler time counts against the feature's budget.
+     */
+    public void registerListener(Listener listener) {
+        TickProfiler.registerEvents(plugin, listener, "feature." + featureName, budget::record);
+        scope().listeners.add(listener);
+    }
+
+    /**
+     * Repeating task. Skipped while the feature is throttled or has spent its budget for the tick.
+     */
+    public BukkitTask runTaskTimer(Runnable task, long delay, long period) {
+        BukkitTask handle = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+            if (!budget.allowTask()) return;
+            long t0 = System.nanoTime();
+            long s0 = section.start();
+            try {
+                task.run();
+            } catch (Throwable t) {
+                plugin.getLogger().warning("[Feature-" + featureName + "] task failed: " + t);
+            } finally {
+                section.stop(s0);
+                budget.record(System.nanoTime() - t0);
+            }
+        }, delay, period);
+        scope().tasks.add(handle);
+        return handle;
+    }
+
+    /**
+     * One-shot task. Always runs (not throttled) but is still timed.
+     */
+    public BukkitTask runTaskLater(Runnable task, long delay) {
+        BukkitTask handle = Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            long t0 = System.nanoTime();
+            long s0 = section.start();
+            try {
+                task.run();
+            } finally {
+                section.stop(s0);
+                budget.record(System.nanoTime() - t0);
+            }
+        }, delay);
+        scope().tasks.add(handle);
+        return handle;
+    }
+
+    /**
+     * Register a region trigger in this feature's world. Callback time counts against the budget;
+     * over budget, onStay is skipped and onEnter/onExit wait for the next tick.
+     */
+    public Trigger registerTrigger(String name, Region region, TriggerListener listener) {
+        Trigger trigger = triggers.register(featureName + ":" + name, world, region, new TriggerListener() {
+            @Override
+            public void onEnter(org.bukkit.entity.Player player, Trigger t) {
+                runOrDefer(() -> listener.onEnter(player, t));
+            }
+
+            @Override
+            public void onExit(org.bukkit.entity.Player player, Trigger t) {
+                runOrDefer(() -> listener.onExit(player, t));
+            }
+
+            @Override
+            public void onStay(org.bukkit.entity.Player player, Trigger t) {
+                if (!budget.allowTask()) return;
+                timed(() -> listener.onStay(player, t));
+            }
+        });
+        scope().triggers.add(trigger);
+        return trigger;
+    }
+
+    public void unregisterTrigger(Trigger trigger) {
+        if (trigger == null) return;
+        triggers.unregister(trigger);
+        lifeScope.triggers.remove(trigger);
+        if (runScope != null) runScope.triggers.remove(trigger);
+    }
+
+    /**
+     * Run now, or queue behind earlier deferred work if the budget is spent
+     * (or something is already queued, so enter/exit keep their order).
+     */
+    private void runOrDefer(Runnable work) {
+        if (!deferred.isEmpty() || budget.spent()) {
+            deferred.add(work);
+            budget.deferred();
+            return;
+        }
+        timed(work);
+    }
+
+    private void timed(Runnable work) {
+        long t0 = System.nanoTime();
+        long s0 = section.start();
+        try {
+            work.run();
+        } finally {
+            section.stop(s0);
+            budget.record(System.nanoTime() - t0);
+        }
+    }
+
+    /**
+     * Run queued trigger callbacks until the budget is spent again. Called by
+     * ArenaManager once per tick, after the budget window was closed.
+     */
+    public void runDeferred() {
+        while (!deferred.isEmpty() && !budget.spent() && !budget.disableRequested()) {
+            try {
+                timed(deferred.poll());
+            } catch (Throwable t) {
+                plugin.getLogger().warning("[Feature-" + featureName + "] deferred callback failed: " + t);
+            }
+        }
+    }
+
+    // ===== Lifecycle (driven by ArenaManager) =====
+
+    public void bind(MapFeature feature) {
+        this.featureName = feature.getName();
+        this.section = TickProfiler.section("feature." + featureName);
+    }
+
+    public void beginRun() {
+        if (runScope != null) endRun();
+        runScope = new Scope();
+    }
+
+    public void endRun() {
+        deferred.clear();
+        if (runScope == null) return;
+        runScope.close(triggers);
+        runScope = null;
+    }
+
+    public void close() {
+        endRun();
+        lifeScope.close(triggers);
+    }
+
+    private Scope scope() {
+        return runScope != null ? runScope : lifeScope;
+    }
+
+    /**
+     * Registrations that are released together.
+     */
+    private static final class Scope {
+        final List<Listener> listeners = new ArrayList<>();
+        final List<BukkitTask> tasks = new ArrayList<>();
+        final List<Trigger> triggers = new ArrayList<>();
+
+        void close(TriggerEngine engine) {
+            for (Listener l : listeners) HandlerList.unregisterAll(l);
+            for (BukkitTask t : tasks) t.cancel();
+            for (Trigger t : triggers) engine.unregister(t);
+            listeners.clear();
+            tasks.clear();
+            triggers.clear();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.mmhq.game.arena.features;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Known {@link MapFeatureFactory}s, keyed by lowercase id.
+ */
+public final class FeatureRegistry {
+    private final JavaPlugin plugin;
+    private final Map<String, MapFeatureFactory> factories = new LinkedHashMap<>();
+
+    public FeatureRegistry(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Load factories from META-INF/services using the plugin's class loader.
+     */
+    public void discover() {
+        Iterator<MapFeatureFactory> it = ServiceLoader.load(MapFeatureFactory.class, plugin.getClass().getClassLoader()).iterator();
+        while (true) {
+            try {
+                if (!it.hasNext()) break;
+                register(it.next());
+            } catch (ServiceConfigurationError e) {
+                plugin.getLogger().warning("[Features] Skipping bad feature provider: " + e.getMessage());
+            }
+        }
+        plugin.getLogger().info("[Features] Registered feature factories: " + factories.keySet());
+    }
+
+    /**
+     * Register (or replace) a factory. Other plugins can call this from their onEnable.
+     */
+    public void register(MapFeatureFactory factory) {
+        MapFeatureFactory old = factories.put(factory.id().toLowerCase(Locale.ROOT), factory);
+        if (old != null && old != factory) {
+            plugin.getLogger().info("[Features] Replaced feature factory: " + factory.id());
+        }
+    }
+
+    public Collection<MapFeatureFactory> all() {
+        return factories.values();
+    }
+
+    /**
+     * Factories for a map: the explicit {@code features} list if present, else defaults by map name.
+     */
+    public List<MapFeatureFactory> forMap(String mapName, ConfigurationSection mapConfig) {
+        List<MapFeatureFactory> out = new ArrayList<>();
+        if (mapConfig != null && mapConfig.isList("features")) {
+            for (String id : mapConfig.getStringList("features")) {
+                MapFeatureFactory f = factories.get(id.toLowerCase(Locale.ROOT));
+                if (f == null) {
+                    plugin.getLogger().warning("[Features] Map " + mapName + " lists unknown feature: " + id);
+                    continue;
+                }
+                out.add(f);
+            }
+            return out;
+        }
+        for (MapFeatureFactory f : factories.values()) {
+            if (f.defaultMaps().contains(mapName)) out.add(f);
+        }
+        return out;
+    }
+}
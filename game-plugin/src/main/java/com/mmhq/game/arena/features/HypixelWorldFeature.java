@@ -3,6 +3,8 @@ package com.mmhq.game.arena.features;
 import org.bukkit.World;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.Set;
+
 /**
  * Hypixel World map - currently no special features stubbed.
  * Can add parkour mechanics, custom kits, or other features as needed.
@@ -12,9 +14,29 @@ public final class HypixelWorldFeature implements MapFeature {
     private final World world;
     private static final boolean DEBUG = true;
 
-    public HypixelWorldFeature(JavaPlugin plugin, World world) {
-        this.plugin = plugin;
-        this.world = world;
+    public HypixelWorldFeature(FeatureContext context) {
+        this.plugin = context.plugin();
+        this.world = context.world();
+    }
+
+    /**
+     * ServiceLoader entry point.
+     */
+    public static final class Factory implements MapFeatureFactory {
+        @Override
+        public String id() {
+            return "hypixelWorld";
+        }
+
+        @Override
+        public Set<String> defaultMaps() {
+            return Set.of("HypixelWorld");
+        }
+
+        @Override
+        public MapFeature create(FeatureContext context) {
+            return new HypixelWorldFeature(context);
+        }
     }
 
     @Override
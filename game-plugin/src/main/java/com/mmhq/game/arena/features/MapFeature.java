@@ -1,11 +1,12 @@
 package com.mmhq.game.arena.features;
 
-import org.bukkit.Location;
-import org.bukkit.World;
-import org.bukkit.plugin.java.JavaPlugin;
-
 /**
  * Base interface for map-specific features (NPCs, trains, traps, etc.).
+ *
+ * Features are created by a {@link MapFeatureFactory} (discovered through
+ * META-INF/services) and receive a {@link FeatureContext}. Listeners, tasks and
+ * triggers must be registered through the context so they are released with
+ * the feature and counted against its tick budget.
  */
 public interface MapFeature {
     /**
@@ -20,6 +21,7 @@ public interface MapFeature {
 
     /**
      * Stop the feature. Called when the game ends or is reset.
+     * Anything registered through the context since start() is released afterwards.
      */
     void stop();
 
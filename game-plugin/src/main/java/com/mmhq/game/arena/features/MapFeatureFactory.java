@@ -0,0 +1,32 @@
+package com.mmhq.game.arena.features;
+
+import java.util.Set;
+
+/**
+ * Service interface for map features.
+ *
+ * Implementations are discovered with {@link java.util.ServiceLoader} from
+ * {@code META-INF/services/com.mmhq.game.arena.features.MapFeatureFactory}, or
+ * registered at runtime through {@link FeatureRegistry#register}. A map picks
+ * its features by id in {@code maps.<map>.features}; maps without that list
+ * get every factory whose {@link #defaultMaps()} names them.
+ */
+public interface MapFeatureFactory {
+    /**
+     * Stable id used in {@code maps.<map>.features}.
+     */
+    String id();
+
+    /**
+     * Maps that get this feature when they don't list features explicitly.
+     */
+    default Set<String> defaultMaps() {
+        return Set.of();
+    }
+
+    /**
+     * Create a feature instance for one prepared map. Must not register
+     * anything yet; that happens in {@link MapFeature#init()} through the context.
+     */
+    MapFeature create(FeatureContext context);
+}
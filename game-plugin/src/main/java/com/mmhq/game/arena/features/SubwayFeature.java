@@ -1,40 +1,58 @@
 package com.mmhq.game.arena.features;
 
-import org.bukkit.Bukkit;
+import com.mmhq.game.arena.hazard.HazardDefinition;
+import com.mmhq.game.arena.hazard.HazardEngine;
+import com.mmhq.game.arena.hazard.HazardPath;
+import com.mmhq.game.arena.trigger.Region;
+import com.mmhq.game.arena.trigger.Trigger;
+import com.mmhq.game.arena.trigger.TriggerListener;
 import org.bukkit.Location;
 import org.bukkit.World;
-import org.bukkit.entity.Entity;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
-import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitTask;
+
+import java.util.List;
+import java.util.Set;
 
 /**
  * Subway map feature: Moving train and contact traps.
- * - Train moves on a path and kills players on contact
- * - Traps trigger and kill players if they stay in trap zones
+ * - Trains are data-driven hazards (maps.<map>.hazards) that kill players on contact
+ * - Traps trigger and kill players if they stay in trap zones (region triggers)
  */
-public final class SubwayFeature implements MapFeature, Listener {
+public final class SubwayFeature implements MapFeature {
     private final JavaPlugin plugin;
     private final World world;
-    private BukkitTask trainTask;
-    private BukkitTask trapTask;
+    private final FeatureContext context;
+    private HazardEngine hazards;
+    private Trigger trapTrigger;
     private static final boolean DEBUG = true;
-
-    // Train path (TODO: load from config)
-    private double trainX = -80.0;
-    private final double trainY = 86.0;
-    private final double trainZ = 0.0;
-    private final double trainSpeed = 0.5;
-    private final double trainMaxX = 80.0;
-    private int trainTickCount = 0;
     private int trainKillCount = 0;
 
-    public SubwayFeature(JavaPlugin plugin, World world) {
-        this.plugin = plugin;
-        this.world = world;
+    public SubwayFeature(FeatureContext context) {
+        this.plugin = context.plugin();
+        this.world = context.world();
+        this.context = context;
+    }
+
+    /**
+     * ServiceLoader entry point.
+     */
+    public static final class Factory implements MapFeatureFactory {
+        @Override
+        public String id() {
+            return "subway";
+        }
+
+        @Override
+        public Set<String> defaultMaps() {
+            return Set.of("Subway");
+        }
+
+        @Override
+        public MapFeature create(FeatureContext context) {
+            return new SubwayFeature(context);
+        }
     }
 
     @Override
@@ -45,8 +63,9 @@ public final class SubwayFeature implements MapFeature, Listener {
             return;
         }
         
-        debugLog("init() starting - world: " + world.getName() + ", train path: X[-80, 80] Y86 Z0");
-        trainTickCount = 0;
+        List<HazardDefinition> defs = loadHazards();
+        debugLog("init() starting - world: " + world.getName() + ", hazards: " + defs.size());
+        hazards = new HazardEngine(plugin, world, defs, this::onHazardHit);
         trainKillCount = 0;
         plugin.getLogger().info("[Subway] Feature initialized - train route prepared, traps armed");
         debugLog("init() complete");
@@ -54,40 +73,29 @@ public final class SubwayFeature implements MapFeature, Listener {
 
     @Override
     public void start() {
-        debugLog("start() called - spawning train loop");
-        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        debugLog("start() called - starting hazards");
         
-        // Start train movement loop
-        trainTask = new org.bukkit.scheduler.BukkitRunnable() {
-            @Override
-            public void run() {
-                updateTrain();
-            }
-        }.runTaskTimer(plugin, 0L, 1L);
+        // Start trains
+        if (hazards != null) {
+            hazards.start();
+            context.runTaskTimer(hazards::tick, 1L, 1L);
+        }
         
-        // Periodic trap check
-        trapTask = new org.bukkit.scheduler.BukkitRunnable() {
-            @Override
-            public void run() {
-                checkTraps();
-            }
-        }.runTaskTimer(plugin, 0L, 5L);
+        // Trap zones (evaluated by the trigger engine, only when players move near them)
+        armTraps();
         
         plugin.getLogger().info("[Subway] Feature STARTED - train moving, traps active");
-        debugLog("start() complete - train task: " + trainTask.getTaskId() + ", trap task: " + trapTask.getTaskId());
+        debugLog("start() complete - hazards: " + (hazards != null ? hazards.size() : 0) + ", trap trigger: " + trapTrigger.name());
     }
 
     @Override
     public void stop() {
         debugLog("stop() called");
-        if (trainTask != null) {
-            trainTask.cancel();
-            trainTask = null;
-        }
-        if (trapTask != null) {
-            trapTask.cancel();
-            trapTask = null;
+        if (hazards != null) {
+            hazards.stop();
         }
+        // Train task and trap trigger are released by the feature context
+        trapTrigger = null;
         plugin.getLogger().info("[Subway] Feature STOPPED - train halted (" + trainKillCount + " kills total)");
         debugLog("stop() complete");
     }
@@ -104,46 +112,56 @@ public final class SubwayFeature implements MapFeature, Listener {
         return "Subway";
     }
 
-    private void updateTrain() {
-        trainTickCount++;
-        
-        // Move train along X axis
-        trainX += trainSpeed;
-        
-        // Bounce train at boundaries
-        if (trainX > trainMaxX) {
-            debugLog("updateTrain() tick " + trainTickCount + " - train bouncing back, X reset from " + trainX);
-            trainX = -80.0;
+    /**
+     * Hazards from maps.<map>.hazards, or the original single X-axis train if none are configured.
+     */
+    private List<HazardDefinition> loadHazards() {
+        List<HazardDefinition> defs;
+        try {
+            ConfigurationSection mapConfig = context.mapConfig();
+            defs = HazardDefinition.listFromConfig(mapConfig != null ? mapConfig.getConfigurationSection("hazards") : null);
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().severe("[Subway] Invalid hazard config, trains disabled: " + e.getMessage());
+            return List.of();
         }
-        
-        // Check for player contact with train
-        Location trainLoc = new Location(world, trainX, trainY, trainZ);
-        for (Player player : world.getPlayers()) {
-            if (player.getLocation().distanceSquared(trainLoc) < 4.0) {
-                plugin.getLogger().info("[Subway] TRAIN KILL - " + player.getName() + " hit at X" + String.format("%.1f", trainX));
-                debugLog("updateTrain() - player " + player.getName() + " KILLED by train at X" + String.format("%.1f", trainX));
-                trainKillCount++;
-                player.setHealth(0);
-            }
+        if (defs.isEmpty()) {
+            debugLog("loadHazards() - none configured, using default train X[-80, 80] Y86 Z0");
+            defs = List.of(new HazardDefinition("train",
+                    HazardPath.polyline(new double[][]{{-80.0, 86.0, 0.0}, {80.0, 86.0, 0.0}}, false),
+                    0.5, HazardDefinition.Mode.LOOP, 0, 0,
+                    4.0, 4.0, 2.0, 2.0, true, null, 1.0));   // within 2 blocks of the train point, as before
         }
+        return defs;
+    }
+
+    private void onHazardHit(Player player, HazardDefinition hazard) {
+        if (!hazard.kill()) return;
+        Location at = player.getLocation();
+        plugin.getLogger().info("[Subway] TRAIN KILL - " + player.getName() + " hit by " + hazard.id()
+                + " at " + String.format("%.1f,%.1f,%.1f", at.getX(), at.getY(), at.getZ()));
+        trainKillCount++;
+        player.setHealth(0);
     }
 
-    private void checkTraps() {
+    private void armTraps() {
         // TODO: Define trap zones in config
         // For now, stub implementation
         
         // Example: trap zone at (0, 86, -50) with radius 5
-        Location trapZone = new Location(world, 0, 86, -50);
-        double trapRadius = 5.0;
-        
-        for (Player player : world.getPlayers()) {
-            if (player.getLocation().distanceSquared(trapZone) < trapRadius * trapRadius) {
+        trapTrigger = context.registerTrigger("trap", Region.sphere(0, 86, -50, 5.0), new TriggerListener() {
+            @Override
+            public void onEnter(Player player, Trigger trigger) {
+                debugLog("trap - player " + player.getName() + " entered trap zone");
+            }
+
+            @Override
+            public void onStay(Player player, Trigger trigger) {
                 // Player in trap - could apply poison, damage, or instant kill
                 // For now, stub
-                debugLog("checkTraps() - player " + player.getName() + " in trap zone");
+                debugLog("trap - player " + player.getName() + " in trap zone");
                 // player.addPotionEffect(new PotionEffect(PotionEffectType.POISON, 20*5, 2, true));
             }
-        }
+        });
     }
     
     private void debugLog(String msg) {
@@ -0,0 +1,166 @@
+package com.mmhq.game.arena.hazard;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Immutable description of a moving hazard (train, swinging blade, rotating trap...).
+ * Parsed from {@code maps.<map>.hazards.<id>} in config.yml.
+ *
+ * The hazard's volume is a box oriented along the path heading:
+ * {@code length} along the heading, {@code width} across it, and {@code height}
+ * upward from the path point. With a {@code radius} the volume is instead the
+ * ball of that radius around the path point, tested against players' feet
+ * (how the original Subway train killed); the box sizes then only lay out
+ * the visual.
+ */
+public final class HazardDefinition {
+
+    /**
+     * What happens when the hazard reaches the end of its path.
+     */
+    public enum Mode {
+        /** Jump back to the start (or keep going on a closed path). */
+        LOOP,
+        /** Reverse direction at each end. */
+        PINGPONG,
+        /** Run once per schedule interval, then wait off-path. */
+        ONCE
+    }
+
+    private final String id;
+    private final HazardPath path;
+    private final double speed;        // blocks per tick
+    private final Mode mode;
+    private final int delayTicks;      // before the first run
+    private final int pauseTicks;      // at each path end
+    private final double length;
+    private final double width;
+    private final double height;
+    private final double radius;       // 0 = use the box
+    private final boolean kill;
+    private final Material visualBlock; // null = no visual
+    private final double visualSpacing;
+
+    public HazardDefinition(String id, HazardPath path, double speed, Mode mode, int delayTicks, int pauseTicks,
+                            double length, double width, double height, boolean kill,
+                            Material visualBlock, double visualSpacing) {
+        this(id, path, speed, mode, delayTicks, pauseTicks, length, width, height, 0.0, kill, visualBlock, visualSpacing);
+    }
+
+    public HazardDefinition(String id, HazardPath path, double speed, Mode mode, int delayTicks, int pauseTicks,
+                            double length, double width, double height, double radius, boolean kill,
+                            Material visualBlock, double visualSpacing) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.path = Objects.requireNonNull(path, "path");
+        this.mode = Objects.requireNonNull(mode, "mode");
+        if (speed <= 0) throw new IllegalArgumentException("Hazard " + id + ": speed must be > 0");
+        if (length <= 0 || width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Hazard " + id + ": size must be > 0");
+        }
+        if (radius < 0) throw new IllegalArgumentException("Hazard " + id + ": radius must be >= 0");
+        this.speed = speed;
+        this.delayTicks = Math.max(0, delayTicks);
+        this.pauseTicks = Math.max(0, pauseTicks);
+        this.length = length;
+        this.width = width;
+        this.height = height;
+        this.radius = radius;
+        this.kill = kill;
+        this.visualBlock = visualBlock;
+        this.visualSpacing = Math.max(0.5, visualSpacing);
+    }
+
+    public String id() { return id; }
+    public HazardPath path() { return path; }
+    public double speed() { return speed; }
+    public Mode mode() { return mode; }
+    public int delayTicks() { return delayTicks; }
+    public int pauseTicks() { return pauseTicks; }
+    public double length() { return length; }
+    public double width() { return width; }
+    public double height() { return height; }
+    public double radius() { return radius; }
+    public boolean kill() { return kill; }
+    public Material visualBlock() { return visualBlock; }
+    public double visualSpacing() { return visualSpacing; }
+
+    // ===== CONFIG PARSING =====
+
+    /**
+     * Parse all hazards under a map's {@code hazards} section. Bad entries are
+     * reported through the exception message and abort the whole list, so a
+     * half-configured map never reaches a live match.
+     */
+    public static List<HazardDefinition> listFromConfig(ConfigurationSection hazards) {
+        List<HazardDefinition> out = new ArrayList<>();
+        if (hazards == null) return out;
+        for (String key : hazards.getKeys(false)) {
+            ConfigurationSection one = hazards.getConfigurationSection(key);
+            if (one != null) out.add(fromConfig(key, one));
+        }
+        return out;
+    }
+
+    public static HazardDefinition fromConfig(String id, ConfigurationSection sec) {
+        List<String> raw = sec.getStringList("path");
+        if (raw.size() < 2) {
+            throw new IllegalArgumentException("Hazard " + id + ": path needs at least 2 \"x,y,z\" points");
+        }
+        double[][] points = new double[raw.size()][];
+        for (int i = 0; i < raw.size(); i++) {
+            String[] parts = raw.get(i).split(",");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Hazard " + id + ": bad path point '" + raw.get(i) + "'");
+            }
+            points[i] = new double[]{
+                    Double.parseDouble(parts[0].trim()),
+                    Double.parseDouble(parts[1].trim()),
+                    Double.parseDouble(parts[2].trim())
+            };
+        }
+        boolean closed = sec.getBoolean("closed", false);
+        HazardPath path = sec.getBoolean("spline", false)
+                ? HazardPath.spline(points, closed, sec.getInt("splineSamples", 8))
+                : HazardPath.polyline(points, closed);
+
+        Mode mode;
+        try {
+            mode = Mode.valueOf(sec.getString("mode", "LOOP").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Hazard " + id + ": unknown mode " + sec.getString("mode"));
+        }
+
+        Material visual = null;
+        String block = sec.getString("visual.block");
+        if (block != null && !block.isEmpty()) {
+            visual = Material.matchMaterial(block);
+            if (visual == null) {
+                throw new IllegalArgumentException("Hazard " + id + ": unknown visual block " + block);
+            }
+        }
+
+        double radius = sec.getDouble("size.radius", 0.0);
+        double box = radius > 0 ? radius * 2 : 4.0;
+        return new HazardDefinition(
+                id,
+                path,
+                sec.getDouble("speed", 0.5),
+                mode,
+                sec.getInt("delayTicks", 0),
+                sec.getInt("pauseTicks", 0),
+                sec.getDouble("size.length", box),
+                sec.getDouble("size.width", box),
+                sec.getDouble("size.height", radius > 0 ? radius : 2.0),
+                radius,
+                sec.getBoolean("kill", true),
+                visual,
+                sec.getDouble("visual.spacing", 1.0)
+        );
+    }
+}
@@ -0,0 +1,369 @@
+package com.mmhq.game.arena.hazard;
+
+import com.mmhq.game.utils.NmsPackets;
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Drives a set of {@link HazardDefinition}s for one arena world.
+ *
+ * Once per tick the engine snapshots player positions into primitive arrays
+ * (one pass over the world's players, shared by every hazard), advances each
+ * hazard along its path, and tests the box swept between last tick's and this
+ * tick's position against the snapshot. Fast hazards can't tunnel through
+ * players, and adding hazards costs a few float compares per player each.
+ * Visuals are packet-only armor stands wearing the configured block.
+ *
+ * The engine does not schedule itself: the owning feature calls {@link #tick()}
+ * every tick from its (budgeted) feature context.
+ */
+public final class HazardEngine {
+
+    /**
+     * Called when a player is inside a hazard's swept volume.
+     */
+    public interface HitListener {
+        void onHit(Player player, HazardDefinition hazard);
+    }
+
+    private static final double PLAYER_HALF_WIDTH = 0.3;
+    private static final double PLAYER_HEIGHT = 1.8;
+    private static final double VIEW_DISTANCE_SQ = 64.0 * 64.0;
+    private static final double STAND_HEAD_OFFSET = 1.4; // armor stand head sits ~1.4 above its feet
+
+    private final JavaPlugin plugin;
+    private final World world;
+    private final List<RunningHazard> hazards = new ArrayList<>();
+    private final HitListener listener;
+
+    // Per-tick player snapshot (grown on demand, never shrunk)
+    private Player[] snapPlayers = new Player[16];
+    private double[] snapX = new double[16];
+    private double[] snapY = new double[16];
+    private double[] snapZ = new double[16];
+    private boolean[] snapHittable = new boolean[16];
+    private int snapCount;
+
+    public HazardEngine(JavaPlugin plugin, World world, List<HazardDefinition> definitions, HitListener listener) {
+        this.plugin = plugin;
+        this.world = world;
+        this.listener = listener;
+        for (HazardDefinition def : definitions) {
+            hazards.add(new RunningHazard(def));
+        }
+    }
+
+    public int size() {
+        return hazards.size();
+    }
+
+    /**
+     * Reset every hazard to the start of its schedule.
+     */
+    public void start() {
+        for (RunningHazard h : hazards) {
+            h.hideAll();
+            h.reset();
+        }
+    }
+
+    /**
+     * Remove all visuals. Call after the ticking task has been cancelled.
+     */
+    public void stop() {
+        for (RunningHazard h : hazards) h.hideAll();
+    }
+
+    // ===== Tick =====
+
+    public void tick() {
+        snapshotPlayers();
+        for (RunningHazard h : hazards) {
+            h.advance();
+            if (!h.onPath) continue;
+            h.collide();
+            h.render();
+        }
+        // Drop references so the snapshot doesn't pin Player objects between ticks
+        for (int i = 0; i < snapCount; i++) snapPlayers[i] = null;
+    }
+
+    private void snapshotPlayers() {
+        List<Player> players = world.getPlayers();
+        int n = players.size();
+        if (n > snapPlayers.length) {
+            int cap = Math.max(n, snapPlayers.length * 2);
+            snapPlayers = new Player[cap];
+            snapX = new double[cap];
+            snapY = new double[cap];
+            snapZ = new double[cap];
+            snapHittable = new boolean[cap];
+        }
+        snapCount = 0;
+        for (Player p : players) {
+            Location loc = p.getLocation();
+            int i = snapCount++;
+            snapPlayers[i] = p;
+            snapX[i] = loc.getX();
+            snapY[i] = loc.getY();
+            snapZ[i] = loc.getZ();
+            snapHittable[i] = !p.isDead() && p.getGameMode() != GameMode.SPECTATOR
+                    && p.getGameMode() != GameMode.CREATIVE;
+        }
+    }
+
+    // ===== Running state =====
+
+    private final class RunningHazard {
+        final HazardDefinition def;
+        final double[] prev = new double[5];
+        final double[] cur = new double[5];
+        double s;
+        double prevS;
+        int direction = 1;
+        int waitTicks;
+        boolean onPath;
+        boolean jumped;
+
+        NmsPackets.FakeStand[] stands;
+        final Set<UUID> viewers = new HashSet<>();
+        boolean placed;                     // stands moved at least once
+        double placedX, placedY, placedZ;   // path point they were last moved to
+        float placedYaw;
+
+        RunningHazard(HazardDefinition def) {
+            this.def = def;
+        }
+
+        void reset() {
+            s = 0;
+            prevS = 0;
+            direction = 1;
+            waitTicks = def.delayTicks();
+            onPath = true;
+            jumped = true;
+        }
+
+        void advance() {
+            if (waitTicks > 0) {
+                waitTicks--;
+                prevS = s;
+                if (waitTicks == 0 && !onPath) {
+                    // ONCE mode: next run
+                    s = 0;
+                    prevS = 0;
+                    onPath = true;
+                    jumped = true;
+                }
+                return;
+            }
+
+            prevS = s;
+            jumped = false;
+            s += direction * def.speed();
+            double len = def.path().length();
+
+            switch (def.mode()) {
+                case LOOP:
+                    if (s > len) {
+                        if (def.path().closed()) {
+                            s -= len;
+                        } else {
+                            s = 0;
+                            waitTicks = def.pauseTicks();
+                        }
+                        jumped = true;
+                    }
+                    break;
+                case PINGPONG:
+                    if (s > len) {
+                        s = len;
+                        direction = -1;
+                        waitTicks = def.pauseTicks();
+                    } else if (s < 0) {
+                        s = 0;
+                        direction = 1;
+                        waitTicks = def.pauseTicks();
+                    }
+                    break;
+                case ONCE:
+                    if (s > len) {
+                        s = len;
+                        onPath = false;
+                        waitTicks = Math.max(1, def.pauseTicks());
+                        hideAll();
+                    }
+                    break;
+            }
+        }
+
+        void collide() {
+            HazardPath path = def.path();
+            path.sample(s, cur);
+            double halfLen = def.length() * 0.5;
+            double mx = cur[0], mz = cur[2];
+            double minY = cur[1];
+            double maxY = cur[1];
+            if (!jumped) {
+                // Sweep: box stretched over the distance travelled this tick
+                path.sample(prevS, prev);
+                mx = (prev[0] + cur[0]) * 0.5;
+                mz = (prev[2] + cur[2]) * 0.5;
+                minY = Math.min(prev[1], cur[1]);
+                maxY = Math.max(prev[1], cur[1]);
+                halfLen += Math.abs(s - prevS) * 0.5;
+            }
+            if (def.radius() > 0) {
+                collideSphere();
+                return;
+            }
+            maxY += def.height();
+            double hx = cur[3], hz = cur[4];
+            double reachU = halfLen + PLAYER_HALF_WIDTH;
+            double reachV = def.width() * 0.5 + PLAYER_HALF_WIDTH;
+            double broad = Math.sqrt(reachU * reachU + reachV * reachV);
+
+            for (int i = 0; i < snapCount; i++) {
+                if (!snapHittable[i]) continue;
+                double rx = snapX[i] - mx, rz = snapZ[i] - mz;
+                if (rx > broad || rx < -broad || rz > broad || rz < -broad) continue;
+                double py = snapY[i];
+                if (py >= maxY || py + PLAYER_HEIGHT <= minY) continue;
+                double u = rx * hx + rz * hz;   // along heading
+                double v = -rx * hz + rz * hx;  // across heading
+                if (u > reachU || u < -reachU || v > reachV || v < -reachV) continue;
+
+                hit(i);
+            }
+        }
+
+        /**
+         * Radius contact: a player's feet within {@code radius} of the path
+         * point (or of the segment it travelled this tick).
+         */
+        void collideSphere() {
+            double ax = cur[0], ay = cur[1], az = cur[2];
+            double dx = 0, dy = 0, dz = 0;
+            if (!jumped) {
+                // prev was sampled by collide()
+                ax = prev[0];
+                ay = prev[1];
+                az = prev[2];
+                dx = cur[0] - ax;
+                dy = cur[1] - ay;
+                dz = cur[2] - az;
+            }
+            double segSq = dx * dx + dy * dy + dz * dz;
+            double r = def.radius();
+            double rSq = r * r;
+
+            for (int i = 0; i < snapCount; i++) {
+                if (!snapHittable[i]) continue;
+                double rx = snapX[i] - ax, ry = snapY[i] - ay, rz = snapZ[i] - az;
+                if (segSq > 0) {
+                    double t = (rx * dx + ry * dy + rz * dz) / segSq;
+                    if (t > 1) t = 1;
+                    else if (t < 0) t = 0;
+                    rx -= dx * t;
+                    ry -= dy * t;
+                    rz -= dz * t;
+                }
+                if (rx * rx + ry * ry + rz * rz >= rSq) continue;
+                hit(i);
+            }
+        }
+
+        void hit(int i) {
+            snapHittable[i] = false; // one hit per player per tick, across all hazards
+            try {
+                listener.onHit(snapPlayers[i], def);
+            } catch (Throwable t) {
+                plugin.getLogger().warning("[Hazards] " + def.id() + " hit handler failed: " + t);
+            }
+        }
+
+        void render() {
+            if (def.visualBlock() == null || !NmsPackets.isSupported()) return;
+            double[] c = cur; // sampled in collide()
+            if (stands == null) {
+                int count = Math.max(1, (int) Math.floor(def.length() / def.visualSpacing()) + 1);
+                stands = new NmsPackets.FakeStand[count];
+                ItemStack helmet = new ItemStack(def.visualBlock());
+                Location at = new Location(world, c[0], c[1] - STAND_HEAD_OFFSET, c[2]);
+                for (int i = 0; i < count; i++) {
+                    stands[i] = NmsPackets.createStand(at, helmet);
+                    if (stands[i] == null) {
+                        stands = null;
+                        return;
+                    }
+                }
+            }
+
+            // Spawn for new viewers in range
+            boolean newViewer = false;
+            for (int i = 0; i < snapCount; i++) {
+                Player p = snapPlayers[i];
+                double dx = snapX[i] - c[0], dz = snapZ[i] - c[2];
+                if (dx * dx + dz * dz > VIEW_DISTANCE_SQ) continue;
+                if (viewers.add(p.getUniqueId())) {
+                    for (NmsPackets.FakeStand stand : stands) stand.show(p);
+                    newViewer = true;
+                }
+            }
+            if (viewers.isEmpty()) return;
+
+            // Lay stands out along the heading, centred on the path point.
+            // Nothing to send while the hazard stands still (paused, or
+            // waiting between runs) unless someone just got the spawn packets,
+            // which carry the creation position.
+            float yaw = (float) Math.toDegrees(Math.atan2(-c[3], c[4]));
+            if (placed && !newViewer && c[0] == placedX && c[1] == placedY && c[2] == placedZ && yaw == placedYaw) {
+                return;
+            }
+            placed = true;
+            placedX = c[0];
+            placedY = c[1];
+            placedZ = c[2];
+            placedYaw = yaw;
+            double start = -def.length() * 0.5;
+            double step = stands.length > 1 ? def.length() / (stands.length - 1) : 0;
+            for (int k = 0; k < stands.length; k++) {
+                double off = start + step * k;
+                if (stands.length == 1) off = 0;
+                Object packet = stands[k].moveTo(c[0] + c[3] * off, c[1] - STAND_HEAD_OFFSET, c[2] + c[4] * off, yaw);
+                if (packet == null) continue;
+                for (int i = 0; i < snapCount; i++) {
+                    Player p = snapPlayers[i];
+                    if (viewers.contains(p.getUniqueId())) NmsPackets.send(p, packet);
+                }
+            }
+        }
+
+        void hideAll() {
+            if (stands == null || viewers.isEmpty()) {
+                viewers.clear();
+                return;
+            }
+            int[] ids = new int[stands.length];
+            for (int i = 0; i < stands.length; i++) ids[i] = stands[i].entityId;
+            Object destroy = NmsPackets.destroyPacket(ids);
+            for (UUID id : viewers) {
+                Player p = Bukkit.getPlayer(id);
+                if (p != null) NmsPackets.send(p, destroy);
+            }
+            viewers.clear();
+            placed = false;
+        }
+    }
+}
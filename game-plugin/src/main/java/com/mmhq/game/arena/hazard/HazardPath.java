@@ -0,0 +1,130 @@
+package com.mmhq.game.arena.hazard;
+
+/**
+ * Immutable path for a moving hazard, stored as a dense polyline with
+ * cumulative arc lengths. Splines are flattened into a polyline once at load,
+ * so sampling at runtime is a binary search plus a lerp with no allocation.
+ */
+public final class HazardPath {
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final double[] cum; // cum[i] = distance from point 0 to point i
+    private final boolean closed;
+
+    private HazardPath(double[] xs, double[] ys, double[] zs, boolean closed) {
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+        this.closed = closed;
+        this.cum = new double[xs.length];
+        for (int i = 1; i < xs.length; i++) {
+            double dx = xs[i] - xs[i - 1], dy = ys[i] - ys[i - 1], dz = zs[i] - zs[i - 1];
+            cum[i] = cum[i - 1] + Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+    }
+
+    /**
+     * Straight segments between the given points.
+     * @param points Array of {x, y, z}
+     * @param closed If true, the last point connects back to the first
+     */
+    public static HazardPath polyline(double[][] points, boolean closed) {
+        if (points.length < 2) throw new IllegalArgumentException("Hazard path needs at least 2 points");
+        int n = points.length + (closed ? 1 : 0);
+        double[] xs = new double[n], ys = new double[n], zs = new double[n];
+        for (int i = 0; i < n; i++) {
+            double[] p = points[i % points.length];
+            xs[i] = p[0];
+            ys[i] = p[1];
+            zs[i] = p[2];
+        }
+        return new HazardPath(xs, ys, zs, closed);
+    }
+
+    /**
+     * Centripetal-free (uniform) Catmull-Rom spline through the points, flattened
+     * into {@code samplesPerSegment} straight pieces per control segment.
+     */
+    public static HazardPath spline(double[][] points, boolean closed, int samplesPerSegment) {
+        if (points.length < 2) throw new IllegalArgumentException("Hazard path needs at least 2 points");
+        int count = points.length;
+        int segments = closed ? count : count - 1;
+        int n = segments * samplesPerSegment + 1;
+        double[] xs = new double[n], ys = new double[n], zs = new double[n];
+        int k = 0;
+        for (int seg = 0; seg < segments; seg++) {
+            double[] p0 = point(points, seg - 1, closed);
+            double[] p1 = point(points, seg, closed);
+            double[] p2 = point(points, seg + 1, closed);
+            double[] p3 = point(points, seg + 2, closed);
+            for (int s = 0; s < samplesPerSegment; s++) {
+                double t = (double) s / samplesPerSegment;
+                xs[k] = catmullRom(p0[0], p1[0], p2[0], p3[0], t);
+                ys[k] = catmullRom(p0[1], p1[1], p2[1], p3[1], t);
+                zs[k] = catmullRom(p0[2], p1[2], p2[2], p3[2], t);
+                k++;
+            }
+        }
+        double[] last = point(points, segments, closed);
+        xs[k] = last[0];
+        ys[k] = last[1];
+        zs[k] = last[2];
+        return new HazardPath(xs, ys, zs, closed);
+    }
+
+    public double length() {
+        return cum[cum.length - 1];
+    }
+
+    public boolean closed() {
+        return closed;
+    }
+
+    /**
+     * Sample the path at arc length {@code s} (clamped to [0, length]).
+     * Writes {x, y, z, dirX, dirZ} into {@code out}; dir is the horizontal unit
+     * heading of the segment (falls back to +X on vertical segments).
+     */
+    public void sample(double s, double[] out) {
+        if (s <= 0) s = 0;
+        double len = length();
+        if (s >= len) s = len;
+
+        // Binary search for the segment containing s
+        int lo = 0, hi = cum.length - 1;
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (cum[mid] <= s) lo = mid;
+            else hi = mid;
+        }
+        double segLen = cum[hi] - cum[lo];
+        double t = segLen <= 0 ? 0 : (s - cum[lo]) / segLen;
+        out[0] = xs[lo] + (xs[hi] - xs[lo]) * t;
+        out[1] = ys[lo] + (ys[hi] - ys[lo]) * t;
+        out[2] = zs[lo] + (zs[hi] - zs[lo]) * t;
+
+        double dx = xs[hi] - xs[lo], dz = zs[hi] - zs[lo];
+        double h = Math.sqrt(dx * dx + dz * dz);
+        if (h < 1.0e-6) {
+            out[3] = 1.0;
+            out[4] = 0.0;
+        } else {
+            out[3] = dx / h;
+            out[4] = dz / h;
+        }
+    }
+
+    // ===== Helpers =====
+
+    private static double[] point(double[][] points, int i, boolean closed) {
+        int n = points.length;
+        if (closed) return points[((i % n) + n) % n];
+        return points[Math.max(0, Math.min(n - 1, i))];
+    }
+
+    private static double catmullRom(double p0, double p1, double p2, double p3, double t) {
+        double t2 = t * t, t3 = t2 * t;
+        return 0.5 * ((2 * p1) + (-p0 + p2) * t + (2 * p0 - 5 * p1 + 4 * p2 - p3) * t2 + (-p0 + 3 * p1 - 3 * p2 + p3) * t3);
+    }
+}
@@ -1,5 +1,10 @@
 package com.mmhq.game.arena.managers;
 
+import com.mmhq.game.arena.trigger.Region;
+import com.mmhq.game.arena.trigger.Trigger;
+import com.mmhq.game.arena.trigger.TriggerEngine;
+import com.mmhq.game.arena.trigger.TriggerListener;
+import com.mmhq.game.journal.MatchJournal;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -7,32 +12,49 @@ import org.bukkit.World;
 import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.Player;
 import com.mmhq.sharedapi.game.MurderRole;
+import com.mmhq.game.profiler.TickProfiler;
+import com.mmhq.game.replay.ReplayRecorder;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitTask;
 
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Manages the detective bow drop: an invisible rotating armor stand holding a bow.
- * Auto pickup by innocents removes the stand and grants the bow.
+ * Auto pickup by innocents removes the stand and grants the bow; pickup range is a
+ * trigger region, so nothing runs on player movement while no bow is on the ground.
  */
 public final class DetectiveBowDropManager {
+    private static final double PICKUP_RADIUS = 1.5;
+
     private final JavaPlugin plugin;
+    private final TriggerEngine triggers;
+    private Consumer<Player> pickupHandler;
+    private Trigger pickupTrigger;
     private ArmorStand stand;
     private BukkitTask spinTask;
     private boolean dropped;
     private Location dropLocation;
 
-    public DetectiveBowDropManager(JavaPlugin plugin) {
+    public DetectiveBowDropManager(JavaPlugin plugin, TriggerEngine triggers) {
         this.plugin = plugin;
+        this.triggers = triggers;
         this.stand = null;
         this.spinTask = null;
         this.dropped = false;
         this.dropLocation = null;
     }
 
+    /**
+     * Called when a player steps into pickup range of a dropped bow. The handler
+     * decides (by role) whether to call {@link #tryPickup}.
+     */
+    public void setPickupHandler(Consumer<Player> pickupHandler) {
+        this.pickupHandler = pickupHandler;
+    }
+
     public boolean isDropped() {
         return dropped;
     }
@@ -58,32 +80,35 @@ public final class DetectiveBowDropManager {
         stand.setRightArmPose(new org.bukkit.util.EulerAngle(Math.PI / 2, 0, Math.PI / 2));
         stand.setHelmet(new ItemStack(Material.BOW));
         dropped = true;
+        MatchJournal.bowDrop(dropLocation);
 
         // Continuous 360 degree rotation via body pose
-        spinTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+        spinTask = Bukkit.getScheduler().runTaskTimer(plugin, TickProfiler.wrap("bow.spin", () -> {
             if (stand != null && stand.isValid()) {
                 Location standLoc = stand.getLocation();
                 standLoc.setYaw(standLoc.getYaw() + 2);
                 stand.teleport(standLoc);
             }
-        }, 0L, 2L); // Rotate every 2 ticks for smooth 360 rotation
+        }), 0L, 2L); // Rotate every 2 ticks for smooth 360 rotation
+
+        pickupTrigger = triggers.register("detective-bow", world,
+                Region.sphere(dropLocation.getX(), dropLocation.getY(), dropLocation.getZ(), PICKUP_RADIUS),
+                new TriggerListener() {
+                    @Override
+                    public void onEnter(Player player, Trigger trigger) {
+                        if (pickupHandler != null) pickupHandler.accept(player);
+                    }
+                });
     }
 
     public boolean tryPickup(Player player, MurderRole role) {
         if (!dropped || stand == null || !stand.isValid()) return false;
         if (role != MurderRole.INNOCENT) return false; // Only innocents can pick up
-        if (!player.getWorld().equals(stand.getWorld())) return false;
-        if (player.getLocation().distance(stand.getLocation()) > 1.5) return false;
+        // Range is enforced by the pickup trigger
 
-        // Grant tagged detective bow
-        ItemStack bow = new ItemStack(Material.BOW);
-        ItemMeta meta = bow.getItemMeta();
-        if (meta != null) {
-            meta.setDisplayName("Detective Bow");
-            bow.setItemMeta(meta);
-        }
-        player.getInventory().setItem(1, bow);
-        player.getInventory().setItem(10, new ItemStack(Material.ARROW)); // Off-hotbar inventory slot
+        // Bow and arrow come from the detective loadout template (applied by the game)
+        MatchJournal.bowPickup(player, MurderRole.DETECTIVE);
+        ReplayRecorder.role(player, MurderRole.DETECTIVE);
         clear();
         return true;
     }
@@ -91,6 +116,10 @@ public final class DetectiveBowDropManager {
     public void clear() {
         dropped = false;
         dropLocation = null;
+        if (pickupTrigger != null) {
+            triggers.unregister(pickupTrigger);
+            pickupTrigger = null;
+        }
         if (spinTask != null) {
             spinTask.cancel();
             spinTask = null;
@@ -1,7 +1,9 @@
 package com.mmhq.game.arena.managers;
 
+import com.mmhq.game.arena.PlayerTable;
 import com.mmhq.sharedapi.game.GameState;
 import com.mmhq.sharedapi.game.MurderRole;
+import com.mmhq.game.profiler.TickProfiler;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
@@ -14,13 +16,10 @@ import org.bukkit.scoreboard.Team;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
 
 public final class GameScoreboardManager {
     private final JavaPlugin plugin;
-    private final Map<UUID, MurderRole> playerRoles;
+    private final PlayerTable players;
     private final GoldCollectionManager goldManager;
     private final SimpleDateFormat dateFormat;
     private BukkitTask updateTask;
@@ -38,10 +37,10 @@ public final class GameScoreboardManager {
     private String currentMapName;
     private String serverId;
 
-    public GameScoreboardManager(JavaPlugin plugin, GoldCollectionManager goldManager, String serverId) {
+    public GameScoreboardManager(JavaPlugin plugin, GoldCollectionManager goldManager, PlayerTable players, String serverId) {
         this.plugin = plugin;
         this.goldManager = goldManager;
-        this.playerRoles = new HashMap<>();
+        this.players = players;
         this.dateFormat = new SimpleDateFormat("MM/dd/yy");
         this.currentState = GameState.LOBBY;
         this.innocentsLeft = 0;
@@ -50,10 +49,6 @@ public final class GameScoreboardManager {
         this.serverId = serverId;
     }
 
-    public void setPlayerRole(UUID playerId, MurderRole role) {
-        playerRoles.put(playerId, role);
-    }
-
     public void setState(GameState state) {
         this.currentState = state;
     }
@@ -101,11 +96,11 @@ public final class GameScoreboardManager {
             updateTask.cancel();
         }
         
-        updateTask = plugin.getServer().getScheduler().runTaskTimer(plugin, () -> {
+        updateTask = plugin.getServer().getScheduler().runTaskTimer(plugin, TickProfiler.wrap("scoreboard.update", () -> {
             for (Player player : Bukkit.getOnlinePlayers()) {
                 updateScoreboard(player);
             }
-        }, 0L, 20L); // Update every second
+        }), 0L, 20L); // Update every second
     }
 
     public void stopUpdating() {
@@ -120,7 +115,6 @@ public final class GameScoreboardManager {
     }
 
     public void reset() {
-        playerRoles.clear();
         currentState = GameState.LOBBY;
         innocentsLeft = 0;
         timeLeftSeconds = 0;
@@ -159,7 +153,7 @@ public final class GameScoreboardManager {
         }
         
         // Role
-        MurderRole role = playerRoles.get(player.getUniqueId());
+        MurderRole role = players.roleOf(player.getUniqueId());
         if (role != null && currentState == GameState.IN_GAME) {
             String roleColor = getRoleColor(role);
             String roleName = getRoleName(role);
@@ -1,6 +1,12 @@
 package com.mmhq.game.arena.managers;
 
+import com.mmhq.game.arena.PlayerTable;
+import com.mmhq.game.config.GameConfig;
+import com.mmhq.game.hud.ActionBarCompositor;
+import com.mmhq.game.journal.MatchJournal;
+import com.mmhq.game.metrics.GameMetrics;
 import com.mmhq.sharedapi.game.MurderRole;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
@@ -10,21 +16,23 @@ import org.bukkit.event.player.PlayerPickupItemEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.BitSet;
 import java.util.UUID;
 
 public final class GoldCollectionManager implements Listener {
     private final JavaPlugin plugin;
-    private final Map<UUID, Integer> goldCounts;
-    private final Map<UUID, MurderRole> playerRoles;
+    private final PlayerTable players;
+    private final BitSet dirtySlots;     // player table slots whose slot 9 stack is stale
     private boolean bowDropped;
     private DetectiveBowDropManager bowDropManager;
 
-    public GoldCollectionManager(JavaPlugin plugin) {
+    /**
+     * @param players The arena's player table; gold counts and roles live there
+     */
+    public GoldCollectionManager(JavaPlugin plugin, PlayerTable players) {
         this.plugin = plugin;
-        this.goldCounts = new HashMap<>();
-        this.playerRoles = new HashMap<>();
+        this.players = players;
+        this.dirtySlots = new BitSet();
         this.bowDropped = false;
     }
 
@@ -32,13 +40,9 @@ public final class GoldCollectionManager implements Listener {
         this.bowDropManager = mgr;
     }
 
-    public void setPlayerRole(UUID playerId, MurderRole role) {
-        playerRoles.put(playerId, role);
-        goldCounts.put(playerId, 0);
-    }
-
     public int getGoldCount(UUID playerId) {
-        return goldCounts.getOrDefault(playerId, 0);
+        int slot = players.slot(playerId);
+        return slot == PlayerTable.NO_SLOT ? 0 : players.gold(slot);
     }
 
     public boolean isBowDropped() {
@@ -50,12 +54,15 @@ public final class GoldCollectionManager implements Listener {
     }
 
     public void reset() {
-        goldCounts.clear();
-        playerRoles.clear();
+        dirtySlots.clear();
         bowDropped = false;
         if (bowDropManager != null) bowDropManager.clear();
     }
 
+    /**
+     * Fallback path for real gold item entities (only used when the server
+     * cannot render packet-only gold, see {@link GoldSpawnManager}).
+     */
     @EventHandler
     public void onPlayerPickupItem(PlayerPickupItemEvent event) {
         Player player = event.getPlayer();
@@ -65,46 +72,69 @@ public final class GoldCollectionManager implements Listener {
             return;
         }
 
-        UUID playerId = player.getUniqueId();
-        MurderRole role = playerRoles.get(playerId);
-
-        if (role == null) {
+        int slot = players.slot(player.getUniqueId());
+        if (slot == PlayerTable.NO_SLOT || players.role(slot) == null) {
             return; // Not in game
         }
 
         // Prevent default pickup behavior
         event.setCancelled(true);
 
-        int currentGold = goldCounts.getOrDefault(playerId, 0);
-        currentGold += item.getAmount();
-        goldCounts.put(playerId, currentGold);
-        
-        // Always update slot 9 with current gold count (max 64 in stack)
-        ItemStack goldStack = new ItemStack(Material.GOLD_INGOT, Math.min(currentGold, 64));
-        player.getInventory().setItem(8, goldStack);
-        
-        plugin.getLogger().info("[MM] DEBUG: Gold pickup - Player: " + player.getName() + ", Amount: " + item.getAmount() + ", Total: " + currentGold + ", Slot: 8 (displayed as 9)");
-        
-        player.sendMessage(ChatColor.GOLD + "Gold: " + currentGold + "/10");
-        
         // Remove the dropped item
         event.getItem().remove();
-        
-        // Give bow at 10 gold (innocents only)
-        if (currentGold >= 10 && role == MurderRole.INNOCENT) {
-            goldCounts.put(playerId, currentGold - 10); // Deduct 10 gold
-            
-            // Update gold display after deduction
-            int remainingGold = currentGold - 10;
-            if (remainingGold > 0) {
-                player.getInventory().setItem(8, new ItemStack(Material.GOLD_INGOT, Math.min(remainingGold, 64)));
-            } else {
-                player.getInventory().setItem(8, new ItemStack(Material.GOLD_INGOT, 1));
-            }
-            
+
+        addGold(player, item.getAmount());
+        flushSlotUpdates();
+    }
+
+    /**
+     * Credit gold to a player. The slot 9 display is only marked dirty here;
+     * call {@link #flushSlotUpdates()} once after a batch of pickups.
+     * @return false if the player is not in the game
+     */
+    public boolean addGold(Player player, int amount) {
+        int slot = players.slot(player.getUniqueId());
+        MurderRole role = slot == PlayerTable.NO_SLOT ? null : players.role(slot);
+
+        if (role == null) {
+            return false; // Not in game
+        }
+
+        int currentGold = players.gold(slot) + amount;
+
+        plugin.getLogger().info("[MM] DEBUG: Gold pickup - Player: " + player.getName() + ", Amount: " + amount + ", Total: " + currentGold + ", Slot: 8 (displayed as 9)");
+
+        // Give a bow at gold.bowCost (10 by default, innocents only)
+        int bowCost = GameConfig.current().gold().bowCost();
+        if (currentGold >= bowCost && role == MurderRole.INNOCENT) {
+            currentGold -= bowCost;
             giveBow(player);
-            player.sendMessage(ChatColor.GREEN + "You received a bow for collecting 10 gold!");
+            player.sendMessage(ChatColor.GREEN + "You received a bow for collecting " + bowCost + " gold!");
+        }
+
+        players.setGold(slot, currentGold);
+        dirtySlots.set(slot);
+        ActionBarCompositor.gold(player, currentGold);
+        GameMetrics.GOLD_COLLECTED.add(amount);
+        MatchJournal.gold(player, amount);
+        return true;
+    }
+
+    /**
+     * Push the gold stack in slot 9 for every player whose count changed since
+     * the last flush (one slot update per player, however many pickups).
+     */
+    public void flushSlotUpdates() {
+        if (dirtySlots.isEmpty()) return;
+        for (int slot = dirtySlots.nextSetBit(0); slot >= 0; slot = dirtySlots.nextSetBit(slot + 1)) {
+            UUID playerId = players.id(slot);
+            Player player = playerId != null ? Bukkit.getPlayer(playerId) : null;
+            if (player == null) continue;
+            int gold = players.gold(slot);
+            // Always keep at least one ingot visible (max 64 in stack)
+            player.getInventory().setItem(8, new ItemStack(Material.GOLD_INGOT, Math.max(1, Math.min(gold, 64))));
         }
+        dirtySlots.clear();
     }
 
     // Modern handler removed for compatibility; relying on PlayerPickupItemEvent which is still fired
@@ -1,8 +1,15 @@
 package com.mmhq.game.arena.managers;
 
+import com.mmhq.game.arena.PlayerTable;
+import com.mmhq.game.config.GameConfig;
+import com.mmhq.game.profiler.TickProfiler;
+import com.mmhq.game.utils.NmsPackets;
+import com.mmhq.sharedapi.mappack.MapPack;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
 import org.bukkit.entity.Item;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -10,58 +17,148 @@ import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitTask;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
 import java.util.Map;
 
+/**
+ * Spawns gold for the running round.
+ *
+ * Gold is rendered as client-side dropped items (packets only, no server
+ * entity), and pickups are decided here by a proximity check against the
+ * alive players. Slot updates are batched through
+ * {@link GoldCollectionManager#flushSlotUpdates()} once per check.
+ * If the server can't build the packets, real {@link Item}s are dropped and
+ * {@link GoldCollectionManager}'s pickup listener takes over.
+ *
+ * When the map has a compiled pack, gold goes on one of its precomputed
+ * walkable gold points near the player instead of a random spot that may
+ * be inside a wall or over the void.
+ */
 public final class GoldSpawnManager {
     private final JavaPlugin plugin;
     private final List<Location> spawnLocations;
-    private final List<Item> activeGold;
+    private final List<VirtualGold> activeGold;
+    private final List<Item> fallbackGold;
     private final Random random;
     private final Map<UUID, ?> queuedPlayers; // Reference to players in game
+    private final PlayerTable collectors; // Players allowed to pick up: the alive rows
+    private final GoldCollectionManager goldManager;
+    private final MapPack pack;
+    private final Map<Long, List<Integer>> goldBuckets = new HashMap<>(); // pack gold indexes by 8x8 column
     private BukkitTask spawnTask;
+    private BukkitTask pickupTask;
 
-    public GoldSpawnManager(JavaPlugin plugin, List<Location> spawnLocations, Map<UUID, ?> queuedPlayers) {
+    // Pickup box around the player's feet (vanilla is roughly 1 block out, 0.5 up/down from the hitbox)
+    private static final double PICKUP_RADIUS_SQ = 1.5 * 1.5;
+    private static final double PICKUP_BELOW = 0.5;
+    private static final double PICKUP_ABOVE = 2.3;
+    private static final long PICKUP_CHECK_TICKS = 2L;
+    private static final int GROUND_SCAN_DEPTH = 8;
+    private static final double MIN_RADIUS = 4.0;
+    private static final double MAX_RADIUS = 8.0;
+    private static final int MAX_GOLD_DY = 3;
+    private static final int BUCKET_SHIFT = 3;
+
+    public GoldSpawnManager(JavaPlugin plugin, List<Location> spawnLocations, Map<UUID, ?> queuedPlayers,
+                            PlayerTable collectors, GoldCollectionManager goldManager, MapPack pack) {
         this.plugin = plugin;
         this.spawnLocations = new ArrayList<>(spawnLocations);
         this.activeGold = new ArrayList<>();
+        this.fallbackGold = new ArrayList<>();
         this.random = new Random();
         this.queuedPlayers = queuedPlayers;
+        this.collectors = collectors;
+        this.goldManager = goldManager;
+        this.pack = pack;
+        if (pack != null) {
+            for (int i = 0; i < pack.goldCount(); i++) {
+                goldBuckets.computeIfAbsent(bucket(pack.goldX(i) >> BUCKET_SHIFT, pack.goldZ(i) >> BUCKET_SHIFT),
+                        k -> new ArrayList<>()).add(i);
+            }
+        }
     }
 
     public void startSpawning() {
         if (spawnTask != null) {
             spawnTask.cancel();
         }
-        
-        // Spawn gold every ~7 seconds in a circle around a random player
-        spawnTask = plugin.getServer().getScheduler().runTaskTimer(plugin, () -> {
+
+        // Spawn gold every gold.spawnIntervalTicks (~7 seconds) in a circle around a random player
+        long interval = GameConfig.current().gold().spawnIntervalTicks();
+        spawnTask = plugin.getServer().getScheduler().runTaskTimer(plugin, TickProfiler.wrap("gold.spawn", () -> {
             if (!queuedPlayers.isEmpty()) {
                 // Get a random player
                 List<UUID> playerIds = new ArrayList<>(queuedPlayers.keySet());
                 UUID randomPlayerId = playerIds.get(random.nextInt(playerIds.size()));
                 Player player = Bukkit.getPlayer(randomPlayerId);
-                
+
                 if (player != null && player.isOnline()) {
-                    // Spawn in a 8-block radius circle around player
                     Location playerLoc = player.getLocation();
+                    Location packed = packedSpot(playerLoc);
+                    if (packed != null) {
+                        spawnGold(packed, null);
+                        return;
+                    }
+                    // Spawn in a 8-block radius circle around player
                     double angle = random.nextDouble() * Math.PI * 2;
-                    double radius = 4.0 + random.nextDouble() * 4.0; // 4-8 blocks radius
+                    double radius = MIN_RADIUS + random.nextDouble() * (MAX_RADIUS - MIN_RADIUS); // 4-8 blocks radius
                     double x = playerLoc.getX() + Math.cos(angle) * radius;
                     double z = playerLoc.getZ() + Math.sin(angle) * radius;
                     Location spawnLoc = new Location(playerLoc.getWorld(), x, playerLoc.getY() + 0.5, z);
-                    spawnGold(spawnLoc);
+                    spawnGold(spawnLoc, null);
                 }
             }
-        }, 0L, 140L); // ~7 seconds in ticks
+        }), 0L, interval);
+
+        if (pickupTask != null) {
+            pickupTask.cancel();
+        }
+        pickupTask = plugin.getServer().getScheduler().runTaskTimer(plugin, TickProfiler.wrap("gold.pickups", this::tickPickups), PICKUP_CHECK_TICKS, PICKUP_CHECK_TICKS);
     }
-    
+
+    /**
+     * A random pack gold point 4-8 blocks from the player on roughly their level, or null.
+     */
+    private Location packedSpot(Location at) {
+        if (goldBuckets.isEmpty()) return null;
+        int reach = (int) Math.ceil(MAX_RADIUS);
+        int minBx = (at.getBlockX() - reach) >> BUCKET_SHIFT, maxBx = (at.getBlockX() + reach) >> BUCKET_SHIFT;
+        int minBz = (at.getBlockZ() - reach) >> BUCKET_SHIFT, maxBz = (at.getBlockZ() + reach) >> BUCKET_SHIFT;
+        int chosen = -1;
+        int seen = 0;
+        for (int bx = minBx; bx <= maxBx; bx++) {
+            for (int bz = minBz; bz <= maxBz; bz++) {
+                List<Integer> bucket = goldBuckets.get(bucket(bx, bz));
+                if (bucket == null) continue;
+                for (int i : bucket) {
+                    if (Math.abs(pack.goldY(i) - at.getBlockY()) > MAX_GOLD_DY) continue;
+                    double dx = pack.goldX(i) + 0.5 - at.getX();
+                    double dz = pack.goldZ(i) + 0.5 - at.getZ();
+                    double d = dx * dx + dz * dz;
+                    if (d < MIN_RADIUS * MIN_RADIUS || d > MAX_RADIUS * MAX_RADIUS) continue;
+                    // Reservoir sample so every point in the ring is equally likely
+                    if (random.nextInt(++seen) == 0) chosen = i;
+                }
+            }
+        }
+        if (chosen < 0) return null;
+        return new Location(at.getWorld(), pack.goldX(chosen), pack.goldY(chosen), pack.goldZ(chosen));
+    }
+
+    private static long bucket(int bx, int bz) {
+        return ((long) bx << 32) ^ (bz & 0xFFFFFFFFL);
+    }
+
     private Location findNearestSpawn(Location playerLocation) {
         Location nearest = spawnLocations.get(0);
         double minDistance = Double.MAX_VALUE;
-        
+
         for (Location spawn : spawnLocations) {
             double distance = spawn.distanceSquared(playerLocation);
             if (distance < minDistance) {
@@ -69,7 +166,7 @@ public final class GoldSpawnManager {
                 nearest = spawn;
             }
         }
-        
+
         return nearest;
     }
 
@@ -78,26 +175,162 @@ public final class GoldSpawnManager {
             spawnTask.cancel();
             spawnTask = null;
         }
+        if (pickupTask != null) {
+            pickupTask.cancel();
+            pickupTask = null;
+        }
         clearAllGold();
     }
 
-    private void spawnGold(Location location) {
+    /**
+     * Spawn one gold ingot.
+     * @param owner If non-null, only this player sees and can collect it
+     */
+    private void spawnGold(Location location, UUID owner) {
+        Location at = location.clone().add(0.5, 0.5, 0.5);
         ItemStack gold = new ItemStack(Material.GOLD_INGOT, 1);
-        Item item = location.getWorld().dropItem(location.clone().add(0.5, 0.5, 0.5), gold);
-        item.setPickupDelay(0);
-        activeGold.add(item);
+
+        if (!NmsPackets.isSupported()) {
+            Item item = at.getWorld().dropItem(at, gold);
+            item.setPickupDelay(0);
+            fallbackGold.add(item);
+            return;
+        }
+
+        // The client lets the item fall; settle it server-side once so the
+        // pickup check matches where players actually see it
+        at.setY(groundY(at));
+        NmsPackets.FakeItem fake = NmsPackets.createItem(at, gold);
+        if (fake == null) return;
+
+        VirtualGold vg = new VirtualGold(fake, at.getWorld(), at.getX(), at.getY(), at.getZ(), owner);
+        activeGold.add(vg);
+        for (UUID id : queuedPlayers.keySet()) {
+            Player p = Bukkit.getPlayer(id);
+            if (p != null) vg.showTo(p);
+        }
+    }
+
+    /**
+     * Proximity pickup + late-viewer catch-up. Does nothing while no gold is out.
+     */
+    private void tickPickups() {
+        if (activeGold.isEmpty()) return;
+
+        for (UUID id : queuedPlayers.keySet()) {
+            Player p = Bukkit.getPlayer(id);
+            if (p == null) continue;
+            for (VirtualGold vg : activeGold) {
+                vg.showTo(p);
+            }
+        }
+
+        for (int slot = 0; slot < collectors.capacity(); slot++) {
+            if (!collectors.isAlive(slot)) continue;
+            UUID id = collectors.id(slot);
+            Player p = Bukkit.getPlayer(id);
+            if (p == null) continue;
+            Location loc = p.getLocation();
+            World world = loc.getWorld();
+            double px = loc.getX(), py = loc.getY(), pz = loc.getZ();
+
+            Iterator<VirtualGold> it = activeGold.iterator();
+            while (it.hasNext()) {
+                VirtualGold vg = it.next();
+                if (vg.world != world) continue;
+                if (vg.owner != null && !vg.owner.equals(id)) continue;
+                double dy = vg.y - py;
+                if (dy < -PICKUP_BELOW || dy > PICKUP_ABOVE) continue;
+                double dx = vg.x - px, dz = vg.z - pz;
+                if (dx * dx + dz * dz > PICKUP_RADIUS_SQ) continue;
+
+                if (!goldManager.addGold(p, 1)) break; // not in game; skip the rest for this player
+                it.remove();
+                vg.collect(p);
+            }
+        }
+
+        goldManager.flushSlotUpdates();
     }
 
     public void clearAllGold() {
-        for (Item item : activeGold) {
+        for (VirtualGold vg : activeGold) {
+            vg.destroy();
+        }
+        activeGold.clear();
+        for (Item item : fallbackGold) {
             if (item != null && item.isValid()) {
                 item.remove();
             }
         }
-        activeGold.clear();
+        fallbackGold.clear();
     }
 
     public void removeGold(Item item) {
-        activeGold.remove(item);
+        fallbackGold.remove(item);
+    }
+
+    public int activeCount() {
+        return activeGold.size() + fallbackGold.size();
+    }
+
+    private static double groundY(Location at) {
+        World w = at.getWorld();
+        int x = at.getBlockX(), z = at.getBlockZ();
+        int startY = at.getBlockY();
+        for (int y = startY; y > startY - GROUND_SCAN_DEPTH && y > 0; y--) {
+            Block below = w.getBlockAt(x, y - 1, z);
+            if (below.getType().isSolid()) return y;
+        }
+        return at.getY();
+    }
+
+    /**
+     * One packet-only gold ingot and the players that have been sent it.
+     */
+    private static final class VirtualGold {
+        final NmsPackets.FakeItem fake;
+        final World world;
+        final double x, y, z;
+        final UUID owner;
+        final Set<UUID> viewers = new HashSet<>();
+
+        VirtualGold(NmsPackets.FakeItem fake, World world, double x, double y, double z, UUID owner) {
+            this.fake = fake;
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.owner = owner;
+        }
+
+        void showTo(Player p) {
+            if (owner != null && !owner.equals(p.getUniqueId())) return;
+            if (p.getWorld() != world) return;
+            if (viewers.add(p.getUniqueId())) {
+                fake.show(p);
+            }
+        }
+
+        void collect(Player collector) {
+            Object collect = NmsPackets.collectPacket(fake.entityId, collector.getEntityId());
+            Object destroy = NmsPackets.destroyPacket(fake.entityId);
+            for (UUID id : viewers) {
+                Player v = Bukkit.getPlayer(id);
+                if (v == null) continue;
+                NmsPackets.send(v, collect);
+                NmsPackets.send(v, destroy);
+            }
+            viewers.clear();
+        }
+
+        void destroy() {
+            Object destroy = NmsPackets.destroyPacket(fake.entityId);
+            for (UUID id : viewers) {
+                Player v = Bukkit.getPlayer(id);
+                if (v != null) NmsPackets.send(v, destroy);
+            }
+            viewers.clear();
+        }
     }
 }
@@ -2,8 +2,10 @@ package com.mmhq.game.arena.managers;
 
 import com.google.common.io.ByteArrayDataOutput;
 import com.google.common.io.ByteStreams;
+import com.mmhq.game.messaging.BackendAnnouncer;
 import com.mmhq.sharedapi.game.GameState;
 import com.mmhq.sharedapi.game.ServerStatus;
+import com.mmhq.game.profiler.TickProfiler;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -16,7 +18,8 @@ import java.util.function.Supplier;
 
 /**
  * Periodically publishes server status to the proxy via plugin messaging.
- * Note: plugin messages require an online player as a conduit.
+ * Note: plugin messages require an online player as a conduit; the same
+ * status also goes out as a {@link BackendAnnouncer} datagram, which does not.
  */
 public final class HeartbeatPublisher {
     private static final String CHANNEL = "mmhq:status";
@@ -32,7 +35,7 @@ public final class HeartbeatPublisher {
 
     public void start() {
         if (task != null) return;
-        task = Bukkit.getScheduler().runTaskTimer(plugin, this::sendHeartbeat, 20L, 100L); // 1s delay, then every 5s
+        task = Bukkit.getScheduler().runTaskTimer(plugin, TickProfiler.wrap("heartbeat", this::sendHeartbeat), 20L, 100L); // 1s delay, then every 5s
     }
 
     public void stop() {
@@ -49,6 +52,7 @@ public final class HeartbeatPublisher {
         }
         
         ServerStatus status = statusSupplier.get();
+        BackendAnnouncer.announce(status);
         Optional<Player> conduit = pickAnyOnline();
         if (conduit.isEmpty()) {
             return; // No player to carry the message right now
@@ -0,0 +1,255 @@
+package com.mmhq.game.arena.managers;
+
+import com.mmhq.sharedapi.game.MurderRole;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-role inventory templates, built once per game instance (i.e. per preset).
+ *
+ * {@link #apply} diffs the player's inventory against the role's template
+ * and only writes slots that differ, so a round start sends one slot update
+ * per missing item rather than a clear plus a full refill. Each apply is
+ * verified once on the following tick; after that, slots are only
+ * re-checked when an inventory click or drop actually goes through for a
+ * player holding a loadout (during a round both are normally cancelled).
+ *
+ * Template stacks never leave this class; {@code setItem} copies them.
+ */
+public final class LoadoutManager implements Listener {
+    public static final int WEAPON_SLOT = 1;
+    public static final int MAP_SLOT = 4;
+    public static final int GESTURE_SLOT = 6;
+    public static final int GOLD_SLOT = 8;
+    public static final int ARROW_SLOT = 10;
+    private static final int SIZE = 36;
+    private static final ItemStack[] NO_ARMOR = new ItemStack[4];
+
+    /**
+     * Immutable slot layout for one role.
+     */
+    private static final class Template {
+        final ItemStack[] items = new ItemStack[SIZE];
+        // Slots we never touch (gold counter)
+        final boolean[] unmanaged = new boolean[SIZE];
+        // Slots only enforced by a full apply: the detective's arrow between shots, an innocent's gold bow
+        final boolean[] applyOnly = new boolean[SIZE];
+        final int heldSlot;
+
+        Template(int heldSlot) {
+            this.heldSlot = heldSlot;
+        }
+    }
+
+    private final JavaPlugin plugin;
+    private final Map<MurderRole, Template> templates = new EnumMap<>(MurderRole.class);
+    private final Map<UUID, MurderRole> applied = new HashMap<>();
+    private final Set<UUID> pendingVerify = new HashSet<>();
+    private final Set<UUID> pendingRepair = new HashSet<>();
+    private boolean checkScheduled;
+
+    public LoadoutManager(JavaPlugin plugin) {
+        this.plugin = plugin;
+        ItemStack map = new ItemStack(Material.MAP);
+        ItemStack gesture = named(new ItemStack(Material.ARMOR_STAND), ChatColor.YELLOW + "Gesture",
+                ChatColor.GRAY + "Right-click to perform gesture");
+
+        Template innocent = base(-1, map, gesture);
+        innocent.applyOnly[WEAPON_SLOT] = true;
+        innocent.applyOnly[ARROW_SLOT] = true;
+        Template murderer = base(WEAPON_SLOT, map, gesture);
+        murderer.items[WEAPON_SLOT] = createMurdererSword();
+        Template detective = base(WEAPON_SLOT, map, gesture);
+        detective.items[WEAPON_SLOT] = named(new ItemStack(Material.BOW), "Detective Bow", null);
+        detective.items[ARROW_SLOT] = new ItemStack(Material.ARROW);
+        detective.applyOnly[ARROW_SLOT] = true;
+
+        templates.put(MurderRole.INNOCENT, innocent);
+        templates.put(MurderRole.MURDERER, murderer);
+        templates.put(MurderRole.DETECTIVE, detective);
+    }
+
+    /**
+     * Bring the player's inventory to the role's template in one pass.
+     *
+     * @param selectWeapon also move the held slot to the role's weapon
+     * @return number of slots written
+     */
+    public int apply(Player player, MurderRole role, boolean selectWeapon) {
+        Template template = templates.getOrDefault(role, templates.get(MurderRole.INNOCENT));
+        int written = diff(player.getInventory(), template, true);
+        if (selectWeapon && template.heldSlot >= 0 && player.getInventory().getHeldItemSlot() != template.heldSlot) {
+            player.getInventory().setHeldItemSlot(template.heldSlot);
+        }
+        applied.put(player.getUniqueId(), role);
+        pendingVerify.add(player.getUniqueId());
+        scheduleCheck();
+        return written;
+    }
+
+    /**
+     * Forget all loadouts (round over); inventories are left as they are.
+     */
+    public void reset() {
+        applied.clear();
+        pendingVerify.clear();
+        pendingRepair.clear();
+    }
+
+    // ===== Inventory-change listener =====
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (event.getWhoClicked() instanceof Player player) markChanged(player.getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDrop(PlayerDropItemEvent event) {
+        markChanged(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        UUID id = event.getPlayer().getUniqueId();
+        applied.remove(id);
+        pendingVerify.remove(id);
+        pendingRepair.remove(id);
+    }
+
+    private void markChanged(UUID id) {
+        if (!applied.containsKey(id)) return;
+        pendingRepair.add(id);
+        scheduleCheck();
+    }
+
+    // ===== Diff =====
+
+    private void scheduleCheck() {
+        if (checkScheduled) return;
+        checkScheduled = true;
+        Bukkit.getScheduler().runTask(plugin, this::runChecks);
+    }
+
+    private void runChecks() {
+        checkScheduled = false;
+        int fixed = 0;
+        for (UUID id : pendingVerify) fixed += check(id, true);
+        for (UUID id : pendingRepair) {
+            if (!pendingVerify.contains(id)) fixed += check(id, false);
+        }
+        pendingVerify.clear();
+        pendingRepair.clear();
+        if (fixed > 0) {
+            plugin.getLogger().warning("[Loadout] Restored " + fixed + " slot(s) after apply/inventory change");
+        }
+    }
+
+    private int check(UUID id, boolean full) {
+        MurderRole role = applied.get(id);
+        Player player = Bukkit.getPlayer(id);
+        if (role == null || player == null) return 0;
+        return diff(player.getInventory(), templates.getOrDefault(role, templates.get(MurderRole.INNOCENT)), full);
+    }
+
+    private static int diff(PlayerInventory inv, Template template, boolean full) {
+        ItemStack[] current = inv.getContents();
+        int written = 0;
+        int n = Math.min(SIZE, current.length);
+        for (int slot = 0; slot < n; slot++) {
+            if (template.unmanaged[slot]) continue;
+            if (template.applyOnly[slot] && !full) continue;
+            ItemStack want = template.items[slot];
+            ItemStack have = current[slot];
+            if (want == null) {
+                if (isEmpty(have)) continue;
+                inv.setItem(slot, null);
+            } else {
+                if (!isEmpty(have) && have.getAmount() == want.getAmount() && have.isSimilar(want)) continue;
+                inv.setItem(slot, want);
+            }
+            written++;
+        }
+        for (ItemStack armor : inv.getArmorContents()) {
+            if (!isEmpty(armor)) {
+                inv.setArmorContents(NO_ARMOR);
+                written++;
+                break;
+            }
+        }
+        return written;
+    }
+
+    private static boolean isEmpty(ItemStack item) {
+        return item == null || item.getType() == Material.AIR;
+    }
+
+    // ===== Templates =====
+
+    private static Template base(int heldSlot, ItemStack map, ItemStack gesture) {
+        Template t = new Template(heldSlot);
+        t.items[MAP_SLOT] = map;
+        t.items[GESTURE_SLOT] = gesture;
+        t.unmanaged[GOLD_SLOT] = true;
+        return t;
+    }
+
+    private static ItemStack named(ItemStack item, String name, String lore) {
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            meta.setDisplayName(name);
+            if (lore != null) meta.setLore(Collections.singletonList(lore));
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+
+    /**
+     * Murderer sword with 1.8.9-locked combat mechanics.
+     * Removes the attack cooldown for 1.9+ clients (attributes only exist there).
+     */
+    private ItemStack createMurdererSword() {
+        ItemStack sword = new ItemStack(Material.IRON_SWORD);
+        ItemMeta meta = sword.getItemMeta();
+        if (meta == null) return sword;
+        meta.setDisplayName(ChatColor.RED + "Murderer's Blade");
+        try {
+            // Use reflection to avoid compilation errors on 1.8.8
+            Class<?> attributeClass = Class.forName("org.bukkit.attribute.Attribute");
+            Object attackSpeedAttr = attributeClass.getField("GENERIC_ATTACK_SPEED").get(null);
+            Class<?> modifierClass = Class.forName("org.bukkit.attribute.AttributeModifier");
+            Class<?> operationClass = Class.forName("org.bukkit.attribute.AttributeModifier$Operation");
+            Object addOp = operationClass.getField("ADD_NUMBER").get(null);
+            // Adds 1000 to attack speed (effectively removes cooldown)
+            Object modifier = modifierClass.getConstructor(UUID.class, String.class, double.class, operationClass)
+                    .newInstance(UUID.randomUUID(), "generic.attackSpeed", 1000.0, addOp);
+            meta.getClass().getMethod("addAttributeModifier", attributeClass, modifierClass)
+                    .invoke(meta, attackSpeedAttr, modifier);
+            plugin.getLogger().info("[COMBAT-1.8.9] Added attack speed override to murderer sword (1.9+ support)");
+        } catch (Throwable e) {
+            // 1.8.8 doesn't have attributes - this is expected and fine
+            plugin.getLogger().info("[COMBAT-1.8.9] Skipped attack speed attribute (1.8.8 server)");
+        }
+        sword.setItemMeta(meta);
+        return sword;
+    }
+}
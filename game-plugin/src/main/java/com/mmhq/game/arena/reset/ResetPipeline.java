@@ -1,5 +1,6 @@
 package com.mmhq.game.arena.reset;
 
+import com.mmhq.game.metrics.GameMetrics;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -40,27 +41,40 @@ public final class ResetPipeline {
         progress.onProgress("LOCK_JOIN", 5);
 
         CompletableFuture<World> result = new CompletableFuture<>();
+        final long started = System.nanoTime();
+        result.whenComplete((w, err) -> {
+            GameMetrics.RESETS.labels(err == null ? "ok" : "failed").inc();
+            if (err == null) GameMetrics.RESET_STEP.labels("total").observeNanos(System.nanoTime() - started);
+        });
 
         // Step 1: Unload world on main thread
         Bukkit.getScheduler().runTask(plugin, () -> {
             try {
                 progress.onProgress("UNLOAD_ACTIVE_SYNC", 15);
+                long t0 = System.nanoTime();
                 cloner.unloadWorldSync(activeWorld);
+                GameMetrics.RESET_STEP.labels("unload").observeNanos(System.nanoTime() - t0);
 
                 // Step 2: Run file operations async
                 Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
                     try {
                         progress.onProgress("DELETE_ACTIVE_FILES", 35);
+                        long t1 = System.nanoTime();
                         cloner.deleteWorldFolder(activeWorld);
+                        GameMetrics.RESET_STEP.labels("delete").observeNanos(System.nanoTime() - t1);
 
                         progress.onProgress("COPY_TEMPLATE_FILES", 65);
+                        long t2 = System.nanoTime();
                         cloner.copyTemplateToActive(templateWorld, activeWorld);
+                        GameMetrics.RESET_STEP.labels("copy").observeNanos(System.nanoTime() - t2);
 
                         // Step 3: Load world on main thread
                         Bukkit.getScheduler().runTask(plugin, () -> {
                             try {
                                 progress.onProgress("LOAD_ACTIVE_SYNC", 90);
+                                long t3 = System.nanoTime();
                                 World w = cloner.loadActiveWorldSync(activeWorld);
+                                GameMetrics.RESET_STEP.labels("load").observeNanos(System.nanoTime() - t3);
                                 progress.onProgress("DONE", 100);
                                 result.complete(w);
                             } catch (Exception e) {
@@ -1,10 +1,10 @@
 package com.mmhq.game.arena.special;
 
+import com.mmhq.game.utils.NmsPackets;
 import org.bukkit.Location;
-import org.bukkit.scheduler.BukkitTask;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -14,36 +14,28 @@ import java.util.UUID;
 public class Corpse {
     public final UUID victimId;           // The original player's UUID
     public final String victimName;       // Original player name (for logging)
-    public final UUID npcUuid;            // Fake NPC player UUID
-    public final String npcName;          // Fake NPC name (<=16 chars, unique)
-    public final int entityId;            // Entity ID assigned by server
-    public final Location deathLoc;       // Where death occurred
-    public final Location bedPos;         // Bed anchor for sleeping pose
-    public final Set<UUID> viewers;       // Players who have seen this corpse
-    public BukkitTask ttlTask;            // TTL countdown task
-    public long spawnedAt;                // System.currentTimeMillis() when spawned
+    public final NmsPackets.CorpseBody body; // Pooled fake player (entity id + profile)
+    public final Location deathLoc;       // Where the body lies (feet block)
+    public final Location bedPos;         // Client-side bed anchor for the sleeping pose
+    public final byte bedData;            // Bed block data (facing, head part)
+    public final Map<UUID, Long> viewers; // Players the body is shown to -> when to drop its tab entry (0 = dropped)
+    public final long spawnedAt;          // System.currentTimeMillis() when spawned
+    public final long expiresAt;          // System.currentTimeMillis() when the sweep removes it
 
-    public Corpse(UUID victimId, String victimName, UUID npcUuid, String npcName, int entityId,
-                  Location deathLoc, Location bedPos) {
+    public Corpse(UUID victimId, String victimName, NmsPackets.CorpseBody body,
+                  Location deathLoc, Location bedPos, byte bedData, long ttlMillis) {
         this.victimId = victimId;
         this.victimName = victimName;
-        this.npcUuid = npcUuid;
-        this.npcName = npcName;
-        this.entityId = entityId;
+        this.body = body;
         this.deathLoc = deathLoc;
         this.bedPos = bedPos;
-        this.viewers = new HashSet<>();
+        this.bedData = bedData;
+        this.viewers = new HashMap<>();
         this.spawnedAt = System.currentTimeMillis();
+        this.expiresAt = spawnedAt + ttlMillis;
     }
 
     public long getAgeSeconds() {
         return (System.currentTimeMillis() - spawnedAt) / 1000L;
     }
-
-    public void cancelTTL() {
-        if (ttlTask != null) {
-            ttlTask.cancel();
-            ttlTask = null;
-        }
-    }
 }
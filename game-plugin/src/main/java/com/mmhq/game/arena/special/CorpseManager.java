@@ -1,73 +1,86 @@
 package com.mmhq.game.arena.special;
 
+import com.mmhq.game.config.GameConfig;
+import com.mmhq.game.profiler.TickProfiler;
+import com.mmhq.game.utils.NmsPackets;
 import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
 import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitTask;
 
-import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Manages corpses using the Corpse plugin API (https://github.com/unldenis/Corpse).
- * Falls back gracefully if the plugin isn't installed.
+ * Packet-only corpses: a fake player lying on a client-side bed, shown to
+ * players within {@code corpses.viewDistance} of it.
+ *
+ * Bodies (entity id + game profile) come from a pool and are re-skinned per
+ * corpse; each player's skin property is read once at join. One sweep task
+ * handles range checks, tab-entry cleanup and TTL expiry for every corpse,
+ * and only runs while at least one corpse exists.
  */
-public final class CorpseManager {
+public final class CorpseManager implements Listener {
     private final JavaPlugin plugin;
-    private boolean corpsePluginAvailable = false;
+    private boolean available = false;
 
-    // Reflection caches for Corpse API
-    private Object corpseApiInstance;
-    private Method spawnCorpseMethod;
-    private Method removeCorpseMethod;
-
-    private final Map<UUID, CorpseEntry> corpses = new ConcurrentHashMap<>();
+    private final Map<UUID, Corpse> corpses = new LinkedHashMap<>();
+    private final Map<UUID, Object> skins = new HashMap<>(); // player -> "textures" property
+    private final ArrayDeque<NmsPackets.CorpseBody> pool = new ArrayDeque<>();
+    private int bodiesCreated;
+    private BukkitTask sweepTask;
 
     private static final boolean DEBUG = true;
+    private static final long SWEEP_TICKS = 10L;
+    private static final long TAB_REMOVE_MS = 1500L;    // long enough for the client to load the skin
+    private static final int MAX_POOLED_BODIES = 24;
+    private static final int GROUND_SCAN_DEPTH = 8;
+    // The bed sits under the floor; the client puts a sleeper at bed Y + 0.6875, then we lift it onto the floor
+    private static final int BED_DEPTH = 2;
+    private static final double SLEEP_Y_OFFSET = 0.6875;
+    private static final double BODY_Y = 0.1;
 
     public CorpseManager(JavaPlugin plugin) {
         this.plugin = plugin;
     }
 
     /**
-     * Initialize Corpse plugin integration. Call from onEnable() AFTER dependencies are loaded.
+     * Resolve the packet support and warm the pool. Call from onEnable() once the worlds are loaded.
      */
     public void init() {
-        try {
-            if (Bukkit.getPluginManager().getPlugin("Corpse") == null) {
-                log("[Corpse] Corpse plugin not found - corpses disabled");
-                return;
-            }
-
-            // Get CorpseAPI.getInstance()
-            Class<?> corpseApiClass = Class.forName("com.github.unldenis.corpse.api.CorpseAPI");
-            Method getInstance = corpseApiClass.getMethod("getInstance");
-            corpseApiInstance = getInstance.invoke(null);
-
-            // Cache methods
-            // spawnCorpse(Player owner, Location loc) returns Corpse
-            spawnCorpseMethod = corpseApiClass.getMethod("spawnCorpse", Player.class, Location.class);
-            
-            // removeCorpse(Corpse corpse)
-            Class<?> corpseClass = Class.forName("com.github.unldenis.corpse.api.Corpse");
-            removeCorpseMethod = corpseApiClass.getMethod("removeCorpse", corpseClass);
-
-            corpsePluginAvailable = true;
-            log("[Corpse] Corpse plugin API initialized successfully");
-
-        } catch (ClassNotFoundException e) {
-            log("[Corpse] Corpse plugin classes not found: " + e.getMessage());
-        } catch (Throwable t) {
-            log("[Corpse] Corpse plugin init failed: " + t.getClass().getSimpleName() + " - " + t.getMessage());
-            t.printStackTrace();
+        NmsPackets.CorpseBody body = newBody();
+        if (body == null) {
+            log("[Corpse] Packet corpses unavailable on this server - corpses disabled");
+            return;
+        }
+        pool.add(body);
+        available = true;
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            cacheSkin(p);
         }
+        log("[Corpse] Packet corpses ready");
     }
 
     public boolean isAvailable() {
-        return corpsePluginAvailable;
+        return available;
+    }
+
+    public int activeCount() {
+        return corpses.size();
     }
 
     /**
@@ -76,7 +89,7 @@ public final class CorpseManager {
      * @param deathLoc Where to spawn the corpse
      */
     public void spawnCorpse(Player victim, Location deathLoc) {
-        spawnCorpse(victim, deathLoc, 20L * 30); // Default 30 second TTL
+        spawnCorpse(victim, deathLoc, GameConfig.current().corpses().ttlSeconds() * 20L);
     }
 
     /**
@@ -86,107 +99,209 @@ public final class CorpseManager {
      * @param ttlTicks How long until the corpse auto-despawns (in ticks)
      */
     public void spawnCorpse(Player victim, Location deathLoc, long ttlTicks) {
-        if (!corpsePluginAvailable) {
-            log("[Corpse] Cannot spawn - Corpse plugin not available");
-            return;
-        }
-        if (victim == null || deathLoc == null) return;
+        if (!available || victim == null || deathLoc == null || deathLoc.getWorld() == null) return;
 
         UUID victimId = victim.getUniqueId();
+        despawnCorpse(victimId);
 
-        // Remove existing corpse for this victim
-        CorpseEntry old = corpses.remove(victimId);
-        if (old != null) {
-            log("[Corpse] Removing existing corpse for " + victim.getName());
-            if (old.ttlTask != null) old.ttlTask.cancel();
-            removeCorpseInternal(old.corpseObject);
-        }
+        NmsPackets.CorpseBody body = pool.isEmpty() ? newBody() : pool.poll();
+        if (body == null) return;
 
-        try {
-            // Spawn via API
-            Object corpse = spawnCorpseMethod.invoke(corpseApiInstance, victim, deathLoc);
-            
-            if (corpse == null) {
-                log("[Corpse] spawnCorpse returned null for " + victim.getName());
-                return;
-            }
-
-            log("[Corpse] Spawned corpse for " + victim.getName() + " at " + fmt(deathLoc));
-
-            // Schedule TTL cleanup
-            BukkitTask ttlTask = plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-                CorpseEntry entry = corpses.remove(victimId);
-                if (entry != null) {
-                    log("[Corpse] TTL expired for " + victim.getName());
-                    removeCorpseInternal(entry.corpseObject);
-                }
-            }, ttlTicks);
-
-            corpses.put(victimId, new CorpseEntry(corpse, ttlTask, victim.getName()));
-
-        } catch (Throwable t) {
-            plugin.getLogger().severe("[Corpse] spawnCorpse ERROR: " + t.getMessage());
-            t.printStackTrace();
+        World world = deathLoc.getWorld();
+        int bx = deathLoc.getBlockX();
+        int bz = deathLoc.getBlockZ();
+        int feetY = groundY(world, bx, deathLoc.getBlockY(), bz);
+        int bedY = Math.max(0, feetY - BED_DEPTH);
+        Object textures = skins.get(victimId);
+        if (textures == null) textures = NmsPackets.texturesOf(victim);
+        float yaw = deathLoc.getYaw();
+        if (!body.prepare(bx + 0.5, feetY, bz + 0.5, yaw, textures, bx, bedY, bz,
+                feetY + BODY_Y - (bedY + SLEEP_Y_OFFSET))) {
+            release(body);
+            return;
         }
+
+        Location at = new Location(world, bx + 0.5, feetY, bz + 0.5, yaw, 0f);
+        Corpse corpse = new Corpse(victimId, victim.getName(), body, at, new Location(world, bx, bedY, bz),
+                bedData(yaw), ttlTicks * 50L);
+        corpses.put(victimId, corpse);
+        updateViewers(corpse, System.currentTimeMillis());
+        ensureSweeping();
+        log("[Corpse] Spawned corpse for " + victim.getName() + " at " + fmt(at) + " (" + corpse.viewers.size() + " viewer(s))");
     }
 
     /**
      * Despawn a corpse for a specific victim.
      */
     public void despawnCorpse(UUID victimId) {
-        CorpseEntry entry = corpses.remove(victimId);
-        if (entry == null) return;
-
-        if (entry.ttlTask != null) entry.ttlTask.cancel();
-        removeCorpseInternal(entry.corpseObject);
-        log("[Corpse] Despawned corpse for " + entry.victimName);
+        Corpse corpse = corpses.remove(victimId);
+        if (corpse == null) return;
+        remove(corpse);
+        log("[Corpse] Despawned corpse for " + corpse.victimName);
     }
 
     /**
      * Clear all active corpses.
      */
     public void clearAll() {
-        for (UUID id : corpses.keySet()) {
-            CorpseEntry entry = corpses.remove(id);
-            if (entry != null) {
-                if (entry.ttlTask != null) entry.ttlTask.cancel();
-                removeCorpseInternal(entry.corpseObject);
-            }
+        for (Corpse corpse : corpses.values()) {
+            remove(corpse);
         }
+        corpses.clear();
+        stopSweeping();
         log("[Corpse] Cleared all corpses");
     }
 
-    private void removeCorpseInternal(Object corpseObject) {
-        if (!corpsePluginAvailable || corpseObject == null) return;
-        try {
-            removeCorpseMethod.invoke(corpseApiInstance, corpseObject);
-        } catch (Throwable t) {
-            log("[Corpse] removeCorpse failed: " + t.getMessage());
+    // ===== Sweep =====
+
+    private void ensureSweeping() {
+        if (sweepTask != null) return;
+        sweepTask = Bukkit.getScheduler().runTaskTimer(plugin, TickProfiler.wrap("corpses.sweep", this::sweep),
+                SWEEP_TICKS, SWEEP_TICKS);
+    }
+
+    private void stopSweeping() {
+        if (sweepTask != null) {
+            sweepTask.cancel();
+            sweepTask = null;
         }
     }
 
-    // ===== Helpers =====
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        Iterator<Corpse> it = corpses.values().iterator();
+        while (it.hasNext()) {
+            Corpse corpse = it.next();
+            if (now >= corpse.expiresAt) {
+                it.remove();
+                remove(corpse);
+                log("[Corpse] TTL expired for " + corpse.victimName);
+            } else {
+                updateViewers(corpse, now);
+            }
+        }
+        if (corpses.isEmpty()) stopSweeping();
+    }
 
-    private static String fmt(Location l) {
-        return String.format("%.1f,%.1f,%.1f", l.getX(), l.getY(), l.getZ());
+    /**
+     * Show to players that came into range, hide from those that left, drop due tab entries.
+     */
+    private void updateViewers(Corpse corpse, long now) {
+        double viewDistance = GameConfig.current().corpses().viewDistance();
+        double viewDistanceSq = viewDistance * viewDistance;
+        World world = corpse.deathLoc.getWorld();
+        Iterator<Map.Entry<UUID, Long>> it = corpse.viewers.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<UUID, Long> e = it.next();
+            Player p = Bukkit.getPlayer(e.getKey());
+            if (p == null || p.getWorld() != world) {
+                it.remove(); // the client dropped the entity with the world
+            } else if (!inRange(p, corpse, viewDistanceSq)) {
+                hide(p, corpse);
+                it.remove();
+            } else if (e.getValue() != 0L && now >= e.getValue()) {
+                corpse.body.hideFromTab(p);
+                e.setValue(0L);
+            }
+        }
+        for (Player p : world.getPlayers()) {
+            if (!corpse.viewers.containsKey(p.getUniqueId()) && inRange(p, corpse, viewDistanceSq)) {
+                show(p, corpse);
+                corpse.viewers.put(p.getUniqueId(), now + TAB_REMOVE_MS);
+            }
+        }
     }
 
-    private static void log(String s) {
-        if (DEBUG) Bukkit.getLogger().info(s);
+    private static boolean inRange(Player p, Corpse corpse, double viewDistanceSq) {
+        Location l = p.getLocation();
+        double dx = l.getX() - corpse.deathLoc.getX();
+        double dz = l.getZ() - corpse.deathLoc.getZ();
+        return dx * dx + dz * dz <= viewDistanceSq;
     }
 
+    @SuppressWarnings("deprecation")
+    private static void show(Player p, Corpse corpse) {
+        p.sendBlockChange(corpse.bedPos, Material.BED_BLOCK, corpse.bedData);
+        corpse.body.show(p);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static void hide(Player p, Corpse corpse) {
+        corpse.body.hide(p);
+        Block real = corpse.bedPos.getBlock();
+        p.sendBlockChange(corpse.bedPos, real.getType(), real.getData());
+    }
+
+    private void remove(Corpse corpse) {
+        World world = corpse.deathLoc.getWorld();
+        for (UUID id : corpse.viewers.keySet()) {
+            Player p = Bukkit.getPlayer(id);
+            if (p != null && p.getWorld() == world) hide(p, corpse);
+        }
+        corpse.viewers.clear();
+        release(corpse.body);
+    }
+
+    // ===== Bodies & skins =====
+
+    private NmsPackets.CorpseBody newBody() {
+        return NmsPackets.createCorpseBody(hiddenName(bodiesCreated++));
+    }
+
+    private void release(NmsPackets.CorpseBody body) {
+        if (pool.size() < MAX_POOLED_BODIES) pool.add(body);
+    }
+
+    /**
+     * Unique profile name made only of color codes, so the name tag renders empty.
+     */
+    private static String hiddenName(int n) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : Integer.toHexString(n).toCharArray()) {
+            sb.append(ChatColor.COLOR_CHAR).append(c);
+        }
+        return sb.toString();
+    }
+
+    private void cacheSkin(Player p) {
+        Object textures = NmsPackets.texturesOf(p);
+        if (textures != null) skins.put(p.getUniqueId(), textures);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        if (available) cacheSkin(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        skins.remove(event.getPlayer().getUniqueId());
+    }
+
+    // ===== Helpers =====
+
     /**
-     * Internal tracking for spawned corpses.
+     * Feet Y on the first solid block at or below {@code y} (dying mid-air still lands the body).
      */
-    private static final class CorpseEntry {
-        final Object corpseObject;  // The Corpse API object
-        final BukkitTask ttlTask;
-        final String victimName;
-
-        CorpseEntry(Object corpseObject, BukkitTask ttlTask, String victimName) {
-            this.corpseObject = corpseObject;
-            this.ttlTask = ttlTask;
-            this.victimName = victimName;
+    private static int groundY(World world, int x, int y, int z) {
+        for (int at = y; at > y - GROUND_SCAN_DEPTH && at > 0; at--) {
+            if (world.getBlockAt(x, at - 1, z).getType().isSolid()) return at;
         }
+        return y;
+    }
+
+    /**
+     * Head-part bed facing the victim's yaw (0 south, 1 west, 2 north, 3 east).
+     */
+    private static byte bedData(float yaw) {
+        return (byte) (Math.floorMod(Math.round(yaw / 90f), 4) | 0x8);
+    }
+
+    private static String fmt(Location l) {
+        return String.format("%.1f,%.1f,%.1f", l.getX(), l.getY(), l.getZ());
+    }
+
+    private static void log(String s) {
+        if (DEBUG) Bukkit.getLogger().info(s);
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,20 @@
 package com.mmhq.game.arena.special;
 
+import com.mmhq.game.arena.PlayerTable;
+import com.mmhq.game.combat.PositionHistory;
+import com.mmhq.game.config.GameConfig;
+import com.mmhq.game.effects.EffectBatcher;
+import com.mmhq.game.hud.ActionBarCompositor;
+import com.mmhq.game.journal.MatchJournal;
+import com.mmhq.game.metrics.GameMetrics;
+import com.mmhq.game.profiler.ProfiledRunnable;
 import com.mmhq.game.utils.BukkitHelper;
 import com.mmhq.game.utils.VersionUtils;
+import com.mmhq.sharedapi.game.MurderRole;
+import com.mmhq.sharedapi.journal.JournalFormat;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.Sound;
 import org.bukkit.World;
 import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.Entity;
@@ -24,8 +33,11 @@ import org.bukkit.util.EulerAngle;
 import org.bukkit.util.Vector;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiConsumer;
 
 /**
  * Handles sword throwing mechanic for the murderer role.
@@ -33,22 +45,27 @@ import java.util.UUID;
 public class SwordThrowHandler implements Listener {
     private final JavaPlugin plugin;
     private final SwordSkinManager swordSkinManager;
-    private final Map<UUID, Long> swordCooldowns = new HashMap<>();
-    private final Map<UUID, Integer> chargeTasks = new HashMap<>();
-    // New runtime task trackers (charge/cooldown/hand particles)
-    private final Map<UUID, BukkitTask> chargeRunnables = new HashMap<>();
-    private final Map<UUID, BukkitTask> cooldownRunnables = new HashMap<>();
+    private final PositionHistory positions;
+    private final PlayerTable players;      // role, charging flag and throw cooldown per slot
+    private final BiConsumer<Player, Player> kill;  // (victim, thrower)
     private final Map<UUID, BukkitTask> handParticleRunnables = new HashMap<>();
-    // Track recent glass cracks (block location -> last crack time in ms)
-    private final Map<String, Long> recentGlass = new HashMap<>();
 
     private static final int CHARGE_TICKS = 10;      // 0.5s
     private static final double COOLDOWN_SECONDS = 4.5; // 4.5s
-    private static final long GLASS_CRACK_GATE_MS = 150L; // 150ms spam prevention
+    private static final int GLASS_CRACK_TICKS = 8;
 
-    public SwordThrowHandler(JavaPlugin plugin, SwordSkinManager swordSkinManager) {
+    /**
+     * @param positions The arena's position history; participants are hit where the thrower saw them
+     * @param players The arena's player table
+     * @param kill Kills a victim hit by the sword, crediting the thrower (victim, thrower)
+     */
+    public SwordThrowHandler(JavaPlugin plugin, SwordSkinManager swordSkinManager, PositionHistory positions,
+                             PlayerTable players, BiConsumer<Player, Player> kill) {
         this.plugin = plugin;
         this.swordSkinManager = swordSkinManager;
+        this.positions = positions;
+        this.players = players;
+        this.kill = kill;
     }
 
     
@@ -60,18 +77,17 @@ public class SwordThrowHandler implements Listener {
         }
 
         Player attacker = event.getPlayer();
-        if (!isMurderer(attacker)) return;
+        int slot = players.slot(attacker.getUniqueId());
+        if (!isMurderer(slot)) return;
         if (!isHoldingKnife(attacker)) return;
 
         // Cooldown gate
-        long now = System.currentTimeMillis();
-        long lastThrow = swordCooldowns.getOrDefault(attacker.getUniqueId(), 0L);
-        if ((now - lastThrow) < (COOLDOWN_SECONDS * 1000L)) return;
+        if (System.currentTimeMillis() < players.throwReadyAt(slot)) return;
 
         // Already charging? ignore
-        if (chargeRunnables.containsKey(attacker.getUniqueId())) return;
+        if (players.isCharging(slot)) return;
 
-        startCharge(attacker);
+        startCharge(attacker, slot);
     }
 
     /**
@@ -82,7 +98,7 @@ public class SwordThrowHandler implements Listener {
         Player p = event.getPlayer();
         plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
             if (!p.isOnline()) return;
-            if (isMurderer(p) && isHoldingKnife(p)) {
+            if (isMurderer(players.slot(p.getUniqueId())) && isHoldingKnife(p)) {
                 startHandParticles(p);
             } else {
                 stopHandParticles(p);
@@ -91,26 +107,15 @@ public class SwordThrowHandler implements Listener {
     }
 
     /**
-     * Handle player quit: clean up all tasks and maps.
+     * Handle player quit: stop the hand particles. Charge and cooldown tasks
+     * stop themselves once the player is offline; the row goes with the queue.
      */
     @EventHandler
     public void onQuit(PlayerQuitEvent event) {
         Player p = event.getPlayer();
-        UUID uuid = p.getUniqueId();
-
-        // Cancel and remove all running tasks
-        BukkitTask chargeTask = chargeRunnables.remove(uuid);
-        if (chargeTask != null) chargeTask.cancel();
-
-        BukkitTask cooldownTask = cooldownRunnables.remove(uuid);
-        if (cooldownTask != null) cooldownTask.cancel();
-
-        // Stop hand particles
+        int slot = players.slot(p.getUniqueId());
+        if (slot != PlayerTable.NO_SLOT) players.setCharging(slot, false);
         stopHandParticles(p);
-
-        // Clean up cooldown tracking
-        swordCooldowns.remove(uuid);
-        chargeTasks.remove(uuid);
     }
 
     private boolean isHoldingKnife(Player p) {
@@ -118,9 +123,25 @@ public class SwordThrowHandler implements Listener {
         return hand != null && hand.getType() == Material.IRON_SWORD;
     }
 
-    // TODO: Hook into your real role system
-    private boolean isMurderer(Player p) {
-        return true;
+    /**
+     * Queued players may throw freely between matches (knife testing); during
+     * a match only the living murderer can.
+     */
+    private boolean isMurderer(int slot) {
+        if (slot == PlayerTable.NO_SLOT) return false;
+        if (!players.inMatch()) return true;
+        return players.isAlive(slot) && players.role(slot) == MurderRole.MURDERER;
+    }
+
+    /**
+     * Alive, not spectating, and (during a match) still counted alive -
+     * a rewound sample can show someone who has died since.
+     */
+    private boolean canHit(Player victim) {
+        if (!PositionHistory.isHittable(victim)) return false;
+        if (!players.inMatch()) return true;
+        int slot = players.slot(victim.getUniqueId());
+        return slot == PlayerTable.NO_SLOT || players.isAlive(slot);
     }
 
     private boolean isGlass(Material m) {
@@ -129,12 +150,8 @@ public class SwordThrowHandler implements Listener {
         return n.contains("GLASS");
     }
 
-    private void actionBar(Player p, String msg) {
-        VersionUtils.sendActionBar(p, msg);
-    }
-
     private void playHat(Player p, float pitch) {
-        playSoundAny(p, pitch, 2.0f,
+        EffectBatcher.sound(p, 2.0f, pitch,
                 "BLOCK_NOTE_BLOCK_HAT",   // 1.13+
                 "BLOCK_NOTE_HAT",         // some forks
                 "NOTE_STICKS",            // 1.8
@@ -145,100 +162,69 @@ public class SwordThrowHandler implements Listener {
     }
 
     private void playDragonWing(Player p) {
-        playSoundAny(p, 1.2f, 1.0f, "ENTITY_ENDER_DRAGON_FLAP", "ENDERDRAGON_WINGS");
-    }
-
-    private void playSoundAny(Player p, float pitch, float vol, String... names) {
-        for (String s : names) {
-            try {
-                p.playSound(p.getLocation(), Sound.valueOf(s), vol, pitch);
-                return;
-            } catch (Throwable ignored) {}
-        }
+        EffectBatcher.sound(p, 1.0f, 1.2f, "ENTITY_ENDER_DRAGON_FLAP", "ENDERDRAGON_WINGS");
     }
 
-    private void startCharge(Player p) {
-        UUID id = p.getUniqueId();
-
-        BukkitTask task = new BukkitRunnable() {
+    private void startCharge(Player p, int slot) {
+        players.setCharging(slot, true);
+        new ProfiledRunnable("sword.charge") {
             int t = 0;
 
             @Override
-            public void run() {
-                if (!p.isOnline() || !isMurderer(p) || !isHoldingKnife(p)) {
-                    cleanupCharge(id);
+            protected void tick() {
+                if (!p.isOnline()) {
+                    cancel();
+                    return;
+                }
+                if (!players.isCharging(slot) || !isMurderer(slot) || !isHoldingKnife(p)) {
+                    cancel();
+                    cleanupCharge(p, slot);
                     return;
                 }
 
-                double prog = (double) t / CHARGE_TICKS;
-                int filled = (int) Math.round(prog * 10.0);
-                String bar = bar10(filled);
-                double secondsLeft = Math.max(0.0, 0.5 - (t / 20.0));
-                actionBar(p, "&6CHARGING &7[ " + bar + " &7] &6" + String.format("%.2f", secondsLeft) + "s");
-
-                if (t == 0) playHat(p, 0.7f);
+                if (t == 0) {
+                    ActionBarCompositor.charge(p, CHARGE_TICKS);
+                    playHat(p, 0.7f);
+                }
                 if (t == 5) playHat(p, 1.0f);
                 if (t == 9) playHat(p, 1.3f);
 
                 if (t >= CHARGE_TICKS) {
-                    cleanupCharge(id);
+                    cancel();
+                    cleanupCharge(p, slot);
                     playDragonWing(p);
-                    swordCooldowns.put(id, System.currentTimeMillis());
-                    actionBar(p, "&6THROWING &7[ &a■ ■ ■ ■ ■ ■ ■ ■ &c■ ■ &7] &6" + String.format("%.1f", COOLDOWN_SECONDS) + "s");
                     createFlyingSword(p);
-                    startCooldownBar(p, COOLDOWN_SECONDS);
+                    startCooldownBar(p, slot);
                     return;
                 }
 
                 t++;
             }
         }.runTaskTimer(plugin, 0L, 1L);
-
-        chargeRunnables.put(id, task);
     }
 
-    private void cleanupCharge(UUID id) {
-        BukkitTask t = chargeRunnables.remove(id);
-        if (t != null) t.cancel();
+    private void cleanupCharge(Player p, int slot) {
+        players.setCharging(slot, false);
+        ActionBarCompositor.clear(p, ActionBarCompositor.Slot.CHARGE);
     }
 
-    private String bar10(int filled) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < 10; i++) {
-            sb.append(i < filled ? "&a■ " : "&c■ ");
-        }
-        return sb.toString().trim();
-    }
-
-    private void startCooldownBar(Player p, double secondsTotal) {
-        UUID id = p.getUniqueId();
-        BukkitTask old = cooldownRunnables.remove(id);
-        if (old != null) old.cancel();
-
-        BukkitTask task = new BukkitRunnable() {
-            double remaining = secondsTotal;
-
+    /**
+     * Start the throw cooldown. The compositor draws the bar; this only plays
+     * the pickup sound when it ends, unless a newer cooldown replaced it.
+     */
+    private void startCooldownBar(Player p, int slot) {
+        int ticks = (int) Math.round(COOLDOWN_SECONDS * 20.0);
+        long readyAt = System.currentTimeMillis() + (long) (COOLDOWN_SECONDS * 1000L);
+        players.setThrowReadyAt(slot, readyAt);
+        ActionBarCompositor.countdown(p, ActionBarCompositor.Slot.THROW, ticks);
+        new ProfiledRunnable("sword.cooldown-ready") {
             @Override
-            public void run() {
-                if (!p.isOnline()) { cancel(); return; }
-                int green = Math.max(0, (int) Math.round((remaining / secondsTotal) * 10.0));
-                String bar = bar10(green);
-                
-                // Show only decimals without the "0" (e.g., ".5" instead of "0.5")
-                String timeStr = remaining <= 0.0 ? "0" : String.format("%.1f", remaining).replaceFirst("^0", "");
-                
-                actionBar(p, "&6THROWING &7[ " + bar + " &7] &6" + timeStr + "s");
-                remaining -= 0.05; // Tick every 1/20th second (50ms)
-                if (remaining <= 0.0) {
-                    // Play pickup sound when cooldown ends
-                    playSoundAny(p, 1.0f, 1.0f, "ENTITY_ITEM_PICKUP", "ITEM_PICKUP");
-                    cancel();
-                    cooldownRunnables.remove(id);
+            protected void tick() {
+                if (p.isOnline() && players.throwReadyAt(slot) == readyAt) {
+                    EffectBatcher.sound(p, 1.0f, 1.0f, "ENTITY_ITEM_PICKUP", "ITEM_PICKUP");
                 }
             }
-        }.runTaskTimer(plugin, 0L, 1L); // Run every tick for smooth decimal countdown
-
-        cooldownRunnables.put(id, task);
+        }.runTaskLater(plugin, ticks);
     }
 
     // Per-player hand particle task
@@ -247,10 +233,10 @@ public class SwordThrowHandler implements Listener {
         BukkitTask old = handParticleRunnables.remove(id);
         if (old != null) old.cancel();
 
-        BukkitTask task = new BukkitRunnable() {
+        BukkitTask task = new ProfiledRunnable("sword.hand-particles") {
             @Override
-            public void run() {
-                if (!p.isOnline() || !isMurderer(p) || !isHoldingKnife(p)) {
+            protected void tick() {
+                if (!p.isOnline() || !isMurderer(players.slot(p.getUniqueId())) || !isHoldingKnife(p)) {
                     cancel();
                     return;
                 }
@@ -271,7 +257,7 @@ public class SwordThrowHandler implements Listener {
                         .add(right.clone().multiply(0.20))
                         .add(up.clone().multiply(-0.35));
 
-                VersionUtils.spawnRedstoneDust(hand, 2); // 2 particles, once per second
+                EffectBatcher.particle(hand, EffectBatcher.Particle.REDSTONE, 2, 0.02f, 0f); // 2 particles, once per second
             }
         }.runTaskTimer(plugin, 0L, 20L);
 
@@ -284,9 +270,11 @@ public class SwordThrowHandler implements Listener {
     }
 
     private void createFlyingSword(Player attacker) {
+        GameMetrics.KNIFE_THROWS.inc();
         Location loc = attacker.getLocation();
         Location eye = attacker.getEyeLocation();
         Location body = attacker.getLocation();
+        MatchJournal.knifeThrow(attacker, eye, JournalFormat.THROW_FLYING_SWORD);
 
         // Reset sprint to walk (momentum interrupt) without affecting movement velocity
         attacker.setSprinting(false);
@@ -312,7 +300,8 @@ public class SwordThrowHandler implements Listener {
         // Sanity log for basis vectors
         plugin.getLogger().info("right=" + right + " up=" + up);
 
-        double speed = plugin.getConfig().getDouble("Sword.Speed", 0.65);
+        GameConfig.Sword config = GameConfig.current().sword(); // one snapshot for the whole flight
+        double speed = config.speed();
         Vector vec = forward.clone().multiply(speed);
 
         // Where you want the SWORD to visually start (still tune these)
@@ -386,23 +375,28 @@ public class SwordThrowHandler implements Listener {
         try { stand.getClass().getMethod("setBasePlate", Boolean.TYPE).invoke(stand, false); } catch (Throwable ignored) {}
         try { stand.getClass().getMethod("setSmall", Boolean.TYPE).invoke(stand, false); } catch (Throwable ignored) {}
 
-        int maxRange = Math.min(plugin.getConfig().getInt("Sword.Fly.Range", 20), 200);
-        double maxHitRange = plugin.getConfig().getDouble("Sword.Fly.Radius", 0.5);
-        int maxTicks = plugin.getConfig().getInt("Sword.Fly.MaxTicks", 300); // 15s @ 20tps
+        int maxRange = config.range();
+        double maxHitRange = config.hitRadius();
+        int maxTicks = config.maxTicks(); // 15s @ 20tps by default
         World world = attacker.getWorld();
 
         // Mutable tracking for movement (hit ray stays canonical)
         Location hitLocTick = hitPos.clone();
+        // Targets are rewound by the thrower's latency at release for the whole flight
+        final int rewind = positions.rewindTicks(attacker);
+        final UUID attackerId = attacker.getUniqueId();
+        final Set<UUID> hit = new HashSet<>(); // each victim once per throw
 
-        new BukkitRunnable() {
+        new ProfiledRunnable("sword.flight") {
             int ticks = 0;
             
             @Override
-            public void run() {
+            protected void tick() {
                 ticks++;
 
                 // Move hit location by velocity each tick
-                hitLocTick.add(vec.clone());
+                double fromX = hitLocTick.getX(), fromY = hitLocTick.getY(), fromZ = hitLocTick.getZ();
+                hitLocTick.add(vec);
 
                 // Visual-only position (stand) follows the hit ray with small nudges
                 Location visualLocTick = hitLocTick.clone()
@@ -413,23 +407,27 @@ public class SwordThrowHandler implements Listener {
 
                 VersionUtils.teleport(stand, visualLocTick);
 
-                // Debug every tick
-                plugin.getLogger().info("[Tick " + ticks + "] Visual: x=" + 
-                    String.format("%.2f", visualLocTick.getX()) + ", y=" + 
-                    String.format("%.2f", visualLocTick.getY()) + ", z=" + 
-                    String.format("%.2f", visualLocTick.getZ()) + 
-                    " | Hit: x=" + String.format("%.2f", hitLocTick.getX()) + ", y=" + 
-                    String.format("%.2f", hitLocTick.getY()) + ", z=" + 
-                    String.format("%.2f", hitLocTick.getZ()));
+                // Participants: this tick's path against their rewound hitboxes
+                for (int slot = 0; slot < positions.participantCount(); slot++) {
+                    UUID id = positions.participant(slot);
+                    if (id.equals(attackerId) || hit.contains(id)) continue;
+                    if (!positions.intersects(id, rewind, fromX, fromY, fromZ,
+                            hitLocTick.getX(), hitLocTick.getY(), hitLocTick.getZ(), maxHitRange)) continue;
+                    Player victim = plugin.getServer().getPlayer(id);
+                    if (!canHit(victim)) continue;
+                    hit.add(id);
+                    kill.accept(victim, attacker);
+                }
 
-                // Check hits against hit position
+                // Anyone without a recorded sample: live position
                 for (Entity entity : world.getNearbyEntities(hitLocTick, maxHitRange, maxHitRange, maxHitRange)) {
                     if (!(entity instanceof Player)) continue;
                     Player victim = (Player) entity;
-                    if (victim.equals(attacker)) continue;
-                    
-                    plugin.getLogger().info("[Tick " + ticks + "] HIT PLAYER: " + victim.getName());
-                    victim.damage(20.0);
+                    if (victim.equals(attacker) || hit.contains(victim.getUniqueId())) continue;
+                    if (positions.hasSample(victim.getUniqueId(), rewind)) continue; // judged above
+                    if (!canHit(victim)) continue;
+                    hit.add(victim.getUniqueId());
+                    kill.accept(victim, attacker);
                 }
 
                 // Check block collision at hit position
@@ -438,17 +436,10 @@ public class SwordThrowHandler implements Listener {
                 String blockName = blockType.name().toUpperCase();
 
                 if (isGlass(blockType)) {
-                    // Glass or pane: play sound + crack overlay (with spam prevention) + continue
-                    if (shouldCrack(b.getLocation())) {
-                        try {
-                            world.playSound(hitLocTick, Sound.valueOf("BLOCK_GLASS_BREAK"), 2.0f, 1.2f);
-                        } catch (Throwable e) {
-                            try {
-                                world.playSound(hitLocTick, Sound.valueOf("GLASS"), 2.0f, 1.2f);
-                            } catch (Throwable ex) {}
-                        }
-                        // Show crack animation (stage 7 = heavy crack, auto-clear after 8 ticks)
-                        VersionUtils.showBlockCrack(world, b.getLocation(), 7, 8);
+                    // Glass or pane: crack overlay (stage 7 = heavy crack) + sound, then continue.
+                    // A block that is still cracked only has its crack extended, so it doesn't spam.
+                    if (EffectBatcher.crack(b, 7, GLASS_CRACK_TICKS)) {
+                        EffectBatcher.sound(hitLocTick, 2.0f, 1.2f, "BLOCK_GLASS_BREAK", "GLASS");
                     }
                 } else if (blockType.isSolid()) {
                     // Solid block (not glass): stop
@@ -466,20 +457,4 @@ public class SwordThrowHandler implements Listener {
             }
         }.runTaskTimer(plugin, 0, 1);
     }
-
-    /**
-     * Check if a glass block crack should be shown (prevents spam).
-     * Returns true if >= 150ms have passed since the last crack at this location.
-     */
-    private boolean shouldCrack(Location loc) {
-        String key = loc.getBlockX() + "," + loc.getBlockY() + "," + loc.getBlockZ();
-        long now = System.currentTimeMillis();
-        long lastCrack = recentGlass.getOrDefault(key, 0L);
-
-        if ((now - lastCrack) >= GLASS_CRACK_GATE_MS) {
-            recentGlass.put(key, now);
-            return true;
-        }
-        return false;
-    }
 }
@@ -0,0 +1,120 @@
+package com.mmhq.game.arena.trigger;
+
+/**
+ * A static volume in world space used by the {@link TriggerEngine}.
+ * Every region carries an axis-aligned bounding box so the engine can index it
+ * into cells without knowing the exact shape.
+ */
+public abstract class Region {
+    final double minX, minY, minZ;
+    final double maxX, maxY, maxZ;
+
+    Region(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Exact containment test. Only called after the bounding box has matched.
+     */
+    protected abstract boolean containsExact(double x, double y, double z);
+
+    public final boolean contains(double x, double y, double z) {
+        if (x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ) return false;
+        return containsExact(x, y, z);
+    }
+
+    // ===== Factories =====
+
+    public static Region sphere(double cx, double cy, double cz, double radius) {
+        return new Sphere(cx, cy, cz, radius);
+    }
+
+    public static Region box(double x1, double y1, double z1, double x2, double y2, double z2) {
+        return new Box(Math.min(x1, x2), Math.min(y1, y2), Math.min(z1, z2),
+                Math.max(x1, x2), Math.max(y1, y2), Math.max(z1, z2));
+    }
+
+    /**
+     * Vertical prism over a polygon in the XZ plane.
+     * @param xs Polygon X coordinates (at least 3)
+     * @param zs Polygon Z coordinates, same length as xs
+     */
+    public static Region prism(double[] xs, double[] zs, double minY, double maxY) {
+        if (xs.length < 3 || xs.length != zs.length) {
+            throw new IllegalArgumentException("Polygon needs at least 3 points with matching X/Z arrays");
+        }
+        return new Prism(xs.clone(), zs.clone(), Math.min(minY, maxY), Math.max(minY, maxY));
+    }
+
+    // ===== Shapes =====
+
+    private static final class Sphere extends Region {
+        private final double cx, cy, cz, r2;
+
+        Sphere(double cx, double cy, double cz, double r) {
+            super(cx - r, cy - r, cz - r, cx + r, cy + r, cz + r);
+            this.cx = cx;
+            this.cy = cy;
+            this.cz = cz;
+            this.r2 = r * r;
+        }
+
+        @Override
+        protected boolean containsExact(double x, double y, double z) {
+            double dx = x - cx, dy = y - cy, dz = z - cz;
+            return dx * dx + dy * dy + dz * dz <= r2;
+        }
+    }
+
+    private static final class Box extends Region {
+        Box(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+            super(minX, minY, minZ, maxX, maxY, maxZ);
+        }
+
+        @Override
+        protected boolean containsExact(double x, double y, double z) {
+            return true; // bounding box is the shape
+        }
+    }
+
+    private static final class Prism extends Region {
+        private final double[] xs;
+        private final double[] zs;
+
+        Prism(double[] xs, double[] zs, double minY, double maxY) {
+            super(min(xs), minY, min(zs), max(xs), maxY, max(zs));
+            this.xs = xs;
+            this.zs = zs;
+        }
+
+        @Override
+        protected boolean containsExact(double x, double y, double z) {
+            // Even-odd ray cast in XZ
+            boolean inside = false;
+            for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+                if ((zs[i] > z) != (zs[j] > z)
+                        && x < (xs[j] - xs[i]) * (z - zs[i]) / (zs[j] - zs[i]) + xs[i]) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+
+        private static double min(double[] a) {
+            double m = a[0];
+            for (double v : a) m = Math.min(m, v);
+            return m;
+        }
+
+        private static double max(double[] a) {
+            double m = a[0];
+            for (double v : a) m = Math.max(m, v);
+            return m;
+        }
+    }
+}
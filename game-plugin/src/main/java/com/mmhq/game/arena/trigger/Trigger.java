@@ -0,0 +1,42 @@
+package com.mmhq.game.arena.trigger;
+
+import org.bukkit.World;
+
+/**
+ * A registered region + listener. Returned by {@link TriggerEngine#register}
+ * and used as the handle to unregister it.
+ */
+public final class Trigger {
+    private final String name;
+    private final World world;
+    private final Region region;
+    private final TriggerListener listener;
+    boolean active = true;
+
+    Trigger(String name, World world, Region region, TriggerListener listener) {
+        this.name = name;
+        this.world = world;
+        this.region = region;
+        this.listener = listener;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public World world() {
+        return world;
+    }
+
+    public Region region() {
+        return region;
+    }
+
+    TriggerListener listener() {
+        return listener;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+}
@@ -0,0 +1,255 @@
+package com.mmhq.game.arena.trigger;
+
+import com.mmhq.game.profiler.TickProfiler;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-arena region trigger engine.
+ *
+ * Features and managers register {@link Region}s with enter/exit/stay callbacks
+ * instead of listening to {@link PlayerMoveEvent} themselves. Regions are
+ * indexed into 16x16 column cells per world, and a player is only evaluated
+ * when they cross a block boundary (or teleport). If the player's new cell has
+ * no triggers and they are not inside any, the move costs one map lookup.
+ */
+public final class TriggerEngine implements Listener {
+    public static final long STAY_INTERVAL_TICKS = 5L;
+    private static final int CELL_SHIFT = 4;
+
+    private final JavaPlugin plugin;
+    private final Map<World, Map<Long, List<Trigger>>> cells = new HashMap<>();
+    private final Map<UUID, List<Trigger>> inside = new HashMap<>();
+    private final List<Trigger> triggers = new ArrayList<>();
+    private BukkitTask stayTask;
+    private static final boolean DEBUG = false;
+
+    public TriggerEngine(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        TickProfiler.registerEvents(plugin, this, "triggers");
+        if (stayTask != null) stayTask.cancel();
+        stayTask = Bukkit.getScheduler().runTaskTimer(plugin, TickProfiler.wrap("triggers.stay", this::tickStay), STAY_INTERVAL_TICKS, STAY_INTERVAL_TICKS);
+    }
+
+    public void shutdown() {
+        HandlerList.unregisterAll(this);
+        if (stayTask != null) {
+            stayTask.cancel();
+            stayTask = null;
+        }
+        clear();
+    }
+
+    // ===== Registration =====
+
+    /**
+     * Register a trigger. Players already standing inside get {@code onEnter} immediately.
+     */
+    public Trigger register(String name, World world, Region region, TriggerListener listener) {
+        Trigger trigger = new Trigger(name, world, region, listener);
+        triggers.add(trigger);
+
+        Map<Long, List<Trigger>> grid = cells.computeIfAbsent(world, w -> new HashMap<>());
+        forEachCell(region, key -> grid.computeIfAbsent(key, k -> new ArrayList<>(2)).add(trigger));
+        debugLog("register " + name + " in " + world.getName() + " (" + triggers.size() + " active)");
+
+        for (Player player : new ArrayList<>(world.getPlayers())) {
+            Location loc = player.getLocation();
+            if (region.contains(loc.getX(), loc.getY(), loc.getZ())) {
+                inside.computeIfAbsent(player.getUniqueId(), id -> new ArrayList<>(2)).add(trigger);
+                fireEnter(player, trigger);
+            }
+        }
+        return trigger;
+    }
+
+    /**
+     * Remove a trigger. No exit callbacks are fired.
+     */
+    public void unregister(Trigger trigger) {
+        if (trigger == null || !trigger.active) return;
+        trigger.active = false;
+        triggers.remove(trigger);
+
+        Map<Long, List<Trigger>> grid = cells.get(trigger.world());
+        if (grid != null) {
+            forEachCell(trigger.region(), key -> {
+                List<Trigger> list = grid.get(key);
+                if (list == null) return;
+                list.remove(trigger);
+                if (list.isEmpty()) grid.remove(key);
+            });
+            if (grid.isEmpty()) cells.remove(trigger.world());
+        }
+        inside.values().forEach(list -> list.remove(trigger));
+        inside.values().removeIf(List::isEmpty);
+        debugLog("unregister " + trigger.name() + " (" + triggers.size() + " active)");
+    }
+
+    public void clear() {
+        for (Trigger t : triggers) t.active = false;
+        triggers.clear();
+        cells.clear();
+        inside.clear();
+    }
+
+    public int size() {
+        return triggers.size();
+    }
+
+    // ===== Evaluation =====
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMove(PlayerMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (to == null) return;
+        if (from.getBlockX() == to.getBlockX() && from.getBlockY() == to.getBlockY()
+                && from.getBlockZ() == to.getBlockZ() && from.getWorld() == to.getWorld()) {
+            return;
+        }
+        evaluate(event.getPlayer(), to);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTeleport(PlayerTeleportEvent event) {
+        if (event.getTo() == null) return;
+        evaluate(event.getPlayer(), event.getTo());
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        List<Trigger> current = inside.remove(event.getPlayer().getUniqueId());
+        if (current == null) return;
+        for (Trigger t : current) fireExit(event.getPlayer(), t);
+    }
+
+    private void evaluate(Player player, Location to) {
+        if (cells.isEmpty() && inside.isEmpty()) return;
+
+        UUID id = player.getUniqueId();
+        List<Trigger> current = inside.get(id);
+        Map<Long, List<Trigger>> grid = cells.get(to.getWorld());
+        List<Trigger> candidates = grid == null ? null
+                : grid.get(cellKey(to.getBlockX() >> CELL_SHIFT, to.getBlockZ() >> CELL_SHIFT));
+        boolean hasCurrent = current != null && !current.isEmpty();
+        if (!hasCurrent && (candidates == null || candidates.isEmpty())) return;
+
+        double x = to.getX(), y = to.getY(), z = to.getZ();
+        World world = to.getWorld();
+        List<Trigger> exits = null;
+        List<Trigger> enters = null;
+
+        if (hasCurrent) {
+            for (int i = current.size() - 1; i >= 0; i--) {
+                Trigger t = current.get(i);
+                if (t.world() != world || !t.region().contains(x, y, z)) {
+                    current.remove(i);
+                    if (exits == null) exits = new ArrayList<>(2);
+                    exits.add(t);
+                }
+            }
+        }
+        if (candidates != null) {
+            for (Trigger t : candidates) {
+                if (current != null && current.contains(t)) continue;
+                if (!t.region().contains(x, y, z)) continue;
+                if (current == null) {
+                    current = new ArrayList<>(2);
+                    inside.put(id, current);
+                }
+                current.add(t);
+                if (enters == null) enters = new ArrayList<>(2);
+                enters.add(t);
+            }
+        }
+        if (current != null && current.isEmpty()) inside.remove(id);
+
+        // Dispatch after bookkeeping; callbacks may register/unregister triggers
+        if (exits != null) for (Trigger t : exits) fireExit(player, t);
+        if (enters != null) for (Trigger t : enters) fireEnter(player, t);
+    }
+
+    private void tickStay() {
+        if (inside.isEmpty()) return;
+        for (Map.Entry<UUID, List<Trigger>> e : new ArrayList<>(inside.entrySet())) {
+            Player player = Bukkit.getPlayer(e.getKey());
+            if (player == null) continue;
+            for (Trigger t : e.getValue().toArray(new Trigger[0])) {
+                if (!t.active) continue;
+                try {
+                    t.listener().onStay(player, t);
+                } catch (Throwable ex) {
+                    plugin.getLogger().warning("[Triggers] " + t.name() + " onStay failed: " + ex);
+                }
+            }
+        }
+    }
+
+    private void fireEnter(Player player, Trigger t) {
+        if (!t.active) return;
+        try {
+            t.listener().onEnter(player, t);
+        } catch (Throwable ex) {
+            plugin.getLogger().warning("[Triggers] " + t.name() + " onEnter failed: " + ex);
+        }
+    }
+
+    private void fireExit(Player player, Trigger t) {
+        if (!t.active) return;
+        try {
+            t.listener().onExit(player, t);
+        } catch (Throwable ex) {
+            plugin.getLogger().warning("[Triggers] " + t.name() + " onExit failed: " + ex);
+        }
+    }
+
+    // ===== Helpers =====
+
+    private interface CellVisitor {
+        void visit(long key);
+    }
+
+    private static void forEachCell(Region r, CellVisitor visitor) {
+        int cx0 = floor(r.minX) >> CELL_SHIFT, cx1 = floor(r.maxX) >> CELL_SHIFT;
+        int cz0 = floor(r.minZ) >> CELL_SHIFT, cz1 = floor(r.maxZ) >> CELL_SHIFT;
+        for (int cx = cx0; cx <= cx1; cx++) {
+            for (int cz = cz0; cz <= cz1; cz++) {
+                visitor.visit(cellKey(cx, cz));
+            }
+        }
+    }
+
+    private static long cellKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+
+    private static int floor(double d) {
+        int i = (int) d;
+        return d < i ? i - 1 : i;
+    }
+
+    private void debugLog(String msg) {
+        if (DEBUG) plugin.getLogger().info("[DEBUG-Triggers] " + msg);
+    }
+}
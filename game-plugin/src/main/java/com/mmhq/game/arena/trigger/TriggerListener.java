@@ -0,0 +1,26 @@
+package com.mmhq.game.arena.trigger;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Callbacks for a {@link Trigger}. All methods run on the main thread.
+ */
+public interface TriggerListener {
+    /**
+     * Player moved (or teleported, or was already standing) into the region.
+     */
+    default void onEnter(Player player, Trigger trigger) {
+    }
+
+    /**
+     * Player left the region, quit, or changed world.
+     */
+    default void onExit(Player player, Trigger trigger) {
+    }
+
+    /**
+     * Player is still inside. Fired every {@link TriggerEngine#STAY_INTERVAL_TICKS}.
+     */
+    default void onStay(Player player, Trigger trigger) {
+    }
+}
@@ -1,5 +1,7 @@
 package com.mmhq.game.combat;
 
+import com.mmhq.game.effects.EffectBatcher;
+import com.mmhq.game.profiler.ProfiledRunnable;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -15,12 +17,19 @@ import java.util.UUID;
 /**
  * Simulates a legacy (1.8-style) arrow with custom physics to avoid
  * backend differences (e.g., 1.21 hitboxes/drag) and ensure consistent feel.
+ * Match participants are hit-tested where the shooter saw them, using the
+ * arena's {@link PositionHistory} rewound by the shooter's latency at release.
  */
 public final class LegacyArrowSim {
     private final JavaPlugin plugin;
+    private final PositionHistory positions;
 
-    public LegacyArrowSim(JavaPlugin plugin) {
+    /**
+     * @param positions The arena's position history, or null to test live positions only
+     */
+    public LegacyArrowSim(JavaPlugin plugin, PositionHistory positions) {
         this.plugin = plugin;
+        this.positions = positions;
     }
 
     /**
@@ -44,12 +53,13 @@ public final class LegacyArrowSim {
 
         final Location pos = start.clone();
         final UUID shooterId = shooter.getUniqueId();
+        final int rewind = positions != null ? positions.rewindTicks(shooter) : 0;
 
-        new org.bukkit.scheduler.BukkitRunnable() {
+        new ProfiledRunnable("combat.arrow-sim") {
             int ticks = 0;
 
             @Override
-            public void run() {
+            protected void tick() {
                 if (ticks++ > maxTicks) { 
                     cancel(); 
                     return; 
@@ -71,15 +81,13 @@ public final class LegacyArrowSim {
                     return;
                 }
 
-                if (checkEntityCollision(from, pos, shooterId, s, hitboxRadius, world)) {
+                if (checkEntityCollision(from, pos, shooterId, s, hitboxRadius, rewind, world)) {
                     cancel();
                     return;
                 }
 
-                // Play crit effect (use dust particles available in older versions)
-                try {
-                    world.playEffect(pos, org.bukkit.Effect.CRIT, 0);
-                } catch (Throwable ignored) {}
+                // Crit trail (batched per tick)
+                EffectBatcher.particle(pos, EffectBatcher.Particle.CRIT);
 
                 // Apply legacy physics
                 vel.multiply(drag);
@@ -112,14 +120,32 @@ public final class LegacyArrowSim {
     /**
      * Check if arrow hit an entity during this tick.
      */
-    private boolean checkEntityCollision(Location from, Location to, UUID shooterId, Player shooter, double radius, World world) {
+    private boolean checkEntityCollision(Location from, Location to, UUID shooterId, Player shooter, double radius,
+                                         int rewind, World world) {
         double distance = from.distance(to);
         if (distance == 0) return false;
 
-        // Get all entities in the world and check proximity
+        // Participants: this tick's segment against their rewound hitboxes
+        if (positions != null) {
+            for (int slot = 0; slot < positions.participantCount(); slot++) {
+                UUID id = positions.participant(slot);
+                if (id.equals(shooterId)) continue;
+                if (!positions.intersects(id, rewind, from.getX(), from.getY(), from.getZ(),
+                        to.getX(), to.getY(), to.getZ(), radius)) continue;
+                Player victim = Bukkit.getPlayer(id);
+                if (!PositionHistory.isHittable(victim)) continue; // died since the sample: fly on
+                victim.damage(6.0, shooter); // 1.8 bow body shot equivalent
+                playHitSound(victim.getLocation(), world);
+                return true;
+            }
+        }
+
+        // Everything else (and participants with no recorded sample): live positions
         for (Entity entity : world.getEntities()) {
             if (!(entity instanceof LivingEntity)) continue;
             if (entity.getUniqueId().equals(shooterId)) continue; // Skip shooter
+            if (positions != null && positions.hasSample(entity.getUniqueId(), rewind)) continue; // judged above
+            if (entity.isDead() || (entity instanceof Player p && !PositionHistory.isHittable(p))) continue;
             
             Location entityLoc = entity.getLocation();
             double distToLine = pointToLineDistance(entityLoc, from, to);
@@ -0,0 +1,235 @@
+package com.mmhq.game.combat;
+
+import com.mmhq.game.config.GameConfig;
+import com.mmhq.game.profiler.TickProfiler;
+import com.mmhq.game.utils.NmsPackets;
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-arena position history for lag-compensated hit registration.
+ *
+ * Every tick of a match the feet position and hitbox height of each
+ * participant is written into a fixed ring of {@link #CAPACITY} ticks held in
+ * flat primitive arrays (participant slot * CAPACITY + tick). A hit check
+ * rewinds the target by the attacker's latency ({@link #rewindTicks}) and
+ * tests against where the attacker saw it; every query is a map lookup plus
+ * array reads, with no allocation, so it can run on every swing and every
+ * projectile step.
+ *
+ * A height of 0 marks a tick where the participant was not hittable
+ * (offline, spectating or in another world). Queries never rewind past the
+ * start of the recording, and report no sample for such a tick, in which
+ * case callers test the live position instead.
+ */
+public final class PositionHistory {
+    public static final int CAPACITY = 32;              // 1.6s, power of two
+    private static final int MASK = CAPACITY - 1;
+    private static final double HALF_WIDTH = 0.3;      // 1.8 player hitbox 0.6 x 1.8
+    private static final float HEIGHT = 1.8f;
+    private static final int INTERP_TICKS = 1;          // clients render other players about a tick behind
+
+    private final JavaPlugin plugin;
+
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private UUID[] ids = new UUID[0];
+    private World world;
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private double[] zs = new double[0];
+    private float[] heights = new float[0];
+    private long tick;      // next tick to write
+    private BukkitTask task;
+
+    public PositionHistory(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    // ===== Recording =====
+
+    /**
+     * Start recording the given participants in {@code world}. Clears any previous match.
+     */
+    public void start(World world, Collection<UUID> participants) {
+        stop();
+        this.world = world;
+        ids = participants.toArray(new UUID[0]);
+        slots.clear();
+        for (int i = 0; i < ids.length; i++) slots.put(ids[i], i);
+        int cells = ids.length * CAPACITY;
+        xs = new double[cells];
+        ys = new double[cells];
+        zs = new double[cells];
+        heights = new float[cells];
+        tick = 0;
+        record();
+        task = Bukkit.getScheduler().runTaskTimer(plugin, TickProfiler.wrap("combat.history", this::record), 1L, 1L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        slots.clear();
+        ids = new UUID[0];
+        world = null;
+    }
+
+    private void record() {
+        int at = (int) (tick & MASK);
+        for (int slot = 0; slot < ids.length; slot++) {
+            int i = slot * CAPACITY + at;
+            Player p = Bukkit.getPlayer(ids[slot]);
+            if (!isHittable(p) || p.getWorld() != world) {
+                heights[i] = 0f;
+                continue;
+            }
+            Location l = p.getLocation();
+            xs[i] = l.getX();
+            ys[i] = l.getY();
+            zs[i] = l.getZ();
+            heights[i] = HEIGHT;
+        }
+        tick++;
+    }
+
+    // ===== Queries =====
+
+    /**
+     * Whether {@code p} can take a hit right now. A rewound sample can still
+     * show a player who has since died or started spectating; hit checks ask
+     * this before acting on it.
+     */
+    public static boolean isHittable(Player p) {
+        return p != null && p.isOnline() && !p.isDead() && p.getGameMode() != GameMode.SPECTATOR;
+    }
+
+    /**
+     * How far to rewind targets for hits made by {@code attacker}: their
+     * round-trip latency plus the client's interpolation delay, capped at
+     * {@code combat.lagCompensation.maxRewindMs}. 0 when disabled.
+     */
+    public int rewindTicks(Player attacker) {
+        GameConfig.Combat config = GameConfig.current().combat();
+        if (!config.lagCompensation() || attacker == null) return 0;
+        int ping = NmsPackets.pingOf(attacker);
+        if (ping <= 0) return 0;
+        int maxRewindTicks = Math.min(CAPACITY - 1, config.maxRewindMs() / 50);
+        return Math.min(maxRewindTicks, (ping + 25) / 50 + INTERP_TICKS);
+    }
+
+    /**
+     * Ring index of {@code victim}'s sample {@code ticksAgo} ticks back
+     * (clamped to what has been recorded), or -1 if untracked or not hittable then.
+     */
+    private int index(UUID victim, int ticksAgo) {
+        Integer slot = slots.get(victim);
+        if (slot == null || tick == 0) return -1;
+        long back = Math.min(Math.max(0, ticksAgo), Math.min(tick - 1, MASK));
+        int i = slot * CAPACITY + (int) ((tick - 1 - back) & MASK);
+        return heights[i] > 0f ? i : -1;
+    }
+
+    /**
+     * Whether {@code victim} has a hittable sample {@code ticksAgo} back. Hit
+     * checks fall back to the live position when it has not.
+     */
+    public boolean hasSample(UUID victim, int ticksAgo) {
+        return index(victim, ticksAgo) >= 0;
+    }
+
+    /**
+     * Distance from a point to {@code victim}'s feet as of {@code ticksAgo}, or
+     * {@link Double#NaN} if there is no usable sample.
+     */
+    public double feetDistance(UUID victim, int ticksAgo, double x, double y, double z) {
+        int i = index(victim, ticksAgo);
+        if (i < 0) return Double.NaN;
+        double dx = xs[i] - x, dy = ys[i] - y, dz = zs[i] - z;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    /**
+     * Whether a point lies within {@code victim}'s hitbox as of {@code ticksAgo}, grown by {@code radius}.
+     */
+    public boolean contains(UUID victim, int ticksAgo, double x, double y, double z, double radius) {
+        int i = index(victim, ticksAgo);
+        if (i < 0) return false;
+        double half = HALF_WIDTH + radius;
+        return Math.abs(x - xs[i]) <= half && Math.abs(z - zs[i]) <= half
+                && y >= ys[i] - radius && y <= ys[i] + heights[i] + radius;
+    }
+
+    /**
+     * Whether the segment a-b passes through {@code victim}'s hitbox as of
+     * {@code ticksAgo}, grown by {@code radius} (slab test).
+     */
+    public boolean intersects(UUID victim, int ticksAgo, double ax, double ay, double az,
+                              double bx, double by, double bz, double radius) {
+        int i = index(victim, ticksAgo);
+        if (i < 0) return false;
+        double half = HALF_WIDTH + radius;
+        // The three axes are written out inline so the test allocates nothing
+        double t0 = 0.0, t1 = 1.0;
+        double d, inv, n, f;
+
+        d = bx - ax;
+        if (Math.abs(d) < 1e-9) {
+            if (ax < xs[i] - half || ax > xs[i] + half) return false;
+        } else {
+            inv = 1.0 / d;
+            n = (xs[i] - half - ax) * inv;
+            f = (xs[i] + half - ax) * inv;
+            if (n > f) { double s = n; n = f; f = s; }
+            t0 = Math.max(t0, n);
+            t1 = Math.min(t1, f);
+            if (t0 > t1) return false;
+        }
+
+        d = by - ay;
+        double minY = ys[i] - radius, maxY = ys[i] + heights[i] + radius;
+        if (Math.abs(d) < 1e-9) {
+            if (ay < minY || ay > maxY) return false;
+        } else {
+            inv = 1.0 / d;
+            n = (minY - ay) * inv;
+            f = (maxY - ay) * inv;
+            if (n > f) { double s = n; n = f; f = s; }
+            t0 = Math.max(t0, n);
+            t1 = Math.min(t1, f);
+            if (t0 > t1) return false;
+        }
+
+        d = bz - az;
+        if (Math.abs(d) < 1e-9) {
+            return az >= zs[i] - half && az <= zs[i] + half;
+        }
+        inv = 1.0 / d;
+        n = (zs[i] - half - az) * inv;
+        f = (zs[i] + half - az) * inv;
+        if (n > f) { double s = n; n = f; f = s; }
+        return Math.max(t0, n) <= Math.min(t1, f);
+    }
+
+    /**
+     * Participants recorded this match, by slot. Iterate with {@link #participantCount()}.
+     */
+    public UUID participant(int slot) {
+        return ids[slot];
+    }
+
+    public int participantCount() {
+        return ids.length;
+    }
+}
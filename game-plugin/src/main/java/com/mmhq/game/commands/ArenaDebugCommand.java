@@ -3,17 +3,26 @@ package com.mmhq.game.commands;
 import com.mmhq.game.GameManager;
 import com.mmhq.game.arena.ArenaManager;
 import com.mmhq.game.arena.ArenaState;
+import com.mmhq.game.profiler.TickProfiler;
 import com.mmhq.sharedapi.game.GameState;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 
+import java.io.File;
+import java.util.List;
+import java.util.Locale;
+
 /**
  * Debug command to check arena and game status.
  * Usage: /mmarena
+ *        /mmarena profile [10s|1m|5m]       - top subsystems by tick cost
+ *        /mmarena profile dump [10s|1m|5m]  - write the full table to plugins/.../profiles/
+ *        /mmarena profile on|off|reset
  */
 public final class ArenaDebugCommand implements CommandExecutor {
+    private static final int PROFILE_ROWS = 12;
     private final GameManager gameManager;
 
     public ArenaDebugCommand(GameManager gameManager) {
@@ -27,6 +36,11 @@ public final class ArenaDebugCommand implements CommandExecutor {
             return true;
         }
 
+        if (args.length > 0 && args[0].equalsIgnoreCase("profile")) {
+            handleProfile(sender, args);
+            return true;
+        }
+
         ArenaManager arena = gameManager.arena();
         GameState gameState = gameManager.game().state();
         ArenaState arenaState = arena.getState();
@@ -44,4 +58,89 @@ public final class ArenaDebugCommand implements CommandExecutor {
         sender.sendMessage(msg.toString());
         return true;
     }
+
+    // ===== Profiler =====
+
+    private void handleProfile(CommandSender sender, String[] args) {
+        String sub = args.length > 1 ? args[1].toLowerCase(Locale.ROOT) : "";
+        switch (sub) {
+            case "on":
+                TickProfiler.setEnabled(true);
+                sender.sendMessage(ChatColor.GREEN + "Tick profiler enabled.");
+                return;
+            case "off":
+                TickProfiler.setEnabled(false);
+                sender.sendMessage(ChatColor.YELLOW + "Tick profiler disabled.");
+                return;
+            case "reset":
+                TickProfiler.reset();
+                sender.sendMessage(ChatColor.GREEN + "Tick profiler samples cleared.");
+                return;
+            case "dump": {
+                int window = parseWindow(args.length > 2 ? args[2] : null);
+                File file = TickProfiler.dump(window);
+                sender.sendMessage(ChatColor.GREEN + "Writing profile to " + ChatColor.YELLOW + file.getPath());
+                return;
+            }
+            default:
+                break;
+        }
+
+        int window = parseWindow(args.length > 1 ? args[1] : null);
+        if (window <= 0) {
+            sender.sendMessage(ChatColor.RED + "Usage: /mmarena profile [10s|1m|5m] | dump [window] | on | off | reset");
+            return;
+        }
+        if (!TickProfiler.isEnabled()) {
+            sender.sendMessage(ChatColor.YELLOW + "Tick profiler is off (/mmarena profile on).");
+        }
+
+        List<TickProfiler.Row> rows = TickProfiler.report(window);
+        TickProfiler.Row interval = TickProfiler.tickIntervalRow(window);
+        StringBuilder msg = new StringBuilder();
+        msg.append(ChatColor.GOLD + "===== TICK PROFILE (" + TickProfiler.coveredTicks(window) + " ticks) =====\n");
+        msg.append(ChatColor.GRAY + "section [arena]  avg/tick  p50/p95/p99/max us  calls/t"
+                + (TickProfiler.tracksAllocations() ? "  KB/t" : "") + "\n");
+        int shown = 0;
+        for (TickProfiler.Row r : rows) {
+            if (shown++ >= PROFILE_ROWS) break;
+            msg.append(ChatColor.YELLOW + r.section + ChatColor.DARK_GRAY + " [" + r.arena + "] ")
+                    .append(ChatColor.WHITE + String.format("%.1f", r.nanosPerTick / 1000.0) + "us ")
+                    .append(ChatColor.GRAY + String.format("%.0f/%.0f/%.0f/%.0f ",
+                            r.p50 / 1000.0, r.p95 / 1000.0, r.p99 / 1000.0, r.max / 1000.0))
+                    .append(String.format("%.2f", r.callsPerTick));
+            if (TickProfiler.tracksAllocations()) {
+                msg.append(String.format("  %.1f", r.allocPerTick / 1024.0));
+            }
+            msg.append("\n");
+        }
+        if (rows.size() > PROFILE_ROWS) {
+            msg.append(ChatColor.GRAY + "... " + (rows.size() - PROFILE_ROWS) + " more (use /mmarena profile dump)\n");
+        }
+        msg.append(ChatColor.RESET + "Tick interval ms p50/p99/max: " + ChatColor.YELLOW
+                + String.format("%.1f/%.1f/%.1f", interval.p50 / 1e6, interval.p99 / 1e6, interval.max / 1e6) + "\n");
+        msg.append(ChatColor.GOLD + "=============================\n");
+        sender.sendMessage(msg.toString());
+    }
+
+    /**
+     * "10s", "1m", "5m" (or a bare number of seconds) to ticks; 1 minute by default, -1 if unparseable.
+     */
+    private static int parseWindow(String arg) {
+        if (arg == null || arg.isEmpty()) return 20 * 60;
+        String a = arg.toLowerCase(Locale.ROOT);
+        int mult = 20;
+        if (a.endsWith("m")) {
+            mult = 20 * 60;
+            a = a.substring(0, a.length() - 1);
+        } else if (a.endsWith("s")) {
+            a = a.substring(0, a.length() - 1);
+        }
+        try {
+            int n = Integer.parseInt(a);
+            return n > 0 ? Math.min(n * mult, TickProfiler.MAX_WINDOW_TICKS) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
 }
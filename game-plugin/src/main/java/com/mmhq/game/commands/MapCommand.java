@@ -2,17 +2,18 @@ package com.mmhq.game.commands;
 
 import com.mmhq.game.GameManager;
 import com.mmhq.game.arena.MapDefinition;
+import com.mmhq.game.arena.MapRegistry;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 
-import java.util.List;
+import java.util.TreeSet;
 
 public final class MapCommand implements CommandExecutor {
     private final GameManager gameManager;
-    private final List<MapDefinition> maps;
+    private final MapRegistry maps;
 
-    public MapCommand(GameManager gameManager, List<MapDefinition> maps) {
+    public MapCommand(GameManager gameManager, MapRegistry maps) {
         this.gameManager = gameManager;
         this.maps = maps;
     }
@@ -25,16 +26,28 @@ public final class MapCommand implements CommandExecutor {
         }
 
         if (args.length == 0) {
-            sender.sendMessage("Usage: /mmmap <mapname>");
+            sender.sendMessage("Usage: /mmmap <mapname|reload>");
             sender.sendMessage("Available maps: " + mapNames());
             return true;
         }
 
+        if (args[0].equalsIgnoreCase("reload")) {
+            sender.sendMessage("Reloading maps (version " + maps.snapshot().version() + ")...");
+            maps.reload(result -> {
+                if (result.applied()) {
+                    sender.sendMessage("Maps reloaded: " + result.maps() + " map(s), version " + result.version() + ".");
+                } else {
+                    sender.sendMessage("Reload rejected, still on version " + result.version() + ":");
+                    for (String error : result.errors()) {
+                        sender.sendMessage(" - " + error);
+                    }
+                }
+            });
+            return true;
+        }
+
         String mapName = args[0];
-        MapDefinition map = maps.stream()
-                .filter(m -> m.name().equalsIgnoreCase(mapName))
-                .findFirst()
-                .orElse(null);
+        MapDefinition map = maps.get(mapName);
 
         if (map == null) {
             sender.sendMessage("Unknown map: " + mapName);
@@ -53,6 +66,8 @@ public final class MapCommand implements CommandExecutor {
     }
 
     private String mapNames() {
-        return String.join(", ", maps.stream().map(MapDefinition::name).toArray(String[]::new));
+        TreeSet<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (MapDefinition m : maps.all()) names.add(m.name());
+        return String.join(", ", names);
     }
 }
@@ -0,0 +1,57 @@
+package com.mmhq.game.commands;
+
+import com.mmhq.game.arena.MapRegistry;
+import com.mmhq.game.config.GameConfig;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * /mm reload - recompile config.yml, then reload the maps. Each is swapped
+ * in only if it validates; a rejected reload keeps the live version.
+ */
+public final class ReloadCommand implements CommandExecutor {
+    private final JavaPlugin plugin;
+    private final MapRegistry maps;
+
+    public ReloadCommand(JavaPlugin plugin, MapRegistry maps) {
+        this.plugin = plugin;
+        this.maps = maps;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (!sender.hasPermission("mm.reload")) {
+            sender.sendMessage("You don't have permission to reload the config.");
+            return true;
+        }
+        if (args.length == 0 || !args[0].equalsIgnoreCase("reload")) {
+            sender.sendMessage("Usage: /" + label + " reload");
+            return true;
+        }
+
+        sender.sendMessage("Reloading config (version " + GameConfig.current().version() + ")...");
+        GameConfig.reload(plugin, config -> {
+            if (config.applied()) {
+                sender.sendMessage("Config reloaded, version " + config.version() + ".");
+            } else {
+                sender.sendMessage("Config rejected, still on version " + config.version() + ":");
+                for (String error : config.errors()) {
+                    sender.sendMessage(" - " + error);
+                }
+            }
+            maps.reload(result -> {
+                if (result.applied()) {
+                    sender.sendMessage("Maps reloaded: " + result.maps() + " map(s), version " + result.version() + ".");
+                } else {
+                    sender.sendMessage("Maps rejected, still on version " + result.version() + ":");
+                    for (String error : result.errors()) {
+                        sender.sendMessage(" - " + error);
+                    }
+                }
+            });
+        });
+        return true;
+    }
+}
@@ -0,0 +1,229 @@
+package com.mmhq.game.commands;
+
+import com.mmhq.game.replay.ReplayRecorder;
+import com.mmhq.game.replay.ReplayViewer;
+import com.mmhq.sharedapi.replay.ReplayFormat;
+import com.mmhq.sharedapi.replay.ReplayReader;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Match replay playback.
+ * Usage: /mmreplay list                 - newest recordings first
+ *        /mmreplay play <#|name>        - watch a recording (packet actors, only you see them)
+ *        /mmreplay pause|resume|stop
+ *        /mmreplay seek <seconds|m:ss>
+ *        /mmreplay speed <0.25-8>
+ *        /mmreplay players              - roles and alive state at the current time
+ */
+public final class ReplayCommand implements CommandExecutor, Listener {
+    private static final int LIST_ROWS = 10;
+
+    private final JavaPlugin plugin;
+    private final Map<UUID, ReplayViewer> sessions = new HashMap<>();
+
+    public ReplayCommand(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command cmd, String label, String[] args) {
+        if (!sender.hasPermission("mm.replay")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to watch replays.");
+            return true;
+        }
+        String sub = args.length > 0 ? args[0].toLowerCase(Locale.ROOT) : "";
+        if (sub.equals("list")) {
+            list(sender);
+            return true;
+        }
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage("Replays can only be watched in-game.");
+            return true;
+        }
+        ReplayViewer session = sessions.get(player.getUniqueId());
+        switch (sub) {
+            case "play":
+                if (args.length < 2) {
+                    sender.sendMessage(ChatColor.RED + "Usage: /mmreplay play <#|name>");
+                    return true;
+                }
+                play(player, args[1]);
+                return true;
+            case "stop":
+                if (session != null) {
+                    session.stop();
+                    sessions.remove(player.getUniqueId());
+                }
+                sender.sendMessage(ChatColor.YELLOW + "Replay stopped.");
+                return true;
+            default:
+                break;
+        }
+        if (session == null) {
+            sender.sendMessage(ChatColor.RED + "Usage: /mmreplay list | play <#|name> | pause | resume | seek <time> | speed <x> | players | stop");
+            return true;
+        }
+        switch (sub) {
+            case "pause":
+                session.setPaused(true);
+                sender.sendMessage(ChatColor.YELLOW + "Paused at " + clock(session.positionSeconds()) + ".");
+                return true;
+            case "resume":
+                session.setPaused(false);
+                sender.sendMessage(ChatColor.GREEN + "Resumed.");
+                return true;
+            case "seek": {
+                double seconds = args.length > 1 ? parseTime(args[1]) : -1;
+                if (seconds < 0) {
+                    sender.sendMessage(ChatColor.RED + "Usage: /mmreplay seek <seconds|m:ss>");
+                    return true;
+                }
+                try {
+                    session.seekSeconds(seconds);
+                    sender.sendMessage(ChatColor.GREEN + "At " + clock(session.positionSeconds()) + " / " + clock(session.lengthSeconds()) + ".");
+                } catch (IOException e) {
+                    sender.sendMessage(ChatColor.RED + "Seek failed: " + e.getMessage());
+                }
+                return true;
+            }
+            case "speed": {
+                try {
+                    double applied = session.setSpeed(Double.parseDouble(args.length > 1 ? args[1] : ""));
+                    sender.sendMessage(ChatColor.GREEN + "Speed " + applied + "x.");
+                } catch (NumberFormatException e) {
+                    sender.sendMessage(ChatColor.RED + "Usage: /mmreplay speed <0.25-8>");
+                }
+                return true;
+            }
+            case "players":
+                sender.sendMessage(ChatColor.GOLD + "Players at " + clock(session.positionSeconds()) + ":\n" + session.describeActors());
+                return true;
+            default:
+                sender.sendMessage(ChatColor.RED + "Usage: /mmreplay list | play <#|name> | pause | resume | seek <time> | speed <x> | players | stop");
+                return true;
+        }
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        ReplayViewer session = sessions.remove(event.getPlayer().getUniqueId());
+        if (session != null) session.stop();
+    }
+
+    public void stopAll() {
+        for (ReplayViewer session : sessions.values()) session.stop();
+        sessions.clear();
+    }
+
+    // ===== Helpers =====
+
+    private void list(CommandSender sender) {
+        File[] files = recordings();
+        if (files.length == 0) {
+            sender.sendMessage(ChatColor.YELLOW + "No replays recorded yet.");
+            return;
+        }
+        StringBuilder msg = new StringBuilder(ChatColor.GOLD + "===== REPLAYS =====\n");
+        for (int i = 0; i < files.length && i < LIST_ROWS; i++) {
+            msg.append(ChatColor.YELLOW).append('#').append(i + 1).append(' ')
+                    .append(ChatColor.WHITE).append(files[i].getName())
+                    .append(ChatColor.GRAY).append(" (").append(files[i].length() / 1024).append(" KB)\n");
+        }
+        sender.sendMessage(msg.toString());
+    }
+
+    private void play(Player player, String which) {
+        File file = resolve(which);
+        if (file == null) {
+            player.sendMessage(ChatColor.RED + "No replay '" + which + "'. See /mmreplay list.");
+            return;
+        }
+        player.sendMessage(ChatColor.YELLOW + "Loading " + file.getName() + "...");
+        UUID viewerId = player.getUniqueId();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            ReplayReader reader;
+            try {
+                reader = ReplayReader.open(file.toPath());
+            } catch (IOException e) {
+                Bukkit.getScheduler().runTask(plugin, () ->
+                        player.sendMessage(ChatColor.RED + "Could not read replay: " + e.getMessage()));
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (!player.isOnline()) return;
+                ReplayViewer previous = sessions.remove(viewerId);
+                if (previous != null) previous.stop();
+                ReplayViewer session = new ReplayViewer(plugin, player, reader);
+                if (!session.start()) {
+                    session.stop();
+                    player.sendMessage(ChatColor.RED + "Replay playback needs a 1.8 (v1_8_R3) server.");
+                    return;
+                }
+                sessions.put(viewerId, session);
+                player.sendMessage(ChatColor.GREEN + "Playing " + reader.header().mapName() + " ("
+                        + reader.header().participants().size() + " players, " + clock(session.lengthSeconds()) + ").");
+            });
+        });
+    }
+
+    private File resolve(String which) {
+        File[] files = recordings();
+        if (which.startsWith("#")) which = which.substring(1);
+        try {
+            int index = Integer.parseInt(which) - 1;
+            return index >= 0 && index < files.length ? files[index] : null;
+        } catch (NumberFormatException ignored) {
+        }
+        for (File f : files) {
+            if (f.getName().equalsIgnoreCase(which) || f.getName().equalsIgnoreCase(which + ReplayFormat.EXTENSION)) return f;
+        }
+        return null;
+    }
+
+    private File[] recordings() {
+        File[] files = ReplayRecorder.replayDirectory(plugin).listFiles((dir, name) -> name.endsWith(ReplayFormat.EXTENSION));
+        if (files == null) return new File[0];
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified).reversed());
+        return files;
+    }
+
+    /**
+     * "90", "90s" or "1:30" to seconds; -1 if unparseable.
+     */
+    private static double parseTime(String arg) {
+        try {
+            int colon = arg.indexOf(':');
+            if (colon >= 0) {
+                return Integer.parseInt(arg.substring(0, colon)) * 60 + Double.parseDouble(arg.substring(colon + 1));
+            }
+            if (arg.endsWith("s")) arg = arg.substring(0, arg.length() - 1);
+            double seconds = Double.parseDouble(arg);
+            return seconds >= 0 ? seconds : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String clock(double seconds) {
+        int s = (int) seconds;
+        return String.format("%d:%02d", s / 60, s % 60);
+    }
+}
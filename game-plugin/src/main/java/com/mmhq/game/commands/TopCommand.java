@@ -0,0 +1,95 @@
+package com.mmhq.game.commands;
+
+import com.mmhq.game.stats.Leaderboards;
+import com.mmhq.sharedapi.leaderboard.RankedIndex;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Leaderboards.
+ * Usage: /mmtop [wins|murderer|detective|winrate] [page]  - a page of 10, plus your own rank
+ *        /mmtop <board> <player>                           - one player's rank
+ */
+public final class TopCommand implements CommandExecutor {
+    private static final int PAGE_SIZE = 10;
+
+    private final Leaderboards leaderboards;
+
+    public TopCommand(Leaderboards leaderboards) {
+        this.leaderboards = leaderboards;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command cmd, String label, String[] args) {
+        if (!sender.hasPermission("mm.top")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to view leaderboards.");
+            return true;
+        }
+        if (!leaderboards.isReady()) {
+            sender.sendMessage(ChatColor.RED + "Leaderboards are not available right now.");
+            return true;
+        }
+        Leaderboards.Board board = args.length > 0 ? Leaderboards.Board.byId(args[0]) : Leaderboards.Board.WINS;
+        if (board == null) {
+            sender.sendMessage(ChatColor.RED + "Usage: /mmtop [wins|murderer|detective|winrate] [page|player]");
+            return true;
+        }
+        if (args.length < 2) {
+            page(sender, board, 1);
+            return true;
+        }
+        try {
+            page(sender, board, Integer.parseInt(args[1]));
+        } catch (NumberFormatException e) {
+            lookup(sender, board, args[1]);
+        }
+        return true;
+    }
+
+    private void page(CommandSender sender, Leaderboards.Board board, int page) {
+        int size = leaderboards.size(board);
+        int pages = Math.max(1, (size + PAGE_SIZE - 1) / PAGE_SIZE);
+        page = Math.max(1, Math.min(page, pages));
+        StringBuilder msg = new StringBuilder(ChatColor.GOLD + "===== TOP " + board.title().toUpperCase() + " ("
+                + page + "/" + pages + ") =====\n");
+        List<RankedIndex.Entry> entries = leaderboards.page(board, (page - 1) * PAGE_SIZE, PAGE_SIZE);
+        if (entries.isEmpty()) {
+            msg.append(ChatColor.GRAY).append("Nobody is ranked yet");
+            if (board == Leaderboards.Board.WIN_RATE) {
+                msg.append(" (").append(leaderboards.minGames()).append(" games needed)");
+            }
+            msg.append('\n');
+        }
+        for (RankedIndex.Entry e : entries) {
+            msg.append(leaderboards.render(board, e)).append('\n');
+        }
+        if (sender instanceof Player player) {
+            msg.append(describeRank(board, player.getUniqueId(), "You"));
+        }
+        sender.sendMessage(msg.toString());
+    }
+
+    private void lookup(CommandSender sender, Leaderboards.Board board, String name) {
+        UUID id = leaderboards.idOf(name);
+        if (id == null) {
+            sender.sendMessage(ChatColor.RED + "No stats stored for " + name + ".");
+            return;
+        }
+        sender.sendMessage(describeRank(board, id, leaderboards.nameOf(id)));
+    }
+
+    private String describeRank(Leaderboards.Board board, UUID id, String who) {
+        int rank = leaderboards.rank(board, id);
+        if (rank == 0) {
+            return ChatColor.GRAY + who + " - not ranked by " + board.title().toLowerCase();
+        }
+        return ChatColor.YELLOW + who + ": " + ChatColor.WHITE + "#" + rank + " of " + leaderboards.size(board)
+                + ChatColor.GRAY + " (" + ChatColor.GREEN + board.format(leaderboards.score(board, id)) + ChatColor.GRAY + ")";
+    }
+}
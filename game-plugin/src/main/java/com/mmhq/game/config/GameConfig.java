@@ -0,0 +1,365 @@
+package com.mmhq.game.config;
+
+import com.mmhq.sharedapi.game.MatchPreset;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Typed, validated and immutable view of config.yml.
+ *
+ * The file is compiled once into small records (preset, arena, sword, knife,
+ * bow, gold, combat, corpses) and published through an atomic reference;
+ * hot paths call {@link #current()} and read final fields instead of doing
+ * string-keyed lookups in the Bukkit config. {@link #reload} parses the file
+ * off the main thread and swaps the snapshot in only if every value passes
+ * validation, so a broken edit never reaches a live match. At boot an
+ * invalid value is logged and replaced by its default instead.
+ *
+ * Maps are not part of this snapshot; they live in the MapRegistry's own.
+ * Values that are only read at startup (metrics, stats, journal, replays,
+ * profiler) still come from the Bukkit config.
+ */
+public final class GameConfig {
+
+    public record Spot(String world, double x, double y, double z, float yaw, float pitch) {
+        /**
+         * Resolve against the loaded worlds; a NaN y means the world's spawn height.
+         * @return null if the world is not loaded
+         */
+        public Location toLocation() {
+            World w = Bukkit.getWorld(world);
+            if (w == null) return null;
+            double at = Double.isNaN(y) ? w.getSpawnLocation().getY() : y;
+            return new Location(w, x, at, z, yaw, pitch);
+        }
+    }
+
+    public record Preset(MatchPreset match, Spot lobbySpawn, double lobbySpawnOffsetY, Spot preGameLobbySpawn) { }
+
+    public record Arena(String activeWorld, String lobbyServerName) { }
+
+    /** Thrown sword flight: blocks per tick, max blocks, hit radius and lifetime. */
+    public record Sword(double speed, int range, double hitRadius, int maxTicks) { }
+
+    /** Hitscan knife (lobby testing). */
+    public record Knife(double maxRange, double step, int cooldownMs) { }
+
+    public record Bow(int cooldownTicks) { }
+
+    public record Gold(int bowCost, int spawnIntervalTicks) { }
+
+    public record Combat(boolean lagCompensation, int maxRewindMs) { }
+
+    public record Corpses(int ttlSeconds, double viewDistance) { }
+
+    private static final AtomicReference<GameConfig> CURRENT =
+            new AtomicReference<>(parse(new YamlConfiguration(), 0, new ArrayList<>()));
+    private static final AtomicBoolean RELOADING = new AtomicBoolean(false);
+    private static final List<Consumer<GameConfig>> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private final long version;
+    private final long loadedAt;
+    private final String serverId;
+    private final Preset preset;
+    private final Arena arena;
+    private final Sword sword;
+    private final Knife knife;
+    private final Bow bow;
+    private final Gold gold;
+    private final Combat combat;
+    private final Corpses corpses;
+
+    private GameConfig(long version, String serverId, Preset preset, Arena arena, Sword sword, Knife knife,
+                       Bow bow, Gold gold, Combat combat, Corpses corpses) {
+        this.version = version;
+        this.loadedAt = System.currentTimeMillis();
+        this.serverId = serverId;
+        this.preset = preset;
+        this.arena = arena;
+        this.sword = sword;
+        this.knife = knife;
+        this.bow = bow;
+        this.gold = gold;
+        this.combat = combat;
+        this.corpses = corpses;
+    }
+
+    public long version() { return version; }
+
+    public long loadedAt() { return loadedAt; }
+
+    public String serverId() { return serverId; }
+
+    public Preset preset() { return preset; }
+
+    public Arena arena() { return arena; }
+
+    public Sword sword() { return sword; }
+
+    public Knife knife() { return knife; }
+
+    public Bow bow() { return bow; }
+
+    public Gold gold() { return gold; }
+
+    public Combat combat() { return combat; }
+
+    public Corpses corpses() { return corpses; }
+
+    // ===== Publishing =====
+
+    /**
+     * The live snapshot; never null (defaults until {@link #load}).
+     */
+    public static GameConfig current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Boot: compile the plugin's config.yml, replacing invalid values by their defaults.
+     */
+    public static GameConfig load(JavaPlugin plugin) {
+        List<String> errors = new ArrayList<>();
+        GameConfig config = parse(plugin.getConfig(), 1, errors);
+        for (String error : errors) {
+            plugin.getLogger().warning("[Config] " + error + " - using the default");
+        }
+        CURRENT.set(config);
+        plugin.getLogger().info("[Config] Loaded config version " + config.version());
+        return config;
+    }
+
+    public static void shutdown() {
+        LISTENERS.clear();
+    }
+
+    /**
+     * Run {@code listener} on the main thread with every snapshot a reload swaps in.
+     */
+    public static void addListener(Consumer<GameConfig> listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Result of a {@link #reload}.
+     */
+    public static final class ReloadResult {
+        private final boolean applied;
+        private final long version;
+        private final List<String> errors;
+
+        ReloadResult(boolean applied, long version, List<String> errors) {
+            this.applied = applied;
+            this.version = version;
+            this.errors = Collections.unmodifiableList(errors);
+        }
+
+        public boolean applied() { return applied; }
+
+        /** Live config version after the reload (unchanged if rejected). */
+        public long version() { return version; }
+
+        public List<String> errors() { return errors; }
+    }
+
+    /**
+     * Re-read config.yml from disk. Parsing runs async; the snapshot is only
+     * swapped in if it has no errors. Listeners and {@code done} run on the
+     * main thread. Does not touch the plugin's own {@code getConfig()}.
+     */
+    public static void reload(JavaPlugin plugin, Consumer<ReloadResult> done) {
+        if (!RELOADING.compareAndSet(false, true)) {
+            done.accept(new ReloadResult(false, current().version(), List.of("a reload is already running")));
+            return;
+        }
+        File file = new File(plugin.getDataFolder(), "config.yml");
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            ReloadResult result;
+            GameConfig next = null;
+            try {
+                GameConfig old = CURRENT.get();
+                List<String> errors = new ArrayList<>();
+                YamlConfiguration yaml = new YamlConfiguration();
+                try {
+                    yaml.load(file);
+                } catch (Exception e) {
+                    errors.add("config.yml: " + e.getMessage());
+                }
+                if (errors.isEmpty()) next = parse(yaml, old.version() + 1, errors);
+                if (errors.isEmpty() && CURRENT.compareAndSet(old, next)) {
+                    result = new ReloadResult(true, next.version(), errors);
+                } else {
+                    if (errors.isEmpty()) errors.add("config changed during reload");
+                    next = null;
+                    result = new ReloadResult(false, CURRENT.get().version(), errors);
+                }
+            } catch (Throwable t) {
+                next = null;
+                result = new ReloadResult(false, CURRENT.get().version(), List.of(String.valueOf(t)));
+            } finally {
+                RELOADING.set(false);
+            }
+            ReloadResult r = result;
+            GameConfig applied = next;
+            if (r.applied()) {
+                plugin.getLogger().info("[Config] Config reloaded, version " + r.version());
+            } else {
+                plugin.getLogger().warning("[Config] Reload rejected, keeping version " + r.version() + ": " + r.errors());
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (applied != null) {
+                    for (Consumer<GameConfig> listener : LISTENERS) {
+                        try {
+                            listener.accept(applied);
+                        } catch (Throwable t) {
+                            plugin.getLogger().severe("[Config] Reload listener failed: " + t);
+                        }
+                    }
+                }
+                done.accept(r);
+            });
+        });
+    }
+
+    // ===== Parsing (any thread) =====
+
+    private static GameConfig parse(ConfigurationSection root, long version, List<String> errors) {
+        Reader in = new Reader(root, errors);
+
+        int minPlayers = in.integer("preset.default.minPlayers", 4, 1, 100);
+        int maxPlayers = in.integer("preset.default.maxPlayers", 16, 1, 100);
+        if (maxPlayers < minPlayers) {
+            errors.add("preset.default.maxPlayers: " + maxPlayers + " is below minPlayers " + minPlayers);
+            maxPlayers = minPlayers;
+        }
+        MatchPreset match = new MatchPreset("default", minPlayers, maxPlayers,
+                Duration.ofSeconds(in.integer("preset.default.countdownSeconds", 20, 1, 600)),
+                Duration.ofMinutes(in.integer("preset.default.roundMinutes", 5, 1, 60)),
+                in.text("preset.default.map", "world"));
+        Preset preset = new Preset(match,
+                in.spot("preset.default.lobbySpawn", match.mapName(), 0.5, Double.NaN, 0.5),
+                in.decimal("preset.default.lobbySpawnOffsetY", 0.0, -64.0, 64.0),
+                in.spot("preset.default.preGameLobbySpawn", "map_ancient_tomb", 5.5, 128.0, 0.5));
+
+        Arena arena = new Arena(
+                in.text("arena.activeWorld", "mm_active"),
+                in.text("arena.lobbyServerName", "lobby"));
+
+        Sword sword = new Sword(
+                in.decimal("Sword.Speed", 0.65, 0.05, 5.0),
+                in.integer("Sword.Fly.Range", 20, 1, 200),
+                in.decimal("Sword.Fly.Radius", 0.5, 0.05, 3.0),
+                in.integer("Sword.Fly.MaxTicks", 300, 1, 6000));
+
+        Knife knife = new Knife(
+                in.decimal("knife.maxRange", 25.0, 1.0, 200.0),
+                in.decimal("knife.step", 0.2, 0.05, 2.0),
+                in.integer("knife.cooldownMs", 1100, 0, 60000));
+
+        Bow bow = new Bow(in.integer("bow.cooldownTicks", 100, 1, 1200));
+
+        Gold gold = new Gold(
+                in.integer("gold.bowCost", 10, 1, 64),
+                in.integer("gold.spawnIntervalTicks", 140, 20, 1200));
+
+        Combat combat = new Combat(
+                in.flag("combat.lagCompensation.enabled", true),
+                in.integer("combat.lagCompensation.maxRewindMs", 300, 0, 1000));
+
+        Corpses corpses = new Corpses(
+                in.integer("corpses.ttlSeconds", 30, 1, 3600),
+                in.decimal("corpses.viewDistance", 48.0, 1.0, 256.0));
+
+        return new GameConfig(version, in.text("server.id", "mm-game"), preset, arena, sword, knife, bow, gold,
+                combat, corpses);
+    }
+
+    /**
+     * Typed reads with range checks. A missing key takes the default; a
+     * wrong type or out-of-range value is reported and also takes the default.
+     */
+    private static final class Reader {
+        private final ConfigurationSection root;
+        private final List<String> errors;
+
+        Reader(ConfigurationSection root, List<String> errors) {
+            this.root = root;
+            this.errors = errors;
+        }
+
+        double decimal(String path, double def, double min, double max) {
+            Object raw = root.get(path);
+            if (raw == null) return def;
+            if (!(raw instanceof Number n)) {
+                errors.add(path + ": '" + raw + "' is not a number");
+                return def;
+            }
+            double v = n.doubleValue();
+            if (!(v >= min && v <= max)) {
+                errors.add(path + ": " + v + " is outside " + min + ".." + max);
+                return def;
+            }
+            return v;
+        }
+
+        int integer(String path, int def, int min, int max) {
+            Object raw = root.get(path);
+            if (raw == null) return def;
+            if (!(raw instanceof Integer || raw instanceof Long || raw instanceof Short)) {
+                errors.add(path + ": '" + raw + "' is not a whole number");
+                return def;
+            }
+            long v = ((Number) raw).longValue();
+            if (v < min || v > max) {
+                errors.add(path + ": " + v + " is outside " + min + ".." + max);
+                return def;
+            }
+            return (int) v;
+        }
+
+        boolean flag(String path, boolean def) {
+            Object raw = root.get(path);
+            if (raw == null) return def;
+            if (!(raw instanceof Boolean b)) {
+                errors.add(path + ": '" + raw + "' is not true/false");
+                return def;
+            }
+            return b;
+        }
+
+        String text(String path, String def) {
+            Object raw = root.get(path);
+            if (raw == null) return def;
+            String v = String.valueOf(raw).trim();
+            if (v.isEmpty()) {
+                errors.add(path + ": must not be empty");
+                return def;
+            }
+            return v;
+        }
+
+        Spot spot(String path, String world, double x, double y, double z) {
+            return new Spot(
+                    text(path + ".world", world),
+                    decimal(path + ".x", x, -3.0e7, 3.0e7),
+                    decimal(path + ".y", y, -64.0, 320.0),
+                    decimal(path + ".z", z, -3.0e7, 3.0e7),
+                    (float) decimal(path + ".yaw", 0.0, -360.0, 360.0),
+                    (float) decimal(path + ".pitch", 0.0, -90.0, 90.0));
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package com.mmhq.game.effects;
+
+import com.mmhq.game.profiler.TickProfiler;
+import com.mmhq.game.utils.NmsPackets;
+import org.bukkit.Bukkit;
+import org.bukkit.Effect;
+import org.bukkit.Location;
+import org.bukkit.Sound;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batched particles, sounds and block cracks, sent once per tick.
+ *
+ * Requests made during a tick are collected per world and deduplicated on a
+ * packed long key - particles per half-block cell and type (merged into one
+ * packet with a summed count), sounds per block and sound, and sounds meant
+ * for a single player per player and sound. One flush task
+ * builds each packet once, then walks every player in the world a single
+ * time and sends only what is within their range ({@code effects.viewDistance},
+ * or the vanilla hearing distance for sounds).
+ *
+ * Cracks are kept per block until they expire: re-cracking a block that
+ * already shows the same stage only extends it, and the clear packet is sent
+ * by the same flush instead of a task per crack. The flush task only runs
+ * while something is queued or a crack is showing.
+ *
+ * Main thread only.
+ */
+public final class EffectBatcher {
+
+    /**
+     * Particles in use, with their 1.8 packet name and the Bukkit effect used
+     * when packets are unavailable.
+     */
+    public enum Particle {
+        CRIT("CRIT", "CRIT"),
+        SMOKE("SMOKE_NORMAL", "SMOKE"),
+        REDSTONE("REDSTONE", "COLOURED_DUST"),
+        IRON_DEBRIS("BLOCK_CRACK", null, 42); // iron block id
+
+        private final String packetName;
+        private final String effectName;
+        private final int[] data;
+        private Effect effect;
+        private boolean effectResolved;
+
+        Particle(String packetName, String effectName, int... data) {
+            this.packetName = packetName;
+            this.effectName = effectName;
+            this.data = data;
+        }
+
+        private Effect effect() {
+            if (!effectResolved) {
+                effectResolved = true;
+                try {
+                    if (effectName != null) effect = Effect.valueOf(effectName);
+                } catch (IllegalArgumentException ignored) {
+                }
+            }
+            return effect;
+        }
+    }
+
+    private static final int MAX_MERGED_COUNT = 8;
+    private static final float MERGED_SPREAD = 0.15f;   // so merged particles don't render as one dot
+    private static final int BREAKER_ID_BASE = -0x100000; // client-side crack ids, clear of real entity ids
+    private static final int BREAKER_ID_RANGE = 0xFFFFF;
+    private static final int CLEAR_STAGE = -1;
+
+    private static final Map<World, Batch> pending = new LinkedHashMap<>();
+    private static final Map<Long, Crack> cracks = new HashMap<>();
+    private static final Map<String, Sound> sounds = new HashMap<>();
+
+    private static JavaPlugin plugin;
+    private static BukkitTask flushTask;
+    private static double viewDistanceSq = 64.0 * 64.0;
+    private static long tick;
+    private static int breakerSerial;
+
+    private EffectBatcher() {
+    }
+
+    // ===== Lifecycle =====
+
+    /**
+     * Read {@code effects.*} from config. Requests made before this are dropped.
+     */
+    public static void install(JavaPlugin owner) {
+        plugin = owner;
+        double viewDistance = owner.getConfig().getDouble("effects.viewDistance", 64.0);
+        viewDistanceSq = viewDistance * viewDistance;
+        owner.getLogger().info("[Effects] Batching effects (" + (NmsPackets.effectsSupported() ? "packets" : "Bukkit fallback")
+                + ", view distance " + viewDistance + ")");
+    }
+
+    /**
+     * Clear showing cracks and stop the flush task.
+     */
+    public static void shutdown() {
+        pending.clear();
+        for (Crack crack : cracks.values()) {
+            crack.stage = CLEAR_STAGE;
+            sendCrack(crack);
+        }
+        cracks.clear();
+        stopFlushing();
+        plugin = null;
+    }
+
+    // ===== Requests =====
+
+    public static void particle(Location at, Particle type) {
+        particle(at, type, 1, 0f, 0f);
+    }
+
+    /**
+     * Queue a particle burst. Bursts of the same type in the same half-block
+     * cell this tick are merged.
+     */
+    public static void particle(Location at, Particle type, int count, float spread, float speed) {
+        Batch batch = batch(at);
+        if (batch == null) return;
+        long key = cellKey(at.getX(), at.getY(), at.getZ(), type);
+        Spot spot = batch.particles.get(key);
+        if (spot == null) {
+            batch.particles.put(key, new Spot(type, at.getX(), at.getY(), at.getZ(), Math.max(1, count), spread, speed));
+        } else {
+            spot.count = Math.min(MAX_MERGED_COUNT, spot.count + Math.max(1, count));
+            spot.spread = Math.max(spot.spread, MERGED_SPREAD);
+        }
+    }
+
+    /**
+     * Queue a sound, given by one or more enum names (the first this server
+     * knows is used, e.g. {@code "BLOCK_GLASS_BREAK", "GLASS"}). The same
+     * sound in the same block this tick plays once, at the loudest volume asked.
+     */
+    public static void sound(Location at, float volume, float pitch, String... names) {
+        Batch batch = batch(at);
+        if (batch == null) return;
+        Sound sound = resolveSound(names);
+        if (sound == null) return;
+        Map<Long, Spot> bySound = batch.sounds.computeIfAbsent(sound, s -> new HashMap<>());
+        long key = blockKey(at.getBlockX(), at.getBlockY(), at.getBlockZ());
+        Spot spot = bySound.get(key);
+        if (spot == null) {
+            bySound.put(key, new Spot(null, at.getX(), at.getY(), at.getZ(), 1, volume, pitch));
+        } else {
+            spot.spread = Math.max(spot.spread, volume);
+        }
+    }
+
+    /**
+     * Queue a sound only {@code listener} hears, at their position (UI cues
+     * like charge ticks). The same sound for the same player this tick plays
+     * once, at the loudest volume asked.
+     */
+    public static void sound(Player listener, float volume, float pitch, String... names) {
+        if (listener == null) return;
+        Location at = listener.getLocation();
+        Batch batch = batch(at);
+        if (batch == null) return;
+        Sound sound = resolveSound(names);
+        if (sound == null) return;
+        Map<Sound, Spot> bySound = batch.personal.computeIfAbsent(listener, p -> new EnumMap<>(Sound.class));
+        Spot spot = bySound.get(sound);
+        if (spot == null) {
+            bySound.put(sound, new Spot(null, at.getX(), at.getY(), at.getZ(), 1, volume, pitch));
+        } else {
+            spot.spread = Math.max(spot.spread, volume);
+        }
+    }
+
+    /**
+     * Show a crack overlay on a block until {@code clearAfterTicks} from now.
+     * @param stage Crack stage (0..9)
+     * @return true if the crack is new or changed stage - false means the
+     *         block already shows it, and only its expiry was extended
+     */
+    public static boolean crack(Block block, int stage, int clearAfterTicks) {
+        if (plugin == null || block == null) return false;
+        World world = block.getWorld();
+        long key = blockKey(block.getX(), block.getY(), block.getZ());
+        long expiresAt = tick + Math.max(1, clearAfterTicks);
+        Crack crack = cracks.get(key);
+        if (crack != null && crack.world != world) {
+            crack.stage = CLEAR_STAGE;
+            sendCrack(crack);
+            crack = null;
+        }
+        if (crack == null) {
+            crack = new Crack(nextBreakerId(), world, block.getX(), block.getY(), block.getZ());
+            cracks.put(key, crack);
+        } else if (crack.stage == stage) {
+            crack.expiresAt = Math.max(crack.expiresAt, expiresAt);
+            return false;
+        }
+        crack.stage = stage;
+        crack.expiresAt = Math.max(crack.expiresAt, expiresAt);
+        crack.dirty = true;
+        ensureFlushing();
+        return true;
+    }
+
+    public static int activeCracks() {
+        return cracks.size();
+    }
+
+    // ===== Flush =====
+
+    private static Batch batch(Location at) {
+        if (plugin == null || at == null || at.getWorld() == null) return null;
+        Batch batch = pending.get(at.getWorld());
+        if (batch == null) {
+            batch = new Batch();
+            pending.put(at.getWorld(), batch);
+            ensureFlushing();
+        }
+        return batch;
+    }
+
+    private static void ensureFlushing() {
+        if (flushTask != null || plugin == null) return;
+        flushTask = Bukkit.getScheduler().runTaskTimer(plugin, TickProfiler.wrap("effects.flush", EffectBatcher::flush), 0L, 1L);
+    }
+
+    private static void stopFlushing() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+    }
+
+    private static void flush() {
+        tick++;
+        Map<World, List<Out>> outgoing = new LinkedHashMap<>();
+        for (Map.Entry<World, Batch> e : pending.entrySet()) {
+            List<Out> outs = outgoing.computeIfAbsent(e.getKey(), w -> new ArrayList<>());
+            e.getValue().drain(e.getKey(), outs);
+        }
+        pending.clear();
+
+        Iterator<Crack> it = cracks.values().iterator();
+        while (it.hasNext()) {
+            Crack crack = it.next();
+            if (tick >= crack.expiresAt) {
+                it.remove();
+                crack.stage = CLEAR_STAGE;
+                crack.dirty = true;
+            }
+            if (crack.dirty) {
+                crack.dirty = false;
+                Object packet = NmsPackets.blockBreakPacket(crack.breakerId, crack.x, crack.y, crack.z, crack.stage);
+                if (packet != null) {
+                    outgoing.computeIfAbsent(crack.world, w -> new ArrayList<>())
+                            .add(new Out(crack.x + 0.5, crack.y + 0.5, crack.z + 0.5, viewDistanceSq, packet));
+                }
+            }
+        }
+
+        for (Map.Entry<World, List<Out>> e : outgoing.entrySet()) {
+            List<Out> outs = e.getValue();
+            if (outs.isEmpty()) continue;
+            for (Player viewer : e.getKey().getPlayers()) {
+                Location l = viewer.getLocation();
+                double px = l.getX(), py = l.getY(), pz = l.getZ();
+                for (int i = 0; i < outs.size(); i++) {
+                    Out out = outs.get(i);
+                    if (out.listener != null && out.listener != viewer) continue;
+                    double dx = px - out.x, dy = py - out.y, dz = pz - out.z;
+                    if (dx * dx + dy * dy + dz * dz > out.rangeSq) continue;
+                    if (out.packet != null) {
+                        NmsPackets.send(viewer, out.packet);
+                    } else {
+                        viewer.playSound(new Location(e.getKey(), out.x, out.y, out.z), out.sound, out.volume, out.pitch);
+                    }
+                }
+            }
+        }
+
+        if (pending.isEmpty() && cracks.isEmpty()) stopFlushing();
+    }
+
+    private static void sendCrack(Crack crack) {
+        Object packet = NmsPackets.blockBreakPacket(crack.breakerId, crack.x, crack.y, crack.z, crack.stage);
+        if (packet == null) return;
+        for (Player viewer : crack.world.getPlayers()) {
+            NmsPackets.send(viewer, packet);
+        }
+    }
+
+    // ===== Helpers =====
+
+    /**
+     * Block position packed like vanilla's BlockPosition: 26 bits x, 26 bits z, 12 bits y.
+     */
+    public static long blockKey(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    /**
+     * Half-block cell plus particle type: 24 bits x, 24 bits z, 10 bits y, 6 bits type.
+     */
+    private static long cellKey(double x, double y, double z, Particle type) {
+        int hx = (int) Math.floor(x * 2), hy = (int) Math.floor(y * 2), hz = (int) Math.floor(z * 2);
+        return ((long) (hx & 0xFFFFFF) << 40) | ((long) (hz & 0xFFFFFF) << 16) | ((long) (hy & 0x3FF) << 6) | type.ordinal();
+    }
+
+    private static int nextBreakerId() {
+        breakerSerial = (breakerSerial + 1) & BREAKER_ID_RANGE;
+        return BREAKER_ID_BASE - breakerSerial;
+    }
+
+    private static Sound resolveSound(String... names) {
+        String cacheKey = String.join("|", names);
+        if (sounds.containsKey(cacheKey)) return sounds.get(cacheKey);
+        Sound found = null;
+        for (String name : names) {
+            try {
+                found = Sound.valueOf(name);
+                break;
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        sounds.put(cacheKey, found);
+        return found;
+    }
+
+    /**
+     * A queued particle burst or sound. For sounds, {@code spread}/{@code speed} hold volume/pitch.
+     */
+    private static final class Spot {
+        final Particle type;
+        final double x, y, z;
+        int count;
+        float spread;
+        final float speed;
+
+        Spot(Particle type, double x, double y, double z, int count, float spread, float speed) {
+            this.type = type;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.count = count;
+            this.spread = spread;
+            this.speed = speed;
+        }
+    }
+
+    private static final class Batch {
+        final Map<Long, Spot> particles = new LinkedHashMap<>();
+        final Map<Sound, Map<Long, Spot>> sounds = new EnumMap<>(Sound.class);
+        final Map<Player, Map<Sound, Spot>> personal = new LinkedHashMap<>();
+
+        /**
+         * Build each packet once; without packet support, play the Bukkit effect (which culls itself).
+         */
+        void drain(World world, List<Out> outs) {
+            for (Spot s : particles.values()) {
+                Object packet = NmsPackets.particlesPacket(s.type.packetName, (float) s.x, (float) s.y, (float) s.z,
+                        s.spread, s.spread, s.spread, s.speed, s.count, s.type.data);
+                if (packet != null) {
+                    outs.add(new Out(s.x, s.y, s.z, viewDistanceSq, packet));
+                } else if (s.type.effect() != null) {
+                    world.playEffect(new Location(world, s.x, s.y, s.z), s.type.effect(), 0);
+                }
+            }
+            for (Map.Entry<Sound, Map<Long, Spot>> e : sounds.entrySet()) {
+                for (Spot s : e.getValue().values()) {
+                    double range = 16.0 * Math.max(1f, s.spread); // vanilla hearing distance
+                    outs.add(new Out(s.x, s.y, s.z, range * range, e.getKey(), s.spread, s.speed));
+                }
+            }
+            for (Map.Entry<Player, Map<Sound, Spot>> e : personal.entrySet()) {
+                for (Map.Entry<Sound, Spot> one : e.getValue().entrySet()) {
+                    Spot s = one.getValue();
+                    outs.add(new Out(s.x, s.y, s.z, Double.MAX_VALUE, null, one.getKey(), s.spread, s.speed, e.getKey()));
+                }
+            }
+        }
+    }
+
+    /**
+     * One prepared packet or sound, with where it happens and who may receive
+     * it: players in range, or only {@code listener} if set.
+     */
+    private static final class Out {
+        final double x, y, z;
+        final double rangeSq;
+        final Object packet;
+        final Sound sound;
+        final float volume, pitch;
+        final Player listener;
+
+        Out(double x, double y, double z, double rangeSq, Object packet) {
+            this(x, y, z, rangeSq, packet, null, 0f, 0f, null);
+        }
+
+        Out(double x, double y, double z, double rangeSq, Sound sound, float volume, float pitch) {
+            this(x, y, z, rangeSq, null, sound, volume, pitch, null);
+        }
+
+        Out(double x, double y, double z, double rangeSq, Object packet, Sound sound, float volume, float pitch,
+            Player listener) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.rangeSq = rangeSq;
+            this.packet = packet;
+            this.sound = sound;
+            this.volume = volume;
+            this.pitch = pitch;
+            this.listener = listener;
+        }
+    }
+
+    private static final class Crack {
+        final int breakerId;
+        final World world;
+        final int x, y, z;
+        int stage = CLEAR_STAGE;
+        long expiresAt;
+        boolean dirty;
+
+        Crack(int breakerId, World world, int x, int y, int z) {
+            this.breakerId = breakerId;
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
+}
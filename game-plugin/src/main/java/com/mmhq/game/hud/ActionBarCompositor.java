@@ -0,0 +1,253 @@
+package com.mmhq.game.hud;
+
+import com.mmhq.game.config.GameConfig;
+import com.mmhq.game.profiler.TickProfiler;
+import com.mmhq.game.utils.NmsPackets;
+import com.mmhq.game.utils.VersionUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Owns every player's action bar.
+ *
+ * Sources publish state instead of text: a timer ({@link #countdown},
+ * {@link #charge}) is just an end tick, gold is a count. One task renders
+ * each player's frame from pre-built tables of bar, time and label strings,
+ * compares the per-slot state with the last frame and only builds and sends
+ * a packet when it changed - or every {@link #REFRESH_TICKS} while something
+ * is showing, before the client fades it out. When the last slot ends the
+ * bar is cleared once. The task only runs while some player has a slot.
+ *
+ * Main thread only.
+ */
+public final class ActionBarCompositor {
+
+    /**
+     * Action bar segments, rendered left to right in this order.
+     */
+    public enum Slot {
+        CHARGE("&6CHARGING", true),
+        THROW("&6THROWING", false),
+        KNIFE("&cKNIFE", false),
+        BOW("&eBOW", false),
+        GOLD("&6Gold", false);
+
+        private final String label;
+        private final boolean fills;
+
+        Slot(String label, boolean fills) {
+            this.label = ChatColor.translateAlternateColorCodes('&', label);
+            this.fills = fills;
+        }
+    }
+
+    private static final Slot[] SLOTS = Slot.values();
+    private static final int BAR_CELLS = 10;
+    private static final int MAX_TENTHS = 255;           // 25.5s; longer timers show the cap until below it
+    private static final int GOLD_SHOW_TICKS = 60;
+    private static final int REFRESH_TICKS = 40;         // the 1.8 client fades the bar out after ~3s
+    private static final int NONE = -1;
+
+    // Pre-built frame pieces
+    private static final String[] BARS = new String[BAR_CELLS + 1];
+    private static final String[] TIMES = new String[MAX_TENTHS + 1];
+    private static final String[] OPEN = new String[SLOTS.length];
+    private static final String CLOSE = ChatColor.GRAY + " ] ";
+    private static final String GAP = "   ";
+
+    static {
+        for (int filled = 0; filled <= BAR_CELLS; filled++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < BAR_CELLS; i++) {
+                if (i > 0) sb.append(' ');
+                sb.append(i < filled ? ChatColor.GREEN : ChatColor.RED).append('■');
+            }
+            BARS[filled] = sb.toString();
+        }
+        for (int tenths = 0; tenths <= MAX_TENTHS; tenths++) {
+            // ".5s" rather than "0.5s"
+            String t = tenths == 0 ? "0" : (tenths < 10 ? "" : String.valueOf(tenths / 10)) + "." + (tenths % 10);
+            TIMES[tenths] = ChatColor.GOLD + t + "s";
+        }
+        for (Slot slot : SLOTS) {
+            OPEN[slot.ordinal()] = slot.label + ChatColor.GRAY + " [ ";
+        }
+    }
+
+    private static final Map<UUID, Hud> huds = new HashMap<>();
+
+    private static JavaPlugin plugin;
+    private static BukkitTask renderTask;
+    private static long tick;
+
+    private ActionBarCompositor() {
+    }
+
+    // ===== Lifecycle =====
+
+    public static void install(JavaPlugin owner) {
+        plugin = owner;
+    }
+
+    public static void shutdown() {
+        huds.clear();
+        stopRendering();
+        plugin = null;
+    }
+
+    // ===== Sources =====
+
+    /**
+     * Show a timer that drains from full over {@code ticks}, replacing any timer in the slot.
+     */
+    public static void countdown(Player player, Slot slot, int ticks) {
+        Hud hud = hud(player);
+        if (hud == null) return;
+        hud.start[slot.ordinal()] = tick;
+        hud.end[slot.ordinal()] = tick + Math.max(1, ticks);
+        ensureRendering();
+    }
+
+    /**
+     * Show a timer that fills up over {@code ticks} ({@link Slot#CHARGE}).
+     */
+    public static void charge(Player player, int ticks) {
+        countdown(player, Slot.CHARGE, ticks);
+    }
+
+    /**
+     * Flash the player's gold count (out of the {@code gold.bowCost} needed for a bow) for a few seconds.
+     */
+    public static void gold(Player player, int count) {
+        Hud hud = hud(player);
+        if (hud == null) return;
+        hud.gold = Math.max(0, count);
+        hud.start[Slot.GOLD.ordinal()] = tick;
+        hud.end[Slot.GOLD.ordinal()] = tick + GOLD_SHOW_TICKS;
+        ensureRendering();
+    }
+
+    public static void clear(Player player, Slot slot) {
+        Hud hud = huds.get(player.getUniqueId());
+        if (hud != null) hud.end[slot.ordinal()] = NONE;
+    }
+
+    public static void clearAll(Player player) {
+        Hud hud = huds.get(player.getUniqueId());
+        if (hud != null) Arrays.fill(hud.end, NONE);
+    }
+
+    // ===== Rendering =====
+
+    private static Hud hud(Player player) {
+        if (plugin == null || player == null) return null;
+        return huds.computeIfAbsent(player.getUniqueId(), id -> new Hud());
+    }
+
+    private static void ensureRendering() {
+        if (renderTask != null || plugin == null) return;
+        renderTask = Bukkit.getScheduler().runTaskTimer(plugin, TickProfiler.wrap("hud.actionbar", ActionBarCompositor::render), 0L, 1L);
+    }
+
+    private static void stopRendering() {
+        if (renderTask != null) {
+            renderTask.cancel();
+            renderTask = null;
+        }
+    }
+
+    private static void render() {
+        Iterator<Map.Entry<UUID, Hud>> it = huds.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<UUID, Hud> e = it.next();
+            Player player = Bukkit.getPlayer(e.getKey());
+            if (player == null) {
+                it.remove();
+                continue;
+            }
+            Hud hud = e.getValue();
+            boolean changed = false;
+            boolean showing = false;
+            for (int i = 0; i < SLOTS.length; i++) {
+                int state = state(hud, SLOTS[i], i);
+                if (state != NONE) showing = true;
+                if (state != hud.shown[i]) {
+                    hud.shown[i] = state;
+                    changed = true;
+                }
+            }
+            if (changed || (showing && tick - hud.sentAt >= REFRESH_TICKS)) {
+                send(player, showing ? compose(hud) : "");
+                hud.sentAt = tick;
+            }
+            if (!showing) it.remove();
+        }
+        tick++;
+        if (huds.isEmpty()) stopRendering();
+    }
+
+    /**
+     * Small int standing for what the slot shows this tick (NONE when hidden):
+     * bar cells and tenths of a second for timers, the count for gold.
+     */
+    private static int state(Hud hud, Slot slot, int i) {
+        long end = hud.end[i];
+        if (end == NONE || tick >= end) {
+            hud.end[i] = NONE;
+            return NONE;
+        }
+        if (slot == Slot.GOLD) return hud.gold;
+        long total = end - hud.start[i];
+        long left = end - tick;
+        int tenths = (int) Math.min(MAX_TENTHS, (left * 10 + 19) / 20); // round up, so "0s" only at the end
+        int cells = (int) Math.round((double) (slot.fills ? total - left : left) * BAR_CELLS / total);
+        return (cells << 8) | tenths;
+    }
+
+    private static String compose(Hud hud) {
+        StringBuilder sb = new StringBuilder(96);
+        for (int i = 0; i < SLOTS.length; i++) {
+            int state = hud.shown[i];
+            if (state == NONE) continue;
+            if (sb.length() > 0) sb.append(GAP);
+            if (SLOTS[i] == Slot.GOLD) {
+                sb.append(Slot.GOLD.label).append(' ').append(ChatColor.WHITE).append(state)
+                        .append(ChatColor.GRAY).append('/').append(GameConfig.current().gold().bowCost());
+            } else {
+                sb.append(OPEN[i]).append(BARS[state >>> 8]).append(CLOSE).append(TIMES[state & 0xFF]);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void send(Player player, String frame) {
+        Object packet = NmsPackets.actionBarPacket(frame);
+        if (packet != null) {
+            NmsPackets.send(player, packet);
+        } else {
+            VersionUtils.sendActionBar(player, frame);
+        }
+    }
+
+    private static final class Hud {
+        final long[] start = new long[SLOTS.length];
+        final long[] end = new long[SLOTS.length];
+        final int[] shown = new int[SLOTS.length];
+        int gold;
+        long sentAt;
+
+        Hud() {
+            Arrays.fill(end, NONE);
+            Arrays.fill(shown, NONE);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.mmhq.game.journal;
+
+import com.mmhq.sharedapi.game.GameState;
+import com.mmhq.sharedapi.game.MurderRole;
+import com.mmhq.sharedapi.journal.JournalEvent;
+import com.mmhq.sharedapi.journal.JournalFormat;
+import com.mmhq.sharedapi.journal.JournalWriter;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-match event journal, written to {@code plugins/<plugin>/journal/*.mmj}
+ * (see {@link com.mmhq.sharedapi.journal.JournalReader} for reading them back).
+ *
+ * Static so managers can record without threading the journal through every
+ * constructor. Every method is a no-op while no match is being recorded.
+ * Recording happens on the main thread: player positions are read into a
+ * scratch location and slots come from a map built at {@link #begin}, so an
+ * event allocates nothing. The file is fsynced once, off-thread, at {@link #end}.
+ */
+public final class MatchJournal {
+    private static JavaPlugin plugin;
+    private static File directory;
+    private static boolean enabled;
+
+    private static JournalWriter writer;
+    private static final Map<UUID, Integer> slots = new HashMap<>();
+    private static final Location scratch = new Location(null, 0, 0, 0);
+
+    private MatchJournal() {
+    }
+
+    public static void install(JavaPlugin owner) {
+        plugin = owner;
+        enabled = owner.getConfig().getBoolean("journal.enabled", true);
+        directory = new File(owner.getDataFolder(), "journal");
+    }
+
+    /**
+     * Close any open journal synchronously (plugin disable).
+     */
+    public static void shutdown() {
+        JournalWriter w = detach();
+        if (w != null) closeQuietly(w, "aborted");
+    }
+
+    public static boolean isRecording() {
+        return writer != null;
+    }
+
+    // ===== Match lifecycle =====
+
+    /**
+     * Start a journal for a match. Call after roles are assigned; an open
+     * journal from a previous match is closed as aborted.
+     *
+     * @param players Participant ids and their starting roles
+     */
+    public static void begin(String mapName, Map<UUID, MurderRole> players) {
+        if (!enabled || plugin == null) return;
+        if (writer != null) end("aborted");
+        long now = System.currentTimeMillis();
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date(now));
+        UUID matchId = UUID.randomUUID();
+        File file = new File(directory, stamp + "-" + matchId.toString().substring(0, 8) + JournalFormat.EXTENSION);
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Could not create " + directory);
+            }
+            JournalWriter w = JournalWriter.create(file.toPath(), matchId, now, mapName);
+            for (Map.Entry<UUID, MurderRole> e : players.entrySet()) {
+                if (slots.size() >= JournalFormat.MAX_PLAYERS) break;
+                Player p = Bukkit.getPlayer(e.getKey());
+                slots.put(e.getKey(), w.addPlayer(e.getKey(), p != null ? p.getName() : "?", e.getValue()));
+            }
+            writer = w;
+            plugin.getLogger().info("[Journal] Recording match " + matchId + " to " + file.getName());
+        } catch (IOException | RuntimeException e) {
+            slots.clear();
+            plugin.getLogger().warning("[Journal] Could not start journal " + file.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Finish the current journal. The fsync runs asynchronously unless the plugin is disabling.
+     *
+     * @param outcome Match result (same labels as the metrics outcome)
+     */
+    public static void end(String outcome) {
+        JournalWriter w = detach();
+        if (w == null) return;
+        if (!plugin.isEnabled()) {
+            closeQuietly(w, outcome);
+            return;
+        }
+        int records = w.recordCount();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            closeQuietly(w, outcome);
+            plugin.getLogger().info("[Journal] Closed " + w.path().getFileName() + " (" + records + " events, " + outcome + ")");
+        });
+    }
+
+    // ===== Events =====
+
+    public static void phase(GameState previous, GameState current) {
+        if (writer == null) return;
+        writer.append(JournalEvent.PHASE, -1, -1, previous.ordinal(), 0, 0, 0, 0, 0, 0, current.ordinal());
+    }
+
+    /**
+     * @param killer Null for environmental deaths
+     * @param weapon One of the {@code JournalFormat.WEAPON_*} codes
+     */
+    public static void kill(Player victim, Location at, Player killer, byte weapon) {
+        if (writer == null) return;
+        float kx = 0, ky = 0, kz = 0;
+        if (killer != null) {
+            killer.getLocation(scratch);
+            kx = (float) scratch.getX();
+            ky = (float) scratch.getY();
+            kz = (float) scratch.getZ();
+        }
+        writer.append(JournalEvent.KILL, slot(killer), slot(victim), weapon,
+                (float) at.getX(), (float) at.getY(), (float) at.getZ(), kx, ky, kz, 0);
+    }
+
+    public static void gold(Player player, int amount) {
+        if (writer == null) return;
+        player.getLocation(scratch);
+        append(JournalEvent.GOLD_PICKUP, slot(player), 0, scratch, amount);
+    }
+
+    public static void bowDrop(Location at) {
+        if (writer == null) return;
+        append(JournalEvent.BOW_DROP, -1, 0, at, 0);
+    }
+
+    public static void bowPickup(Player player, MurderRole newRole) {
+        if (writer == null) return;
+        player.getLocation(scratch);
+        append(JournalEvent.BOW_PICKUP, slot(player), newRole.ordinal(), scratch, 0);
+    }
+
+    /**
+     * @param kind {@code JournalFormat.THROW_HITSCAN} or {@code THROW_FLYING_SWORD}
+     */
+    public static void knifeThrow(Player thrower, Location eye, byte kind) {
+        if (writer == null) return;
+        aim(JournalEvent.KNIFE_THROW, thrower, eye, kind, 0);
+    }
+
+    public static void arrowShot(Player shooter, Location eye, float charge) {
+        if (writer == null) return;
+        aim(JournalEvent.ARROW_SHOT, shooter, eye, 0, Math.round(charge * 1000f));
+    }
+
+    public static void quit(Player player) {
+        if (writer == null) return;
+        player.getLocation(scratch);
+        append(JournalEvent.QUIT, slot(player), 0, scratch, 0);
+    }
+
+    // ===== Internals =====
+
+    private static void append(JournalEvent event, int actor, int detail, Location at, int value) {
+        writer.append(event, actor, -1, detail, (float) at.getX(), (float) at.getY(), (float) at.getZ(), 0, 0, 0, value);
+    }
+
+    /**
+     * Position plus unit look direction (from yaw/pitch, so no Vector is created).
+     */
+    private static void aim(JournalEvent event, Player player, Location eye, int detail, int value) {
+        double yaw = Math.toRadians(eye.getYaw());
+        double pitch = Math.toRadians(eye.getPitch());
+        double xz = Math.cos(pitch);
+        writer.append(event, slot(player), -1, detail,
+                (float) eye.getX(), (float) eye.getY(), (float) eye.getZ(),
+                (float) (-xz * Math.sin(yaw)), (float) -Math.sin(pitch), (float) (xz * Math.cos(yaw)), value);
+    }
+
+    private static int slot(Player player) {
+        if (player == null) return -1;
+        Integer slot = slots.get(player.getUniqueId());
+        return slot != null ? slot : -1;
+    }
+
+    private static JournalWriter detach() {
+        JournalWriter w = writer;
+        writer = null;
+        slots.clear();
+        return w;
+    }
+
+    private static void closeQuietly(JournalWriter w, String outcome) {
+        try {
+            w.close(outcome);
+        } catch (IOException e) {
+            plugin.getLogger().warning("[Journal] Failed to close " + w.path().getFileName() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.mmhq.game.messaging;
+
+import com.mmhq.sharedapi.fleet.Announcement;
+import com.mmhq.sharedapi.fleet.ControlDatagram;
+import com.mmhq.sharedapi.game.ServerStatus;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Announces this server to the proxy with every heartbeat, over UDP, so the
+ * proxy can register it as a backend without a velocity.toml entry and
+ * drop it again when the announcements stop. Unlike the plugin-message
+ * heartbeat this needs no online player, so an empty server stays visible.
+ *
+ * The proxy answers on the same socket with signed {@link ControlDatagram}s
+ * (PREPARE, OPEN_JOIN, ...) when it has to reach this server with nobody on
+ * it; a daemon thread receives them and hands the payload to the
+ * {@link #onControl} handler on the main thread.
+ *
+ * Configured by the {@code discovery} block in config.yml (read at startup);
+ * an empty {@code discovery.secret} leaves it off. Main thread only, apart
+ * from the receiver.
+ */
+public final class BackendAnnouncer {
+    private static JavaPlugin plugin;
+    private static DatagramSocket socket;
+    private static InetSocketAddress proxy;
+    private static byte[] secret;
+    private static String host;
+    private static int port;
+    private static Set<String> capabilities;
+    private static ServerStatus last;
+    private static Consumer<byte[]> controlHandler;
+    private static long lastControlSeq;
+
+    private BackendAnnouncer() {
+    }
+
+    public static void install(JavaPlugin owner) {
+        FileConfiguration config = owner.getConfig();
+        String key = config.getString("discovery.secret", "");
+        if (key == null || key.isEmpty()) {
+            owner.getLogger().info("[Discovery] No discovery.secret set - not announcing to the proxy");
+            return;
+        }
+        String proxyHost = config.getString("discovery.proxyHost", "127.0.0.1");
+        int proxyPort = config.getInt("discovery.proxyPort", 9330);
+        String advertiseHost = config.getString("discovery.advertiseHost", "");
+        int advertisePort = config.getInt("discovery.advertisePort", 0);
+        List<String> caps = config.getStringList("discovery.capabilities");
+
+        InetSocketAddress target = new InetSocketAddress(proxyHost, proxyPort);
+        if (target.isUnresolved()) {
+            owner.getLogger().warning("[Discovery] Cannot resolve proxy " + proxyHost + " - not announcing");
+            return;
+        }
+        try {
+            socket = new DatagramSocket();
+        } catch (IOException e) {
+            owner.getLogger().warning("[Discovery] Could not open a UDP socket - not announcing: " + e.getMessage());
+            return;
+        }
+        plugin = owner;
+        proxy = target;
+        secret = key.getBytes(StandardCharsets.UTF_8);
+        host = !advertiseHost.isEmpty() ? advertiseHost
+                : !Bukkit.getIp().isEmpty() ? Bukkit.getIp() : "127.0.0.1";
+        port = advertisePort > 0 ? advertisePort : Bukkit.getPort();
+        capabilities = new LinkedHashSet<>(caps.isEmpty()
+                ? List.of(Announcement.CAP_PREPARE, Announcement.CAP_MAP_SELECT) : caps);
+        DatagramSocket s = socket;
+        byte[] k = secret;
+        Thread receiver = new Thread(() -> receive(owner, s, k), "mmhq-control");
+        receiver.setDaemon(true);
+        receiver.start();
+        owner.getLogger().info("[Discovery] Announcing " + host + ":" + port + " " + capabilities + " to " + proxyHost + ":" + proxyPort);
+    }
+
+    /**
+     * Run {@code handler} on the main thread with each control-channel
+     * payload the proxy sends over UDP.
+     */
+    public static void onControl(Consumer<byte[]> handler) {
+        controlHandler = handler;
+    }
+
+    /**
+     * Send an ALIVE announcement carrying {@code status}; a no-op when not configured.
+     */
+    public static void announce(ServerStatus status) {
+        if (socket == null) return;
+        last = status;
+        send(Announcement.Kind.ALIVE, status);
+    }
+
+    /**
+     * Tell the proxy to unregister this server, then close the socket.
+     */
+    public static void shutdown() {
+        if (socket == null) return;
+        if (last != null) send(Announcement.Kind.LEAVE, last);
+        socket.close();         // unblocks the receiver, which then exits
+        socket = null;
+        last = null;
+        plugin = null;
+        controlHandler = null;
+        lastControlSeq = 0L;
+    }
+
+    private static void receive(JavaPlugin owner, DatagramSocket s, byte[] key) {
+        byte[] buf = new byte[Announcement.MAX_DATAGRAM];
+        while (!s.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buf, buf.length);
+            try {
+                s.receive(packet);
+            } catch (IOException e) {
+                if (!s.isClosed()) owner.getLogger().warning("[Discovery] Control receive failed: " + e.getMessage());
+                continue;
+            }
+            ControlDatagram control;
+            try {
+                control = ControlDatagram.decode(packet.getData(), packet.getLength(), key, System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                owner.getLogger().fine("[Discovery] Rejected datagram from " + packet.getSocketAddress() + ": " + e.getMessage());
+                continue;
+            }
+            try {
+                Bukkit.getScheduler().runTask(owner, () -> deliver(control));
+            } catch (RuntimeException e) {
+                return; // plugin disabled
+            }
+        }
+    }
+
+    private static void deliver(ControlDatagram control) {
+        if (last == null || !control.serverId().equals(last.serverId())) return;  // not for us
+        if (control.seq() <= lastControlSeq) return;                                // replayed
+        lastControlSeq = control.seq();
+        if (controlHandler != null) controlHandler.accept(control.payload());
+    }
+
+    private static void send(Announcement.Kind kind, ServerStatus status) {
+        byte[] data = new Announcement(kind, host, port, capabilities, System.currentTimeMillis(), status).encode(secret);
+        try {
+            socket.send(new DatagramPacket(data, data.length, proxy));
+        } catch (IOException e) {
+            plugin.getLogger().warning("[Discovery] Announcement to " + proxy + " failed: " + e.getMessage());
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.google.common.io.ByteArrayDataInput;
 import com.google.common.io.ByteStreams;
 import com.mmhq.game.GameManager;
 import com.mmhq.game.arena.ArenaService;
+import com.mmhq.game.config.GameConfig;
+import com.mmhq.game.stats.Leaderboards;
 import com.mmhq.sharedapi.Constants;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
@@ -12,10 +14,13 @@ import org.bukkit.plugin.messaging.PluginMessageListener;
 
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
 
 /**
  * Listens for plugin messages from the lobby server.
- * Handles PREPARE, OPEN_JOIN, CLOSE_JOIN, STATUS_QUERY, and RESET_ARENA commands.
+ * Handles PREPARE, OPEN_JOIN, CLOSE_JOIN, STATUS_QUERY, LEADERBOARD_QUERY, and RESET_ARENA commands.
+ * The same commands also arrive from the proxy over UDP ({@link #handleDatagram}).
  */
 public final class LobbyMessageListener implements PluginMessageListener {
     private final JavaPlugin plugin;
@@ -26,6 +31,7 @@ public final class LobbyMessageListener implements PluginMessageListener {
         this.plugin = plugin;
         this.arena = arena;
         this.gameManager = gameManager;
+        arena.addProgressListener(this::sendPrepareProgress);
     }
 
     @Override
@@ -58,6 +64,14 @@ public final class LobbyMessageListener implements PluginMessageListener {
         }
     }
 
+    /**
+     * Handle a control message the proxy sent as a UDP datagram (see
+     * {@link BackendAnnouncer}); there is no player to answer through.
+     */
+    public void handleDatagram(byte[] message) {
+        handleDirectMessage(null, message);
+    }
+
     /**
      * Handle messages forwarded via BungeeCord.
      */
@@ -97,16 +111,7 @@ public final class LobbyMessageListener implements PluginMessageListener {
                 String mapId = in.readUTF();
                 plugin.getLogger().info("[Lobby->mm1] PREPARE map=" + mapId);
                 
-                // 1) Hard reset world via ArenaService
-                arena.prepare(mapId);
-                
-                // 2) After a short delay, bind the game to the prepared map/world
-                // (ArenaService loads worlds async; delay avoids world==null)
-                Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                    plugin.getLogger().info("[Lobby->mm1] Applying prepared map to game: " + mapId);
-                    gameManager.prepareGameWithMap(mapId);
-                }, 40L); // 2s delay
-                
+                prepareAndBind(mapId);
                 break;
             }
             case "OPEN_JOIN":
@@ -121,11 +126,17 @@ public final class LobbyMessageListener implements PluginMessageListener {
                 plugin.getLogger().info("[Lobby->mm1] STATUS_QUERY");
                 sendStatusResponse(viaPlayer);
                 break;
+            case "LEADERBOARD_QUERY": {
+                String boardId = in.readUTF();
+                long knownVersion = in.readLong();
+                sendLeaderboardResponse(viaPlayer, boardId, knownVersion);
+                break;
+            }
             case "RESET_ARENA":
                 plugin.getLogger().info("[Lobby->mm1] RESET_ARENA");
                 // Re-prepare current map if set
                 if (arena.currentMapId() != null) {
-                    arena.prepare(arena.currentMapId());
+                    prepareAndBind(arena.currentMapId());
                 }
                 break;
             case "START_MATCH":
@@ -137,7 +148,7 @@ public final class LobbyMessageListener implements PluginMessageListener {
                 // Legacy support: treat START_GAME as PREPARE
                 String mapName = in.readUTF();
                 plugin.getLogger().info("[Lobby->mm1] START_GAME (legacy) map=" + mapName);
-                arena.prepare(mapName);
+                prepareAndBind(mapName);
                 break;
             }
             default:
@@ -145,8 +156,56 @@ public final class LobbyMessageListener implements PluginMessageListener {
         }
     }
 
+    /**
+     * Hard reset the world via ArenaService, then bind the game to the
+     * prepared map/world the moment the reset completes (on the main thread).
+     * A failed bind puts the arena in ERROR, which our heartbeats carry to the
+     * proxy and on to the lobby, and is streamed as an ERROR step if anyone
+     * is left to carry it.
+     */
+    private void prepareAndBind(String mapId) {
+        arena.prepare(mapId).whenComplete((world, err) -> {
+            if (err != null) {
+                plugin.getLogger().warning("[Lobby->mm1] PREPARE " + mapId + " failed: " + err.getMessage());
+                sendPrepareProgress("ERROR", 100);
+                return;
+            }
+            plugin.getLogger().info("[Lobby->mm1] Applying prepared map to game: " + mapId);
+            if (!gameManager.prepareGameWithMap(mapId, world)) {
+                arena.markFailed("Bind failed: " + mapId + " not in the game's map registry");
+                sendPrepareProgress("ERROR", 100);
+            }
+        });
+    }
+
+    /**
+     * Stream a PREPARE step to the lobby. Best effort: PREPARE sends everyone
+     * to the lobby, so usually nobody is left to carry this; the proxy relays
+     * the same progress from our heartbeats.
+     * Format: PREPARE_PROGRESS, serverId, mapId, step, pct, etaSeconds (-1 if unknown; only the proxy estimates)
+     */
+    private void sendPrepareProgress(String step, int pct) {
+        Player viaPlayer = Bukkit.getOnlinePlayers().stream().findFirst().orElse(null);
+        if (viaPlayer == null) return;
+        try {
+            ByteArrayOutputStream payloadBaos = new ByteArrayOutputStream();
+            DataOutputStream payloadOut = new DataOutputStream(payloadBaos);
+            payloadOut.writeUTF("PREPARE_PROGRESS");
+            payloadOut.writeUTF(GameConfig.current().serverId());
+            payloadOut.writeUTF(arena.currentMapId() == null ? "" : arena.currentMapId());
+            payloadOut.writeUTF(step);
+            payloadOut.writeByte(pct);
+            payloadOut.writeInt(-1);
+            payloadOut.flush();
+            forwardToLobby(viaPlayer, payloadBaos.toByteArray());
+        } catch (Exception e) {
+            plugin.getLogger().warning("[Lobby] Failed to send prepare progress: " + e.getMessage());
+        }
+    }
+
     /**
      * Send status response back to the lobby.
+     * Format: STATUS_RESPONSE, arena status line (for logs), ServerStatus payload
      */
     private void sendStatusResponse(Player viaPlayer) {
         if (viaPlayer == null) {
@@ -162,24 +221,57 @@ public final class LobbyMessageListener implements PluginMessageListener {
             DataOutputStream payloadOut = new DataOutputStream(payloadBaos);
             payloadOut.writeUTF("STATUS_RESPONSE");
             payloadOut.writeUTF(status);
+            payloadOut.writeUTF(gameManager.game().status().toPayload());
             payloadOut.flush();
-            byte[] payload = payloadBaos.toByteArray();
-
-            // Build BungeeCord Forward message back to lobby
-            ByteArrayOutputStream msgBaos = new ByteArrayOutputStream();
-            DataOutputStream msgOut = new DataOutputStream(msgBaos);
-            msgOut.writeUTF("Forward");
-            msgOut.writeUTF("lobby");
-            msgOut.writeUTF(Constants.PLUGIN_MESSAGE_CHANNEL_CONTROL);
-            msgOut.writeShort(payload.length);
-            msgOut.write(payload);
-            msgOut.flush();
-
-            viaPlayer.sendPluginMessage(plugin, "BungeeCord", msgBaos.toByteArray());
+            forwardToLobby(viaPlayer, payloadBaos.toByteArray());
             plugin.getLogger().info("[Lobby->mm1] Sent STATUS_RESPONSE: " + status);
             
         } catch (Exception e) {
             plugin.getLogger().warning("[Lobby] Failed to send status response: " + e.getMessage());
         }
     }
+
+    /**
+     * Send a board's cached sidebar lines, unless the lobby already has this version.
+     * Format: LEADERBOARD_RESPONSE, boardId, title, version, lineCount, lines...
+     */
+    private void sendLeaderboardResponse(Player viaPlayer, String boardId, long knownVersion) {
+        Leaderboards leaderboards = gameManager.leaderboards();
+        Leaderboards.Board board = Leaderboards.Board.byId(boardId);
+        if (viaPlayer == null || board == null || !leaderboards.isReady()) return;
+        long version = leaderboards.version(board);
+        if (version == knownVersion) return;
+
+        try {
+            List<String> lines = leaderboards.sidebarLines(board);
+            ByteArrayOutputStream payloadBaos = new ByteArrayOutputStream();
+            DataOutputStream payloadOut = new DataOutputStream(payloadBaos);
+            payloadOut.writeUTF("LEADERBOARD_RESPONSE");
+            payloadOut.writeUTF(board.id());
+            payloadOut.writeUTF(board.title());
+            payloadOut.writeLong(version);
+            payloadOut.writeByte(lines.size());
+            for (String line : lines) payloadOut.writeUTF(line);
+            payloadOut.flush();
+            forwardToLobby(viaPlayer, payloadBaos.toByteArray());
+        } catch (Exception e) {
+            plugin.getLogger().warning("[Lobby] Failed to send leaderboard response: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Wrap a payload in a BungeeCord Forward to the lobby on our control channel.
+     */
+    private void forwardToLobby(Player viaPlayer, byte[] payload) throws IOException {
+        ByteArrayOutputStream msgBaos = new ByteArrayOutputStream();
+        DataOutputStream msgOut = new DataOutputStream(msgBaos);
+        msgOut.writeUTF("Forward");
+        msgOut.writeUTF("lobby");
+        msgOut.writeUTF(Constants.PLUGIN_MESSAGE_CHANNEL_CONTROL);
+        msgOut.writeShort(payload.length);
+        msgOut.write(payload);
+        msgOut.flush();
+
+        viaPlayer.sendPluginMessage(plugin, "BungeeCord", msgBaos.toByteArray());
+    }
 }
@@ -1,26 +1,39 @@
 package com.mmhq.game.messaging;
 
-import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
 import com.google.common.io.ByteStreams;
 import com.mmhq.game.GameManager;
+import com.mmhq.game.arena.ArenaService;
+import com.mmhq.game.arena.ArenaState;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.plugin.messaging.PluginMessageListener;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+
 /**
  * Listens for map selection messages from the Velocity proxy.
- * When a player joins mm1, the proxy sends the selected map on mmhq:mapselect channel.
+ * The proxy sends SET_MAP, map, version on mmhq:mapselect until this server
+ * answers MAP_ACK, version. Versions only grow, so a repeat or an older
+ * assignment is acknowledged again without preparing anything, and a map
+ * the arena is already on (e.g. from a pre-warm PREPARE) is not re-prepared.
+ * An assignment that fails to apply is not acknowledged, so the proxy
+ * sends it again. The applied version lives on the game and goes out in
+ * every heartbeat, so after a restart the proxy sees it back at 0 and resends.
  */
 public final class ProxyMapSelectionListener implements PluginMessageListener {
-    
+
     public static final String CHANNEL = "mmhq:mapselect";
-    
+
     private final JavaPlugin plugin;
     private final GameManager gameManager;
+    private final ArenaService arena;
 
-    public ProxyMapSelectionListener(JavaPlugin plugin, GameManager gameManager) {
+    public ProxyMapSelectionListener(JavaPlugin plugin, GameManager gameManager, ArenaService arena) {
         this.plugin = plugin;
         this.gameManager = gameManager;
+        this.arena = arena;
     }
 
     @Override
@@ -30,20 +43,47 @@ public final class ProxyMapSelectionListener implements PluginMessageListener {
         }
 
         try {
-            ByteArrayDataInput in = ByteStreams.newDataInput(message);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(message));
             String command = in.readUTF();
-            
+
             if ("SET_MAP".equals(command)) {
                 String mapName = in.readUTF();
-                plugin.getLogger().info("[Proxy] Received map selection: " + mapName + " (via player: " + player.getName() + ")");
-                
-                // Prepare the game with the selected map
-                gameManager.prepareGameWithMap(mapName);
-                
-                plugin.getLogger().info("[Proxy] ✓ Game prepared with map: " + mapName);
+                // Older proxies send no version: always apply
+                long version = in.available() >= Long.BYTES ? in.readLong() : 0L;
+
+                long appliedVersion = gameManager.game().mapVersion();
+                if (version != 0L && version <= appliedVersion) {
+                    acknowledge(player, appliedVersion);
+                    return;
+                }
+                if (mapName.equalsIgnoreCase(arena.currentMapId())
+                        && (arena.state() == ArenaState.PREPARING || arena.state() == ArenaState.WAITING)) {
+                    plugin.getLogger().info("[Proxy] Map " + mapName + " v" + version + " already active - not re-preparing");
+                } else {
+                    plugin.getLogger().info("[Proxy] Received map selection: " + mapName + " v" + version + " (via player: " + player.getName() + ")");
+
+                    // Prepare the game with the selected map
+                    if (!gameManager.prepareGameWithMap(mapName)) {
+                        plugin.getLogger().warning("[Proxy] ✗ Could not apply map " + mapName + " v" + version + " - not acknowledging");
+                        return;
+                    }
+
+                    plugin.getLogger().info("[Proxy] ✓ Game prepared with map: " + mapName);
+                }
+                if (version != 0L) {
+                    gameManager.game().setMapVersion(version);
+                    acknowledge(player, version);
+                }
             }
         } catch (Exception e) {
             plugin.getLogger().warning("[Proxy] Error parsing map selection message: " + e.getMessage());
         }
     }
+
+    private void acknowledge(Player player, long version) {
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeUTF("MAP_ACK");
+        out.writeLong(version);
+        player.sendPluginMessage(plugin, CHANNEL, out.toByteArray());
+    }
 }
@@ -0,0 +1,83 @@
+package com.mmhq.game.metrics;
+
+import com.mmhq.sharedapi.metrics.Counter;
+import com.mmhq.sharedapi.metrics.Gauge;
+import com.mmhq.sharedapi.metrics.Histogram;
+import com.mmhq.sharedapi.metrics.MetricsHttpServer;
+import com.mmhq.sharedapi.metrics.MetricsRegistry;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.IOException;
+
+/**
+ * Game server metrics, scraped at {@code http://<metrics.host>:<metrics.port>/metrics}.
+ *
+ * Metrics are static so managers can record without threading a registry
+ * through every constructor. Recording is lock-free and safe from any thread.
+ */
+public final class GameMetrics {
+    public static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+    private static final double[] MATCH_SECONDS = {30, 60, 120, 180, 240, 300, 420, 600, 900};
+    private static final double[] PER_MATCH = {0, 1, 2, 5, 10, 20, 50, 100, 250};
+    private static final double[] RESET_STEP_SECONDS = {0.01, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60};
+
+    // ===== Matches =====
+    public static final Counter MATCHES_STARTED = REGISTRY.counter(
+            "mmhq_matches_started_total", "Matches that reached IN_GAME");
+    public static final Counter MATCHES_ENDED = REGISTRY.counter(
+            "mmhq_matches_ended_total", "Matches finished, by outcome", "outcome");
+    public static final Histogram MATCH_DURATION = REGISTRY.histogram(
+            "mmhq_match_duration_seconds", "Time from IN_GAME to round end", MATCH_SECONDS);
+    public static final Histogram MATCH_KILLS = REGISTRY.histogram(
+            "mmhq_match_kills", "Player deaths per match", PER_MATCH);
+    public static final Histogram MATCH_THROWS = REGISTRY.histogram(
+            "mmhq_match_knife_throws", "Knife throws per match", PER_MATCH);
+    public static final Histogram MATCH_GOLD = REGISTRY.histogram(
+            "mmhq_match_gold", "Gold collected per match", PER_MATCH);
+
+    // ===== Gameplay =====
+    public static final Counter KILLS = REGISTRY.counter(
+            "mmhq_kills_total", "Player deaths during a match, by damage cause", "cause");
+    public static final Counter KNIFE_THROWS = REGISTRY.counter(
+            "mmhq_knife_throws_total", "Thrown knives");
+    public static final Counter GOLD_COLLECTED = REGISTRY.counter(
+            "mmhq_gold_collected_total", "Gold picked up by players");
+    public static final Gauge PLAYERS_QUEUED = REGISTRY.gauge(
+            "mmhq_players_queued", "Players in the game's queue/lobby");
+    public static final Gauge PLAYERS_ALIVE = REGISTRY.gauge(
+            "mmhq_players_alive", "Players still alive in the current match");
+
+    // ===== Arena reset =====
+    public static final Histogram RESET_STEP = REGISTRY.histogram(
+            "mmhq_reset_step_seconds", "Duration of each hard reset step", RESET_STEP_SECONDS, "step");
+    public static final Counter RESETS = REGISTRY.counter(
+            "mmhq_resets_total", "Hard resets, by result", "result");
+
+    private static MetricsHttpServer server;
+
+    private GameMetrics() {
+    }
+
+    /**
+     * Start the HTTP endpoint if {@code metrics.enabled}. A bind failure is logged, not fatal.
+     */
+    public static void start(JavaPlugin plugin) {
+        if (!plugin.getConfig().getBoolean("metrics.enabled", true)) return;
+        String host = plugin.getConfig().getString("metrics.host", "127.0.0.1");
+        int port = plugin.getConfig().getInt("metrics.port", 9321);
+        try {
+            server = MetricsHttpServer.start(REGISTRY, host, port);
+            plugin.getLogger().info("[Metrics] Serving http://" + host + ":" + port + "/metrics");
+        } catch (IOException e) {
+            plugin.getLogger().warning("[Metrics] Could not bind " + host + ":" + port + " - metrics endpoint disabled: " + e.getMessage());
+        }
+    }
+
+    public static void stop() {
+        if (server != null) {
+            server.close();
+            server = null;
+        }
+    }
+}
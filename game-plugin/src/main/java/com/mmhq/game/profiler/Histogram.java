@@ -0,0 +1,105 @@
+package com.mmhq.game.profiler;
+
+/**
+ * Fixed-size log-linear histogram (HDR-histogram style) for non-negative long values.
+ *
+ * Values below 64 are counted exactly; above that every power-of-two range is
+ * split into 32 sub-buckets, so any recorded value is reported within ~3%.
+ * Recording is an index computation and an array increment with no allocation.
+ * Values above ~36 minutes (in nanoseconds) are clamped into the last bucket.
+ */
+final class Histogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;         // 32
+    private static final int MAX_EXPONENT = 41;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 1) * SUB_COUNT;
+
+    private final int[] counts = new int[BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    void record(long value) {
+        if (value < 0) value = 0;
+        if (value > MAX_VALUE) value = MAX_VALUE;
+        counts[index(value)]++;
+        count++;
+        sum += value;
+        if (value > max) max = value;
+    }
+
+    void add(Histogram other) {
+        if (other.count == 0) return;
+        for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+        count += other.count;
+        sum += other.sum;
+        if (other.max > max) max = other.max;
+    }
+
+    void reset() {
+        if (count == 0) return;
+        java.util.Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    long count() {
+        return count;
+    }
+
+    long sum() {
+        return sum;
+    }
+
+    long max() {
+        return max;
+    }
+
+    double mean() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * @param p Percentile in [0, 100]
+     * @return Midpoint of the bucket holding the p-th percentile (never above the recorded max)
+     */
+    long percentile(double p) {
+        if (count == 0) return 0;
+        long rank = (long) Math.ceil(p / 100.0 * count);
+        if (rank < 1) rank = 1;
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long mid = (lowerBound(i) + upperBound(i)) >>> 1;
+                return Math.min(mid, max);
+            }
+        }
+        return max;
+    }
+
+    // ===== Bucket math =====
+
+    static int index(long value) {
+        if (value < 2 * SUB_COUNT) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        return (shift + 1) * SUB_COUNT + (int) ((value >>> shift) - SUB_COUNT);
+    }
+
+    static long lowerBound(int index) {
+        if (index < 2 * SUB_COUNT) return index;
+        int shift = index / SUB_COUNT - 1;
+        long sub = (index % SUB_COUNT) + SUB_COUNT;
+        return sub << shift;
+    }
+
+    static long upperBound(int index) {
+        if (index < 2 * SUB_COUNT) return index;
+        int shift = index / SUB_COUNT - 1;
+        long sub = (index % SUB_COUNT) + SUB_COUNT;
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,28 @@
+package com.mmhq.game.profiler;
+
+import org.bukkit.scheduler.BukkitRunnable;
+
+/**
+ * BukkitRunnable whose runs are attributed to a {@link TickProfiler} section.
+ * Subclasses implement {@link #tick()} instead of {@code run()}; {@code cancel()}
+ * and the scheduling methods behave as usual.
+ */
+public abstract class ProfiledRunnable extends BukkitRunnable {
+    private final TickProfiler.Section section;
+
+    protected ProfiledRunnable(String section) {
+        this.section = TickProfiler.section(section);
+    }
+
+    @Override
+    public final void run() {
+        long t0 = section.start();
+        try {
+            tick();
+        } finally {
+            section.stop(t0);
+        }
+    }
+
+    protected abstract void tick();
+}
@@ -0,0 +1,437 @@
+package com.mmhq.game.profiler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.bukkit.plugin.RegisteredListener;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+/**
+ * Main-thread cost profiler, attributed per subsystem and per arena.
+ *
+ * Code under measurement is wrapped in a named {@link Section}:
+ * <pre>
+ *   long t = SECTION.start();
+ *   try { ... } finally { SECTION.stop(t); }
+ * </pre>
+ * or registered through {@link #wrap}, {@link #registerEvents} or {@link ProfiledRunnable}.
+ * Each section sums its wall time, call count and (optionally) bytes allocated
+ * on the main thread within a tick. Once per tick those sums are folded into
+ * log-linear histograms held in 10 second slots, so percentiles can be read
+ * for any window up to 5 minutes without keeping individual samples.
+ *
+ * Queried with {@code /mmarena profile}; {@code /mmarena profile dump} writes
+ * the full table to plugins/&lt;plugin&gt;/profiles/.
+ */
+public final class TickProfiler {
+    static final int SLOT_TICKS = 200;                  // 10s
+    static final int SLOTS = 31;                        // 5 min + the slot being filled
+    public static final int MAX_WINDOW_TICKS = SLOT_TICKS * (SLOTS - 1);
+    private static final String NO_ARENA = "-";
+
+    private static final Map<String, Section> sections = new LinkedHashMap<>();
+    private static final List<Section> sectionList = new ArrayList<>();
+    private static final Window tickInterval = new Window();
+
+    private static JavaPlugin plugin;
+    private static BukkitTask flushTask;
+    private static volatile boolean enabled;
+    private static boolean trackAllocations;
+    private static com.sun.management.ThreadMXBean allocBean;
+    private static String arena = NO_ARENA;
+    private static long tick;
+    private static long resetTick;
+    private static long lastFlushNanos;
+
+    private TickProfiler() {
+    }
+
+    // ===== Lifecycle =====
+
+    /**
+     * Read {@code profiler.*} from config and start the per-tick roll-up.
+     */
+    public static void install(JavaPlugin owner) {
+        plugin = owner;
+        enabled = owner.getConfig().getBoolean("profiler.enabled", true);
+        trackAllocations = false;
+        if (owner.getConfig().getBoolean("profiler.allocations", true)) {
+            try {
+                java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+                if (bean instanceof com.sun.management.ThreadMXBean) {
+                    allocBean = (com.sun.management.ThreadMXBean) bean;
+                    if (allocBean.isThreadAllocatedMemorySupported()) {
+                        allocBean.setThreadAllocatedMemoryEnabled(true);
+                        trackAllocations = true;
+                    }
+                }
+            } catch (Throwable t) {
+                owner.getLogger().warning("[Profiler] Allocation tracking unavailable: " + t);
+            }
+        }
+        if (flushTask != null) flushTask.cancel();
+        lastFlushNanos = 0L;
+        flushTask = Bukkit.getScheduler().runTaskTimer(owner, TickProfiler::endTick, 1L, 1L);
+        owner.getLogger().info("[Profiler] Tick profiler " + (enabled ? "enabled" : "disabled")
+                + (trackAllocations ? " (allocation tracking on)" : ""));
+    }
+
+    public static void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        enabled = false;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+        lastFlushNanos = 0L;
+    }
+
+    /**
+     * Attribute subsequent samples to this arena (map) label; null clears it.
+     */
+    public static void setArena(String label) {
+        arena = label == null || label.isEmpty() ? NO_ARENA : label;
+    }
+
+    /**
+     * Drop all collected samples.
+     */
+    public static void reset() {
+        for (Section s : sectionList) s.windows.clear();
+        tickInterval.clear();
+        resetTick = tick;
+        lastFlushNanos = 0L;
+    }
+
+    // ===== Sections =====
+
+    /**
+     * Get (or create) the section with this name. Cache the result in a field
+     * where possible; lookups are a map access.
+     */
+    public static Section section(String name) {
+        Section s = sections.get(name);
+        if (s == null) {
+            s = new Section(name);
+            sections.put(name, s);
+            sectionList.add(s);
+        }
+        return s;
+    }
+
+    /**
+     * Wrap a task so its runs are attributed to {@code name}.
+     */
+    public static Runnable wrap(String name, Runnable task) {
+        Section section = section(name);
+        return () -> {
+            long t0 = section.start();
+            try {
+                task.run();
+            } finally {
+                section.stop(t0);
+            }
+        };
+    }
+
+    /**
+     * Register a listener with each handler timed as {@code subsystem@EventName}.
+     */
+    public static void registerEvents(JavaPlugin owner, Listener listener, String subsystem) {
+        registerEvents(owner, listener, subsystem, null);
+    }
+
+    /**
+     * As {@link #registerEvents(JavaPlugin, Listener, String)}, also reporting each
+     * handler's wall time to {@code sink} (used for feature budgets).
+     */
+    public static void registerEvents(JavaPlugin owner, Listener listener, String subsystem, LongConsumer sink) {
+        Map<Class<? extends Event>, Set<RegisteredListener>> handlers =
+                owner.getPluginLoader().createRegisteredListeners(listener, owner);
+        for (Map.Entry<Class<? extends Event>, Set<RegisteredListener>> e : handlers.entrySet()) {
+            HandlerList list = handlerListFor(e.getKey());
+            Section section = section(subsystem + "@" + e.getKey().getSimpleName());
+            for (RegisteredListener original : e.getValue()) {
+                list.register(new RegisteredListener(listener, (l, event) -> {
+                    long t0 = System.nanoTime();
+                    long s0 = section.start();
+                    try {
+                        original.callEvent(event);
+                    } finally {
+                        section.stop(s0);
+                        if (sink != null) sink.accept(System.nanoTime() - t0);
+                    }
+                }, original.getPriority(), owner, original.isIgnoringCancelled()));
+            }
+        }
+    }
+
+    private static HandlerList handlerListFor(Class<? extends Event> type) {
+        Class<?> c = type;
+        while (c != null && Event.class.isAssignableFrom(c)) {
+            try {
+                Method m = c.getDeclaredMethod("getHandlerList");
+                m.setAccessible(true);
+                return (HandlerList) m.invoke(null);
+            } catch (NoSuchMethodException e) {
+                c = c.getSuperclass();
+            } catch (Exception e) {
+                throw new IllegalPluginAccessException("Unable to get handler list for " + type.getName() + ": " + e);
+            }
+        }
+        throw new IllegalPluginAccessException("No static getHandlerList on " + type.getName());
+    }
+
+    /**
+     * A named unit of main-thread work. Not thread-safe: samples taken off the
+     * main thread are ignored.
+     */
+    public static final class Section {
+        final String name;
+        final Map<String, Window> windows = new HashMap<>();
+        private int depth;
+        private long allocStart;
+        private long tickNanos;
+        private long tickCalls;
+        private long tickAlloc;
+
+        private Section(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return Token for {@link #stop(long)}; 0 when not profiling
+         */
+        public long start() {
+            if (!enabled || !Bukkit.isPrimaryThread()) return 0L;
+            if (depth++ == 0 && trackAllocations) allocStart = allocBean.getCurrentThreadAllocatedBytes();
+            return System.nanoTime();
+        }
+
+        public void stop(long token) {
+            if (token == 0L) return;
+            long elapsed = System.nanoTime() - token;
+            tickCalls++;
+            // Re-entrant calls are already inside the outer measurement
+            if (--depth == 0) {
+                tickNanos += elapsed;
+                if (trackAllocations) tickAlloc += allocBean.getCurrentThreadAllocatedBytes() - allocStart;
+            }
+        }
+    }
+
+    // ===== Per-tick roll-up =====
+
+    private static void endTick() {
+        tick++;
+        if (!enabled) return;
+        long now = System.nanoTime();
+        if (lastFlushNanos != 0L) tickInterval.record(tick, now - lastFlushNanos, 1, 0);
+        lastFlushNanos = now;
+
+        for (int i = 0, n = sectionList.size(); i < n; i++) {
+            Section s = sectionList.get(i);
+            if (s.tickCalls == 0) continue;
+            s.windows.computeIfAbsent(arena, k -> new Window()).record(tick, s.tickNanos, s.tickCalls, s.tickAlloc);
+            s.tickNanos = 0;
+            s.tickCalls = 0;
+            s.tickAlloc = 0;
+        }
+    }
+
+    /**
+     * Ring of {@link #SLOTS} slots of {@link #SLOT_TICKS} ticks each.
+     */
+    static final class Window {
+        private final Slot[] slots = new Slot[SLOTS];
+
+        void record(long atTick, long nanos, long calls, long alloc) {
+            long slotId = atTick / SLOT_TICKS;
+            int idx = (int) (slotId % SLOTS);
+            Slot slot = slots[idx];
+            if (slot == null) {
+                slot = new Slot();
+                slots[idx] = slot;
+            }
+            if (slot.id != slotId) slot.reset(slotId);
+            slot.hist.record(nanos);
+            slot.calls += calls;
+            slot.alloc += alloc;
+        }
+
+        Summary summarize(long nowTick, int windowTicks) {
+            Summary out = new Summary();
+            long oldest = (nowTick - windowTicks) / SLOT_TICKS;
+            long newest = nowTick / SLOT_TICKS;
+            for (Slot slot : slots) {
+                if (slot == null || slot.id < oldest || slot.id > newest || slot.hist.count() == 0) continue;
+                out.hist.add(slot.hist);
+                out.calls += slot.calls;
+                out.alloc += slot.alloc;
+            }
+            return out;
+        }
+
+        void clear() {
+            for (Slot slot : slots) {
+                if (slot != null) slot.reset(-1);
+            }
+        }
+    }
+
+    private static final class Slot {
+        long id = -1;
+        final Histogram hist = new Histogram();
+        long calls;
+        long alloc;
+
+        void reset(long newId) {
+            id = newId;
+            hist.reset();
+            calls = 0;
+            alloc = 0;
+        }
+    }
+
+    static final class Summary {
+        final Histogram hist = new Histogram();
+        long calls;
+        long alloc;
+    }
+
+    // ===== Reporting =====
+
+    /**
+     * One line of the report.
+     */
+    public static final class Row {
+        public final String section;
+        public final String arena;
+        public final long activeTicks;
+        public final double nanosPerTick;   // averaged over every tick in the window
+        public final long p50;
+        public final long p95;
+        public final long p99;
+        public final long max;
+        public final double callsPerTick;
+        public final double allocPerTick;
+
+        Row(String section, String arena, Summary s, long windowTicks) {
+            this.section = section;
+            this.arena = arena;
+            this.activeTicks = s.hist.count();
+            this.nanosPerTick = (double) s.hist.sum() / windowTicks;
+            this.p50 = s.hist.percentile(50);
+            this.p95 = s.hist.percentile(95);
+            this.p99 = s.hist.percentile(99);
+            this.max = s.hist.max();
+            this.callsPerTick = (double) s.calls / windowTicks;
+            this.allocPerTick = (double) s.alloc / windowTicks;
+        }
+    }
+
+    /**
+     * Ticks actually covered by a window (clipped to time since install/reset).
+     */
+    public static long coveredTicks(int windowTicks) {
+        return Math.max(1L, Math.min(Math.min(windowTicks, MAX_WINDOW_TICKS), tick - resetTick));
+    }
+
+    /**
+     * Rows for every section/arena with samples in the window, most expensive first.
+     * Percentiles are over the ticks in which the section ran.
+     */
+    public static List<Row> report(int windowTicks) {
+        int window = Math.min(windowTicks, MAX_WINDOW_TICKS);
+        long covered = coveredTicks(window);
+        List<Row> rows = new ArrayList<>();
+        for (Section s : sectionList) {
+            for (Map.Entry<String, Window> e : s.windows.entrySet()) {
+                Summary sum = e.getValue().summarize(tick, window);
+                if (sum.hist.count() == 0) continue;
+                rows.add(new Row(s.name, e.getKey(), sum, covered));
+            }
+        }
+        rows.sort((a, b) -> Double.compare(b.nanosPerTick, a.nanosPerTick));
+        return rows;
+    }
+
+    /**
+     * Distribution of wall time between profiler ticks (50ms when the server keeps up).
+     */
+    public static Row tickIntervalRow(int windowTicks) {
+        int window = Math.min(windowTicks, MAX_WINDOW_TICKS);
+        return new Row("server.tick-interval", NO_ARENA, tickInterval.summarize(tick, window), coveredTicks(window));
+    }
+
+    public static boolean tracksAllocations() {
+        return trackAllocations;
+    }
+
+    /**
+     * Plain-text table of the full report.
+     */
+    public static String formatReport(int windowTicks) {
+        StringBuilder sb = new StringBuilder();
+        long covered = coveredTicks(windowTicks);
+        sb.append("# MMHQ tick profile, window=").append(covered).append(" ticks")
+                .append(", allocations=").append(trackAllocations ? "on" : "off").append('\n');
+        sb.append("# times in microseconds; avg/tick over all ticks, percentiles over ticks where the section ran\n");
+        sb.append(String.format("%-44s %-16s %9s %9s %9s %9s %9s %9s %12s%n",
+                "section", "arena", "avg/tick", "p50", "p95", "p99", "max", "calls/t", "alloc B/t"));
+        List<Row> rows = new ArrayList<>(report(windowTicks));
+        rows.add(tickIntervalRow(windowTicks));
+        for (Row r : rows) {
+            sb.append(String.format("%-44s %-16s %9.1f %9.1f %9.1f %9.1f %9.1f %9.2f %12.0f%n",
+                    r.section, r.arena, r.nanosPerTick / 1000.0, r.p50 / 1000.0, r.p95 / 1000.0,
+                    r.p99 / 1000.0, r.max / 1000.0, r.callsPerTick, r.allocPerTick));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Write {@link #formatReport} to plugins/&lt;plugin&gt;/profiles/ off the main thread.
+     * @return The file that will be written
+     */
+    public static File dump(int windowTicks) {
+        String text = formatReport(windowTicks);
+        File dir = new File(plugin.getDataFolder(), "profiles");
+        File file = new File(dir, "profile-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".txt");
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                Files.createDirectories(dir.toPath());
+                Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+                plugin.getLogger().info("[Profiler] Wrote " + file.getPath());
+            } catch (IOException e) {
+                plugin.getLogger().warning("[Profiler] Failed to write " + file.getPath() + ": " + e);
+            }
+        });
+        return file;
+    }
+}
@@ -0,0 +1,194 @@
+package com.mmhq.game.replay;
+
+import com.mmhq.game.profiler.ProfiledRunnable;
+import com.mmhq.sharedapi.game.MurderRole;
+import com.mmhq.sharedapi.replay.ReplayFormat;
+import com.mmhq.sharedapi.replay.ReplayHeader;
+import com.mmhq.sharedapi.replay.ReplayWriter;
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Records every participant's position, look, held item, role and
+ * alive/sneak state at 20 Hz into {@code plugins/<plugin>/replays/*.mmr}
+ * (played back with {@code /mmreplay}).
+ *
+ * Static like {@link com.mmhq.game.journal.MatchJournal}; the sampling task
+ * runs only while a match is being recorded. Sampling reads into a scratch
+ * location and primitive arrays, and the encoder only writes changed fields,
+ * so the per-player cost is a few field reads and compares. Compression and
+ * disk writes happen on the writer's background thread.
+ */
+public final class ReplayRecorder {
+    private static JavaPlugin plugin;
+    private static File directory;
+    private static boolean enabled;
+
+    private static ReplayWriter writer;
+    private static BukkitTask task;
+    private static UUID[] ids;
+    private static Player[] players;
+    private static int[] roles;
+    private static final Map<UUID, Integer> slots = new HashMap<>();
+    private static final Location scratch = new Location(null, 0, 0, 0);
+
+    private ReplayRecorder() {
+    }
+
+    public static void install(JavaPlugin owner) {
+        plugin = owner;
+        enabled = owner.getConfig().getBoolean("replay.enabled", true);
+        directory = replayDirectory(owner);
+    }
+
+    public static File replayDirectory(JavaPlugin owner) {
+        return new File(owner.getDataFolder(), "replays");
+    }
+
+    /**
+     * Stop recording and wait briefly for the last blocks to reach disk (plugin disable).
+     */
+    public static void shutdown() {
+        ReplayWriter w = detach();
+        if (w == null) return;
+        w.close();
+        try {
+            IOException error = w.awaitClosed(5000L);
+            if (error != null) plugin.getLogger().warning("[Replay] " + w.path().getFileName() + ": " + error.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static boolean isRecording() {
+        return writer != null;
+    }
+
+    // ===== Match lifecycle =====
+
+    /**
+     * Start recording a match. Call after roles are assigned; a recording
+     * still running from a previous match is finished first.
+     */
+    public static void begin(String mapName, String worldName, Map<UUID, MurderRole> participants) {
+        if (!enabled || plugin == null) return;
+        if (writer != null) end();
+        long now = System.currentTimeMillis();
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date(now));
+        File file = new File(directory, stamp + "-" + sanitize(mapName) + ReplayFormat.EXTENSION);
+
+        int n = Math.min(participants.size(), ReplayFormat.MAX_PLAYERS);
+        List<ReplayHeader.Participant> header = new ArrayList<>(n);
+        ids = new UUID[n];
+        players = new Player[n];
+        roles = new int[n];
+        for (Map.Entry<UUID, MurderRole> e : participants.entrySet()) {
+            int slot = header.size();
+            if (slot == n) break;
+            Player p = Bukkit.getPlayer(e.getKey());
+            int role = e.getValue() != null ? e.getValue().ordinal() : MurderRole.SPECTATOR.ordinal();
+            header.add(new ReplayHeader.Participant(e.getKey(), p != null ? p.getName() : "?", role));
+            ids[slot] = e.getKey();
+            players[slot] = p;
+            roles[slot] = role;
+            slots.put(e.getKey(), slot);
+        }
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Could not create " + directory);
+            }
+            writer = new ReplayWriter(file.toPath(), new ReplayHeader(mapName, worldName, now, header));
+        } catch (IOException | RuntimeException e) {
+            slots.clear();
+            plugin.getLogger().warning("[Replay] Could not start recording " + file.getName() + ": " + e.getMessage());
+            return;
+        }
+        task = new ProfiledRunnable("replay.record") {
+            @Override
+            protected void tick() {
+                sample();
+            }
+        }.runTaskTimer(plugin, 0L, 1L);
+        plugin.getLogger().info("[Replay] Recording " + n + " players to " + file.getName());
+    }
+
+    /**
+     * Stop recording; the remaining frames are flushed in the background.
+     */
+    public static void end() {
+        ReplayWriter w = detach();
+        if (w == null) return;
+        w.close();
+        plugin.getLogger().info("[Replay] Finished " + w.path().getFileName() + " (" + w.ticks() / ReplayFormat.TICKS_PER_SECOND + "s)");
+    }
+
+    /**
+     * Role changed mid-match (bow pickup).
+     */
+    public static void role(Player player, MurderRole role) {
+        if (writer == null) return;
+        Integer slot = slots.get(player.getUniqueId());
+        if (slot != null) roles[slot] = role.ordinal();
+    }
+
+    // ===== Sampling =====
+
+    @SuppressWarnings("deprecation")
+    private static void sample() {
+        ReplayWriter w = writer;
+        if (w == null) return;
+        for (int slot = 0; slot < players.length; slot++) {
+            Player p = players[slot];
+            if (p == null || !p.isOnline()) {
+                // Rejoined players are new Player objects
+                p = players[slot] = Bukkit.getPlayer(ids[slot]);
+                if (p == null) {
+                    w.absent(slot);
+                    continue;
+                }
+            }
+            p.getLocation(scratch);
+            ItemStack held = p.getItemInHand();
+            int flags = ReplayFormat.PRESENT;
+            if (p.getGameMode() != GameMode.SPECTATOR && !p.isDead()) flags |= ReplayFormat.ALIVE;
+            if (p.isSneaking()) flags |= ReplayFormat.SNEAKING;
+            if (p.isSprinting()) flags |= ReplayFormat.SPRINTING;
+            w.player(slot, scratch.getX(), scratch.getY(), scratch.getZ(), scratch.getYaw(), scratch.getPitch(),
+                    held != null ? held.getTypeId() : 0, flags, roles[slot]);
+        }
+        w.endFrame();
+    }
+
+    private static ReplayWriter detach() {
+        ReplayWriter w = writer;
+        writer = null;
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        slots.clear();
+        players = null;
+        ids = null;
+        roles = null;
+        return w;
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+}
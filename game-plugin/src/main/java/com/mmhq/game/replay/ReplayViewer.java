@@ -0,0 +1,242 @@
+package com.mmhq.game.replay;
+
+import com.mmhq.game.profiler.ProfiledRunnable;
+import com.mmhq.game.utils.NmsPackets;
+import com.mmhq.game.utils.VersionUtils;
+import com.mmhq.sharedapi.game.MurderRole;
+import com.mmhq.sharedapi.replay.ReplayFormat;
+import com.mmhq.sharedapi.replay.ReplayReader;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+
+/**
+ * Plays a recorded match to one viewer using packet-only fake players.
+ * Nothing is spawned server-side, so other players and the arena are
+ * unaffected. Actors are shown while their recorded state is present and
+ * alive, and packets are only sent for fields that changed since the last
+ * rendered tick.
+ */
+public final class ReplayViewer {
+    private static final double MIN_SPEED = 0.25;
+    private static final double MAX_SPEED = 8.0;
+
+    private final JavaPlugin plugin;
+    private final Player viewer;
+    private final ReplayReader reader;
+    private final NmsPackets.FakePlayer[] actors;
+
+    // Last state sent to the viewer per slot
+    private final boolean[] shown;
+    private final double[] shownX;
+    private final double[] shownY;
+    private final double[] shownZ;
+    private final byte[] shownYaw;
+    private final byte[] shownPitch;
+    private final int[] shownItem;
+    private final int[] shownFlags;
+
+    private BukkitTask task;
+    private boolean paused;
+    private double speed = 1.0;
+    private double pending;
+
+    public ReplayViewer(JavaPlugin plugin, Player viewer, ReplayReader reader) {
+        this.plugin = plugin;
+        this.viewer = viewer;
+        this.reader = reader;
+        int n = reader.players();
+        this.actors = new NmsPackets.FakePlayer[n];
+        this.shown = new boolean[n];
+        this.shownX = new double[n];
+        this.shownY = new double[n];
+        this.shownZ = new double[n];
+        this.shownYaw = new byte[n];
+        this.shownPitch = new byte[n];
+        this.shownItem = new int[n];
+        this.shownFlags = new int[n];
+    }
+
+    public ReplayReader reader() {
+        return reader;
+    }
+
+    /**
+     * Create the actors and start playback from the first tick.
+     * @return false if fake players are not supported on this server
+     */
+    public boolean start() {
+        for (int slot = 0; slot < actors.length; slot++) {
+            actors[slot] = NmsPackets.createPlayer(viewer, reader.header().participants().get(slot).name());
+            if (actors[slot] == null) {
+                return false;
+            }
+        }
+        if (!viewer.getWorld().getName().equals(reader.header().worldName())) {
+            viewer.sendMessage(ChatColor.YELLOW + "Replay was recorded in world " + reader.header().worldName()
+                    + "; actors are placed at the same coordinates in your world.");
+        }
+        task = new ProfiledRunnable("replay.playback") {
+            @Override
+            protected void tick() {
+                step();
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+        return true;
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        for (int slot = 0; slot < actors.length; slot++) {
+            if (actors[slot] != null && shown[slot]) actors[slot].despawn();
+            shown[slot] = false;
+        }
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+        this.pending = 0;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * @return The applied speed (clamped to 0.25x - 8x)
+     */
+    public double setSpeed(double speed) {
+        this.speed = Math.max(MIN_SPEED, Math.min(MAX_SPEED, speed));
+        return this.speed;
+    }
+
+    public void seekSeconds(double seconds) throws IOException {
+        reader.seek((int) Math.round(seconds * ReplayFormat.TICKS_PER_SECOND));
+        render();
+    }
+
+    /**
+     * @return Current position in seconds
+     */
+    public double positionSeconds() {
+        return Math.max(0, reader.tick()) / (double) ReplayFormat.TICKS_PER_SECOND;
+    }
+
+    public double lengthSeconds() {
+        return reader.totalTicks() / (double) ReplayFormat.TICKS_PER_SECOND;
+    }
+
+    // ===== Playback =====
+
+    private void step() {
+        if (!viewer.isOnline()) {
+            stop();
+            return;
+        }
+        if (paused) return;
+        pending += speed;
+        boolean advanced = false;
+        try {
+            while (pending >= 1.0) {
+                pending -= 1.0;
+                if (!reader.next()) {
+                    paused = true;
+                    pending = 0;
+                    viewer.sendMessage(ChatColor.YELLOW + "End of replay. /mmreplay seek <time> and /mmreplay resume to rewind, /mmreplay stop to exit.");
+                    break;
+                }
+                advanced = true;
+            }
+        } catch (IOException e) {
+            viewer.sendMessage(ChatColor.RED + "Replay is damaged: " + e.getMessage());
+            plugin.getLogger().warning("[Replay] " + reader.path().getFileName() + ": " + e.getMessage());
+            stop();
+            return;
+        }
+        if (advanced) {
+            render();
+            if (reader.tick() % ReplayFormat.TICKS_PER_SECOND == 0) {
+                VersionUtils.sendActionBar(viewer, "&6Replay &7" + clock(positionSeconds()) + " / " + clock(lengthSeconds())
+                        + (speed != 1.0 ? " &e" + speed + "x" : ""));
+            }
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private void render() {
+        for (int slot = 0; slot < actors.length; slot++) {
+            NmsPackets.FakePlayer actor = actors[slot];
+            int flags = reader.flags(slot);
+            boolean visible = (flags & ReplayFormat.PRESENT) != 0 && (flags & ReplayFormat.ALIVE) != 0;
+            if (!visible) {
+                if (shown[slot]) {
+                    actor.despawn();
+                    shown[slot] = false;
+                }
+                continue;
+            }
+            double x = reader.x(slot);
+            double y = reader.y(slot);
+            double z = reader.z(slot);
+            if (!shown[slot]) {
+                actor.spawn(x, y, z, reader.yaw(slot), reader.pitch(slot));
+                shown[slot] = true;
+                shownItem[slot] = -1;
+                shownFlags[slot] = 0;
+                Bukkit.getScheduler().runTaskLater(plugin, actor::hideFromTab, 40L);
+            } else if (x != shownX[slot] || y != shownY[slot] || z != shownZ[slot]
+                    || reader.yawAngle(slot) != shownYaw[slot] || reader.pitchAngle(slot) != shownPitch[slot]) {
+                actor.moveTo(x, y, z, reader.yaw(slot), reader.pitch(slot), reader.yawAngle(slot));
+            }
+            shownX[slot] = x;
+            shownY[slot] = y;
+            shownZ[slot] = z;
+            shownYaw[slot] = reader.yawAngle(slot);
+            shownPitch[slot] = reader.pitchAngle(slot);
+
+            int item = reader.item(slot);
+            if (item != shownItem[slot]) {
+                Material material = item != 0 ? Material.getMaterial(item) : null;
+                actor.setHeld(material != null ? new ItemStack(material) : null);
+                shownItem[slot] = item;
+            }
+            boolean sneaking = (flags & ReplayFormat.SNEAKING) != 0;
+            if (sneaking != ((shownFlags[slot] & ReplayFormat.SNEAKING) != 0)) {
+                actor.setSneaking(sneaking);
+            }
+            shownFlags[slot] = flags;
+        }
+    }
+
+    /**
+     * One line per participant: name, role and whether they are alive at the current tick.
+     */
+    public String describeActors() {
+        StringBuilder sb = new StringBuilder();
+        MurderRole[] roles = MurderRole.values();
+        for (int slot = 0; slot < actors.length; slot++) {
+            int flags = reader.flags(slot);
+            int role = reader.role(slot);
+            sb.append(ChatColor.GRAY).append(reader.header().participants().get(slot).name())
+                    .append(ChatColor.DARK_GRAY).append(" [").append(role < roles.length ? roles[role] : "?").append("] ")
+                    .append((flags & ReplayFormat.PRESENT) == 0 ? ChatColor.DARK_GRAY + "offline"
+                            : (flags & ReplayFormat.ALIVE) != 0 ? ChatColor.GREEN + "alive" : ChatColor.RED + "dead")
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String clock(double seconds) {
+        int s = (int) seconds;
+        return String.format("%d:%02d", s / 60, s % 60);
+    }
+}
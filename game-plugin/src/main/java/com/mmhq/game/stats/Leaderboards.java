@@ -0,0 +1,276 @@
+package com.mmhq.game.stats;
+
+import com.mmhq.sharedapi.game.MurderRole;
+import com.mmhq.sharedapi.leaderboard.RankedIndex;
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Live leaderboards over every stored profile.
+ *
+ * Each board is a {@link RankedIndex}, so rank lookups and pages cost
+ * O(log n) no matter how many profiles exist. {@link StatsStore} builds the
+ * indexes from the profiles table on its own thread at startup and then
+ * hands every committed match result to {@link #apply} on the main thread,
+ * which moves only that match's players. The short top list shown on the
+ * lobby sidebar is rendered once and reused until a change reaches it;
+ * {@link #version} tells the lobby whether its copy is current.
+ *
+ * Main thread only (except {@link #build}).
+ */
+public final class Leaderboards {
+    public static final int SIDEBAR_LINES = 3;
+    private static final int NAME_WIDTH = 16;
+
+    public enum Board {
+        WINS("wins", "Wins"),
+        MURDERER_WINS("murderer", "Murderer Wins"),
+        DETECTIVE_KILLS("detective", "Detective Kills"),
+        WIN_RATE("winrate", "Win Rate");
+
+        private final String id;
+        private final String title;
+
+        Board(String id, String title) {
+            this.id = id;
+            this.title = title;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public String title() {
+            return title;
+        }
+
+        public static Board byId(String id) {
+            for (Board b : values()) {
+                if (b.id.equalsIgnoreCase(id)) return b;
+            }
+            return null;
+        }
+
+        /**
+         * Score on this board, or -1 if the player should not be listed.
+         * Win rate is stored in basis points and needs {@code minGames} games.
+         */
+        long score(Totals t, int minGames) {
+            switch (this) {
+                case WINS:
+                    return t.wins > 0 ? t.wins : -1;
+                case MURDERER_WINS:
+                    return t.murdererWins > 0 ? t.murdererWins : -1;
+                case DETECTIVE_KILLS:
+                    return t.detectiveKills > 0 ? t.detectiveKills : -1;
+                default: {
+                    int games = t.wins + t.losses;
+                    return games >= Math.max(1, minGames) ? t.wins * 10_000L / games : -1;
+                }
+            }
+        }
+
+        public String format(long score) {
+            if (this == WIN_RATE) return String.format(Locale.ROOT, "%.1f%%", score / 100.0);
+            return Long.toString(score);
+        }
+    }
+
+    /**
+     * Stored totals for one profile.
+     */
+    static final class Totals {
+        final UUID id;
+        String name;
+        int wins;
+        int losses;
+        int murdererWins;
+        int detectiveKills;
+
+        Totals(UUID id, String name, int wins, int losses, int murdererWins, int detectiveKills) {
+            this.id = id;
+            this.name = name;
+            this.wins = wins;
+            this.losses = losses;
+            this.murdererWins = murdererWins;
+            this.detectiveKills = detectiveKills;
+        }
+    }
+
+    /**
+     * Indexes built off the main thread, installed with {@link #install}.
+     */
+    static final class State {
+        private final Map<UUID, Totals> totals;
+        private final Map<String, UUID> names;
+        private final EnumMap<Board, RankedIndex> boards;
+
+        private State(Map<UUID, Totals> totals, Map<String, UUID> names, EnumMap<Board, RankedIndex> boards) {
+            this.totals = totals;
+            this.names = names;
+            this.boards = boards;
+        }
+    }
+
+    private final int minGames;
+    private State state;
+    private final EnumMap<Board, List<String>> sidebar = new EnumMap<>(Board.class);
+    private final EnumMap<Board, Long> versions = new EnumMap<>(Board.class);
+
+    public Leaderboards(int minGames) {
+        this.minGames = minGames;
+    }
+
+    /**
+     * Build the indexes for every stored profile. Safe on any thread.
+     */
+    static State build(Collection<Totals> rows, int minGames) {
+        Map<UUID, Totals> totals = new HashMap<>(rows.size() * 2);
+        Map<String, UUID> names = new HashMap<>(rows.size() * 2);
+        EnumMap<Board, RankedIndex> boards = new EnumMap<>(Board.class);
+        for (Board b : Board.values()) boards.put(b, new RankedIndex());
+        for (Totals t : rows) {
+            totals.put(t.id, t);
+            names.put(t.name.toLowerCase(Locale.ROOT), t.id);
+            for (Board b : Board.values()) {
+                long score = b.score(t, minGames);
+                if (score >= 0) boards.get(b).update(t.id, score);
+            }
+        }
+        return new State(totals, names, boards);
+    }
+
+    public int minGames() {
+        return minGames;
+    }
+
+    void install(State built) {
+        state = built;
+        sidebar.clear();
+        long now = System.currentTimeMillis();
+        for (Board b : Board.values()) versions.put(b, now);
+    }
+
+    public boolean isReady() {
+        return state != null;
+    }
+
+    public int profiles() {
+        return state != null ? state.totals.size() : 0;
+    }
+
+    public int size(Board board) {
+        return state != null ? state.boards.get(board).size() : 0;
+    }
+
+    /**
+     * Fold a committed match into the boards.
+     */
+    void apply(MatchResult result) {
+        if (state == null) return;
+        for (MatchResult.Entry e : result.players()) {
+            Totals t = state.totals.get(e.uniqueId());
+            if (t == null) {
+                t = new Totals(e.uniqueId(), e.name(), 0, 0, 0, 0);
+                state.totals.put(t.id, t);
+            } else if (!t.name.equals(e.name())) {
+                state.names.remove(t.name.toLowerCase(Locale.ROOT));
+                t.name = e.name();
+                for (Board b : Board.values()) {
+                    if (inSidebar(b, t.id)) invalidate(b);
+                }
+            }
+            state.names.put(t.name.toLowerCase(Locale.ROOT), t.id);
+            if (e.won()) {
+                t.wins++;
+                if (e.role() == MurderRole.MURDERER) t.murdererWins++;
+            } else {
+                t.losses++;
+            }
+            t.detectiveKills += e.detectiveKills();
+            for (Board b : Board.values()) {
+                RankedIndex index = state.boards.get(b);
+                boolean wasShown = inSidebar(b, t.id);
+                long score = b.score(t, minGames);
+                boolean moved = score >= 0 ? index.update(t.id, score) : index.remove(t.id);
+                if (moved && (wasShown || inSidebar(b, t.id))) invalidate(b);
+            }
+        }
+    }
+
+    /**
+     * Lookup by last known name (case-insensitive); null if never stored.
+     */
+    public UUID idOf(String name) {
+        return state != null ? state.names.get(name.toLowerCase(Locale.ROOT)) : null;
+    }
+
+    public String nameOf(UUID id) {
+        Totals t = state != null ? state.totals.get(id) : null;
+        return t != null ? t.name : null;
+    }
+
+    /**
+     * 1-based rank, 0 if not listed on this board.
+     */
+    public int rank(Board board, UUID id) {
+        return state != null ? state.boards.get(board).rank(id) : 0;
+    }
+
+    public long score(Board board, UUID id) {
+        return state != null ? state.boards.get(board).score(id, -1) : -1;
+    }
+
+    public List<RankedIndex.Entry> page(Board board, int offset, int limit) {
+        return state != null ? state.boards.get(board).page(offset, limit) : Collections.emptyList();
+    }
+
+    /**
+     * Rendered top {@link #SIDEBAR_LINES} entries, cached until they change.
+     */
+    public List<String> sidebarLines(Board board) {
+        List<String> lines = sidebar.get(board);
+        if (lines == null) {
+            lines = new ArrayList<>(SIDEBAR_LINES);
+            for (RankedIndex.Entry e : page(board, 0, SIDEBAR_LINES)) lines.add(render(board, e));
+            lines = Collections.unmodifiableList(lines);
+            sidebar.put(board, lines);
+        }
+        return lines;
+    }
+
+    /**
+     * Changes whenever {@link #sidebarLines} would render differently.
+     */
+    public long version(Board board) {
+        Long v = versions.get(board);
+        return v != null ? v : 0L;
+    }
+
+    public String render(Board board, RankedIndex.Entry e) {
+        String name = nameOf(e.id());
+        if (name == null) name = "?";
+        if (name.length() > NAME_WIDTH) name = name.substring(0, NAME_WIDTH);
+        return ChatColor.YELLOW + "#" + e.rank() + " " + ChatColor.WHITE + name
+                + ChatColor.GRAY + " - " + ChatColor.GREEN + board.format(e.score());
+    }
+
+    private boolean inSidebar(Board board, UUID id) {
+        int rank = state.boards.get(board).rank(id);
+        return rank > 0 && rank <= SIDEBAR_LINES;
+    }
+
+    private void invalidate(Board board) {
+        sidebar.remove(board);
+        versions.put(board, version(board) + 1);
+    }
+}
@@ -0,0 +1,86 @@
+package com.mmhq.game.stats;
+
+import com.mmhq.sharedapi.game.MurderRole;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Immutable result of one finished match, handed from the game to the stats store.
+ */
+public final class MatchResult {
+    private final String mapName;
+    private final String outcome;
+    private final long startedAt;
+    private final long endedAt;
+    private final List<Entry> players;
+
+    public MatchResult(String mapName, String outcome, long startedAt, long endedAt, List<Entry> players) {
+        this.mapName = Objects.requireNonNull(mapName, "mapName");
+        this.outcome = Objects.requireNonNull(outcome, "outcome");
+        this.startedAt = startedAt;
+        this.endedAt = endedAt;
+        this.players = Collections.unmodifiableList(players);
+    }
+
+    public String mapName() {
+        return mapName;
+    }
+
+    public String outcome() {
+        return outcome;
+    }
+
+    public long startedAt() {
+        return startedAt;
+    }
+
+    public long endedAt() {
+        return endedAt;
+    }
+
+    public List<Entry> players() {
+        return players;
+    }
+
+    public static final class Entry {
+        private final UUID uniqueId;
+        private final String name;
+        private final MurderRole role;
+        private final boolean won;
+        private final int detectiveKills;
+
+        public Entry(UUID uniqueId, String name, MurderRole role, boolean won, int detectiveKills) {
+            this.uniqueId = Objects.requireNonNull(uniqueId, "uniqueId");
+            this.name = Objects.requireNonNull(name, "name");
+            this.role = Objects.requireNonNull(role, "role");
+            this.won = won;
+            this.detectiveKills = detectiveKills;
+        }
+
+        public UUID uniqueId() {
+            return uniqueId;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public MurderRole role() {
+            return role;
+        }
+
+        public boolean won() {
+            return won;
+        }
+
+        /**
+         * Kills made while holding the detective role (including picked-up bows).
+         */
+        public int detectiveKills() {
+            return detectiveKills;
+        }
+    }
+}
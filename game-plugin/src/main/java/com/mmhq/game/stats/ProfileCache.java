@@ -0,0 +1,126 @@
+package com.mmhq.game.stats;
+
+import com.mmhq.sharedapi.player.PlayerProfile;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Profiles for online players, plus a bounded LRU of recently seen ones.
+ *
+ * Profiles are loaded on {@link AsyncPlayerPreLoginEvent} (already off the
+ * main thread), so by the time a player can queue their profile is in
+ * memory. On quit the profile moves to the LRU, which keeps quick rejoins
+ * from hitting the database while bounding memory to online players plus
+ * {@code stats.cacheSize}. A player with no preloaded profile (e.g. online
+ * across a reload) gets a blank one immediately and their stored totals are
+ * folded in when the async load completes.
+ */
+public final class ProfileCache implements Listener {
+    private static final long LOGIN_LOAD_TIMEOUT_MS = 3000L;
+
+    private final JavaPlugin plugin;
+    private final StatsStore store;
+    private final Map<UUID, PlayerProfile> online = new HashMap<>();
+    private final LinkedHashMap<UUID, PlayerProfile> recent;
+
+    public ProfileCache(JavaPlugin plugin, StatsStore store) {
+        this.plugin = plugin;
+        this.store = store;
+        int capacity = Math.max(0, plugin.getConfig().getInt("stats.cacheSize", 500));
+        this.recent = new LinkedHashMap<UUID, PlayerProfile>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, PlayerProfile> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Profile for an online player. Main thread.
+     */
+    public PlayerProfile get(Player player) {
+        UUID id = player.getUniqueId();
+        synchronized (this) {
+            PlayerProfile profile = online.get(id);
+            if (profile != null) return profile;
+            profile = recent.remove(id);
+            if (profile != null) {
+                online.put(id, profile);
+                return profile;
+            }
+            profile = new PlayerProfile(id, player.getName());
+            online.put(id, profile);
+            PlayerProfile blank = profile;
+            store.load(id, player.getName()).thenAccept(loaded ->
+                    Bukkit.getScheduler().runTask(plugin, () -> blank.addHistory(loaded.wins(), loaded.losses())));
+            return profile;
+        }
+    }
+
+    public synchronized int size() {
+        return online.size() + recent.size();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+        UUID id = event.getUniqueId();
+        synchronized (this) {
+            if (online.containsKey(id)) return;
+            PlayerProfile cached = recent.remove(id);
+            if (cached != null) {
+                online.put(id, cached);
+                return;
+            }
+        }
+        PlayerProfile loaded;
+        try {
+            loaded = store.load(id, event.getName()).get(LOGIN_LOAD_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException | TimeoutException e) {
+            plugin.getLogger().warning("[Stats] Profile load for " + event.getName() + " did not finish: " + e);
+            return; // get() will create a blank profile and merge later
+        }
+        synchronized (this) {
+            online.putIfAbsent(id, loaded);
+        }
+    }
+
+    /**
+     * A login refused after pre-login never produces a quit; don't pin its profile.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        if (event.getResult() == PlayerLoginEvent.Result.ALLOWED) return;
+        release(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        release(event.getPlayer().getUniqueId());
+    }
+
+    private void release(UUID id) {
+        synchronized (this) {
+            PlayerProfile profile = online.remove(id);
+            if (profile != null) recent.put(id, profile);
+        }
+    }
+}
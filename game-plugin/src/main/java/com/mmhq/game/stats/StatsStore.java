@@ -0,0 +1,340 @@
+package com.mmhq.game.stats;
+
+import com.mmhq.sharedapi.game.MurderRole;
+import com.mmhq.sharedapi.player.PlayerProfile;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Persistent profiles and match history in an embedded SQLite database
+ * ({@code plugins/<plugin>/stats.db}, driver bundled with Spigot).
+ *
+ * Every statement runs on one background thread that owns the connection;
+ * callers only get futures or enqueue work. Match results are written
+ * behind: {@link #saveMatch} queues the result and a single flush drains
+ * everything queued into one transaction. A batch whose transaction fails
+ * is kept and retried ahead of newer results, up to {@link #MAX_ATTEMPTS}
+ * times, before it is dropped. Wins/losses are stored as
+ * increments, so a profile that was used before its row finished loading
+ * can never overwrite the persisted totals.
+ *
+ * The store also owns the {@link Leaderboards}: they are built from the
+ * profiles table right after the database opens and then moved by each
+ * committed batch, so they always match what is on disk.
+ *
+ * If the driver or file is unavailable the store runs disabled: loads return
+ * empty profiles and results are dropped (logged once).
+ */
+public final class StatsStore {
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS profiles (uuid TEXT PRIMARY KEY, name TEXT NOT NULL,"
+                    + " wins INTEGER NOT NULL DEFAULT 0, losses INTEGER NOT NULL DEFAULT 0, updated_at INTEGER NOT NULL,"
+                    + " murderer_wins INTEGER NOT NULL DEFAULT 0, detective_kills INTEGER NOT NULL DEFAULT 0)",
+            "CREATE TABLE IF NOT EXISTS matches (id INTEGER PRIMARY KEY AUTOINCREMENT, map TEXT NOT NULL,"
+                    + " outcome TEXT NOT NULL, started_at INTEGER NOT NULL, ended_at INTEGER NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS match_players (match_id INTEGER NOT NULL, uuid TEXT NOT NULL,"
+                    + " role TEXT NOT NULL, won INTEGER NOT NULL, detective_kills INTEGER NOT NULL DEFAULT 0,"
+                    + " PRIMARY KEY (match_id, uuid))",
+            "CREATE INDEX IF NOT EXISTS match_players_uuid ON match_players (uuid)"
+    };
+
+    static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_TICKS = 20L * 30;
+
+    private final JavaPlugin plugin;
+    private final File file;
+    private final ExecutorService executor;
+    private final ConcurrentLinkedQueue<MatchResult> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Leaderboards leaderboards;
+    private volatile boolean available;
+    private Connection connection; // executor thread only
+    private List<MatchResult> retry = new ArrayList<>(); // failed batch, executor thread only
+    private int retryAttempts;
+
+    public StatsStore(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), plugin.getConfig().getString("stats.file", "stats.db"));
+        this.leaderboards = new Leaderboards(Math.max(1, plugin.getConfig().getInt("stats.leaderboard.minGames", 10)));
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "mmhq-stats");
+            t.setDaemon(true);
+            return t;
+        });
+        if (plugin.getConfig().getBoolean("stats.enabled", true)) {
+            executor.execute(this::open);
+        } else {
+            plugin.getLogger().info("[Stats] Persistence disabled (stats.enabled=false)");
+        }
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Main thread only; empty until the profiles have been loaded.
+     */
+    public Leaderboards leaderboards() {
+        return leaderboards;
+    }
+
+    /**
+     * Load a profile (blank if the player has no row yet).
+     * Completes on the store thread; never call {@code join()} on the main thread.
+     */
+    public CompletableFuture<PlayerProfile> load(UUID id, String name) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (!available) return new PlayerProfile(id, name);
+            try (PreparedStatement ps = connection.prepareStatement("SELECT wins, losses FROM profiles WHERE uuid = ?")) {
+                ps.setString(1, id.toString());
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? new PlayerProfile(id, name, rs.getInt(1), rs.getInt(2)) : new PlayerProfile(id, name);
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().warning("[Stats] Failed to load " + name + ": " + e.getMessage());
+                return new PlayerProfile(id, name);
+            }
+        }, executor);
+    }
+
+    /**
+     * Queue a match result; it is written with any other queued results in one transaction.
+     */
+    public void saveMatch(MatchResult result) {
+        if (!available) return;
+        pending.add(result);
+        if (flushScheduled.compareAndSet(false, true)) {
+            executor.execute(this::flush);
+        }
+    }
+
+    /**
+     * Write anything still queued and close the database, waiting up to {@code timeoutMillis}.
+     */
+    public void close(long timeoutMillis) {
+        executor.execute(() -> {
+            flush();
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                }
+                connection = null;
+            }
+            available = false;
+        });
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                plugin.getLogger().warning("[Stats] Timed out flushing " + pending.size() + " pending match result(s)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ===== Store thread =====
+
+    private void open() {
+        try {
+            Class.forName("org.sqlite.JDBC");
+            File dir = file.getParentFile();
+            if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+                throw new SQLException("Could not create " + dir);
+            }
+            connection = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+            try (Statement st = connection.createStatement()) {
+                st.execute("PRAGMA journal_mode=WAL");
+                st.execute("PRAGMA synchronous=NORMAL");
+                for (String ddl : SCHEMA) st.execute(ddl);
+            }
+            migrate();
+            available = true;
+            plugin.getLogger().info("[Stats] Using " + file.getName());
+            loadLeaderboards();
+        } catch (ClassNotFoundException e) {
+            plugin.getLogger().warning("[Stats] SQLite driver not found - stats will not be saved");
+        } catch (SQLException e) {
+            plugin.getLogger().warning("[Stats] Could not open " + file.getName() + " - stats will not be saved: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Columns added after the first release. Murderer wins can be recovered
+     * from match history; detective kills were not recorded before.
+     */
+    private void migrate() throws SQLException {
+        if (addColumn("profiles", "murderer_wins")) {
+            try (Statement st = connection.createStatement()) {
+                st.executeUpdate("UPDATE profiles SET murderer_wins = (SELECT COUNT(*) FROM match_players mp"
+                        + " WHERE mp.uuid = profiles.uuid AND mp.role = 'MURDERER' AND mp.won = 1)");
+            }
+        }
+        addColumn("profiles", "detective_kills");
+        addColumn("match_players", "detective_kills");
+    }
+
+    private boolean addColumn(String table, String column) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            try (ResultSet rs = st.executeQuery("PRAGMA table_info(" + table + ")")) {
+                while (rs.next()) {
+                    if (column.equalsIgnoreCase(rs.getString("name"))) return false;
+                }
+            }
+            st.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " INTEGER NOT NULL DEFAULT 0");
+            plugin.getLogger().info("[Stats] Added " + table + "." + column);
+            return true;
+        }
+    }
+
+    private void loadLeaderboards() {
+        long start = System.nanoTime();
+        List<Leaderboards.Totals> rows = new ArrayList<>();
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery(
+                     "SELECT uuid, name, wins, losses, murderer_wins, detective_kills FROM profiles")) {
+            while (rs.next()) {
+                UUID id;
+                try {
+                    id = UUID.fromString(rs.getString(1));
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                rows.add(new Leaderboards.Totals(id, rs.getString(2), rs.getInt(3), rs.getInt(4), rs.getInt(5), rs.getInt(6)));
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().warning("[Stats] Could not load leaderboards: " + e.getMessage());
+            return;
+        }
+        Leaderboards.State built = Leaderboards.build(rows, leaderboards.minGames());
+        plugin.getLogger().info("[Stats] Indexed " + rows.size() + " profile(s) for leaderboards in "
+                + (System.nanoTime() - start) / 1_000_000 + "ms");
+        runSync(() -> leaderboards.install(built));
+    }
+
+    private void runSync(Runnable task) {
+        if (plugin.isEnabled()) Bukkit.getScheduler().runTask(plugin, task);
+    }
+
+    /**
+     * Flush again after {@link #RETRY_DELAY_TICKS}, unless a new result (or
+     * close) flushes first.
+     */
+    private void scheduleRetry() {
+        if (!plugin.isEnabled()) return; // close() is flushing for the last time
+        Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> {
+            if (executor.isShutdown() || !flushScheduled.compareAndSet(false, true)) return;
+            try {
+                executor.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false);
+            }
+        }, RETRY_DELAY_TICKS);
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        if (!available || (pending.isEmpty() && retry.isEmpty())) return;
+        // A failed batch goes first, so results are still written in match order
+        List<MatchResult> batch = retry;
+        retry = new ArrayList<>();
+        for (MatchResult r; (r = pending.poll()) != null; ) batch.add(r);
+        long start = System.nanoTime();
+        try {
+            connection.setAutoCommit(false);
+            try (PreparedStatement match = connection.prepareStatement(
+                         "INSERT INTO matches (map, outcome, started_at, ended_at) VALUES (?, ?, ?, ?)");
+                 PreparedStatement lastId = connection.prepareStatement("SELECT last_insert_rowid()");
+                 PreparedStatement player = connection.prepareStatement(
+                         "INSERT OR REPLACE INTO match_players (match_id, uuid, role, won, detective_kills) VALUES (?, ?, ?, ?, ?)");
+                 PreparedStatement ensure = connection.prepareStatement(
+                         "INSERT OR IGNORE INTO profiles (uuid, name, wins, losses, updated_at) VALUES (?, ?, 0, 0, ?)");
+                 PreparedStatement bump = connection.prepareStatement(
+                         "UPDATE profiles SET name = ?, wins = wins + ?, losses = losses + ?, murderer_wins = murderer_wins + ?,"
+                                 + " detective_kills = detective_kills + ?, updated_at = ? WHERE uuid = ?")) {
+                for (MatchResult result : batch) {
+                    match.setString(1, result.mapName());
+                    match.setString(2, result.outcome());
+                    match.setLong(3, result.startedAt());
+                    match.setLong(4, result.endedAt());
+                    match.executeUpdate();
+                    long matchId;
+                    try (ResultSet rs = lastId.executeQuery()) {
+                        rs.next();
+                        matchId = rs.getLong(1);
+                    }
+                    for (MatchResult.Entry e : result.players()) {
+                        String uuid = e.uniqueId().toString();
+                        player.setLong(1, matchId);
+                        player.setString(2, uuid);
+                        player.setString(3, e.role().name());
+                        player.setInt(4, e.won() ? 1 : 0);
+                        player.setInt(5, e.detectiveKills());
+                        player.addBatch();
+                        ensure.setString(1, uuid);
+                        ensure.setString(2, e.name());
+                        ensure.setLong(3, result.endedAt());
+                        ensure.addBatch();
+                        bump.setString(1, e.name());
+                        bump.setInt(2, e.won() ? 1 : 0);
+                        bump.setInt(3, e.won() ? 0 : 1);
+                        bump.setInt(4, e.won() && e.role() == MurderRole.MURDERER ? 1 : 0);
+                        bump.setInt(5, e.detectiveKills());
+                        bump.setLong(6, result.endedAt());
+                        bump.setString(7, uuid);
+                        bump.addBatch();
+                    }
+                }
+                player.executeBatch();
+                ensure.executeBatch();
+                bump.executeBatch();
+            }
+            connection.commit();
+            retryAttempts = 0;
+            runSync(() -> {
+                for (MatchResult result : batch) leaderboards.apply(result);
+            });
+            plugin.getLogger().info("[Stats] Saved " + batch.size() + " match result(s) in "
+                    + (System.nanoTime() - start) / 1_000_000 + "ms");
+        } catch (SQLException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException ignored) {
+            }
+            if (++retryAttempts >= MAX_ATTEMPTS) {
+                plugin.getLogger().severe("[Stats] Dropped " + batch.size() + " match result(s) after "
+                        + retryAttempts + " failed attempts: " + e.getMessage());
+                retryAttempts = 0;
+            } else {
+                plugin.getLogger().warning("[Stats] Failed to save " + batch.size() + " match result(s), will retry ("
+                        + retryAttempts + "/" + MAX_ATTEMPTS + "): " + e.getMessage());
+                retry = batch;
+                scheduleRetry();
+            }
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+}
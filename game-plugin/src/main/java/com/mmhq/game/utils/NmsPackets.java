@@ -0,0 +1,707 @@
+package com.mmhq.game.utils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Cached reflection for sending client-side-only entity packets (1.8 NMS).
+ * Everything is resolved once on first use; if the server is not a legacy
+ * "net.minecraft.server.vX_Y_RZ" build, {@link #isSupported()} returns false
+ * and callers are expected to fall back to real entities.
+ */
+public final class NmsPackets {
+    private static boolean initialized;
+    private static boolean supported;
+
+    // Player connection
+    private static Method craftPlayerGetHandle;
+    private static Field playerConnectionField;
+    private static Method sendPacketMethod;
+
+    // World / item conversion
+    private static Method craftWorldGetHandle;
+    private static Method asNmsCopy;
+    private static Constructor<?> entityItemCtor;
+    private static Method entityGetId;
+    private static Method entityGetDataWatcher;
+    private static Field motX;
+    private static Field motY;
+    private static Field motZ;
+    private static Constructor<?> armorStandCtor;
+    private static Method entitySetInvisible;
+    private static Method entitySetLocation;
+
+    // Packets
+    private static Constructor<?> spawnEntityCtor;
+    private static Constructor<?> entityMetadataCtor;
+    private static Constructor<?> entityDestroyCtor;
+    private static Constructor<?> collectCtor;
+    private static Constructor<?> spawnLivingCtor;
+    private static Constructor<?> equipmentCtor;
+    private static Constructor<?> teleportCtor;
+
+    // Fake players (resolved separately on first use)
+    private static boolean playersInitialized;
+    private static boolean playersSupported;
+    private static Object minecraftServer;
+    private static Constructor<?> gameProfileCtor;
+    private static Constructor<?> interactManagerCtor;
+    private static Constructor<?> entityPlayerCtor;
+    private static Constructor<?> playerInfoCtor;
+    private static Class<?> entityPlayerClass;
+    private static Object infoAdd;
+    private static Object infoRemove;
+    private static Constructor<?> namedSpawnCtor;
+    private static Constructor<?> headRotationCtor;
+    private static Method entitySetSneaking;
+
+    // Corpses (resolved separately on first use)
+    private static boolean corpsesInitialized;
+    private static boolean corpsesSupported;
+    private static Method humanGetProfile;
+    private static Method profileGetProperties;
+    private static Method propertiesGet;
+    private static Method propertiesRemoveAll;
+    private static Method propertiesPut;
+    private static Constructor<?> blockPositionCtor;
+    private static Constructor<?> bedCtor;
+    private static Constructor<?> relMoveCtor;
+    private static Method dataWatcherWatch;
+
+    // Effects (resolved separately on first use)
+    private static boolean effectsInitialized;
+    private static boolean effectsSupported;
+    private static Class<?> enumParticleClass;
+    private static final java.util.Map<String, Object> particleTypes = new java.util.HashMap<>();
+    private static Constructor<?> particlesCtor;
+    private static Constructor<?> breakAnimationCtor;
+    private static Constructor<?> effectBlockPositionCtor;
+
+    // Latency (resolved separately on first use)
+    private static volatile boolean pingInitialized;
+    private static Field pingField;
+    private static Method bukkitGetPing;
+
+    // Action bar (resolved separately on first use)
+    private static boolean chatInitialized;
+    private static boolean chatSupported;
+    private static Constructor<?> chatTextCtor;
+    private static Constructor<?> chatPacketCtor;
+
+    private static final int OBJECT_TYPE_ITEM = 2;
+
+    private NmsPackets() {
+    }
+
+    public static synchronized boolean isSupported() {
+        if (!initialized) {
+            initialized = true;
+            supported = init();
+        }
+        return supported;
+    }
+
+    private static boolean init() {
+        try {
+            String pkg = Bukkit.getServer().getClass().getPackage().getName();
+            String v = null;
+            for (String part : pkg.split("\\.")) {
+                if (part.startsWith("v1_")) v = part;
+            }
+            if (v == null) return false;
+            String nms = "net.minecraft.server." + v + ".";
+            String cb = "org.bukkit.craftbukkit." + v + ".";
+
+            Class<?> craftPlayer = Class.forName(cb + "entity.CraftPlayer");
+            craftPlayerGetHandle = craftPlayer.getMethod("getHandle");
+            Class<?> entityPlayer = Class.forName(nms + "EntityPlayer");
+            playerConnectionField = entityPlayer.getField("playerConnection");
+            Class<?> packetClz = Class.forName(nms + "Packet");
+            sendPacketMethod = Class.forName(nms + "PlayerConnection").getMethod("sendPacket", packetClz);
+
+            Class<?> craftWorld = Class.forName(cb + "CraftWorld");
+            craftWorldGetHandle = craftWorld.getMethod("getHandle");
+            asNmsCopy = Class.forName(cb + "inventory.CraftItemStack").getMethod("asNMSCopy", ItemStack.class);
+
+            Class<?> nmsWorld = Class.forName(nms + "World");
+            Class<?> nmsItemStack = Class.forName(nms + "ItemStack");
+            Class<?> entity = Class.forName(nms + "Entity");
+            Class<?> entityItem = Class.forName(nms + "EntityItem");
+            entityItemCtor = entityItem.getConstructor(nmsWorld, double.class, double.class, double.class, nmsItemStack);
+            entityGetId = entity.getMethod("getId");
+            entityGetDataWatcher = entity.getMethod("getDataWatcher");
+            motX = entity.getField("motX");
+            motY = entity.getField("motY");
+            motZ = entity.getField("motZ");
+            armorStandCtor = Class.forName(nms + "EntityArmorStand").getConstructor(nmsWorld, double.class, double.class, double.class);
+            entitySetInvisible = entity.getMethod("setInvisible", boolean.class);
+            entitySetLocation = entity.getMethod("setLocation", double.class, double.class, double.class, float.class, float.class);
+
+            Class<?> dataWatcher = Class.forName(nms + "DataWatcher");
+            spawnEntityCtor = Class.forName(nms + "PacketPlayOutSpawnEntity").getConstructor(entity, int.class, int.class);
+            entityMetadataCtor = Class.forName(nms + "PacketPlayOutEntityMetadata").getConstructor(int.class, dataWatcher, boolean.class);
+            entityDestroyCtor = Class.forName(nms + "PacketPlayOutEntityDestroy").getConstructor(int[].class);
+            collectCtor = Class.forName(nms + "PacketPlayOutCollect").getConstructor(int.class, int.class);
+            Class<?> entityLiving = Class.forName(nms + "EntityLiving");
+            spawnLivingCtor = Class.forName(nms + "PacketPlayOutSpawnEntityLiving").getConstructor(entityLiving);
+            equipmentCtor = Class.forName(nms + "PacketPlayOutEntityEquipment").getConstructor(int.class, int.class, nmsItemStack);
+            teleportCtor = Class.forName(nms + "PacketPlayOutEntityTeleport").getConstructor(entity);
+            return true;
+        } catch (Throwable t) {
+            Bukkit.getLogger().info("[NmsPackets] Packet entities unavailable: " + t.getClass().getSimpleName() + " - " + t.getMessage());
+            return false;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static synchronized boolean playersSupported() {
+        if (!isSupported()) return false;
+        if (playersInitialized) return playersSupported;
+        playersInitialized = true;
+        try {
+            String pkg = Bukkit.getServer().getClass().getPackage().getName();
+            String v = pkg.substring(pkg.lastIndexOf('.') + 1);
+            String nms = "net.minecraft.server." + v + ".";
+
+            minecraftServer = Bukkit.getServer().getClass().getMethod("getServer").invoke(Bukkit.getServer());
+            Class<?> gameProfile = Class.forName("com.mojang.authlib.GameProfile");
+            gameProfileCtor = gameProfile.getConstructor(java.util.UUID.class, String.class);
+            Class<?> nmsWorld = Class.forName(nms + "World");
+            Class<?> worldServer = Class.forName(nms + "WorldServer");
+            Class<?> interactManager = Class.forName(nms + "PlayerInteractManager");
+            interactManagerCtor = interactManager.getConstructor(nmsWorld);
+            entityPlayerClass = Class.forName(nms + "EntityPlayer");
+            entityPlayerCtor = entityPlayerClass.getConstructor(Class.forName(nms + "MinecraftServer"), worldServer, gameProfile, interactManager);
+
+            Class<?> info = Class.forName(nms + "PacketPlayOutPlayerInfo");
+            Class<? extends Enum> action = (Class<? extends Enum>) Class.forName(nms + "PacketPlayOutPlayerInfo$EnumPlayerInfoAction");
+            infoAdd = Enum.valueOf(action, "ADD_PLAYER");
+            infoRemove = Enum.valueOf(action, "REMOVE_PLAYER");
+            playerInfoCtor = info.getConstructor(action, java.lang.reflect.Array.newInstance(entityPlayerClass, 0).getClass());
+            namedSpawnCtor = Class.forName(nms + "PacketPlayOutNamedEntitySpawn").getConstructor(Class.forName(nms + "EntityHuman"));
+            Class<?> entity = Class.forName(nms + "Entity");
+            headRotationCtor = Class.forName(nms + "PacketPlayOutEntityHeadRotation").getConstructor(entity, byte.class);
+            entitySetSneaking = entity.getMethod("setSneaking", boolean.class);
+            playersSupported = true;
+        } catch (Throwable t) {
+            Bukkit.getLogger().info("[NmsPackets] Fake players unavailable: " + t.getClass().getSimpleName() + " - " + t.getMessage());
+            playersSupported = false;
+        }
+        return playersSupported;
+    }
+
+    private static synchronized boolean corpsesSupported() {
+        if (!playersSupported()) return false;
+        if (corpsesInitialized) return corpsesSupported;
+        corpsesInitialized = true;
+        try {
+            String pkg = Bukkit.getServer().getClass().getPackage().getName();
+            String v = pkg.substring(pkg.lastIndexOf('.') + 1);
+            String nms = "net.minecraft.server." + v + ".";
+
+            Class<?> entityHuman = Class.forName(nms + "EntityHuman");
+            humanGetProfile = entityHuman.getMethod("getProfile");
+            profileGetProperties = Class.forName("com.mojang.authlib.GameProfile").getMethod("getProperties");
+            Class<?> propertyMap = profileGetProperties.getReturnType();
+            propertiesGet = propertyMap.getMethod("get", Object.class);
+            propertiesRemoveAll = propertyMap.getMethod("removeAll", Object.class);
+            propertiesPut = propertyMap.getMethod("put", Object.class, Object.class);
+            Class<?> blockPosition = Class.forName(nms + "BlockPosition");
+            blockPositionCtor = blockPosition.getConstructor(int.class, int.class, int.class);
+            bedCtor = Class.forName(nms + "PacketPlayOutBed").getConstructor(entityHuman, blockPosition);
+            relMoveCtor = Class.forName(nms + "PacketPlayOutEntity$PacketPlayOutRelEntityMove")
+                    .getConstructor(int.class, byte.class, byte.class, byte.class, boolean.class);
+            dataWatcherWatch = Class.forName(nms + "DataWatcher").getMethod("watch", int.class, Object.class);
+            corpsesSupported = true;
+        } catch (Throwable t) {
+            Bukkit.getLogger().info("[NmsPackets] Corpses unavailable: " + t.getClass().getSimpleName() + " - " + t.getMessage());
+            corpsesSupported = false;
+        }
+        return corpsesSupported;
+    }
+
+    public static synchronized boolean effectsSupported() {
+        if (!isSupported()) return false;
+        if (effectsInitialized) return effectsSupported;
+        effectsInitialized = true;
+        try {
+            String pkg = Bukkit.getServer().getClass().getPackage().getName();
+            String v = pkg.substring(pkg.lastIndexOf('.') + 1);
+            String nms = "net.minecraft.server." + v + ".";
+
+            enumParticleClass = Class.forName(nms + "EnumParticle");
+            particlesCtor = Class.forName(nms + "PacketPlayOutWorldParticles").getConstructor(enumParticleClass, boolean.class,
+                    float.class, float.class, float.class, float.class, float.class, float.class, float.class, int.class, int[].class);
+            Class<?> blockPosition = Class.forName(nms + "BlockPosition");
+            effectBlockPositionCtor = blockPosition.getConstructor(int.class, int.class, int.class);
+            breakAnimationCtor = Class.forName(nms + "PacketPlayOutBlockBreakAnimation").getConstructor(int.class, blockPosition, int.class);
+            effectsSupported = true;
+        } catch (Throwable t) {
+            Bukkit.getLogger().info("[NmsPackets] Effect packets unavailable: " + t.getClass().getSimpleName() + " - " + t.getMessage());
+            effectsSupported = false;
+        }
+        return effectsSupported;
+    }
+
+    public static synchronized boolean actionBarSupported() {
+        if (!isSupported()) return false;
+        if (chatInitialized) return chatSupported;
+        chatInitialized = true;
+        try {
+            String pkg = Bukkit.getServer().getClass().getPackage().getName();
+            String v = pkg.substring(pkg.lastIndexOf('.') + 1);
+            String nms = "net.minecraft.server." + v + ".";
+
+            chatTextCtor = Class.forName(nms + "ChatComponentText").getConstructor(String.class);
+            chatPacketCtor = Class.forName(nms + "PacketPlayOutChat").getConstructor(Class.forName(nms + "IChatBaseComponent"), byte.class);
+            chatSupported = true;
+        } catch (Throwable t) {
+            Bukkit.getLogger().info("[NmsPackets] Action bar packets unavailable: " + t.getClass().getSimpleName() + " - " + t.getMessage());
+            chatSupported = false;
+        }
+        return chatSupported;
+    }
+
+    /**
+     * The player's smoothed round-trip latency in ms as the server measures it
+     * (keep-alive based), or -1 if it cannot be read.
+     */
+    public static int pingOf(Player player) {
+        if (!pingInitialized) initPing();
+        try {
+            if (bukkitGetPing != null) return (int) bukkitGetPing.invoke(player);
+            if (pingField != null) return pingField.getInt(craftPlayerGetHandle.invoke(player));
+        } catch (Throwable ignored) {
+        }
+        return -1;
+    }
+
+    private static synchronized void initPing() {
+        if (pingInitialized) return;
+        try {
+            bukkitGetPing = Player.class.getMethod("getPing"); // 1.17+
+        } catch (NoSuchMethodException e) {
+            if (isSupported()) {
+                try {
+                    pingField = playerConnectionField.getDeclaringClass().getField("ping");
+                } catch (NoSuchFieldException ignored) {
+                }
+            }
+        }
+        pingInitialized = true;
+    }
+
+    /**
+     * Send a prepared NMS packet to a player. Silently ignores failures.
+     */
+    public static void send(Player player, Object packet) {
+        if (packet == null || !isSupported()) return;
+        try {
+            Object handle = craftPlayerGetHandle.invoke(player);
+            Object connection = playerConnectionField.get(handle);
+            if (connection != null) sendPacketMethod.invoke(connection, packet);
+        } catch (Throwable ignored) {
+        }
+    }
+
+    /**
+     * A dropped item that exists only as packets. The NMS entity is never added
+     * to the world, so it does not tick; its constructor still draws a fresh id
+     * from the server's entity counter, which keeps it from colliding with real
+     * entities.
+     */
+    public static final class FakeItem {
+        public final int entityId;
+        private final Object spawnPacket;
+        private final Object metadataPacket;
+
+        private FakeItem(int entityId, Object spawnPacket, Object metadataPacket) {
+            this.entityId = entityId;
+            this.spawnPacket = spawnPacket;
+            this.metadataPacket = metadataPacket;
+        }
+
+        public void show(Player viewer) {
+            send(viewer, spawnPacket);
+            send(viewer, metadataPacket);
+        }
+    }
+
+    /**
+     * Build (but do not send) the packets for a client-side dropped item.
+     * @return The fake item, or null if packets are unsupported
+     */
+    public static FakeItem createItem(Location loc, ItemStack stack) {
+        if (loc == null || loc.getWorld() == null || !isSupported()) return null;
+        try {
+            Object world = craftWorldGetHandle.invoke(loc.getWorld());
+            Object nmsStack = asNmsCopy.invoke(null, stack);
+            Object entity = entityItemCtor.newInstance(world, loc.getX(), loc.getY(), loc.getZ(), nmsStack);
+            // EntityItem randomises its initial motion; keep it where we put it
+            motX.setDouble(entity, 0.0);
+            motY.setDouble(entity, 0.0);
+            motZ.setDouble(entity, 0.0);
+            int id = (int) entityGetId.invoke(entity);
+            Object spawn = spawnEntityCtor.newInstance(entity, OBJECT_TYPE_ITEM, 1);
+            Object meta = entityMetadataCtor.newInstance(id, entityGetDataWatcher.invoke(entity), true);
+            return new FakeItem(id, spawn, meta);
+        } catch (Throwable t) {
+            Bukkit.getLogger().warning("[NmsPackets] createItem failed: " + t.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * An invisible armor stand that exists only as packets, optionally wearing
+     * a block on its head. Used for moving visuals (hazards, props).
+     * {@link #moveTo} reuses the same NMS entity, so each move allocates only
+     * the teleport packet.
+     */
+    public static final class FakeStand {
+        public final int entityId;
+        private final Object entity;
+        private final Object spawnPacket;
+        private final Object equipmentPacket;
+
+        private FakeStand(int entityId, Object entity, Object spawnPacket, Object equipmentPacket) {
+            this.entityId = entityId;
+            this.entity = entity;
+            this.spawnPacket = spawnPacket;
+            this.equipmentPacket = equipmentPacket;
+        }
+
+        public void show(Player viewer) {
+            send(viewer, spawnPacket);
+            send(viewer, equipmentPacket);
+        }
+
+        /**
+         * Move the stand and build the teleport packet for viewers.
+         * @return The packet to send, or null on failure
+         */
+        public Object moveTo(double x, double y, double z, float yaw) {
+            try {
+                entitySetLocation.invoke(entity, x, y, z, yaw, 0f);
+                return teleportCtor.newInstance(entity);
+            } catch (Throwable t) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Build (but do not send) the packets for a client-side invisible armor stand.
+     * @param helmet Item to wear on the head, or null
+     * @return The fake stand, or null if packets are unsupported
+     */
+    public static FakeStand createStand(Location loc, ItemStack helmet) {
+        if (loc == null || loc.getWorld() == null || !isSupported()) return null;
+        try {
+            Object world = craftWorldGetHandle.invoke(loc.getWorld());
+            Object entity = armorStandCtor.newInstance(world, loc.getX(), loc.getY(), loc.getZ());
+            entitySetInvisible.invoke(entity, true);
+            int id = (int) entityGetId.invoke(entity);
+            Object spawn = spawnLivingCtor.newInstance(entity);
+            Object equipment = helmet == null ? null
+                    : equipmentCtor.newInstance(id, 4, asNmsCopy.invoke(null, helmet)); // 4 = head
+            return new FakeStand(id, entity, spawn, equipment);
+        } catch (Throwable t) {
+            Bukkit.getLogger().warning("[NmsPackets] createStand failed: " + t.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * A player entity that exists only as packets (replay actors). The NMS
+     * EntityPlayer is never added to the world or the player list; it only
+     * holds position/metadata so the stock packet constructors can read them.
+     * Sent to a single viewer.
+     */
+    public static final class FakePlayer {
+        public final int entityId;
+        private final Object entity;
+        private final Player viewer;
+
+        private FakePlayer(int entityId, Object entity, Player viewer) {
+            this.entityId = entityId;
+            this.entity = entity;
+            this.viewer = viewer;
+        }
+
+        /**
+         * Add to the viewer's tab data (needed for the skin) and spawn.
+         */
+        public void spawn(double x, double y, double z, float yaw, float pitch) {
+            try {
+                entitySetLocation.invoke(entity, x, y, z, yaw, pitch);
+                send(viewer, infoPacket(infoAdd));
+                send(viewer, namedSpawnCtor.newInstance(entity));
+            } catch (Throwable ignored) {
+            }
+        }
+
+        /**
+         * Drop the tab list entry; the spawned entity stays visible.
+         */
+        public void hideFromTab() {
+            send(viewer, infoPacket(infoRemove));
+        }
+
+        public void moveTo(double x, double y, double z, float yaw, float pitch, byte headYaw) {
+            try {
+                entitySetLocation.invoke(entity, x, y, z, yaw, pitch);
+                send(viewer, teleportCtor.newInstance(entity));
+                send(viewer, headRotationCtor.newInstance(entity, headYaw));
+            } catch (Throwable ignored) {
+            }
+        }
+
+        /**
+         * @param stack Held item, or null for an empty hand
+         */
+        public void setHeld(ItemStack stack) {
+            try {
+                send(viewer, equipmentCtor.newInstance(entityId, 0, stack == null ? null : asNmsCopy.invoke(null, stack)));
+            } catch (Throwable ignored) {
+            }
+        }
+
+        public void setSneaking(boolean sneaking) {
+            try {
+                entitySetSneaking.invoke(entity, sneaking);
+                send(viewer, entityMetadataCtor.newInstance(entityId, entityGetDataWatcher.invoke(entity), true));
+            } catch (Throwable ignored) {
+            }
+        }
+
+        public void despawn() {
+            send(viewer, destroyPacket(entityId));
+        }
+
+        private Object infoPacket(Object action) {
+            try {
+                Object array = java.lang.reflect.Array.newInstance(entityPlayerClass, 1);
+                java.lang.reflect.Array.set(array, 0, entity);
+                return playerInfoCtor.newInstance(action, array);
+            } catch (Throwable t) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Build a client-side player shown only to {@code viewer}. Nothing is sent
+     * until {@link FakePlayer#spawn}.
+     * @param name Display name (at most 16 characters)
+     * @return The fake player, or null if packets are unsupported
+     */
+    public static FakePlayer createPlayer(Player viewer, String name) {
+        if (viewer == null || !playersSupported()) return null;
+        try {
+            Object world = craftWorldGetHandle.invoke(viewer.getWorld());
+            Object profile = gameProfileCtor.newInstance(java.util.UUID.randomUUID(), name.length() > 16 ? name.substring(0, 16) : name);
+            Object entity = entityPlayerCtor.newInstance(minecraftServer, world, profile, interactManagerCtor.newInstance(world));
+            return new FakePlayer((int) entityGetId.invoke(entity), entity, viewer);
+        } catch (Throwable t) {
+            Bukkit.getLogger().warning("[NmsPackets] createPlayer failed: " + t.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * The player's skin ("textures" profile property), or null. Read once and
+     * cache it; the property object is immutable and can be shared.
+     */
+    public static Object texturesOf(Player player) {
+        if (player == null || !corpsesSupported()) return null;
+        try {
+            Object profile = humanGetProfile.invoke(craftPlayerGetHandle.invoke(player));
+            Object properties = profileGetProperties.invoke(profile);
+            Object textures = propertiesGet.invoke(properties, "textures");
+            for (Object property : (Iterable<?>) textures) {
+                return property;
+            }
+        } catch (Throwable ignored) {
+        }
+        return null;
+    }
+
+    /**
+     * A reusable lying player body for corpses. One NMS EntityPlayer (and so
+     * one entity id and one profile) per body; {@link #prepare} re-skins and
+     * re-positions it and builds the packets once, which are then sent as-is
+     * to every viewer. The client needs a bed block at the bed position
+     * before {@link #show}; the caller sends that (and restores it).
+     */
+    public static final class CorpseBody {
+        public final int entityId;
+        private final Object entity;
+        private final Object properties;
+        private Object tabAdd;
+        private Object tabRemove;
+        private Object spawn;
+        private Object metadata;
+        private Object bed;
+        private Object lift;
+
+        private CorpseBody(int entityId, Object entity, Object properties) {
+            this.entityId = entityId;
+            this.entity = entity;
+            this.properties = properties;
+        }
+
+        /**
+         * Re-skin and place the body, lying on the bed at the given block and
+         * lifted by {@code liftY} blocks (at most ~3.9).
+         * @param textures "textures" property from {@link #texturesOf}, or null for the default skin
+         * @return false if the packets could not be built
+         */
+        public boolean prepare(double x, double y, double z, float yaw, Object textures,
+                               int bedX, int bedY, int bedZ, double liftY) {
+            try {
+                propertiesRemoveAll.invoke(properties, "textures");
+                if (textures != null) {
+                    propertiesPut.invoke(properties, "textures", textures);
+                }
+                entitySetLocation.invoke(entity, x, y, z, yaw, 0f);
+                Object watcher = entityGetDataWatcher.invoke(entity);
+                dataWatcherWatch.invoke(watcher, 10, (byte) 0x7F); // all skin layers
+                tabAdd = infoPacket(infoAdd);
+                tabRemove = infoPacket(infoRemove);
+                spawn = namedSpawnCtor.newInstance(entity);
+                metadata = entityMetadataCtor.newInstance(entityId, watcher, true);
+                bed = bedCtor.newInstance(entity, blockPositionCtor.newInstance(bedX, bedY, bedZ));
+                lift = relMoveCtor.newInstance(entityId, (byte) 0, (byte) Math.max(-128, Math.min(127, Math.round(liftY * 32))),
+                        (byte) 0, false);
+                return true;
+            } catch (Throwable t) {
+                Bukkit.getLogger().warning("[NmsPackets] Corpse prepare failed: " + t.getMessage());
+                return false;
+            }
+        }
+
+        /**
+         * Tab entry (for the skin), spawn, lie down on the bed, lift into place.
+         */
+        public void show(Player viewer) {
+            send(viewer, tabAdd);
+            send(viewer, spawn);
+            send(viewer, metadata);
+            send(viewer, bed);
+            send(viewer, lift);
+        }
+
+        /**
+         * Drop the tab list entry once the client has loaded the skin.
+         */
+        public void hideFromTab(Player viewer) {
+            send(viewer, tabRemove);
+        }
+
+        public void hide(Player viewer) {
+            send(viewer, destroyPacket(entityId));
+            send(viewer, tabRemove);
+        }
+
+        private Object infoPacket(Object action) throws ReflectiveOperationException {
+            Object array = java.lang.reflect.Array.newInstance(entityPlayerClass, 1);
+            java.lang.reflect.Array.set(array, 0, entity);
+            return playerInfoCtor.newInstance(action, array);
+        }
+    }
+
+    /**
+     * Build a pooled corpse body. It lives in the main world, which is never
+     * unloaded, so a pooled body does not pin a reset arena world in memory.
+     * @param name Profile name (at most 16 characters)
+     * @return The body, or null if packets are unsupported
+     */
+    public static CorpseBody createCorpseBody(String name) {
+        if (!corpsesSupported()) return null;
+        try {
+            Object world = craftWorldGetHandle.invoke(Bukkit.getWorlds().get(0));
+            Object profile = gameProfileCtor.newInstance(java.util.UUID.randomUUID(), name.length() > 16 ? name.substring(0, 16) : name);
+            Object entity = entityPlayerCtor.newInstance(minecraftServer, world, profile, interactManagerCtor.newInstance(world));
+            return new CorpseBody((int) entityGetId.invoke(entity), entity, profileGetProperties.invoke(profile));
+        } catch (Throwable t) {
+            Bukkit.getLogger().warning("[NmsPackets] createCorpseBody failed: " + t.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Particle packet (long-distance flag set, so the viewer's own particle
+     * range does not hide it; the caller culls by distance instead).
+     * @param particle EnumParticle name, e.g. "CRIT" or "REDSTONE"
+     * @return The packet, or null if packets are unsupported or the particle is unknown
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Object particlesPacket(String particle, float x, float y, float z,
+                                         float offX, float offY, float offZ, float speed, int count, int... data) {
+        if (!effectsSupported()) return null;
+        try {
+            Object type;
+            synchronized (particleTypes) {
+                type = particleTypes.get(particle);
+                if (type == null) {
+                    type = Enum.valueOf((Class<? extends Enum>) enumParticleClass, particle);
+                    particleTypes.put(particle, type);
+                }
+            }
+            return particlesCtor.newInstance(type, true, x, y, z, offX, offY, offZ, speed, count, data);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    /**
+     * Block crack overlay. The client tracks one crack per breaker id, so a
+     * crack is replaced by re-sending with the same id and cleared with a
+     * stage outside 0..9.
+     */
+    public static Object blockBreakPacket(int breakerId, int x, int y, int z, int stage) {
+        if (!effectsSupported()) return null;
+        try {
+            return breakAnimationCtor.newInstance(breakerId, effectBlockPositionCtor.newInstance(x, y, z), stage);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    /**
+     * Action bar line (chat position 2). Legacy section-sign colors are kept as-is.
+     * @return The packet, or null if packets are unsupported
+     */
+    public static Object actionBarPacket(String text) {
+        if (!actionBarSupported()) return null;
+        try {
+            return chatPacketCtor.newInstance(chatTextCtor.newInstance(text), (byte) 2);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    public static Object destroyPacket(int... entityIds) {
+        if (!isSupported()) return null;
+        try {
+            return entityDestroyCtor.newInstance((Object) entityIds);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    public static Object collectPacket(int itemEntityId, int collectorEntityId) {
+        if (!isSupported()) return null;
+        try {
+            return collectCtor.newInstance(itemEntityId, collectorEntityId);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+}
@@ -4,7 +4,6 @@ import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.Location;
-import org.bukkit.World;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Color;
@@ -127,17 +126,22 @@ public final class VersionUtils {
 
     /**
      * Send an action bar message to a player.
-     * Uses Adventure (Paper) > Spigot/Bungee ACTION_BAR.
+     * Uses a cached 1.8 chat packet > Adventure (Paper) > Spigot/Bungee ACTION_BAR.
+     * Per-tick HUD lines should go through {@link com.mmhq.game.hud.ActionBarCompositor} instead.
      * @param player The player
      * @param msg The message (supports &-color codes)
      */
     public static void sendActionBar(Player player, String msg) {
         if (player == null) return;
 
-        final boolean DEBUG = true;
+        final boolean DEBUG = false;
         final String colored = ChatColor.translateAlternateColorCodes('&', msg);
 
-        if (DEBUG) Bukkit.getLogger().info("[MMHQ DEBUG] sendActionBar CALLED for " + player.getName() + " msg=" + colored);
+        Object packet = NmsPackets.actionBarPacket(colored);
+        if (packet != null) {
+            NmsPackets.send(player, packet);
+            return;
+        }
 
         // ------------------------------------------------------------
         // 1) Paper/Adventure: Player#sendActionBar(Component)
@@ -223,216 +227,4 @@ public final class VersionUtils {
         // ------------------------------------------------------------
         if (DEBUG) Bukkit.getLogger().info("[MMHQ DEBUG] ActionBar FAILED: no working method on this server build.");
     }
-
-    /**
-     * Detects the NMS version token (e.g., "v1_8_R3") from the server.
-     * Returns null if not found.
-     */
-    private static String detectNmsVersionToken() {
-        try {
-            String pkg = Bukkit.getServer().getClass().getPackage().getName();
-            for (String part : pkg.split("\\.")) {
-                if (part.startsWith("v1_")) return part;
-            }
-        } catch (Throwable ignored) {}
-        return null;
-    }
-
-    /**
-     * Spawn redstone dust particles (works on 1.8+ and modern).
-     * @param loc The location to spawn at
-     * @param count Number of particles
-     */
-    public static void spawnRedstoneDust(Location loc, int count) {
-        if (loc == null || loc.getWorld() == null) return;
-        World w = loc.getWorld();
-        count = Math.max(1, count);
-
-        // Modern (1.13+): Particle.REDSTONE with DustOptions
-        try {
-            Class<?> particleClz = Class.forName("org.bukkit.Particle");
-            Object redstone = Enum.valueOf((Class<Enum>) particleClz.asSubclass(Enum.class), "REDSTONE");
-
-            Class<?> dustOptionsClz = Class.forName("org.bukkit.Particle$DustOptions");
-            Class<?> colorClz = Class.forName("org.bukkit.Color");
-            
-            java.lang.reflect.Method fromRGB = colorClz.getMethod("fromRGB", int.class);
-            Object red = fromRGB.invoke(null, 0xFF0000);
-            
-            java.lang.reflect.Constructor<?> dustCtor = dustOptionsClz.getConstructor(colorClz, float.class);
-            Object dust = dustCtor.newInstance(red, 1.2f);
-
-            java.lang.reflect.Method spawnParticle = w.getClass()
-                    .getMethod("spawnParticle", particleClz, Location.class, int.class, double.class, double.class, double.class, double.class, Object.class);
-            spawnParticle.invoke(w, redstone, loc, count, 0.02, 0.02, 0.02, 0.0, dust);
-            return;
-        } catch (Throwable ignored) {
-        }
-
-        // Legacy (1.8.9): NMS EnumParticle.REDSTONE
-        try {
-            String v = detectNmsVersionToken();
-            if (v == null) return;
-            Class<?> enumParticleClz = Class.forName("net.minecraft.server." + v + ".EnumParticle");
-            Object redstone = Enum.valueOf((Class<Enum>) enumParticleClz.asSubclass(Enum.class), "REDSTONE");
-
-            Class<?> pktClz = Class.forName("net.minecraft.server." + v + ".PacketPlayOutWorldParticles");
-
-            // Find compatible constructor
-            java.lang.reflect.Constructor<?> ctor = null;
-            for (java.lang.reflect.Constructor<?> c : pktClz.getConstructors()) {
-                Class<?>[] params = c.getParameterTypes();
-                if (params.length >= 10 && params[0].equals(enumParticleClz)) {
-                    ctor = c;
-                    break;
-                }
-            }
-            if (ctor == null) return;
-
-            Object pkt;
-            Class<?>[] paramTypes = ctor.getParameterTypes();
-            if (paramTypes.length == 11) {
-                // (EnumParticle, boolean, x, y, z, offX, offY, offZ, speed, count, int[])
-                pkt = ctor.newInstance(redstone, true,
-                        (float) loc.getX(), (float) loc.getY(), (float) loc.getZ(),
-                        0.02f, 0.02f, 0.02f,
-                        0.0f, count,
-                        new int[0]);
-            } else {
-                // (EnumParticle, boolean, x, y, z, offX, offY, offZ, speed, count)
-                pkt = ctor.newInstance(redstone, true,
-                        (float) loc.getX(), (float) loc.getY(), (float) loc.getZ(),
-                        0.02f, 0.02f, 0.02f,
-                        0.0f, count);
-            }
-
-            for (Player p : w.getPlayers()) {
-                if (p.getLocation().distanceSquared(loc) > (64 * 64)) continue;
-                sendPacket(p, pkt);
-            }
-        } catch (Throwable ignored) {
-        }
-    }
-
-    private static void sendPacket(Player p, Object packet) throws Exception {
-        String v = detectNmsVersionToken();
-        if (v == null) throw new IllegalStateException("No NMS version token detected; cannot send NMS packet.");
-
-        Class<?> craftPlayerClz = Class.forName("org.bukkit.craftbukkit." + v + ".entity.CraftPlayer");
-        Object cp = craftPlayerClz.cast(p);
-        Object handle = craftPlayerClz.getMethod("getHandle").invoke(cp);
-
-        Object connection;
-        try {
-            connection = handle.getClass().getField("playerConnection").get(handle);
-        } catch (NoSuchFieldException e) {
-            connection = handle.getClass().getField("connection").get(handle);
-        }
-
-        java.lang.reflect.Method send = null;
-        for (java.lang.reflect.Method m : connection.getClass().getMethods()) {
-            if (m.getName().equals("sendPacket") && m.getParameterTypes().length == 1) {
-                send = m;
-                break;
-            }
-        }
-        if (send != null) send.invoke(connection, packet);
-    }
-
-    /**
-     * Show a block break animation (crack) on a block for all nearby players.
-     * @param world The world
-     * @param blockLoc The block location
-     * @param stage The crack stage (0..9, -1 to clear)
-     * @param clearAfterTicks How many ticks before auto-clearing (-1 for no auto-clear)
-     */
-    public static void showBlockCrack(World world, Location blockLoc, int stage, int clearAfterTicks) {
-        if (world == null || blockLoc == null) return;
-        java.util.concurrent.atomic.AtomicInteger ID = new java.util.concurrent.atomic.AtomicInteger(10000);
-        int entityId = ID.incrementAndGet();
-
-        for (Player p : world.getPlayers()) {
-            if (p.getLocation().distanceSquared(blockLoc) > (64 * 64)) continue;
-            sendBlockBreakPacket(p, blockLoc, entityId, stage);
-        }
-
-        if (clearAfterTicks > 0) {
-            Bukkit.getScheduler().runTaskLater(
-                    Bukkit.getPluginManager().getPlugins()[0],
-                    () -> {
-                        for (Player p : world.getPlayers()) {
-                            if (p.getLocation().distanceSquared(blockLoc) > (64 * 64)) continue;
-                            sendBlockBreakPacket(p, blockLoc, entityId, -1);
-                        }
-                    },
-                    clearAfterTicks
-            );
-        }
-    }
-
-    private static void sendBlockBreakPacket(Player p, Location loc, int entityId, int stage) {
-        try {
-            String v = detectNmsVersionToken();
-            if (v == null) return;
-
-            // CraftPlayer + handle
-            Class<?> craftPlayerClz = Class.forName("org.bukkit.craftbukkit." + v + ".entity.CraftPlayer");
-            Object craftPlayer = craftPlayerClz.cast(p);
-            Object handle = craftPlayerClz.getMethod("getHandle").invoke(craftPlayer);
-
-            Object connection;
-            try {
-                java.lang.reflect.Field pc = handle.getClass().getField("playerConnection");
-                connection = pc.get(handle);
-            } catch (NoSuchFieldException nsf) {
-                java.lang.reflect.Field c = handle.getClass().getField("connection");
-                connection = c.get(handle);
-            }
-
-            // NEW (1.17+): ClientboundBlockDestructionPacket
-            try {
-                Class<?> blockPosClz = Class.forName("net.minecraft.core.BlockPos");
-                java.lang.reflect.Constructor<?> bpCtor = blockPosClz.getConstructor(int.class, int.class, int.class);
-                Object bp = bpCtor.newInstance(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
-
-                Class<?> pktClz = Class.forName("net.minecraft.network.protocol.game.ClientboundBlockDestructionPacket");
-                Object pkt;
-                try {
-                    java.lang.reflect.Constructor<?> ctor = pktClz.getConstructor(int.class, blockPosClz, int.class);
-                    pkt = ctor.newInstance(entityId, bp, stage);
-                } catch (NoSuchMethodException e) {
-                    java.lang.reflect.Constructor<?> ctor = pktClz.getConstructor(blockPosClz, int.class, int.class);
-                    pkt = ctor.newInstance(bp, entityId, stage);
-                }
-
-                java.lang.reflect.Method sendPacket = findSendPacket(connection.getClass());
-                sendPacket.invoke(connection, pkt);
-                return;
-            } catch (ClassNotFoundException ignoredModern) {
-                // fall through to legacy
-            }
-
-            // OLD (<=1.16): PacketPlayOutBlockBreakAnimation
-            Class<?> blockPosClz = Class.forName("net.minecraft.server." + v + ".BlockPosition");
-            java.lang.reflect.Constructor<?> bpCtor = blockPosClz.getConstructor(int.class, int.class, int.class);
-            Object bp = bpCtor.newInstance(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
-
-            Class<?> pktClz = Class.forName("net.minecraft.server." + v + ".PacketPlayOutBlockBreakAnimation");
-            java.lang.reflect.Constructor<?> pktCtor = pktClz.getConstructor(int.class, blockPosClz, int.class);
-            Object pkt = pktCtor.newInstance(entityId, bp, stage);
-
-            java.lang.reflect.Method sendPacket = findSendPacket(connection.getClass());
-            sendPacket.invoke(connection, pkt);
-
-        } catch (Throwable ignored) {
-        }
-    }
-
-    private static java.lang.reflect.Method findSendPacket(Class<?> connectionClz) throws NoSuchMethodException {
-        for (java.lang.reflect.Method m : connectionClz.getMethods()) {
-            if (!m.getName().equals("sendPacket")) continue;
-            if (m.getParameterTypes().length == 1) return m;
-        }
-        throw new NoSuchMethodException("sendPacket not found");
-    }
 }
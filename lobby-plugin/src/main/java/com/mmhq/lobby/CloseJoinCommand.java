@@ -7,7 +7,7 @@ import org.bukkit.plugin.java.JavaPlugin;
 
 /**
  * Command to close joining on mm1.
- * Usage: /closejoin_mm1
+ * Usage: /closejoin_mm1 [server]
  * 
  * Use this to prevent new players from joining mm1.
  */
@@ -28,9 +28,10 @@ public class CloseJoinCommand implements CommandExecutor {
             return false;
         }
 
-        messageSender.sendCloseJoin();
-        sender.sendMessage("§c[Lobby] Sent CLOSE_JOIN to mm1 - no new players can join");
-        plugin.getLogger().info("[Lobby] Admin " + sender.getName() + " closed join on mm1");
+        GameMessageSender target = args.length > 0 ? messageSender.to(args[0]) : messageSender;
+        target.sendCloseJoin();
+        sender.sendMessage("§c[Lobby] Sent CLOSE_JOIN to " + target.targetServer() + " - no new players can join");
+        plugin.getLogger().info("[Lobby] Admin " + sender.getName() + " closed join on " + target.targetServer());
         
         return true;
     }
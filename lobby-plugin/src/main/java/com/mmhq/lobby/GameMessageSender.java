@@ -9,71 +9,126 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 
 /**
- * Sends plugin messages to mm1 server via BungeeCord's Forward channel.
- * Messages are forwarded to the "mm1" server using BungeeCord's plugin messaging API.
+ * Sends plugin messages to a game server via BungeeCord's Forward channel.
+ * Messages go to {@code game.defaultServer} from config.yml (default "mm1")
+ * unless a sender bound with {@link #to(String)} is used.
  */
 public class GameMessageSender {
 
     private final JavaPlugin plugin;
     private static final String BUNGEE_CHANNEL = "BungeeCord";
-    private static final String TARGET_SERVER = "mm1";
+    private final String targetServer;
 
     public GameMessageSender(JavaPlugin plugin) {
-        this.plugin = plugin;
+        this(plugin, plugin.getConfig().getString("game.defaultServer", "mm1"));
         // Register BungeeCord channel for forwarding
         plugin.getServer().getMessenger().registerOutgoingPluginChannel(plugin, BUNGEE_CHANNEL);
+        // Control channel straight to the proxy (status subscription)
+        plugin.getServer().getMessenger().registerOutgoingPluginChannel(plugin, Constants.PLUGIN_MESSAGE_CHANNEL_CONTROL);
+    }
+
+    private GameMessageSender(JavaPlugin plugin, String targetServer) {
+        this.plugin = plugin;
+        this.targetServer = targetServer;
     }
 
     /**
-     * Sends a PREPARE message with the specified map name to the mm1 server.
+     * A sender for {@code server} instead of the default game server.
+     */
+    public GameMessageSender to(String server) {
+        return server.equalsIgnoreCase(targetServer) ? this : new GameMessageSender(plugin, server);
+    }
+
+    public String targetServer() {
+        return targetServer;
+    }
+
+    /**
+     * Sends a PREPARE message with the specified map name to the game server.
      * This triggers a hard reset: unload active world, copy template, reload.
      */
     public void sendPrepareGame(String mapName) {
-        sendToMm1(out -> {
+        sendToGame(out -> {
             out.writeUTF("PREPARE");
             out.writeUTF(mapName);
         });
-        plugin.getLogger().info("[Lobby] Sent PREPARE for map: " + mapName + " to " + TARGET_SERVER);
+        plugin.getLogger().info("[Lobby] Sent PREPARE for map: " + mapName + " to " + targetServer);
     }
 
     /**
-     * Sends an OPEN_JOIN message to allow players to join mm1.
+     * Sends an OPEN_JOIN message to allow players to join the game server.
      */
     public void sendOpenJoin() {
-        sendToMm1(out -> out.writeUTF("OPEN_JOIN"));
-        plugin.getLogger().info("[Lobby] Sent OPEN_JOIN to " + TARGET_SERVER);
+        sendToGame(out -> out.writeUTF("OPEN_JOIN"));
+        plugin.getLogger().info("[Lobby] Sent OPEN_JOIN to " + targetServer);
     }
 
     /**
-     * Sends a CLOSE_JOIN message to prevent new players from joining mm1.
+     * Sends a CLOSE_JOIN message to prevent new players from joining the game server.
      */
     public void sendCloseJoin() {
-        sendToMm1(out -> out.writeUTF("CLOSE_JOIN"));
-        plugin.getLogger().info("[Lobby] Sent CLOSE_JOIN to " + TARGET_SERVER);
+        sendToGame(out -> out.writeUTF("CLOSE_JOIN"));
+        plugin.getLogger().info("[Lobby] Sent CLOSE_JOIN to " + targetServer);
     }
 
     /**
-     * Sends a START_MATCH message to begin the game on mm1.
+     * Sends a START_MATCH message to begin the game on the game server.
      */
     public void sendStartMatch() {
-        sendToMm1(out -> out.writeUTF("START_MATCH"));
-        plugin.getLogger().info("[Lobby] Sent START_MATCH to " + TARGET_SERVER);
+        sendToGame(out -> out.writeUTF("START_MATCH"));
+        plugin.getLogger().info("[Lobby] Sent START_MATCH to " + targetServer);
     }
 
     /**
-     * Sends a RESET_ARENA message to the mm1 server.
+     * Sends a RESET_ARENA message to the game server.
      */
     public void sendResetArena() {
-        sendToMm1(out -> out.writeUTF("RESET_ARENA"));
-        plugin.getLogger().info("[Lobby] Sent RESET_ARENA to " + TARGET_SERVER);
+        sendToGame(out -> out.writeUTF("RESET_ARENA"));
+        plugin.getLogger().info("[Lobby] Sent RESET_ARENA to " + targetServer);
     }
 
     /**
-     * Sends a STATUS_QUERY message to request game status from mm1.
+     * Sends a STATUS_QUERY message to request game status from the game server.
      */
     public void sendStatusQuery() {
-        sendToMm1(out -> out.writeUTF("STATUS_QUERY"));
-        plugin.getLogger().info("[Lobby] Sent STATUS_QUERY to " + TARGET_SERVER);
+        sendToGame(out -> out.writeUTF("STATUS_QUERY"));
+        plugin.getLogger().info("[Lobby] Sent STATUS_QUERY to " + targetServer);
+    }
+
+    /**
+     * Asks the proxy to push every game server's status to this lobby from now on,
+     * starting with a snapshot. Needs a player online to carry it.
+     */
+    public void sendStatusSubscribe() {
+        Player[] players = Bukkit.getOnlinePlayers().toArray(new Player[0]);
+        if (players.length == 0) {
+            LobbyMetrics.MESSAGES_SENT.labels("no_carrier").inc();
+            return;
+        }
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(baos);
+            out.writeUTF("STATUS_SUBSCRIBE");
+            out.flush();
+            players[0].sendPluginMessage(plugin, Constants.PLUGIN_MESSAGE_CHANNEL_CONTROL, baos.toByteArray());
+            LobbyMetrics.MESSAGES_SENT.labels("ok").inc();
+            plugin.getLogger().info("[Lobby] Subscribed to game server status");
+        } catch (Exception e) {
+            plugin.getLogger().warning("[Lobby] Failed to subscribe to status: " + e.getMessage());
+            LobbyMetrics.MESSAGES_SENT.labels("error").inc();
+        }
+    }
+
+    /**
+     * Asks the game server for a leaderboard's sidebar lines. It only answers when its
+     * version differs from {@code knownVersion} (0 = nothing cached yet).
+     */
+    public void sendLeaderboardQuery(String boardId, long knownVersion) {
+        sendToGame(out -> {
+            out.writeUTF("LEADERBOARD_QUERY");
+            out.writeUTF(boardId);
+            out.writeLong(knownVersion);
+        });
     }
 
     /**
@@ -86,13 +141,14 @@ public class GameMessageSender {
     }
 
     /**
-     * Send a message to mm1 via BungeeCord Forward channel.
+     * Send a message to the game server via BungeeCord Forward channel.
      * Format: Forward + targetServer + channelName + messageData
      */
-    private void sendToMm1(ThrowingConsumer<DataOutputStream> payloadWriter) {
+    private void sendToGame(ThrowingConsumer<DataOutputStream> payloadWriter) {
         Player[] players = Bukkit.getOnlinePlayers().toArray(new Player[0]);
         if (players.length == 0) {
             plugin.getLogger().warning("[Lobby] No online players to send message through!");
+            LobbyMetrics.MESSAGES_SENT.labels("no_carrier").inc();
             return;
         }
 
@@ -109,7 +165,7 @@ public class GameMessageSender {
             DataOutputStream msgOut = new DataOutputStream(msgBaos);
             
             msgOut.writeUTF("Forward");           // BungeeCord subchannel
-            msgOut.writeUTF(TARGET_SERVER);       // Target server name
+            msgOut.writeUTF(targetServer);       // Target server name
             msgOut.writeUTF(Constants.PLUGIN_MESSAGE_CHANNEL_CONTROL); // Our channel
             msgOut.writeShort(payload.length);   // Payload length
             msgOut.write(payload);               // Actual payload
@@ -117,9 +173,11 @@ public class GameMessageSender {
 
             // Send via BungeeCord channel
             players[0].sendPluginMessage(plugin, BUNGEE_CHANNEL, msgBaos.toByteArray());
+            LobbyMetrics.MESSAGES_SENT.labels("ok").inc();
 
         } catch (Exception e) {
             plugin.getLogger().warning("[Lobby] Failed to send message: " + e.getMessage());
+            LobbyMetrics.MESSAGES_SENT.labels("error").inc();
             e.printStackTrace();
         }
     }
@@ -0,0 +1,95 @@
+package com.mmhq.lobby;
+
+import com.mmhq.sharedapi.game.ServerStatus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latest status of every game server, as pushed by the proxy after the
+ * lobby subscribed (STATUS_SNAPSHOT / STATUS_UPDATE / STATUS_REMOVED).
+ * Read it instead of asking a game server; it is current to within one
+ * heartbeat. Main thread only.
+ */
+public class GameStatusCache {
+
+    private final Map<String, Entry> byServer = new TreeMap<>();    // by lowercase server id, so listings are ordered
+    private final List<Runnable> listeners = new ArrayList<>();
+
+    public static final class Entry {
+        final ServerStatus status;
+        final long receivedAt;
+
+        Entry(ServerStatus status, long receivedAt) {
+            this.status = status;
+            this.receivedAt = receivedAt;
+        }
+
+        public ServerStatus status() { return status; }
+
+        public long ageSeconds() {
+            return (System.currentTimeMillis() - receivedAt) / 1000L;
+        }
+    }
+
+    /**
+     * Be told after every change. Called on the main thread.
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Replace everything with a fresh snapshot.
+     */
+    public void replaceAll(Collection<ServerStatus> statuses) {
+        byServer.clear();
+        long now = System.currentTimeMillis();
+        for (ServerStatus s : statuses) {
+            byServer.put(key(s.serverId()), new Entry(s, now));
+        }
+        changed();
+    }
+
+    public void update(ServerStatus status) {
+        byServer.put(key(status.serverId()), new Entry(status, System.currentTimeMillis()));
+        changed();
+    }
+
+    public void remove(String serverId) {
+        if (byServer.remove(key(serverId)) != null) {
+            changed();
+        }
+    }
+
+    /**
+     * @return the server's entry, or null if the proxy hasn't reported it
+     */
+    public Entry get(String serverId) {
+        return byServer.get(key(serverId));
+    }
+
+    public Collection<Entry> all() {
+        return byServer.values();
+    }
+
+    public int joinableCount() {
+        int n = 0;
+        for (Entry e : byServer.values()) {
+            if (e.status.joinable() && e.status.currentPlayers() < e.status.maxPlayers()) n++;
+        }
+        return n;
+    }
+
+    private void changed() {
+        for (Runnable l : listeners) l.run();
+    }
+
+    private static String key(String serverId) {
+        return serverId.toLowerCase(Locale.ROOT);
+    }
+}
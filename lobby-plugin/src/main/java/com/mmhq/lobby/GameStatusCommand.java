@@ -1,5 +1,6 @@
 package com.mmhq.lobby;
 
+import com.mmhq.sharedapi.game.ServerStatus;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -9,10 +10,12 @@ public class GameStatusCommand implements CommandExecutor {
 
     private final JavaPlugin plugin;
     private final GameMessageSender messageSender;
+    private final GameStatusCache statusCache;
 
-    public GameStatusCommand(JavaPlugin plugin) {
+    public GameStatusCommand(JavaPlugin plugin, GameStatusCache statusCache) {
         this.plugin = plugin;
         this.messageSender = new GameMessageSender(plugin);
+        this.statusCache = statusCache;
     }
 
     @Override
@@ -22,11 +25,37 @@ public class GameStatusCommand implements CommandExecutor {
             return false;
         }
 
-        // Send a status query to mm1 server
-        messageSender.sendStatusQuery();
-        sender.sendMessage("§a[Lobby] Querying game status from mm1...");
+        // No server named: every game server the proxy has told us about
+        if (args.length == 0 && !statusCache.all().isEmpty()) {
+            sender.sendMessage("§6[Lobby] Game servers (" + statusCache.joinableCount() + " open):");
+            for (GameStatusCache.Entry e : statusCache.all()) {
+                sender.sendMessage(describe(e));
+            }
+            return true;
+        }
+
+        String server = args.length > 0 ? args[0] : messageSender.targetServer();
+        GameStatusCache.Entry entry = statusCache.get(server);
+        if (entry != null) {
+            sender.sendMessage(describe(entry));
+            return true;
+        }
+
+        // Not reported by the proxy yet: ask the game server directly (answer goes to the log)
+        GameMessageSender target = messageSender.to(server);
+        target.sendStatusQuery();
+        sender.sendMessage("§a[Lobby] No pushed status for " + server + " yet - querying it directly...");
         plugin.getLogger().info("[Lobby] Admin " + sender.getName() + " queried game status");
         
         return true;
     }
+
+    private static String describe(GameStatusCache.Entry e) {
+        ServerStatus s = e.status();
+        String phase = s.arenaState().isEmpty() ? s.state().name() : s.arenaState();
+        if ("PREPARING".equals(phase)) phase += " " + s.prepareProgress() + "%";
+        return "§e" + s.serverId() + "§7: §f" + phase + " §7on §b" + s.mapName()
+                + " §7(" + s.currentPlayers() + "/" + s.maxPlayers() + (s.joinable() ? ", §ajoinable§7" : "")
+                + ", " + e.ageSeconds() + "s ago)";
+    }
 }
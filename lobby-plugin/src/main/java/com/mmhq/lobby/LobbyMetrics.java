@@ -0,0 +1,61 @@
+package com.mmhq.lobby;
+
+import com.mmhq.sharedapi.metrics.Counter;
+import com.mmhq.sharedapi.metrics.Gauge;
+import com.mmhq.sharedapi.metrics.MetricsHttpServer;
+import com.mmhq.sharedapi.metrics.MetricsRegistry;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.IOException;
+
+/**
+ * Lobby metrics, served at {@code http://<metrics.host>:<metrics.port>/metrics}.
+ */
+public final class LobbyMetrics {
+    public static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+    public static final Gauge PLAYERS_ONLINE = REGISTRY.gauge(
+            "mmhq_lobby_players_online", "Players on the lobby server");
+    public static final Counter MESSAGES_SENT = REGISTRY.counter(
+            "mmhq_lobby_messages_sent_total", "Control messages forwarded to the game server, by result", "result");
+    public static final Counter STATUS_RESPONSES = REGISTRY.counter(
+            "mmhq_lobby_status_responses_total", "Status updates received for the game server");
+    public static final Gauge GAME_PLAYERS = REGISTRY.gauge(
+            "mmhq_lobby_game_players", "Player count last reported by the game server");
+
+    private static volatile long lastStatusNanos;
+    private static MetricsHttpServer server;
+
+    static {
+        REGISTRY.gauge("mmhq_lobby_status_age_seconds", "Seconds since the last game status update (-1 if none)",
+                () -> lastStatusNanos == 0L ? -1.0 : (System.nanoTime() - lastStatusNanos) / 1.0e9);
+    }
+
+    private LobbyMetrics() {
+    }
+
+    public static void statusReceived(int gamePlayers) {
+        lastStatusNanos = System.nanoTime();
+        STATUS_RESPONSES.inc();
+        GAME_PLAYERS.set(gamePlayers);
+    }
+
+    public static void start(JavaPlugin plugin) {
+        if (!plugin.getConfig().getBoolean("metrics.enabled", true)) return;
+        String host = plugin.getConfig().getString("metrics.host", "127.0.0.1");
+        int port = plugin.getConfig().getInt("metrics.port", 9322);
+        try {
+            server = MetricsHttpServer.start(REGISTRY, host, port);
+            plugin.getLogger().info("[Metrics] Serving http://" + host + ":" + port + "/metrics");
+        } catch (IOException e) {
+            plugin.getLogger().warning("[Metrics] Could not bind " + host + ":" + port + " - metrics endpoint disabled: " + e.getMessage());
+        }
+    }
+
+    public static void stop() {
+        if (server != null) {
+            server.close();
+            server = null;
+        }
+    }
+}
@@ -6,28 +6,43 @@ import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
 /**
- * Handles player join/quit to manage scoreboards.
+ * Handles player join/quit to manage scoreboards, and subscribes to pushed
+ * game status when the first player arrives (the proxy can only push to a
+ * lobby somebody is on, so an empty lobby's subscription lapses).
  */
 public class LobbyPlayerListener implements Listener {
 
     private final LobbyScoreboardManager scoreboardManager;
+    private final GameMessageSender messageSender;
 
-    public LobbyPlayerListener(LobbyScoreboardManager scoreboardManager) {
+    public LobbyPlayerListener(LobbyScoreboardManager scoreboardManager, GameMessageSender messageSender) {
         this.scoreboardManager = scoreboardManager;
+        this.messageSender = messageSender;
     }
 
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
+        LobbyMetrics.PLAYERS_ONLINE.set(event.getPlayer().getServer().getOnlinePlayers().size());
         // Give scoreboard to joining player after a short delay (let them fully load)
         event.getPlayer().getServer().getScheduler().runTaskLater(
             event.getPlayer().getServer().getPluginManager().getPlugin("LobbyPlugin"),
             () -> scoreboardManager.updateScoreboard(event.getPlayer()),
             10L // 0.5 second delay
         );
+        if (event.getPlayer().getServer().getOnlinePlayers().size() == 1) {
+            // Plugin channels aren't registered for the player straight away
+            event.getPlayer().getServer().getScheduler().runTaskLater(
+                event.getPlayer().getServer().getPluginManager().getPlugin("LobbyPlugin"),
+                messageSender::sendStatusSubscribe,
+                20L
+            );
+        }
     }
 
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
+        // Quitting player is still counted during the event
+        LobbyMetrics.PLAYERS_ONLINE.set(event.getPlayer().getServer().getOnlinePlayers().size() - 1);
         scoreboardManager.removeScoreboard(event.getPlayer());
     }
 }
@@ -3,6 +3,7 @@ package com.mmhq.lobby;
 import com.google.common.io.ByteArrayDataInput;
 import com.google.common.io.ByteStreams;
 import com.mmhq.sharedapi.Constants;
+import com.mmhq.sharedapi.game.ServerStatus;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.plugin.messaging.PluginMessageListener;
@@ -10,24 +11,30 @@ import org.bukkit.plugin.messaging.PluginMessageListener;
 public class LobbyPlugin extends JavaPlugin implements PluginMessageListener {
 
     private GameMessageSender messageSender;
+    private final GameStatusCache statusCache = new GameStatusCache();
     private LobbyScoreboardManager scoreboardManager;
 
     @Override
     public void onEnable() {
         getLogger().info("LobbyPlugin enabled!");
+
+        // Prometheus-format metrics endpoint (metrics.host / metrics.port in config.yml)
+        LobbyMetrics.start(this);
         
         // Initialize message sender (registers BungeeCord channel internally)
         messageSender = new GameMessageSender(this);
         
         // Initialize scoreboard manager
-        scoreboardManager = new LobbyScoreboardManager(this, messageSender);
+        scoreboardManager = new LobbyScoreboardManager(this, messageSender, statusCache);
         
         // Register incoming channel for responses from mm1 (via BungeeCord Forward)
         getServer().getMessenger().registerIncomingPluginChannel(this, "BungeeCord", this);
+        // Messages sent by the proxy itself (pushed status, prepare progress)
+        getServer().getMessenger().registerIncomingPluginChannel(this, Constants.PLUGIN_MESSAGE_CHANNEL_CONTROL, this);
         
         // Register commands
         getCommand("prepare_mm1").setExecutor(new PrepareGameCommand(this));
-        getCommand("game_status").setExecutor(new GameStatusCommand(this));
+        getCommand("game_status").setExecutor(new GameStatusCommand(this, statusCache));
         getCommand("reset_game").setExecutor(new ResetGameCommand(this));
         
         // Register new arena control commands
@@ -39,13 +46,17 @@ public class LobbyPlugin extends JavaPlugin implements PluginMessageListener {
         }
         
         // Register player listener for scoreboard management
-        getServer().getPluginManager().registerEvents(new LobbyPlayerListener(scoreboardManager), this);
+        getServer().getPluginManager().registerEvents(new LobbyPlayerListener(scoreboardManager, messageSender), this);
         
-        // Start polling mm1 for status (every 3 seconds = 60 ticks)
+        // Status is pushed by the proxy; leaderboards are still polled (every 3 seconds = 60 ticks)
         scoreboardManager.startPolling(60L);
+
+        // Reloaded with players on: subscribe now rather than on the next first join
+        if (!Bukkit.getOnlinePlayers().isEmpty()) {
+            Bukkit.getScheduler().runTaskLater(this, messageSender::sendStatusSubscribe, 20L);
+        }
         
         getLogger().info("Registered commands: /prepare_mm1, /game_status, /reset_game");
-        getLogger().info("Scoreboard polling started - status will update every 3 seconds");
     }
 
     @Override
@@ -54,11 +65,23 @@ public class LobbyPlugin extends JavaPlugin implements PluginMessageListener {
         if (scoreboardManager != null) {
             scoreboardManager.stopPolling();
         }
+        LobbyMetrics.stop();
         getLogger().info("LobbyPlugin disabled!");
     }
 
     @Override
     public void onPluginMessageReceived(String channel, org.bukkit.entity.Player player, byte[] message) {
+        // Sent straight to us by the proxy
+        if (channel.equals(Constants.PLUGIN_MESSAGE_CHANNEL_CONTROL)) {
+            try {
+                ByteArrayDataInput in = ByteStreams.newDataInput(message);
+                handleGameMessage(in.readUTF(), in);
+            } catch (Exception e) {
+                getLogger().warning("[Lobby] Error parsing message from proxy: " + e.getMessage());
+            }
+            return;
+        }
+
         // Handle responses from mm1 via BungeeCord
         if (!channel.equals("BungeeCord")) {
             return;
@@ -79,26 +102,66 @@ public class LobbyPlugin extends JavaPlugin implements PluginMessageListener {
                 String command = payloadIn.readUTF();
                 
                 getLogger().info("[Lobby] Received from mm1: " + command);
-
-                if ("STATUS_RESPONSE".equals(command)) {
-                    String statusData = payloadIn.readUTF();
-                    getLogger().info("[Lobby] Status data: " + statusData);
-                    
-                    // Update scoreboard with new status
-                    if (scoreboardManager != null) {
-                        scoreboardManager.updateStatus(statusData);
-                    }
-                }
+                handleGameMessage(command, payloadIn);
             }
         } catch (Exception e) {
             getLogger().warning("[Lobby] Error parsing message from mm1: " + e.getMessage());
         }
     }
 
+    private void handleGameMessage(String command, ByteArrayDataInput payloadIn) {
+        if ("STATUS_RESPONSE".equals(command)) {
+            String statusData = payloadIn.readUTF();
+            getLogger().info("[Lobby] Status data: " + statusData);
+            // Same status a heartbeat carries, so lobbies without a proxy subscription stay current too
+            try {
+                statusCache.update(ServerStatus.fromPayload(payloadIn.readUTF()));
+            } catch (IllegalStateException e) {
+                // older game server: status line only
+            }
+        } else if ("STATUS_SNAPSHOT".equals(command)) {
+            int count = payloadIn.readUnsignedShort();
+            java.util.List<ServerStatus> statuses = new java.util.ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                statuses.add(ServerStatus.fromPayload(payloadIn.readUTF()));
+            }
+            statusCache.replaceAll(statuses);
+        } else if ("STATUS_UPDATE".equals(command)) {
+            statusCache.update(ServerStatus.fromPayload(payloadIn.readUTF()));
+        } else if ("STATUS_REMOVED".equals(command)) {
+            statusCache.remove(payloadIn.readUTF());
+        } else if ("LEADERBOARD_RESPONSE".equals(command)) {
+            String boardId = payloadIn.readUTF();
+            String title = payloadIn.readUTF();
+            long version = payloadIn.readLong();
+            int count = payloadIn.readUnsignedByte();
+            java.util.List<String> lines = new java.util.ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                lines.add(payloadIn.readUTF());
+            }
+            if (scoreboardManager != null) {
+                scoreboardManager.updateLeaderboard(boardId, title, version, lines);
+            }
+        } else if ("PREPARE_PROGRESS".equals(command)) {
+            String serverId = payloadIn.readUTF();
+            String mapId = payloadIn.readUTF();
+            String step = payloadIn.readUTF();
+            int pct = payloadIn.readUnsignedByte();
+            int etaSeconds = payloadIn.readInt();
+            if (scoreboardManager != null && serverId.equalsIgnoreCase(messageSender.targetServer())) {
+                scoreboardManager.updatePrepareProgress(step, etaSeconds);
+            }
+        }
+    }
+
     public GameMessageSender getMessageSender() {
         return messageSender;
     }
 
+    public GameStatusCache getStatusCache() {
+        return statusCache;
+    }
+
     public LobbyScoreboardManager getScoreboardManager() {
         return scoreboardManager;
     }
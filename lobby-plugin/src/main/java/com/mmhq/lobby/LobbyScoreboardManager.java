@@ -1,5 +1,6 @@
 package com.mmhq.lobby;
 
+import com.mmhq.sharedapi.game.ServerStatus;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
@@ -11,29 +12,50 @@ import org.bukkit.scoreboard.Score;
 import org.bukkit.scoreboard.Scoreboard;
 import org.bukkit.scoreboard.ScoreboardManager;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Manages the lobby scoreboard that displays mm1 game status.
- * Polls mm1 periodically and updates all players' scoreboards.
+ * Status comes from the {@link GameStatusCache} the proxy pushes into, and
+ * every change redraws the scoreboards right away.
+ *
+ * The sidebar also shows the top of one leaderboard, rotating through the
+ * boards. mm1 renders those lines and only resends a board when its
+ * version changed, so an idle leaderboard costs one small query per poll.
  */
 public class LobbyScoreboardManager {
 
     private final JavaPlugin plugin;
     private final GameMessageSender messageSender;
+    private final GameStatusCache statusCache;
     private BukkitTask pollTask;
 
-    // Cached status from mm1
+    // Status of mm1, refreshed from the cache
     private String currentState = "UNKNOWN";
     private String currentMap = "---";
     private int playerCount = 0;
     private int maxPlayers = 16;
+    private int preparePct = -1;            // -1 unless a PREPARE is under way
+    private int prepareEtaSeconds = -1;     // from the proxy's PREPARE_PROGRESS
+
+    // Leaderboards shown in rotation, cached from mm1 by board id
+    private static final String[] BOARDS = {"wins", "murderer", "detective", "winrate"};
+    private static final int POLLS_PER_BOARD = 5;
+    private final Map<String, CachedBoard> boards = new HashMap<>();
+    private int boardIndex = 0;
+    private int pollsOnBoard = 0;
 
-    public LobbyScoreboardManager(JavaPlugin plugin, GameMessageSender messageSender) {
+    public LobbyScoreboardManager(JavaPlugin plugin, GameMessageSender messageSender, GameStatusCache statusCache) {
         this.plugin = plugin;
         this.messageSender = messageSender;
+        this.statusCache = statusCache;
+        statusCache.addListener(this::onStatusChanged);
     }
 
     /**
-     * Start polling mm1 for status updates.
+     * Start polling mm1 for leaderboards (status is pushed, not polled).
      * @param intervalTicks How often to poll (20 ticks = 1 second)
      */
     public void startPolling(long intervalTicks) {
@@ -44,13 +66,16 @@ public class LobbyScoreboardManager {
         pollTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
             // Only poll if there are players online to send through
             if (!Bukkit.getOnlinePlayers().isEmpty()) {
-                messageSender.sendStatusQuery();
+                rotateBoard();
+                String board = BOARDS[boardIndex];
+                CachedBoard cached = boards.get(board);
+                messageSender.sendLeaderboardQuery(board, cached != null ? cached.version : 0L);
             }
             // Update scoreboards for all players
             updateAllScoreboards();
         }, 20L, intervalTicks);
 
-        plugin.getLogger().info("[Lobby] Started status polling every " + (intervalTicks / 20) + " seconds");
+        plugin.getLogger().info("[Lobby] Started leaderboard polling every " + (intervalTicks / 20) + " seconds");
     }
 
     /**
@@ -64,35 +89,53 @@ public class LobbyScoreboardManager {
     }
 
     /**
-     * Update the cached status from mm1 response.
-     * Expected format: "STATE:mapName:playerCount:maxPlayers"
-     * Example: "WAITING:Subway:3:16"
+     * Pick up mm1's entry after the cache changed and redraw.
      */
-    public void updateStatus(String statusData) {
-        plugin.getLogger().info("[Lobby] Received status update: " + statusData);
-        
-        String[] parts = statusData.split(":");
-        if (parts.length >= 1) {
-            currentState = parts[0];
-        }
-        if (parts.length >= 2) {
-            currentMap = parts[1].isEmpty() ? "---" : parts[1];
-        }
-        if (parts.length >= 3) {
-            try {
-                playerCount = Integer.parseInt(parts[2]);
-            } catch (NumberFormatException ignored) {}
+    private void onStatusChanged() {
+        GameStatusCache.Entry entry = statusCache.get(messageSender.targetServer());
+        if (entry == null) {
+            currentState = "UNKNOWN";
+            preparePct = -1;
+        } else {
+            ServerStatus s = entry.status();
+            currentState = s.arenaState().isEmpty() ? s.state().name() : s.arenaState();
+            currentMap = s.mapName().isEmpty() ? "---" : s.mapName();
+            playerCount = s.currentPlayers();
+            maxPlayers = s.maxPlayers();
+            preparePct = "PREPARING".equals(currentState) ? s.prepareProgress() : -1;
+            LobbyMetrics.statusReceived(playerCount);
         }
-        if (parts.length >= 4) {
-            try {
-                maxPlayers = Integer.parseInt(parts[3]);
-            } catch (NumberFormatException ignored) {}
+        if (preparePct < 0) {
+            prepareEtaSeconds = -1;
         }
+        updateAllScoreboards();
+    }
 
-        // Immediately update all scoreboards
+    /**
+     * The proxy's estimate for a PREPARE on mm1 (progress itself comes with
+     * the pushed status). Steps other than STARTED / PROGRESS end it.
+     */
+    public void updatePrepareProgress(String step, int etaSeconds) {
+        prepareEtaSeconds = "STARTED".equals(step) || "PROGRESS".equals(step) ? etaSeconds : -1;
         updateAllScoreboards();
     }
 
+    /**
+     * Store a leaderboard's pre-rendered lines from mm1.
+     */
+    public void updateLeaderboard(String boardId, String title, long version, List<String> lines) {
+        boards.put(boardId, new CachedBoard(title, version, lines));
+        if (boardId.equals(BOARDS[boardIndex])) {
+            updateAllScoreboards();
+        }
+    }
+
+    private void rotateBoard() {
+        if (++pollsOnBoard < POLLS_PER_BOARD) return;
+        pollsOnBoard = 0;
+        boardIndex = (boardIndex + 1) % BOARDS.length;
+    }
+
     /**
      * Update scoreboards for all online players.
      */
@@ -116,7 +159,7 @@ public class LobbyScoreboardManager {
         obj.setDisplayName(ChatColor.GOLD + "" + ChatColor.BOLD + "Murder Mystery");
         obj.setDisplaySlot(DisplaySlot.SIDEBAR);
 
-        int score = 10;
+        int score = 15;
 
         // Header spacer
         setScore(obj, ChatColor.DARK_GRAY + "---------------", score--);
@@ -139,15 +182,33 @@ public class LobbyScoreboardManager {
 
         // Instructions based on state
         if ("WAITING".equals(currentState) || "COUNTDOWN".equals(currentState)) {
-            setScore(obj, ChatColor.YELLOW + "» /server mm1 to join!", score--);
+            setScore(obj, ChatColor.YELLOW + "» /server " + messageSender.targetServer() + " to join!", score--);
         } else if ("IN_PROGRESS".equals(currentState)) {
             setScore(obj, ChatColor.RED + "Game in progress...", score--);
+        } else if ("PREPARING".equals(currentState) && preparePct >= 0) {
+            setScore(obj, ChatColor.AQUA + "Preparing map... " + preparePct + "%"
+                    + (prepareEtaSeconds > 0 ? " (~" + prepareEtaSeconds + "s)" : ""), score--);
         } else if ("IDLE".equals(currentState)) {
             setScore(obj, ChatColor.GRAY + "No game running", score--);
         } else {
             setScore(obj, ChatColor.GRAY + "Checking status...", score--);
         }
 
+        // Other game servers open for players
+        if (statusCache.all().size() > 1) {
+            setScore(obj, ChatColor.WHITE + "Open games: " + ChatColor.GREEN + statusCache.joinableCount(), score--);
+        }
+
+        // Leaderboard (top entries of the board currently in rotation)
+        CachedBoard top = boards.get(BOARDS[boardIndex]);
+        if (top != null && !top.lines.isEmpty()) {
+            setScore(obj, "  ", score--);
+            setScore(obj, ChatColor.GOLD + "Top " + top.title, score--);
+            for (String line : top.lines) {
+                setScore(obj, line, score--);
+            }
+        }
+
         // Footer spacer
         setScore(obj, ChatColor.DARK_GRAY + "---------------" + ChatColor.RESET, score--);
 
@@ -184,11 +245,24 @@ public class LobbyScoreboardManager {
             case "PREGAME": return ChatColor.AQUA;
             case "IN_PROGRESS": return ChatColor.GREEN;
             case "POST_GAME": return ChatColor.LIGHT_PURPLE;
+            case "PREPARING": return ChatColor.AQUA;
             case "RESET": return ChatColor.RED;
             default: return ChatColor.WHITE;
         }
     }
 
+    private static final class CachedBoard {
+        final String title;
+        final long version;
+        final List<String> lines;
+
+        CachedBoard(String title, long version, List<String> lines) {
+            this.title = title;
+            this.version = version;
+            this.lines = lines;
+        }
+    }
+
     // Getters for current status
     public String getCurrentState() { return currentState; }
     public String getCurrentMap() { return currentMap; }
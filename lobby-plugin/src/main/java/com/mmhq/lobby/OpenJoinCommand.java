@@ -7,7 +7,7 @@ import org.bukkit.plugin.java.JavaPlugin;
 
 /**
  * Command to open joining on mm1.
- * Usage: /openjoin_mm1
+ * Usage: /openjoin_mm1 [server]
  * 
  * After PREPARE completes, use this to allow players to join mm1.
  */
@@ -28,9 +28,10 @@ public class OpenJoinCommand implements CommandExecutor {
             return false;
         }
 
-        messageSender.sendOpenJoin();
-        sender.sendMessage("§a[Lobby] Sent OPEN_JOIN to mm1 - players can now /server mm1");
-        plugin.getLogger().info("[Lobby] Admin " + sender.getName() + " opened join on mm1");
+        GameMessageSender target = args.length > 0 ? messageSender.to(args[0]) : messageSender;
+        target.sendOpenJoin();
+        sender.sendMessage("§a[Lobby] Sent OPEN_JOIN to " + target.targetServer() + " - players can now /server " + target.targetServer());
+        plugin.getLogger().info("[Lobby] Admin " + sender.getName() + " opened join on " + target.targetServer());
         
         return true;
     }
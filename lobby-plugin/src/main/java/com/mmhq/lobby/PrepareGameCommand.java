@@ -7,9 +7,9 @@ import org.bukkit.plugin.java.JavaPlugin;
 
 /**
  * Command to prepare a game on mm1 with a specific map.
- * Usage: /prepare_mm1 <map>
+ * Usage: /prepare_mm1 <map> [server]
  * 
- * This sends a PREPARE message to mm1 which triggers:
+ * This sends a PREPARE message to the game server (default: game.defaultServer) which triggers:
  * 1. Kick all players to lobby
  * 2. Unload active world
  * 3. Copy template world to active
@@ -35,7 +35,7 @@ public class PrepareGameCommand implements CommandExecutor {
         }
 
         if (args.length < 1) {
-            sender.sendMessage("§eUsage: /prepare_mm1 <map>");
+            sender.sendMessage("§eUsage: /prepare_mm1 <map> [server]");
             sender.sendMessage("§eValid maps: AncientTomb, Subway, HypixelWorld");
             return false;
         }
@@ -48,11 +48,12 @@ public class PrepareGameCommand implements CommandExecutor {
         }
 
         // Use the new PREPARE message (triggers hard reset)
-        messageSender.sendPrepareGame(mapName);
-        sender.sendMessage("§a[Lobby] Sent PREPARE for map: " + mapName);
-        sender.sendMessage("§7The mm1 server will clone the template world and enter WAITING state.");
-        sender.sendMessage("§7Use /openjoin_mm1 to allow players to join when ready.");
-        plugin.getLogger().info("[Lobby] Admin " + sender.getName() + " sent PREPARE for map: " + mapName);
+        GameMessageSender target = args.length > 1 ? messageSender.to(args[1]) : messageSender;
+        target.sendPrepareGame(mapName);
+        sender.sendMessage("§a[Lobby] Sent PREPARE for map: " + mapName + " to " + target.targetServer());
+        sender.sendMessage("§7The " + target.targetServer() + " server will clone the template world and enter WAITING state.");
+        sender.sendMessage("§7Use /openjoin_mm1 " + target.targetServer() + " to allow players to join when ready.");
+        plugin.getLogger().info("[Lobby] Admin " + sender.getName() + " sent PREPARE for map: " + mapName + " to " + target.targetServer());
         
         return true;
     }
@@ -22,10 +22,11 @@ public class ResetGameCommand implements CommandExecutor {
             return false;
         }
 
-        // Send reset command to mm1
-        messageSender.sendResetArena();
-        sender.sendMessage("§a[Lobby] Sent reset command to mm1");
-        plugin.getLogger().info("[Lobby] Admin " + sender.getName() + " reset the game arena");
+        // Send reset command to the game server (the default one unless named)
+        GameMessageSender target = args.length > 0 ? messageSender.to(args[0]) : messageSender;
+        target.sendResetArena();
+        sender.sendMessage("§a[Lobby] Sent reset command to " + target.targetServer());
+        plugin.getLogger().info("[Lobby] Admin " + sender.getName() + " reset the game arena on " + target.targetServer());
         
         return true;
     }
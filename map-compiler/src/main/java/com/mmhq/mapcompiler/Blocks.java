@@ -0,0 +1,30 @@
+package com.mmhq.mapcompiler;
+
+/**
+ * 1.8 block solidity by id, mirroring Bukkit's {@code Material.isSolid()}
+ * so the compiler agrees with the live spawn checks.
+ */
+final class Blocks {
+    private static final boolean[] SOLID = new boolean[4096];
+
+    static {
+        int[] solid = {
+                1, 2, 3, 4, 5, 7, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 29, 33, 34, 35,
+                36, 41, 42, 43, 44, 45, 46, 47, 48, 49, 52, 53, 54, 56, 57, 58, 60, 61, 62, 63, 64, 67, 68,
+                70, 71, 72, 73, 74, 79, 80, 81, 82, 84, 85, 86, 87, 88, 89, 91, 92, 95, 96, 97, 98, 99, 100,
+                101, 102, 103, 107, 108, 109, 110, 112, 113, 114, 116, 117, 118, 120, 121, 122, 123, 124,
+                125, 126, 128, 129, 130, 133, 134, 135, 136, 137, 138, 139, 145, 146, 147, 148,
+                149, 150, 151, 152, 153, 154, 155, 156, 158, 159, 160, 161, 162, 163, 164, 165, 166, 167,
+                168, 169, 170, 172, 173, 174, 176, 177, 178, 179, 180, 181, 182, 183, 184, 185, 186, 187,
+                188, 189, 190, 191, 192, 193, 194, 195, 196, 197
+        };
+        for (int id : solid) SOLID[id] = true;
+    }
+
+    private Blocks() {
+    }
+
+    static boolean isSolid(int id) {
+        return id > 0 && id < SOLID.length && SOLID[id];
+    }
+}
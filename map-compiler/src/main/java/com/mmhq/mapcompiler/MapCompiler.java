@@ -0,0 +1,354 @@
+package com.mmhq.mapcompiler;
+
+import com.mmhq.sharedapi.mappack.MapPack;
+import com.mmhq.sharedapi.mappack.MapPackFormat;
+import com.mmhq.sharedapi.mappack.SpawnOrder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Offline map compiler: turns template worlds into {@code .mmpack} files.
+ *
+ * <pre>
+ * java -jar map-compiler.jar &lt;config.yml&gt; &lt;worldsDir&gt; &lt;outDir&gt; [mapId...] [--margin N]
+ * </pre>
+ *
+ * For every map in the config's {@code maps} section (or just the ones
+ * named) it reads {@code <worldsDir>/<templateWorld>/region/*.mca}, then
+ * works out everything the game plugin would otherwise discover at runtime:
+ * <ul>
+ *   <li>bounds - the box around all non-air blocks, optionally clamped to
+ *       {@code N} blocks around the configured points</li>
+ *   <li>a solid-block bitset over the bounds</li>
+ *   <li>validated spawns (raised out of blocks the same way the live spawn
+ *       table does) in {@link SpawnOrder} assignment order</li>
+ *   <li>walkable cells - free feet and head over a solid floor, reachable
+ *       on foot from a spawn (step up 1, drop at most 3)</li>
+ *   <li>gold candidates on a {@link MapPackFormat#GOLD_GRID} grid of walkable cells</li>
+ *   <li>the chunk footprint</li>
+ * </ul>
+ * Copy the packs into {@code plugins/MMHQMurderGame/maps/}; maps without a pack keep working as before.
+ */
+public final class MapCompiler {
+    private static final int MAX_STEP_UP = 1;
+    private static final int MAX_DROP = 3;
+
+    private final Path worldsDir;
+    private final Path outDir;
+    private final int margin;
+
+    private MapCompiler(Path worldsDir, Path outDir, int margin) {
+        this.worldsDir = worldsDir;
+        this.outDir = outDir;
+        this.margin = margin;
+    }
+
+    public static void main(String[] args) {
+        List<String> positional = new ArrayList<>();
+        int margin = -1;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--margin") && i + 1 < args.length) {
+                margin = Integer.parseInt(args[++i]);
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        if (positional.size() < 3) {
+            System.err.println("Usage: map-compiler <config.yml> <worldsDir> <outDir> [mapId...] [--margin N]");
+            System.exit(2);
+            return;
+        }
+        Set<String> only = new HashSet<>();
+        for (String id : positional.subList(3, positional.size())) only.add(id.toLowerCase(Locale.ROOT));
+
+        int failed = 0;
+        try {
+            List<MapConfigReader.MapEntry> maps = MapConfigReader.read(Paths.get(positional.get(0)));
+            Path outDir = Paths.get(positional.get(2));
+            Files.createDirectories(outDir);
+            MapCompiler compiler = new MapCompiler(Paths.get(positional.get(1)), outDir, margin);
+            for (MapConfigReader.MapEntry map : maps) {
+                if (!only.isEmpty() && !only.contains(map.id.toLowerCase(Locale.ROOT))) continue;
+                try {
+                    compiler.compile(map);
+                } catch (IOException | RuntimeException e) {
+                    failed++;
+                    System.err.println("[" + map.id + "] FAILED: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot read config: " + e.getMessage());
+            System.exit(1);
+        }
+        System.exit(failed == 0 ? 0 : 1);
+    }
+
+    void compile(MapConfigReader.MapEntry map) throws IOException {
+        long start = System.nanoTime();
+        TemplateWorld world = TemplateWorld.load(worldsDir.resolve(map.templateWorld));
+        if (world.isEmpty()) {
+            throw new IOException("template world " + map.templateWorld + " has no blocks");
+        }
+
+        // ===== Bounds =====
+        int[] box = blockBounds(world);
+        List<double[]> points = new ArrayList<>(map.spawns);
+        points.add(map.waiting);
+        if (margin >= 0) {
+            int[] around = pointBounds(points, margin);
+            for (int i = 0; i < 3; i++) {
+                box[i] = Math.max(box[i], around[i]);
+                box[i + 3] = Math.min(box[i + 3], around[i + 3]);
+            }
+        }
+        // Spawns must be inside, with room for a head above the tallest one
+        int[] spawnBox = pointBounds(points, 0);
+        for (int i = 0; i < 3; i++) {
+            box[i] = Math.min(box[i], spawnBox[i]);
+            box[i + 3] = Math.max(box[i + 3], spawnBox[i + 3]);
+        }
+        box[1] = Math.max(0, box[1]);
+        box[4] = Math.min(TemplateWorld.HEIGHT - 1, box[4] + 2);
+        int minX = box[0], minY = box[1], minZ = box[2];
+        int sizeX = box[3] - minX + 1, sizeY = box[4] - minY + 1, sizeZ = box[5] - minZ + 1;
+        long cells = (long) sizeX * sizeY * sizeZ;
+
+        // ===== Occupancy =====
+        long[] solid = new long[MapPack.words(cells)];
+        for (int y = 0; y < sizeY; y++) {
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++) {
+                    if (Blocks.isSolid(world.typeId(minX + x, minY + y, minZ + z))) {
+                        set(solid, ((long) y * sizeZ + z) * sizeX + x);
+                    }
+                }
+            }
+        }
+
+        // ===== Spawns =====
+        int n = map.spawns.size();
+        double[] sx = new double[n];
+        double[] sy = new double[n];
+        double[] sz = new double[n];
+        int corrected = 0;
+        for (int i = 0; i < n; i++) {
+            double[] p = map.spawns.get(i);
+            sx[i] = p[0];
+            sy[i] = p[1];
+            sz[i] = p[2];
+            int bx = floor(p[0]);
+            int bz = floor(p[2]);
+            int feet = floor(p[1]);
+            if (isFree(world, bx, feet, bz)) continue;
+            int fixed = -1;
+            for (int up = 1; up <= MapPackFormat.MAX_SPAWN_RAISE && fixed < 0; up++) {
+                if (isFree(world, bx, feet + up, bz)) fixed = feet + up;
+            }
+            if (fixed < 0) fixed = highest(world, bx, bz) + 1;
+            sy[i] = fixed + (p[1] - feet);
+            corrected++;
+            System.out.println("[" + map.id + "] spawn #" + (i + 1) + " at " + bx + "," + feet + "," + bz
+                    + " -> Y=" + fixed + " (block " + world.typeId(bx, feet, bz) + " in the way)");
+        }
+        int[] order = SpawnOrder.farthestFirst(sx, sz);
+        List<MapPack.Spawn> spawns = new ArrayList<>(n);
+        for (int from : order) {
+            double[] p = map.spawns.get(from);
+            spawns.add(new MapPack.Spawn(sx[from], sy[from], sz[from], (float) p[3], (float) p[4], p[1]));
+        }
+
+        // ===== Walkable cells =====
+        long[] walkable = walkable(world, minX, minY, minZ, sizeX, sizeY, sizeZ, spawns, map.waiting);
+
+        // ===== Gold candidates =====
+        List<Integer> gold = new ArrayList<>();
+        int grid = MapPackFormat.GOLD_GRID;
+        for (int y = 0; y < sizeY; y++) {
+            for (int z = 0; z < sizeZ; z++) {
+                if (Math.floorMod(minZ + z, grid) != 0) continue;
+                for (int x = 0; x < sizeX; x++) {
+                    if (Math.floorMod(minX + x, grid) != 0) continue;
+                    if (get(walkable, ((long) y * sizeZ + z) * sizeX + x)) {
+                        gold.add(minX + x);
+                        gold.add(minY + y);
+                        gold.add(minZ + z);
+                    }
+                }
+            }
+        }
+
+        // ===== Chunk footprint =====
+        List<Integer> chunks = new ArrayList<>();
+        for (int cx = minX >> 4; cx <= (minX + sizeX - 1) >> 4; cx++) {
+            for (int cz = minZ >> 4; cz <= (minZ + sizeZ - 1) >> 4; cz++) {
+                if (world.hasChunk(cx, cz)) {
+                    chunks.add(cx);
+                    chunks.add(cz);
+                }
+            }
+        }
+
+        List<MapPack.Point> configured = new ArrayList<>(n);
+        for (double[] p : map.spawns) configured.add(point(p));
+        long sourceHash = MapPack.sourceHash(point(map.waiting), point(map.spectator), configured);
+        MapPack pack = new MapPack(map.id, map.templateWorld, System.currentTimeMillis(), sourceHash,
+                minX, minY, minZ, sizeX, sizeY, sizeZ, toArray(chunks), point(map.waiting), point(map.spectator),
+                spawns, toArray(gold), solid, walkable);
+        Path out = outDir.resolve(MapPackFormat.fileName(map.id));
+        pack.write(out);
+
+        long walkableCells = 0;
+        for (long w : walkable) walkableCells += Long.bitCount(w);
+        System.out.println("[" + map.id + "] " + sizeX + "x" + sizeY + "x" + sizeZ + " at " + minX + "," + minY + "," + minZ
+                + ", " + pack.chunkCount() + " chunk(s), " + n + " spawn(s) (" + corrected + " corrected), "
+                + walkableCells + " walkable cell(s), " + pack.goldCount() + " gold candidate(s) -> "
+                + out.getFileName() + " (" + Files.size(out) / 1024 + " KiB, "
+                + (System.nanoTime() - start) / 1_000_000 + "ms)");
+    }
+
+    /**
+     * Flood fill over standable cells from the spawns and the waiting point.
+     */
+    private static long[] walkable(TemplateWorld world, int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ,
+                                   List<MapPack.Spawn> spawns, double[] waiting) {
+        long cells = (long) sizeX * sizeY * sizeZ;
+        long[] seen = new long[MapPack.words(cells)];
+        if (cells > Integer.MAX_VALUE) throw new IllegalStateException("map bounds too large: " + cells + " cells");
+        int[] queue = new int[1024];
+        int head = 0;
+        int tail = 0;
+        List<int[]> seeds = new ArrayList<>();
+        for (MapPack.Spawn s : spawns) seeds.add(new int[]{floor(s.x()), floor(s.y()), floor(s.z())});
+        seeds.add(new int[]{floor(waiting[0]), floor(waiting[1]), floor(waiting[2])});
+        for (int[] s : seeds) {
+            int x = s[0] - minX, y = s[1] - minY, z = s[2] - minZ;
+            if (x < 0 || y < 0 || z < 0 || x >= sizeX || y >= sizeY || z >= sizeZ) continue;
+            if (!isStandable(world, s[0], s[1], s[2])) continue;
+            int idx = (y * sizeZ + z) * sizeX + x;
+            if (get(seen, idx)) continue;
+            set(seen, idx);
+            if (tail == queue.length) queue = Arrays.copyOf(queue, queue.length * 2);
+            queue[tail++] = idx;
+        }
+        int[] dx = {1, -1, 0, 0};
+        int[] dz = {0, 0, 1, -1};
+        while (head < tail) {
+            int idx = queue[head++];
+            int x = idx % sizeX;
+            int z = (idx / sizeX) % sizeZ;
+            int y = idx / (sizeX * sizeZ);
+            for (int d = 0; d < 4; d++) {
+                int nx = x + dx[d];
+                int nz = z + dz[d];
+                if (nx < 0 || nz < 0 || nx >= sizeX || nz >= sizeZ) continue;
+                for (int ny = y + MAX_STEP_UP; ny >= y - MAX_DROP; ny--) {
+                    if (ny < 0 || ny >= sizeY) continue;
+                    if (!isStandable(world, minX + nx, minY + ny, minZ + nz)) continue;
+                    int next = (ny * sizeZ + nz) * sizeX + nx;
+                    if (!get(seen, next)) {
+                        set(seen, next);
+                        if (tail == queue.length) {
+                            // Compact before growing; the consumed prefix is dead
+                            System.arraycopy(queue, head, queue, 0, tail - head);
+                            tail -= head;
+                            head = 0;
+                            if (tail == queue.length) queue = Arrays.copyOf(queue, queue.length * 2);
+                        }
+                        queue[tail++] = next;
+                    }
+                    break; // Land on the highest reachable surface in this column
+                }
+            }
+        }
+        return seen;
+    }
+
+    private static boolean isStandable(TemplateWorld world, int x, int y, int z) {
+        return isFree(world, x, y, z) && Blocks.isSolid(world.typeId(x, y - 1, z));
+    }
+
+    private static boolean isFree(TemplateWorld world, int x, int y, int z) {
+        return isPassable(world, x, y, z) && isPassable(world, x, y + 1, z);
+    }
+
+    private static boolean isPassable(TemplateWorld world, int x, int y, int z) {
+        if (y < 0 || y >= TemplateWorld.HEIGHT) return y >= TemplateWorld.HEIGHT;
+        return !Blocks.isSolid(world.typeId(x, y, z));
+    }
+
+    private static int highest(TemplateWorld world, int x, int z) {
+        for (int y = TemplateWorld.HEIGHT - 1; y >= 0; y--) {
+            if (world.typeId(x, y, z) != 0) return y;
+        }
+        return 0;
+    }
+
+    /**
+     * minX, minY, minZ, maxX, maxY, maxZ of all non-air blocks.
+     */
+    private static int[] blockBounds(TemplateWorld world) {
+        int[] box = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE,
+                Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE};
+        for (int[] chunk : world.populatedChunks()) {
+            int bx = chunk[0] << 4;
+            int bz = chunk[1] << 4;
+            for (int y = 0; y < TemplateWorld.HEIGHT; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        if (world.typeId(bx + x, y, bz + z) == 0) continue;
+                        box[0] = Math.min(box[0], bx + x);
+                        box[1] = Math.min(box[1], y);
+                        box[2] = Math.min(box[2], bz + z);
+                        box[3] = Math.max(box[3], bx + x);
+                        box[4] = Math.max(box[4], y);
+                        box[5] = Math.max(box[5], bz + z);
+                    }
+                }
+            }
+        }
+        return box;
+    }
+
+    private static int[] pointBounds(List<double[]> points, int margin) {
+        int[] box = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE,
+                Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE};
+        for (double[] p : points) {
+            for (int i = 0; i < 3; i++) {
+                box[i] = Math.min(box[i], floor(p[i]) - margin);
+                box[i + 3] = Math.max(box[i + 3], floor(p[i]) + margin);
+            }
+        }
+        return box;
+    }
+
+    private static MapPack.Point point(double[] p) {
+        return new MapPack.Point(p[0], p[1], p[2], (float) p[3], (float) p[4]);
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] out = new int[values.size()];
+        for (int i = 0; i < out.length; i++) out[i] = values.get(i);
+        return out;
+    }
+
+    private static int floor(double v) {
+        return (int) Math.floor(v);
+    }
+
+    private static void set(long[] bits, long index) {
+        bits[(int) (index >>> 6)] |= 1L << index;
+    }
+
+    private static boolean get(long[] bits, long index) {
+        return (bits[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+}
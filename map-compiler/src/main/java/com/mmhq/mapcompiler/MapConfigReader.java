@@ -0,0 +1,234 @@
+package com.mmhq.mapcompiler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the {@code maps} section of the game plugin's config.yml.
+ *
+ * Understands the YAML the config actually uses - indented mappings,
+ * comments, quoted scalars and single-line flow maps/lists such as
+ * {@code 0: { x: 50.5, y: 105, z: 5.5 }} - so the compiler runs with no
+ * dependency besides shared-api. Block scalars and multi-line lists are skipped.
+ */
+final class MapConfigReader {
+    private MapConfigReader() {
+    }
+
+    /**
+     * A map entry as the game plugin parses it ({@code MapDefinition.fromConfig}).
+     */
+    static final class MapEntry {
+        final String id;
+        final String templateWorld;
+        final double[] waiting;
+        final double[] spectator;
+        final List<double[]> spawns;
+
+        MapEntry(String id, String templateWorld, double[] waiting, double[] spectator, List<double[]> spawns) {
+            this.id = id;
+            this.templateWorld = templateWorld;
+            this.waiting = waiting;
+            this.spectator = spectator;
+            this.spawns = spawns;
+        }
+    }
+
+    static List<MapEntry> read(Path config) throws IOException {
+        Map<String, Object> root = parse(Files.readAllLines(config, StandardCharsets.UTF_8));
+        List<MapEntry> out = new ArrayList<>();
+        Object maps = root.get("maps");
+        if (!(maps instanceof Map)) return out;
+        for (Map.Entry<String, Object> e : section(maps).entrySet()) {
+            if (!(e.getValue() instanceof Map)) continue;
+            Map<String, Object> sec = section(e.getValue());
+            Object template = sec.get("templateWorld");
+            if (template == null || template.toString().isEmpty()) template = sec.get("world");
+            if (template == null || template.toString().isEmpty()) {
+                throw new IOException("templateWorld (or world) missing for map: " + e.getKey());
+            }
+            double[] waiting = point(sec.get("waiting"));
+            double[] spectator = sec.get("spectator") instanceof Map
+                    ? point(sec.get("spectator"))
+                    : new double[]{waiting[0], waiting[1] + 20, waiting[2], waiting[3], waiting[4]};
+            List<double[]> spawns = new ArrayList<>();
+            if (sec.get("spawns") instanceof Map) {
+                List<Map.Entry<String, Object>> keys = new ArrayList<>(section(sec.get("spawns")).entrySet());
+                keys.sort(Comparator.comparingInt(k -> {
+                    try { return Integer.parseInt(k.getKey()); } catch (Exception ex) { return 9999; }
+                }));
+                for (Map.Entry<String, Object> k : keys) {
+                    if (k.getValue() instanceof Map) spawns.add(point(k.getValue()));
+                }
+            }
+            if (spawns.isEmpty()) spawns.add(waiting.clone());
+            out.add(new MapEntry(e.getKey(), template.toString(), waiting, spectator, spawns));
+        }
+        return out;
+    }
+
+    /**
+     * x, y, z, yaw, pitch with the same defaults as the plugin.
+     */
+    private static double[] point(Object o) {
+        Map<String, Object> sec = o instanceof Map ? section(o) : Map.of();
+        return new double[]{
+                number(sec.get("x"), 0.5), number(sec.get("y"), 70), number(sec.get("z"), 0.5),
+                number(sec.get("yaw"), 0), number(sec.get("pitch"), 0)
+        };
+    }
+
+    private static double number(Object o, double def) {
+        if (o == null) return def;
+        try {
+            return Double.parseDouble(o.toString());
+        } catch (NumberFormatException e) {
+            return def;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> section(Object o) {
+        return (Map<String, Object>) o;
+    }
+
+    // ===== Parsing =====
+
+    static Map<String, Object> parse(List<String> lines) throws IOException {
+        Map<String, Object> root = new LinkedHashMap<>();
+        Deque<Map<String, Object>> stack = new ArrayDeque<>();
+        Deque<Integer> indents = new ArrayDeque<>();
+        stack.push(root);
+        indents.push(-1);
+        int lineNo = 0;
+        for (String raw : lines) {
+            lineNo++;
+            String line = stripComment(raw);
+            if (line.trim().isEmpty()) continue;
+            int indent = 0;
+            while (indent < line.length() && line.charAt(indent) == ' ') indent++;
+            String text = line.trim();
+            if (text.startsWith("- ") || text.equals("-")) continue;
+            int colon = keyColon(text);
+            if (colon < 0) continue;
+            while (indent <= indents.peek()) {
+                stack.pop();
+                indents.pop();
+            }
+            String key = unquote(text.substring(0, colon).trim());
+            String value = text.substring(colon + 1).trim();
+            if (value.isEmpty()) {
+                Map<String, Object> child = new LinkedHashMap<>();
+                stack.peek().put(key, child);
+                stack.push(child);
+                indents.push(indent);
+            } else if (value.equals("|") || value.equals(">")) {
+                stack.peek().put(key, "");
+            } else {
+                try {
+                    stack.peek().put(key, flow(value));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("line " + lineNo + ": " + e.getMessage());
+                }
+            }
+        }
+        return root;
+    }
+
+    private static Object flow(String value) {
+        if (value.startsWith("{")) {
+            if (!value.endsWith("}")) throw new IllegalArgumentException("unterminated flow map: " + value);
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (String part : splitFlow(value.substring(1, value.length() - 1))) {
+                int colon = keyColon(part);
+                if (colon < 0) continue;
+                map.put(unquote(part.substring(0, colon).trim()), flow(part.substring(colon + 1).trim()));
+            }
+            return map;
+        }
+        if (value.startsWith("[")) {
+            if (!value.endsWith("]")) throw new IllegalArgumentException("unterminated flow list: " + value);
+            List<Object> list = new ArrayList<>();
+            for (String part : splitFlow(value.substring(1, value.length() - 1))) list.add(flow(part));
+            return list;
+        }
+        return unquote(value);
+    }
+
+    /**
+     * Split on top-level commas, respecting quotes and nested brackets.
+     */
+    private static List<String> splitFlow(String body) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        char quote = 0;
+        int start = 0;
+        for (int i = 0; i < body.length(); i++) {
+            char c = body.charAt(i);
+            if (quote != 0) {
+                if (c == quote) quote = 0;
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                parts.add(body.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        String last = body.substring(start).trim();
+        if (!last.isEmpty()) parts.add(last);
+        return parts;
+    }
+
+    /**
+     * Index of the ':' separating key and value (followed by a space or end of text), outside quotes.
+     */
+    private static int keyColon(String text) {
+        char quote = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quote != 0) {
+                if (c == quote) quote = 0;
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == ':' && (i + 1 == text.length() || text.charAt(i + 1) == ' ')) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String stripComment(String line) {
+        char quote = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quote != 0) {
+                if (c == quote) quote = 0;
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '#' && (i == 0 || line.charAt(i - 1) == ' ')) {
+                return line.substring(0, i);
+            }
+        }
+        return line;
+    }
+
+    private static String unquote(String s) {
+        if (s.length() >= 2 && (s.charAt(0) == '"' || s.charAt(0) == '\'') && s.charAt(s.length() - 1) == s.charAt(0)) {
+            return s.substring(1, s.length() - 1);
+        }
+        return s;
+    }
+}
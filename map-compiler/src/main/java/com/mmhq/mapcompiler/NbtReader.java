@@ -0,0 +1,100 @@
+package com.mmhq.mapcompiler;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal NBT reader for chunk data.
+ *
+ * Compounds become {@code Map<String, Object>}, lists {@code List<Object>},
+ * arrays stay primitive arrays and numbers are boxed.
+ */
+final class NbtReader {
+    private static final int END = 0;
+    private static final int BYTE = 1;
+    private static final int SHORT = 2;
+    private static final int INT = 3;
+    private static final int LONG = 4;
+    private static final int FLOAT = 5;
+    private static final int DOUBLE = 6;
+    private static final int BYTE_ARRAY = 7;
+    private static final int STRING = 8;
+    private static final int LIST = 9;
+    private static final int COMPOUND = 10;
+    private static final int INT_ARRAY = 11;
+    private static final int LONG_ARRAY = 12;
+
+    private NbtReader() {
+    }
+
+    /**
+     * Read a named root compound.
+     */
+    static Map<String, Object> readRoot(DataInputStream in) throws IOException {
+        int type = in.readUnsignedByte();
+        if (type != COMPOUND) {
+            throw new IOException("Root tag is " + type + ", expected a compound");
+        }
+        in.readUTF();
+        return readCompound(in);
+    }
+
+    private static Map<String, Object> readCompound(DataInputStream in) throws IOException {
+        Map<String, Object> out = new HashMap<>();
+        while (true) {
+            int type = in.readUnsignedByte();
+            if (type == END) return out;
+            String name = in.readUTF();
+            out.put(name, readPayload(in, type));
+        }
+    }
+
+    private static Object readPayload(DataInputStream in, int type) throws IOException {
+        switch (type) {
+            case BYTE:
+                return in.readByte();
+            case SHORT:
+                return in.readShort();
+            case INT:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case FLOAT:
+                return in.readFloat();
+            case DOUBLE:
+                return in.readDouble();
+            case BYTE_ARRAY: {
+                byte[] b = new byte[in.readInt()];
+                in.readFully(b);
+                return b;
+            }
+            case STRING:
+                return in.readUTF();
+            case LIST: {
+                int elementType = in.readUnsignedByte();
+                int size = in.readInt();
+                List<Object> list = new ArrayList<>(Math.max(0, size));
+                for (int i = 0; i < size; i++) list.add(readPayload(in, elementType));
+                return list;
+            }
+            case COMPOUND:
+                return readCompound(in);
+            case INT_ARRAY: {
+                int[] a = new int[in.readInt()];
+                for (int i = 0; i < a.length; i++) a[i] = in.readInt();
+                return a;
+            }
+            case LONG_ARRAY: {
+                long[] a = new long[in.readInt()];
+                for (int i = 0; i < a.length; i++) a[i] = in.readLong();
+                return a;
+            }
+            default:
+                throw new IOException("Unknown NBT tag type " + type);
+        }
+    }
+}
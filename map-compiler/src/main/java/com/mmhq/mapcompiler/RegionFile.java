@@ -0,0 +1,68 @@
+package com.mmhq.mapcompiler;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads chunks out of one Anvil region file ({@code r.<rx>.<rz>.mca}).
+ *
+ * The first 4 KiB sector holds 1024 chunk locations (3-byte sector offset,
+ * 1-byte sector count); each chunk is an int length, a compression byte
+ * (1 gzip, 2 zlib) and the compressed NBT.
+ */
+final class RegionFile implements AutoCloseable {
+    private static final int SECTOR = 4096;
+
+    private final RandomAccessFile file;
+    private final int[] offsets = new int[1024];
+
+    RegionFile(Path path) throws IOException {
+        this.file = new RandomAccessFile(path.toFile(), "r");
+        if (file.length() >= SECTOR) {
+            for (int i = 0; i < offsets.length; i++) offsets[i] = file.readInt();
+        }
+    }
+
+    /**
+     * Root compound of the chunk, or null if it was never generated.
+     *
+     * @param cx chunk X within the region (0-31)
+     * @param cz chunk Z within the region (0-31)
+     */
+    Map<String, Object> readChunk(int cx, int cz) throws IOException {
+        int location = offsets[(cx & 31) + (cz & 31) * 32];
+        if (location == 0) return null;
+        long start = (long) (location >>> 8) * SECTOR;
+        if (start + 5 > file.length()) return null;
+        file.seek(start);
+        int length = file.readInt();
+        int compression = file.readUnsignedByte();
+        if (length <= 1) return null;
+        byte[] data = new byte[length - 1];
+        file.readFully(data);
+        InputStream raw = new ByteArrayInputStream(data);
+        InputStream in;
+        if (compression == 1) {
+            in = new GZIPInputStream(raw);
+        } else if (compression == 2) {
+            in = new InflaterInputStream(raw);
+        } else {
+            throw new IOException("Unsupported chunk compression " + compression);
+        }
+        try (DataInputStream nbt = new DataInputStream(in)) {
+            return NbtReader.readRoot(nbt);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
@@ -0,0 +1,150 @@
+package com.mmhq.mapcompiler;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Block ids of a 1.8 template world, read straight from its region files.
+ *
+ * Every generated chunk is loaded up front; each is kept as up to sixteen
+ * 16x16x16 sections of block ids (the {@code Blocks} array plus the
+ * optional {@code Add} nibbles), index {@code (y * 16 + z) * 16 + x}.
+ */
+final class TemplateWorld {
+    static final int HEIGHT = 256;
+
+    private final Map<Long, short[][]> chunks = new HashMap<>();
+    private int minChunkX = Integer.MAX_VALUE;
+    private int minChunkZ = Integer.MAX_VALUE;
+    private int maxChunkX = Integer.MIN_VALUE;
+    private int maxChunkZ = Integer.MIN_VALUE;
+
+    private TemplateWorld() {
+    }
+
+    static TemplateWorld load(Path worldDir) throws IOException {
+        Path regionDir = worldDir.resolve("region");
+        if (!Files.isDirectory(regionDir)) {
+            throw new IOException("No region folder in " + worldDir);
+        }
+        TemplateWorld world = new TemplateWorld();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(regionDir, "r.*.*.mca")) {
+            for (Path file : files) {
+                String[] parts = file.getFileName().toString().split("\\.");
+                int rx = Integer.parseInt(parts[1]);
+                int rz = Integer.parseInt(parts[2]);
+                try (RegionFile region = new RegionFile(file)) {
+                    for (int z = 0; z < 32; z++) {
+                        for (int x = 0; x < 32; x++) {
+                            Map<String, Object> root = region.readChunk(x, z);
+                            if (root != null) world.addChunk(rx * 32 + x, rz * 32 + z, root);
+                        }
+                    }
+                }
+            }
+        }
+        return world;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addChunk(int cx, int cz, Map<String, Object> root) {
+        Object level = root.get("Level");
+        if (!(level instanceof Map)) return;
+        Object sectionList = ((Map<String, Object>) level).get("Sections");
+        if (!(sectionList instanceof List)) return;
+        short[][] sections = new short[HEIGHT / 16][];
+        boolean any = false;
+        for (Object o : (List<Object>) sectionList) {
+            if (!(o instanceof Map)) continue;
+            Map<String, Object> section = (Map<String, Object>) o;
+            Object yTag = section.get("Y");
+            Object blocks = section.get("Blocks");
+            if (!(yTag instanceof Number) || !(blocks instanceof byte[])) continue;
+            int sy = ((Number) yTag).intValue();
+            if (sy < 0 || sy >= sections.length) continue;
+            byte[] low = (byte[]) blocks;
+            Object addTag = section.get("Add");
+            byte[] add = addTag instanceof byte[] ? (byte[]) addTag : null;
+            short[] ids = new short[4096];
+            for (int i = 0; i < ids.length && i < low.length; i++) {
+                int id = low[i] & 0xFF;
+                if (add != null) {
+                    int nibble = (add[i >> 1] >> ((i & 1) * 4)) & 0xF;
+                    id |= nibble << 8;
+                }
+                ids[i] = (short) id;
+            }
+            sections[sy] = ids;
+            any = true;
+        }
+        chunks.put(key(cx, cz), sections);
+        if (!any) return;
+        minChunkX = Math.min(minChunkX, cx);
+        minChunkZ = Math.min(minChunkZ, cz);
+        maxChunkX = Math.max(maxChunkX, cx);
+        maxChunkZ = Math.max(maxChunkZ, cz);
+    }
+
+    /**
+     * Block id at the position; ungenerated chunks and out-of-range Y read as air.
+     */
+    int typeId(int x, int y, int z) {
+        if (y < 0 || y >= HEIGHT) return 0;
+        short[][] sections = chunks.get(key(x >> 4, z >> 4));
+        if (sections == null) return 0;
+        short[] ids = sections[y >> 4];
+        if (ids == null) return 0;
+        return ids[((y & 15) * 16 + (z & 15)) * 16 + (x & 15)];
+    }
+
+    boolean hasChunk(int cx, int cz) {
+        return chunks.containsKey(key(cx, cz));
+    }
+
+    boolean isEmpty() {
+        return minChunkX > maxChunkX;
+    }
+
+    int minChunkX() {
+        return minChunkX;
+    }
+
+    int minChunkZ() {
+        return minChunkZ;
+    }
+
+    int maxChunkX() {
+        return maxChunkX;
+    }
+
+    int maxChunkZ() {
+        return maxChunkZ;
+    }
+
+    /**
+     * Chunks that contain at least one section, as (cx, cz) pairs.
+     */
+    List<int[]> populatedChunks() {
+        List<int[]> out = new ArrayList<>();
+        for (Map.Entry<Long, short[][]> e : chunks.entrySet()) {
+            for (short[] s : e.getValue()) {
+                if (s != null) {
+                    long k = e.getKey();
+                    out.add(new int[]{(int) (k >> 32), (int) k});
+                    break;
+                }
+            }
+        }
+        return out;
+    }
+
+    private static long key(int cx, int cz) {
+        return ((long) cx << 32) ^ (cz & 0xFFFFFFFFL);
+    }
+}
@@ -5,15 +5,23 @@ import com.mmhq.proxy.command.AnnounceCommand;
 import com.mmhq.proxy.command.PartyCommand;
 import com.mmhq.proxy.command.PrepareMapCommand;
 import com.mmhq.proxy.command.QueueCommand;
+import com.mmhq.proxy.fleet.ArenaPrewarmer;
+import com.mmhq.proxy.fleet.BackendDiscovery;
+import com.mmhq.proxy.fleet.PrepareTracker;
+import com.mmhq.proxy.fleet.PrewarmConfig;
+import com.mmhq.proxy.metrics.ProxyMetrics;
 import com.mmhq.proxy.queue.QueueService;
 import com.mmhq.proxy.queue.QueueDispatcher;
 import com.mmhq.proxy.status.MapSelectionListener;
 import com.mmhq.proxy.status.MapSelectionRegistry;
 import com.mmhq.proxy.status.ServerStatusRegistry;
+import com.mmhq.proxy.status.StatusSubscriptions;
+import com.mmhq.proxy.status.StatusSweeper;
 import com.mmhq.proxy.status.HeartbeatListener;
 import com.velocitypowered.api.command.CommandManager;
 import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
 import com.velocitypowered.api.plugin.Plugin;
 import com.velocitypowered.api.plugin.annotation.DataDirectory;
 import com.velocitypowered.api.proxy.ProxyServer;
@@ -31,16 +39,27 @@ public final class MmProxyPlugin {
     private final QueueDispatcher queueDispatcher;
     private final ServerStatusRegistry statusRegistry;
     private final MapSelectionRegistry mapSelectionRegistry;
+    private final ProxyMetrics metrics;
+    private final BackendDiscovery discovery;
+    private final MapSelectionListener mapSelectionListener;
+    private final PrepareTracker prepareTracker;
+    private ArenaPrewarmer prewarmer;
+    private StatusSweeper statusSweeper;
 
     @Inject
     public MmProxyPlugin(ProxyServer server, Logger logger, @DataDirectory Path dataDirectory) {
         this.server = server;
         this.logger = logger;
         this.dataDirectory = dataDirectory;
-        this.queueService = new QueueService();
+        this.metrics = new ProxyMetrics();
+        this.queueService = new QueueService(metrics);
         this.statusRegistry = new ServerStatusRegistry();
         this.mapSelectionRegistry = new MapSelectionRegistry();
-        this.queueDispatcher = new QueueDispatcher(server, queueService, statusRegistry, logger);
+        this.queueDispatcher = new QueueDispatcher(server, queueService, statusRegistry, logger, metrics);
+        this.discovery = new BackendDiscovery(server, statusRegistry, queueDispatcher, logger, metrics);
+        this.mapSelectionListener = new MapSelectionListener(server, mapSelectionRegistry, statusRegistry, discovery, logger);
+        this.prepareTracker = new PrepareTracker(server, statusRegistry, logger, metrics);
+        statusRegistry.addListener(prepareTracker::accept);
     }
 
     @Subscribe
@@ -50,21 +69,54 @@ public final class MmProxyPlugin {
         // Register channels
         server.getChannelRegistrar().register(MinecraftChannelIdentifier.create("mmhq", "status"));
         server.getChannelRegistrar().register(MinecraftChannelIdentifier.create("mmhq", "mapselect"));
+        server.getChannelRegistrar().register(MinecraftChannelIdentifier.create("mmhq", "control"));
         
         // Register commands
         registerCommands(server.getCommandManager());
         
         // Register event listeners
-        server.getEventManager().register(this, new HeartbeatListener(statusRegistry, queueDispatcher, logger));
-        server.getEventManager().register(this, new MapSelectionListener(mapSelectionRegistry, logger));
+        server.getEventManager().register(this, new HeartbeatListener(statusRegistry, queueDispatcher, logger, metrics));
+        server.getEventManager().register(this, mapSelectionListener);
+        StatusSubscriptions statusSubscriptions = new StatusSubscriptions(server, statusRegistry, logger);
+        server.getEventManager().register(this, statusSubscriptions);
+
+        // Forget game servers that went away without a LEAVE (mmhq.status.staleSeconds)
+        statusSweeper = new StatusSweeper(server, statusRegistry, logger);
+        statusSweeper.start(this);
+        
+        // Metrics endpoint
+        metrics.gauge("mmhq_status_servers", "Game servers with a known status", statusRegistry::size);
+        metrics.gauge("mmhq_status_joinable_servers", "Game servers currently accepting players", statusRegistry::joinableCount);
+        metrics.gauge("mmhq_status_max_staleness_seconds", "Age of the oldest held heartbeat",
+                () -> statusRegistry.maxStaleness().toMillis() / 1000.0);
+        metrics.gauge("mmhq_proxy_players_online", "Players connected to the proxy", server::getPlayerCount);
+        metrics.gauge("mmhq_discovery_backends", "Game servers registered at runtime from announcements", discovery::size);
+        metrics.gauge("mmhq_status_subscribers", "Lobby servers receiving pushed status updates", statusSubscriptions::size);
+        metrics.start(logger);
+
+        // Game servers register themselves over UDP (mmhq.discovery.* system properties)
+        discovery.start(this);
+
+        // Keep arenas prepared ahead of queue demand (prewarm.properties)
+        prewarmer = new ArenaPrewarmer(server, queueService, statusRegistry, mapSelectionRegistry, discovery,
+                PrewarmConfig.load(dataDirectory, logger), logger, metrics);
+        prewarmer.start(this);
         
-        logger.info("MMHQ Murder Proxy ready! Use /preparemm1 <map> to set the game map.");
+        logger.info("MMHQ Murder Proxy ready! Use /preparemm1 <map> [server] to set the game map.");
+    }
+
+    @Subscribe
+    public void onProxyShutdown(ProxyShutdownEvent event) {
+        if (prewarmer != null) prewarmer.stop();
+        if (statusSweeper != null) statusSweeper.stop();
+        discovery.stop();
+        metrics.stop();
     }
 
     private void registerCommands(CommandManager commandManager) {
         commandManager.register(
                 commandManager.metaBuilder("mmqueue").plugin(this).build(),
-            new QueueCommand(queueService, queueDispatcher, logger)
+            new QueueCommand(queueService, queueDispatcher, prepareTracker, logger)
         );
 
         commandManager.register(
@@ -83,7 +135,7 @@ public final class MmProxyPlugin {
                         .aliases("pm1", "setmap")
                         .plugin(this)
                         .build(),
-                new PrepareMapCommand(mapSelectionRegistry, logger)
+                new PrepareMapCommand(mapSelectionRegistry, mapSelectionListener, logger)
         );
     }
 }
@@ -1,5 +1,6 @@
 package com.mmhq.proxy.command;
 
+import com.mmhq.proxy.status.MapSelectionListener;
 import com.mmhq.proxy.status.MapSelectionRegistry;
 import com.velocitypowered.api.command.SimpleCommand;
 import com.velocitypowered.api.proxy.Player;
@@ -12,18 +13,21 @@ import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
- * Command to prepare a map on mm1 from anywhere in the network.
- * Usage: /preparemm1 <mapName>
+ * Command to prepare a map from anywhere in the network, either as the
+ * default for every game server or for one server.
+ * Usage: /preparemm1 <mapName> [server]
  */
 public class PrepareMapCommand implements SimpleCommand {
 
     private static final List<String> VALID_MAPS = Arrays.asList("AncientTomb", "Subway", "HypixelWorld");
     
     private final MapSelectionRegistry mapRegistry;
+    private final MapSelectionListener mapSelection;
     private final Logger logger;
 
-    public PrepareMapCommand(MapSelectionRegistry mapRegistry, Logger logger) {
+    public PrepareMapCommand(MapSelectionRegistry mapRegistry, MapSelectionListener mapSelection, Logger logger) {
         this.mapRegistry = mapRegistry;
+        this.mapSelection = mapSelection;
         this.logger = logger;
     }
 
@@ -44,7 +48,7 @@ public class PrepareMapCommand implements SimpleCommand {
 
         String[] args = invocation.arguments();
         if (args.length < 1) {
-            player.sendMessage(Component.text("Usage: /preparemm1 <mapName>", NamedTextColor.YELLOW));
+            player.sendMessage(Component.text("Usage: /preparemm1 <mapName> [server]", NamedTextColor.YELLOW));
             player.sendMessage(Component.text("Valid maps: " + String.join(", ", VALID_MAPS), NamedTextColor.GRAY));
             return;
         }
@@ -63,13 +67,24 @@ public class PrepareMapCommand implements SimpleCommand {
             return;
         }
 
-        // Set the map in registry
-        mapRegistry.setSelectedMap(matchedMap);
-        
+        if (args.length >= 2) {
+            String serverId = args[1];
+            MapSelectionRegistry.Assignment assignment = mapRegistry.assign(serverId, matchedMap);
+            mapSelection.push(serverId);
+
+            player.sendMessage(Component.text("✓ Map set to: " + matchedMap + " on " + serverId, NamedTextColor.GREEN));
+            logger.info("[PrepareMap] {} set {} map to: {} (v{})", player.getUsername(), serverId, matchedMap, assignment.version());
+            return;
+        }
+
+        // Set the default map in registry
+        MapSelectionRegistry.Assignment assignment = mapRegistry.setSelectedMap(matchedMap);
+        mapSelection.pushAll();
+
         player.sendMessage(Component.text("✓ Map set to: " + matchedMap, NamedTextColor.GREEN));
-        player.sendMessage(Component.text("Players joining mm1 will play on " + matchedMap, NamedTextColor.GRAY));
-        
-        logger.info("[PrepareMap] {} set next map to: {}", player.getUsername(), matchedMap);
+        player.sendMessage(Component.text("Game servers without their own map will play on " + matchedMap, NamedTextColor.GRAY));
+
+        logger.info("[PrepareMap] {} set next map to: {} (v{})", player.getUsername(), matchedMap, assignment.version());
     }
 
     @Override
@@ -1,5 +1,6 @@
 package com.mmhq.proxy.command;
 
+import com.mmhq.proxy.fleet.PrepareTracker;
 import com.mmhq.proxy.queue.QueueService;
 import com.mmhq.proxy.queue.QueueDispatcher;
 import com.mmhq.sharedapi.queue.QueueTicket;
@@ -11,11 +12,13 @@ import org.slf4j.Logger;
 public final class QueueCommand implements SimpleCommand {
     private final QueueService queueService;
     private final QueueDispatcher dispatcher;
+    private final PrepareTracker prepares;
     private final Logger logger;
 
-    public QueueCommand(QueueService queueService, QueueDispatcher dispatcher, Logger logger) {
+    public QueueCommand(QueueService queueService, QueueDispatcher dispatcher, PrepareTracker prepares, Logger logger) {
         this.queueService = queueService;
         this.dispatcher = dispatcher;
+        this.prepares = prepares;
         this.logger = logger;
     }
 
@@ -29,6 +32,10 @@ public final class QueueCommand implements SimpleCommand {
         String preset = invocation.arguments().length > 0 ? invocation.arguments()[0] : "default";
         QueueTicket ticket = queueService.enqueue(player.getUniqueId(), preset);
         invocation.source().sendMessage(queueService.text("Joined queue for preset " + preset + ". Position: " + queueService.position(ticket)));
+        long eta = prepares.etaSeconds(preset);
+        if (eta > 0) {
+            invocation.source().sendMessage(queueService.text("A game is being prepared - ready in about " + eta + "s."));
+        }
         logger.info("Player {} joined queue for {}", player.getUniqueId(), preset);
         dispatcher.tryDispatch();
     }
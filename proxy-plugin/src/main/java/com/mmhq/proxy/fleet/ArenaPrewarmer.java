@@ -0,0 +1,257 @@
+package com.mmhq.proxy.fleet;
+
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import com.mmhq.proxy.metrics.ProxyMetrics;
+import com.mmhq.proxy.queue.QueueService;
+import com.mmhq.proxy.status.MapSelectionRegistry;
+import com.mmhq.proxy.status.ServerStatusRegistry;
+import com.mmhq.sharedapi.fleet.Announcement;
+import com.mmhq.sharedapi.game.GameState;
+import com.mmhq.sharedapi.game.ServerStatus;
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps enough game servers warm - map prepared and joins open - for the
+ * demand each preset is about to see, so queued players land on a reset
+ * world instead of waiting for one.
+ *
+ * Every pass, per preset: demand is the queue depth plus the smoothed
+ * arrival rate projected over the time a PREPARE takes; supply is the free
+ * slots on joinable servers plus servers already preparing. The shortfall,
+ * in servers, is clamped to the preset's [minWarm, maxWarm] and filled by
+ * sending PREPARE (next map in the preset's rotation) to idle servers of that
+ * preset. A server counts as idle when its heartbeat reports the arena IDLE -
+ * never prepared, or a match was played on it since - no match running and
+ * nobody on it (PREPARE sends whoever is there back to the lobby), and it
+ * announced the prepare capability.
+ *
+ * A sent PREPARE stays pending (counted as preparing) while the arena
+ * prepares. Once a heartbeat shows it WAITING, OPEN_JOIN is sent - every pass
+ * until the server reports itself joinable, in case a datagram was lost - and
+ * only then does it count as warm. Sending OPEN_JOIN any earlier would let
+ * the dispatcher route players to a world still being reset. A pending
+ * server that sits in one phase other than PREPARING for longer than
+ * {@code prepareTimeoutSeconds} is given up on.
+ *
+ * Control messages go out as UDP datagrams through {@link BackendDiscovery},
+ * back to where the server announces from, so no player has to be on the
+ * server to carry them; servers that never announced themselves can't be
+ * reached and are never pre-warmed. All state is touched only from the
+ * scheduler task.
+ */
+public final class ArenaPrewarmer {
+    private static final String ARENA_IDLE = "IDLE";
+    private static final String ARENA_PREPARING = "PREPARING";
+    private static final String ARENA_WAITING = "WAITING";
+    private static final int DEFAULT_SLOTS = 16;         // until a heartbeat tells us the preset's max players
+
+    private final ProxyServer proxy;
+    private final QueueService queue;
+    private final ServerStatusRegistry registry;
+    private final MapSelectionRegistry maps;
+    private final BackendDiscovery discovery;
+    private final PrewarmConfig config;
+    private final Logger logger;
+    private final ProxyMetrics metrics;
+
+    private final Map<String, Demand> demand = new HashMap<>();
+    private final Map<String, Pending> pending = new HashMap<>();   // serverId -> PREPARE sent, not yet warm
+    private ScheduledTask task;
+
+    public ArenaPrewarmer(ProxyServer proxy, QueueService queue, ServerStatusRegistry registry, MapSelectionRegistry maps,
+                          BackendDiscovery discovery, PrewarmConfig config, Logger logger, ProxyMetrics metrics) {
+        this.proxy = proxy;
+        this.queue = queue;
+        this.registry = registry;
+        this.maps = maps;
+        this.discovery = discovery;
+        this.config = config;
+        this.logger = logger;
+        this.metrics = metrics;
+    }
+
+    public void start(Object plugin) {
+        if (!config.enabled() || config.presets().isEmpty()) {
+            logger.info("[Prewarm] Disabled");
+            return;
+        }
+        long period = config.interval().toMillis();
+        task = proxy.getScheduler().buildTask(plugin, this::tick)
+                .delay(period, TimeUnit.MILLISECONDS)
+                .repeat(period, TimeUnit.MILLISECONDS)
+                .schedule();
+        logger.info("[Prewarm] Keeping {} preset(s) warm, re-planning every {}s", config.presets().size(), config.interval().toSeconds());
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private void tick() {
+        try {
+            Instant now = Instant.now();
+            Collection<ServerStatus> live = registry.seenWithin(config.staleAfter());
+            settlePending(live, now);
+            for (PrewarmConfig.Policy policy : config.presets()) {
+                plan(policy, live, now);
+            }
+        } catch (Exception e) {
+            logger.warn("[Prewarm] Planning pass failed", e);
+        }
+    }
+
+    /**
+     * Follow each pending PREPARE through the arena phases its server reports:
+     * open joins once it is WAITING, forget it once it is joinable (or failed),
+     * and give up on one stuck outside PREPARING.
+     */
+    private void settlePending(Collection<ServerStatus> live, Instant now) {
+        Map<String, ServerStatus> byId = new HashMap<>();
+        for (ServerStatus s : live) byId.put(s.serverId(), s);
+        Iterator<Map.Entry<String, Pending>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Pending> e = it.next();
+            Pending p = e.getValue();
+            ServerStatus status = byId.get(e.getKey());
+            String phase = status == null ? p.phase() : status.arenaState();
+            if (!phase.equals(p.phase())) {
+                p = new Pending(p.presetId(), p.mapId(), phase, now);
+                e.setValue(p);
+            }
+            if (status == null) {
+                // no fresh heartbeat: wait for one, up to the timeout
+            } else if (ARENA_WAITING.equals(phase)) {
+                if (status.joinable() || status.currentPlayers() > 0) {
+                    it.remove();        // joins are open
+                    continue;
+                }
+                openJoin(e.getKey());
+            } else if (ARENA_PREPARING.equals(phase)) {
+                continue;               // PrepareTracker follows the reset itself
+            } else if (!ARENA_IDLE.equals(phase)) {
+                it.remove();            // ERROR, or already playing
+                continue;
+            }
+            if (Duration.between(p.since(), now).compareTo(config.prepareTimeout()) > 0) {
+                logger.warn("[Prewarm] {} stuck {} preparing {} - giving up", e.getKey(), phase, p.mapId());
+                metrics.prepareFailures.labels("timeout").inc();
+                it.remove();
+            }
+        }
+    }
+
+    private void plan(PrewarmConfig.Policy policy, Collection<ServerStatus> live, Instant now) {
+        String presetId = policy.presetId();
+        Demand d = demand.computeIfAbsent(presetId, k -> new Demand(queue.arrivals(presetId)));
+        long arrivals = queue.arrivals(presetId);
+        double sample = (arrivals - d.lastArrivals) / (double) config.interval().toSeconds();
+        d.lastArrivals = arrivals;
+        d.rate += config.rateSmoothing() * (sample - d.rate);
+
+        int warm = 0;
+        int freeSlots = 0;
+        int preparing = 0;
+        int slotsPerServer = 0;
+        for (Pending p : pending.values()) {
+            if (p.presetId().equalsIgnoreCase(presetId)) preparing++;
+        }
+        List<ServerStatus> idle = new ArrayList<>();
+        for (ServerStatus s : live) {
+            if (!s.presetId().equalsIgnoreCase(presetId)) continue;
+            slotsPerServer = Math.max(slotsPerServer, s.maxPlayers());
+            if (pending.containsKey(s.serverId())) continue;
+            if (ARENA_PREPARING.equals(s.arenaState())) {
+                preparing++;
+            } else if (ARENA_IDLE.equals(s.arenaState())) {
+                if (s.state() == GameState.LOBBY && s.currentPlayers() == 0 && discovery.reachable(s.serverId())
+                        && discovery.supports(s.serverId(), Announcement.CAP_PREPARE)) idle.add(s);
+            } else if (isWarm(s)) {
+                warm++;
+                freeSlots += s.maxPlayers() - s.currentPlayers();
+            }
+        }
+        if (slotsPerServer <= 0) slotsPerServer = DEFAULT_SLOTS;
+
+        double expected = queue.depth(presetId) + d.rate * config.lead().toSeconds();
+        int shortServers = (int) Math.ceil(Math.max(0.0, expected - freeSlots) / slotsPerServer);
+        int target = Math.min(policy.maxWarm(), Math.max(policy.minWarm(), warm + shortServers));
+        metrics.warmServers.labels(presetId).set(warm);
+        metrics.warmTarget.labels(presetId).set(target);
+        metrics.arrivalRate.labels(presetId).set(d.rate);
+
+        int needed = target - warm - preparing;
+        if (needed <= 0 || idle.isEmpty()) return;
+
+        for (ServerStatus s : idle) {
+            if (needed == 0) break;
+            String mapId = policy.maps().get(Math.floorMod(d.cursor, policy.maps().size()));
+            if (prepare(s.serverId(), mapId)) {
+                d.cursor++;
+                needed--;
+                pending.put(s.serverId(), new Pending(presetId, mapId, ARENA_IDLE, now));
+                maps.assign(s.serverId(), mapId);   // a later SET_MAP for the same map is a no-op on the server
+                metrics.prepares.labels(presetId).inc();
+                logger.info("[Prewarm] PREPARE {} on {} (preset {}: {} warm, target {}, queue {}, {}/s arriving)",
+                        mapId, s.serverId(), presetId, warm, target, queue.depth(presetId), String.format("%.2f", d.rate));
+            }
+        }
+    }
+
+    /**
+     * Joinable with room on a prepared arena. Servers that don't report an
+     * arena phase count as warm whenever they are joinable.
+     */
+    static boolean isWarm(ServerStatus s) {
+        return s.joinable() && s.currentPlayers() < s.maxPlayers()
+                && (ARENA_WAITING.equals(s.arenaState()) || s.arenaState().isEmpty());
+    }
+
+    /**
+     * Send PREPARE as a control datagram. OPEN_JOIN follows from
+     * {@link #settlePending} once the server reports the arena WAITING.
+     */
+    private boolean prepare(String serverId, String mapId) {
+        ByteArrayDataOutput prepare = ByteStreams.newDataOutput();
+        prepare.writeUTF("PREPARE");
+        prepare.writeUTF(mapId);
+        if (!discovery.sendControl(serverId, prepare.toByteArray())) {
+            metrics.prepareFailures.labels("no_conduit").inc();
+            return false;
+        }
+        return true;
+    }
+
+    private void openJoin(String serverId) {
+        ByteArrayDataOutput open = ByteStreams.newDataOutput();
+        open.writeUTF("OPEN_JOIN");
+        discovery.sendControl(serverId, open.toByteArray());
+    }
+
+    private static final class Demand {
+        long lastArrivals;
+        double rate;            // arrivals per second, exponentially smoothed
+        int cursor;             // next map in the rotation
+
+        Demand(long arrivals) {
+            this.lastArrivals = arrivals;
+        }
+    }
+
+    private record Pending(String presetId, String mapId, String phase, Instant since) { }
+}
@@ -0,0 +1,255 @@
+package com.mmhq.proxy.fleet;
+
+import com.mmhq.proxy.metrics.ProxyMetrics;
+import com.mmhq.proxy.queue.QueueDispatcher;
+import com.mmhq.proxy.status.ServerStatusRegistry;
+import com.mmhq.sharedapi.fleet.Announcement;
+import com.mmhq.sharedapi.fleet.ControlDatagram;
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registers game servers with Velocity as they announce themselves and
+ * unregisters them when they leave or go quiet, so the fleet can grow and
+ * shrink without editing velocity.toml or restarting the proxy.
+ *
+ * Game servers send a signed {@link Announcement} over UDP with every
+ * heartbeat (see the game plugin's {@code discovery} config). Each one
+ * updates the status registry like a plugin-message heartbeat and, if the
+ * server is new or moved, (re)registers it under its server id. One not
+ * newer than the last accepted from the same server id is dropped, so a
+ * replayed or reordered datagram can't roll a status back, re-point the
+ * reply address or unregister a live server. Servers listed in
+ * velocity.toml are never touched. Configured with the system properties
+ * {@code mmhq.discovery.host} / {@code .port} (default 127.0.0.1:9330),
+ * {@code .secret} (required; unset disables discovery) and
+ * {@code .staleSeconds} (default 20).
+ *
+ * The address each announcement came from is also the way back: {@link
+ * #sendControl} delivers a control-channel message there as a signed
+ * {@link ControlDatagram}, which needs no player on the server.
+ */
+public final class BackendDiscovery {
+    private static final Duration SWEEP = Duration.ofSeconds(5);
+
+    private final ProxyServer proxy;
+    private final ServerStatusRegistry registry;
+    private final QueueDispatcher dispatcher;
+    private final Logger logger;
+    private final ProxyMetrics metrics;
+
+    private final Map<String, Backend> backends = new ConcurrentHashMap<>();   // registered by us, by server id
+    private final Map<String, SocketAddress> replyTo = new ConcurrentHashMap<>();  // announcement source, by server id
+    private final Map<String, Long> lastSentAt = new HashMap<>();                  // newest announcement, by server id (receiver thread)
+    private DatagramSocket socket;
+    private ScheduledTask sweepTask;
+    private Duration staleAfter;
+    private byte[] key;
+    private long lastSeq;
+
+    private record Backend(ServerInfo info, Set<String> capabilities, long seenAt) { }
+
+    public BackendDiscovery(ProxyServer proxy, ServerStatusRegistry registry, QueueDispatcher dispatcher, Logger logger, ProxyMetrics metrics) {
+        this.proxy = proxy;
+        this.registry = registry;
+        this.dispatcher = dispatcher;
+        this.logger = logger;
+        this.metrics = metrics;
+    }
+
+    public void start(Object plugin) {
+        String secret = System.getProperty("mmhq.discovery.secret", "");
+        if (secret.isEmpty()) {
+            logger.info("[Discovery] Disabled (set -Dmmhq.discovery.secret to let game servers register themselves)");
+            return;
+        }
+        String host = System.getProperty("mmhq.discovery.host", "127.0.0.1");
+        int port = Integer.getInteger("mmhq.discovery.port", 9330);
+        staleAfter = Duration.ofSeconds(Math.max(10, Integer.getInteger("mmhq.discovery.staleSeconds", 20)));
+        try {
+            socket = new DatagramSocket(new InetSocketAddress(host, port));
+        } catch (SocketException e) {
+            logger.warn("[Discovery] Could not bind {}:{} - discovery disabled: {}", host, port, e.getMessage());
+            return;
+        }
+        key = secret.getBytes(StandardCharsets.UTF_8);
+        Thread receiver = new Thread(() -> receive(key), "mmhq-discovery");
+        receiver.setDaemon(true);
+        receiver.start();
+        sweepTask = proxy.getScheduler().buildTask(plugin, this::sweep)
+                .repeat(SWEEP.toMillis(), TimeUnit.MILLISECONDS)
+                .schedule();
+        logger.info("[Discovery] Listening for game servers on udp://{}:{}", host, port);
+    }
+
+    public void stop() {
+        if (sweepTask != null) {
+            sweepTask.cancel();
+            sweepTask = null;
+        }
+        if (socket != null) {
+            socket.close();         // unblocks the receiver, which then exits
+            socket = null;
+        }
+    }
+
+    /**
+     * Whether {@code serverId} can take {@code capability}. Servers that never
+     * announced themselves (velocity.toml entries) are assumed capable.
+     */
+    public boolean supports(String serverId, String capability) {
+        Backend b = backends.get(serverId);
+        return b == null || b.capabilities().contains(capability);
+    }
+
+    public int size() {
+        return backends.size();
+    }
+
+    /**
+     * Whether {@link #sendControl} has an address for {@code serverId}.
+     */
+    public boolean reachable(String serverId) {
+        return socket != null && replyTo.containsKey(serverId);
+    }
+
+    /**
+     * Send {@code payload} (a control-channel message) to {@code serverId}
+     * over UDP, to where its announcements come from.
+     *
+     * @return false if discovery is off or the server never announced itself
+     */
+    public boolean sendControl(String serverId, byte[] payload) {
+        DatagramSocket s = socket;
+        SocketAddress target = replyTo.get(serverId);
+        if (s == null || target == null) return false;
+        byte[] data = new ControlDatagram(serverId, nextSeq(), payload).encode(key);
+        try {
+            s.send(new DatagramPacket(data, data.length, target));
+            return true;
+        } catch (IOException e) {
+            logger.warn("[Discovery] Control datagram to {} ({}) failed: {}", serverId, target, e.getMessage());
+            return false;
+        }
+    }
+
+    private synchronized long nextSeq() {
+        lastSeq = Math.max(System.currentTimeMillis(), lastSeq + 1);
+        return lastSeq;
+    }
+
+    // ===== Announcements =====
+
+    private void receive(byte[] key) {
+        DatagramSocket s = socket;
+        byte[] buf = new byte[Announcement.MAX_DATAGRAM];
+        while (s != null && !s.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buf, buf.length);
+            try {
+                s.receive(packet);
+            } catch (IOException e) {
+                if (!s.isClosed()) logger.warn("[Discovery] Receive failed: {}", e.getMessage());
+                continue;
+            }
+            Announcement a;
+            try {
+                a = Announcement.decode(packet.getData(), packet.getLength(), key, System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                metrics.announcements.labels("rejected").inc();
+                logger.debug("[Discovery] Rejected datagram from {}: {}", packet.getSocketAddress(), e.getMessage());
+                continue;
+            }
+            Long newest = lastSentAt.get(a.serverId());
+            if (newest != null && a.sentAt() <= newest) {
+                // replayed or overtaken: applying it would roll back a newer status, or drop a live server
+                metrics.announcements.labels("rejected").inc();
+                logger.debug("[Discovery] Dropped out-of-order {} from {} ({}ms behind)", a, packet.getSocketAddress(), newest - a.sentAt());
+                continue;
+            }
+            lastSentAt.put(a.serverId(), a.sentAt());
+            metrics.announcements.labels("ok").inc();
+            try {
+                if (a.kind() == Announcement.Kind.ALIVE) replyTo.put(a.serverId(), packet.getSocketAddress());
+                handle(a);
+            } catch (RuntimeException e) {
+                logger.warn("[Discovery] Failed to apply {}", a, e);
+            }
+        }
+    }
+
+    private void handle(Announcement a) {
+        if (a.kind() == Announcement.Kind.LEAVE) {
+            replyTo.remove(a.serverId());
+            registry.remove(a.serverId());
+            unregister(a.serverId(), "left");
+            return;
+        }
+        registry.update(a.status());
+        metrics.heartbeats.inc();
+        register(a);
+        dispatcher.tryDispatch();
+    }
+
+    private synchronized void register(Announcement a) {
+        String id = a.serverId();
+        InetSocketAddress address = new InetSocketAddress(a.host(), a.port());
+        Backend known = backends.get(id);
+        if (known == null) {
+            Optional<RegisteredServer> existing = proxy.getServer(id);
+            if (existing.isPresent()) {
+                return; // from velocity.toml; its address is the operator's call
+            }
+        } else if (known.info().getAddress().equals(address)) {
+            backends.put(id, new Backend(known.info(), a.capabilities(), System.currentTimeMillis()));
+            return;
+        } else {
+            proxy.unregisterServer(known.info());
+            logger.info("[Discovery] {} moved from {} to {}", id, known.info().getAddress(), address);
+        }
+        ServerInfo info = new ServerInfo(id, address);
+        proxy.registerServer(info);
+        backends.put(id, new Backend(info, a.capabilities(), System.currentTimeMillis()));
+        metrics.backendChanges.labels("registered").inc();
+        logger.info("[Discovery] Registered {} at {} {}", id, address, a.capabilities());
+    }
+
+    private synchronized void unregister(String serverId, String reason) {
+        Backend b = backends.remove(serverId);
+        if (b == null) return;
+        proxy.unregisterServer(b.info());
+        metrics.backendChanges.labels("unregistered").inc();
+        logger.info("[Discovery] Unregistered {} ({})", serverId, reason);
+    }
+
+    /**
+     * Drop servers whose announcements stopped (crashed or cut off).
+     */
+    private synchronized void sweep() {
+        long cutoff = System.currentTimeMillis() - staleAfter.toMillis();
+        for (Map.Entry<String, Backend> e : backends.entrySet()) {
+            if (e.getValue().seenAt() < cutoff) {
+                replyTo.remove(e.getKey());
+                registry.remove(e.getKey());
+                unregister(e.getKey(), "no announcement for " + staleAfter.toSeconds() + "s");
+            }
+        }
+    }
+}
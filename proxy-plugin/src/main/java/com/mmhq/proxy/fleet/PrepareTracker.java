@@ -0,0 +1,150 @@
+package com.mmhq.proxy.fleet;
+
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import com.mmhq.proxy.metrics.ProxyMetrics;
+import com.mmhq.proxy.status.ServerStatusRegistry;
+import com.mmhq.sharedapi.game.ServerStatus;
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.messages.MinecraftChannelIdentifier;
+import org.slf4j.Logger;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Follows PREPAREs from the progress game servers put in their heartbeats
+ * (sent at every reset step), estimates when each will finish, and relays
+ * the progress to the lobby server. While its arena is PREPARING a game
+ * server reports the map being prepared as its map, which is what is tracked.
+ *
+ * The estimate for a server is the preset's typical prepare time (smoothed
+ * over completed PREPAREs) minus the time already spent, or, until one has
+ * completed, the elapsed time extrapolated from the reported percentage.
+ * Heartbeats are the only route that works here: a PREPARE empties the
+ * game server, so it can't message the lobby itself, but its UDP
+ * announcements still reach us. The lobby is the {@code mmhq.lobbyServer}
+ * system property (default "lobby") and gets PREPARE_PROGRESS, serverId,
+ * mapId, step, pct, etaSeconds on the control channel.
+ */
+public final class PrepareTracker {
+    private static final MinecraftChannelIdentifier CONTROL = MinecraftChannelIdentifier.create("mmhq", "control");
+    private static final String ARENA_PREPARING = "PREPARING";
+    private static final double SMOOTHING = 0.3;
+
+    private final ProxyServer proxy;
+    private final ServerStatusRegistry registry;
+    private final Logger logger;
+    private final ProxyMetrics metrics;
+    private final String lobbyServer = System.getProperty("mmhq.lobbyServer", "lobby");
+
+    private final Map<String, Preparing> preparing = new HashMap<>();     // by server id
+    private final Map<String, Double> typicalMillis = new HashMap<>();    // by lowercase preset
+
+    private static final class Preparing {
+        final String presetId;
+        final String mapId;
+        final long startedAt;
+        int pct;
+
+        Preparing(String presetId, String mapId, long startedAt, int pct) {
+            this.presetId = presetId;
+            this.mapId = mapId;
+            this.startedAt = startedAt;
+            this.pct = pct;
+        }
+    }
+
+    public PrepareTracker(ProxyServer proxy, ServerStatusRegistry registry, Logger logger, ProxyMetrics metrics) {
+        this.proxy = proxy;
+        this.registry = registry;
+        this.logger = logger;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Feed a heartbeat (registered as a {@link ServerStatusRegistry} listener).
+     */
+    public void accept(ServerStatus s) {
+        long now = System.currentTimeMillis();
+        String relayStep = null;
+        long eta;
+        synchronized (this) {
+            Preparing p = preparing.get(s.serverId());
+            if (ARENA_PREPARING.equals(s.arenaState())) {
+                if (p == null || s.prepareProgress() < p.pct) {
+                    p = new Preparing(s.presetId(), s.mapName(), now, s.prepareProgress());
+                    preparing.put(s.serverId(), p);
+                    relayStep = "STARTED";
+                } else if (s.prepareProgress() != p.pct) {
+                    p.pct = s.prepareProgress();
+                    relayStep = "PROGRESS";
+                }
+                eta = remainingMillis(p, now);
+            } else {
+                if (p == null) return;
+                preparing.remove(s.serverId());
+                long took = now - p.startedAt;
+                if (!s.arenaState().equals("ERROR")) {
+                    typicalMillis.merge(key(p.presetId), (double) took,
+                            (old, sample) -> old + SMOOTHING * (sample - old));
+                    metrics.prepareDuration.observeNanos(took * 1_000_000L);
+                    logger.info("[Prepare] {} ready with {} after {}ms", s.serverId(), p.mapId, took);
+                } else {
+                    logger.warn("[Prepare] {} failed preparing {} after {}ms", s.serverId(), p.mapId, took);
+                }
+                p.pct = 100;
+                relayStep = s.arenaState();
+                eta = 0L;
+            }
+            metrics.prepareEta.labels(s.presetId()).set(etaSeconds(s.presetId()));
+            if (relayStep == null) return;
+            relay(s.serverId(), p, relayStep, eta);
+        }
+    }
+
+    /**
+     * Seconds until a server of {@code presetId} can take players: 0 if one
+     * already can (warm: prepared and joinable, see {@link ArenaPrewarmer#isWarm}),
+     * the soonest estimate among servers preparing for it, or -1 if none is.
+     */
+    public synchronized long etaSeconds(String presetId) {
+        for (ServerStatus s : registry.all()) {
+            if (s.presetId().equalsIgnoreCase(presetId) && ArenaPrewarmer.isWarm(s)) return 0L;
+        }
+        long now = System.currentTimeMillis();
+        long best = -1L;
+        for (Preparing p : preparing.values()) {
+            if (!p.presetId.equalsIgnoreCase(presetId)) continue;
+            long remaining = remainingMillis(p, now);
+            if (best < 0 || remaining < best) best = remaining;
+        }
+        return best < 0 ? -1L : (best + 999L) / 1000L;
+    }
+
+    private long remainingMillis(Preparing p, long now) {
+        long elapsed = now - p.startedAt;
+        Double typical = typicalMillis.get(key(p.presetId));
+        if (typical != null) return Math.max(0L, Math.round(typical) - elapsed);
+        if (p.pct <= 0) return elapsed;     // nothing to go on yet: guess as long again
+        return elapsed * (100 - p.pct) / p.pct;
+    }
+
+    private void relay(String serverId, Preparing p, String step, long etaMillis) {
+        proxy.getServer(lobbyServer).ifPresent(lobby -> {
+            ByteArrayDataOutput out = ByteStreams.newDataOutput();
+            out.writeUTF("PREPARE_PROGRESS");
+            out.writeUTF(serverId);
+            out.writeUTF(p.mapId);
+            out.writeUTF(step);
+            out.writeByte(p.pct);
+            out.writeInt((int) ((etaMillis + 999L) / 1000L));
+            lobby.sendPluginMessage(CONTROL, out.toByteArray());    // dropped if the lobby is empty
+        });
+    }
+
+    private static String key(String presetId) {
+        return presetId.toLowerCase(Locale.ROOT);
+    }
+}
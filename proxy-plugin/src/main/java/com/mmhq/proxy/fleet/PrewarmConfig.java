@@ -0,0 +1,108 @@
+package com.mmhq.proxy.fleet;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Pre-warmer settings from {@code prewarm.properties} in the plugin data
+ * directory (written from the bundled default on first start). Invalid
+ * values log a warning and fall back to the default.
+ */
+public record PrewarmConfig(boolean enabled, Duration interval, Duration lead, Duration prepareTimeout,
+                            Duration staleAfter, double rateSmoothing, List<Policy> presets) {
+
+    private static final String FILE = "prewarm.properties";
+
+    /**
+     * Warm-server bounds and map rotation for one preset.
+     */
+    public record Policy(String presetId, int minWarm, int maxWarm, List<String> maps) { }
+
+    public static PrewarmConfig load(Path dataDirectory, Logger logger) {
+        Path file = dataDirectory.resolve(FILE);
+        Properties props = new Properties();
+        try {
+            if (Files.notExists(file)) {
+                Files.createDirectories(dataDirectory);
+                try (InputStream in = PrewarmConfig.class.getClassLoader().getResourceAsStream(FILE)) {
+                    if (in != null) Files.copy(in, file);
+                }
+            }
+            if (Files.exists(file)) {
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    props.load(reader);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("[Prewarm] Could not read {} - using defaults: {}", file, e.getMessage());
+        }
+
+        Values v = new Values(props, logger);
+        boolean enabled = Boolean.parseBoolean(props.getProperty("enabled", "true").trim());
+        Duration interval = Duration.ofSeconds(v.integer("intervalSeconds", 5, 1, 300));
+        Duration lead = Duration.ofSeconds(v.integer("leadSeconds", 20, 0, 600));
+        Duration timeout = Duration.ofSeconds(v.integer("prepareTimeoutSeconds", 60, 5, 3600));
+        Duration stale = Duration.ofSeconds(v.integer("staleAfterSeconds", 15, 5, 600));
+        double smoothing = v.decimal("rateSmoothing", 0.3, 0.01, 1.0);
+
+        List<Policy> policies = new ArrayList<>();
+        for (String id : split(props.getProperty("presets", "default"))) {
+            String prefix = "preset." + id + ".";
+            int min = v.integer(prefix + "minWarm", 1, 0, 64);
+            int max = v.integer(prefix + "maxWarm", Math.max(min, 4), min, 256);
+            List<String> maps = split(props.getProperty(prefix + "maps", ""));
+            if (maps.isEmpty()) {
+                logger.warn("[Prewarm] Preset {} has no {}maps rotation - not pre-warming it", id, prefix);
+                continue;
+            }
+            policies.add(new Policy(id, min, max, List.copyOf(maps)));
+        }
+        return new PrewarmConfig(enabled, interval, lead, timeout, stale, smoothing, List.copyOf(policies));
+    }
+
+    private static List<String> split(String csv) {
+        return Arrays.stream(csv.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+    }
+
+    private record Values(Properties props, Logger logger) {
+        int integer(String key, int def, int min, int max) {
+            String raw = props.getProperty(key);
+            if (raw == null) return def;
+            try {
+                int value = Integer.parseInt(raw.trim());
+                if (value >= min && value <= max) return value;
+            } catch (NumberFormatException ignored) {
+                // fall through to the warning
+            }
+            logger.warn("[Prewarm] {}={} is not a whole number in [{}, {}] - using {}", key, raw, min, max, def);
+            return def;
+        }
+
+        double decimal(String key, double def, double min, double max) {
+            String raw = props.getProperty(key);
+            if (raw == null) return def;
+            try {
+                double value = Double.parseDouble(raw.trim());
+                if (value >= min && value <= max) return value;
+            } catch (NumberFormatException ignored) {
+                // fall through to the warning
+            }
+            logger.warn("[Prewarm] {}={} is not a number in [{}, {}] - using {}", key, raw, min, max, def);
+            return def;
+        }
+    }
+}
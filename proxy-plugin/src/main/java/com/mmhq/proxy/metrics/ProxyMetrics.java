@@ -0,0 +1,96 @@
+package com.mmhq.proxy.metrics;
+
+import com.mmhq.sharedapi.metrics.Counter;
+import com.mmhq.sharedapi.metrics.Gauge;
+import com.mmhq.sharedapi.metrics.Histogram;
+import com.mmhq.sharedapi.metrics.MetricsHttpServer;
+import com.mmhq.sharedapi.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Proxy metrics, served at {@code http://<host>:<port>/metrics}.
+ * Address comes from the {@code mmhq.metrics.host} / {@code mmhq.metrics.port}
+ * system properties (default 127.0.0.1:9320); port 0 disables the endpoint.
+ */
+public final class ProxyMetrics {
+    private static final double[] WAIT_SECONDS = {0.5, 1, 2, 5, 10, 20, 30, 60, 120, 300, 600};
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+    private MetricsHttpServer server;
+
+    // ===== Queue =====
+    public final Gauge queueDepth = registry.gauge(
+            "mmhq_queue_depth", "Tickets waiting in the proxy queue");
+    public final Counter enqueued = registry.counter(
+            "mmhq_queue_enqueued_total", "Tickets added to the queue");
+    public final Counter dispatched = registry.counter(
+            "mmhq_queue_dispatched_total", "Players sent to a game server, by preset", "preset");
+    public final Counter dropped = registry.counter(
+            "mmhq_queue_dropped_total", "Tickets removed without dispatch, by reason", "reason");
+    public final Histogram queueWait = registry.histogram(
+            "mmhq_queue_wait_seconds", "Time from enqueue to dispatch", WAIT_SECONDS);
+    public final Histogram dispatchDuration = registry.histogram(
+            "mmhq_queue_dispatch_duration_seconds", "Time spent in one dispatch pass", Histogram.LATENCY_SECONDS);
+
+    // ===== Status registry =====
+    public final Counter heartbeats = registry.counter(
+            "mmhq_status_heartbeats_total", "Heartbeats received from game servers");
+    public final Counter heartbeatErrors = registry.counter(
+            "mmhq_status_heartbeat_errors_total", "Heartbeats that failed to parse");
+
+    // ===== Discovery =====
+    public final Counter announcements = registry.counter(
+            "mmhq_discovery_announcements_total", "Backend announcements received, by result", "result");
+    public final Counter backendChanges = registry.counter(
+            "mmhq_discovery_backend_changes_total", "Backends registered or unregistered at runtime, by change", "change");
+
+    // ===== Pre-warming =====
+    public final Gauge warmServers = registry.gauge(
+            "mmhq_prewarm_warm_servers", "Joinable game servers with room, by preset", "preset");
+    public final Gauge warmTarget = registry.gauge(
+            "mmhq_prewarm_target_servers", "Warm servers the pre-warmer aims for, by preset", "preset");
+    public final Gauge arrivalRate = registry.gauge(
+            "mmhq_prewarm_arrival_rate", "Smoothed queue arrivals per second, by preset", "preset");
+    public final Counter prepares = registry.counter(
+            "mmhq_prewarm_prepares_total", "PREPAREs sent ahead of demand, by preset", "preset");
+    public final Counter prepareFailures = registry.counter(
+            "mmhq_prewarm_prepare_failures_total", "PREPAREs not delivered or not completed in time, by reason", "reason");
+
+    // ===== Prepare progress =====
+    public final Histogram prepareDuration = registry.histogram(
+            "mmhq_prepare_duration_seconds", "Time from a server reporting PREPARING to WAITING", WAIT_SECONDS);
+    public final Gauge prepareEta = registry.gauge(
+            "mmhq_prepare_eta_seconds", "Estimated seconds until a server of the preset is ready (-1 if none preparing), by preset", "preset");
+
+    /**
+     * Scrape-time gauge (supplier runs on the metrics HTTP thread).
+     */
+    public void gauge(String name, String help, DoubleSupplier supplier) {
+        registry.gauge(name, help, supplier);
+    }
+
+    public void start(Logger logger) {
+        String host = System.getProperty("mmhq.metrics.host", "127.0.0.1");
+        int port = Integer.getInteger("mmhq.metrics.port", 9320);
+        if (port <= 0) {
+            logger.info("[Metrics] Endpoint disabled (mmhq.metrics.port={})", port);
+            return;
+        }
+        try {
+            server = MetricsHttpServer.start(registry, host, port);
+            logger.info("[Metrics] Serving http://{}:{}/metrics", host, port);
+        } catch (IOException e) {
+            logger.warn("[Metrics] Could not bind {}:{} - metrics endpoint disabled: {}", host, port, e.getMessage());
+        }
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.close();
+            server = null;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.mmhq.proxy.queue;
 
+import com.mmhq.proxy.metrics.ProxyMetrics;
 import com.mmhq.proxy.status.ServerStatusRegistry;
 import com.mmhq.sharedapi.queue.QueueTicket;
 import com.mmhq.sharedapi.game.ServerStatus;
@@ -8,6 +9,8 @@ import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
 import org.slf4j.Logger;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Optional;
 
 public final class QueueDispatcher {
@@ -15,15 +18,26 @@ public final class QueueDispatcher {
     private final QueueService queueService;
     private final ServerStatusRegistry registry;
     private final Logger logger;
+    private final ProxyMetrics metrics;
 
-    public QueueDispatcher(ProxyServer proxy, QueueService queueService, ServerStatusRegistry registry, Logger logger) {
+    public QueueDispatcher(ProxyServer proxy, QueueService queueService, ServerStatusRegistry registry, Logger logger, ProxyMetrics metrics) {
         this.proxy = proxy;
         this.queueService = queueService;
         this.registry = registry;
         this.logger = logger;
+        this.metrics = metrics;
     }
 
     public void tryDispatch() {
+        long t0 = System.nanoTime();
+        try {
+            dispatchPending();
+        } finally {
+            metrics.dispatchDuration.observeNanos(System.nanoTime() - t0);
+        }
+    }
+
+    private void dispatchPending() {
         while (true) {
             Optional<QueueTicket> opt = queueService.peek();
             if (opt.isEmpty()) return;
@@ -35,6 +49,7 @@ public final class QueueDispatcher {
             Optional<Player> player = proxy.getPlayer(ticket.playerId());
             if (player.isEmpty()) {
                 queueService.remove(ticket);
+                metrics.dropped.labels("offline").inc();
                 continue;
             }
 
@@ -42,11 +57,14 @@ public final class QueueDispatcher {
             if (target.isEmpty()) {
                 logger.warn("No registered server named {} to send player {}", joinable.get().serverId(), ticket.playerId());
                 queueService.remove(ticket);
+                metrics.dropped.labels("unknown_server").inc();
                 continue;
             }
 
             player.get().createConnectionRequest(target.get()).connect();
             queueService.remove(ticket);
+            metrics.dispatched.labels(ticket.presetId()).inc();
+            metrics.queueWait.observeNanos(Duration.between(ticket.createdAt(), Instant.now()).toNanos());
             logger.info("Sent player {} to server {} (preset {})", player.get().getUsername(), joinable.get().serverId(), ticket.presetId());
         }
     }
@@ -1,20 +1,37 @@
 package com.mmhq.proxy.queue;
 
+import com.mmhq.proxy.metrics.ProxyMetrics;
 import com.mmhq.sharedapi.queue.QueueTicket;
 import net.kyori.adventure.text.Component;
 
 import java.time.Duration;
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class QueueService {
     private final Deque<QueueTicket> queue = new ArrayDeque<>();
+    // Per-preset demand, read by the pre-warmer from the scheduler thread
+    private final Map<String, Integer> depthByPreset = new ConcurrentHashMap<>();
+    private final Map<String, Long> arrivalsByPreset = new ConcurrentHashMap<>();
+    private final ProxyMetrics metrics;
+
+    public QueueService(ProxyMetrics metrics) {
+        this.metrics = metrics;
+    }
 
     public QueueTicket enqueue(UUID playerId, String presetId) {
         QueueTicket ticket = new QueueTicket(playerId, presetId);
         queue.addLast(ticket);
+        String key = key(presetId);
+        depthByPreset.merge(key, 1, Integer::sum);
+        arrivalsByPreset.merge(key, 1L, Long::sum);
+        metrics.enqueued.inc();
+        metrics.queueDepth.set(queue.size());
         return ticket;
     }
 
@@ -23,11 +40,41 @@ public final class QueueService {
     }
 
     public void remove(QueueTicket ticket) {
-        queue.remove(ticket);
+        if (queue.remove(ticket)) left(ticket);
+        metrics.queueDepth.set(queue.size());
     }
 
     public Optional<QueueTicket> nextTicket() {
-        return Optional.ofNullable(queue.pollFirst());
+        QueueTicket ticket = queue.pollFirst();
+        if (ticket != null) left(ticket);
+        metrics.queueDepth.set(queue.size());
+        return Optional.ofNullable(ticket);
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Tickets waiting for {@code presetId}.
+     */
+    public int depth(String presetId) {
+        return depthByPreset.getOrDefault(key(presetId), 0);
+    }
+
+    /**
+     * Tickets ever enqueued for {@code presetId}; the pre-warmer derives the arrival rate from its deltas.
+     */
+    public long arrivals(String presetId) {
+        return arrivalsByPreset.getOrDefault(key(presetId), 0L);
+    }
+
+    private void left(QueueTicket ticket) {
+        depthByPreset.computeIfPresent(key(ticket.presetId()), (k, n) -> n > 1 ? n - 1 : null);
+    }
+
+    private static String key(String presetId) {
+        return presetId.toLowerCase(Locale.ROOT);
     }
 
     public int position(QueueTicket ticket) {
@@ -2,6 +2,7 @@ package com.mmhq.proxy.status;
 
 import com.google.common.io.ByteArrayDataInput;
 import com.google.common.io.ByteStreams;
+import com.mmhq.proxy.metrics.ProxyMetrics;
 import com.mmhq.proxy.queue.QueueDispatcher;
 import com.mmhq.sharedapi.game.ServerStatus;
 import com.velocitypowered.api.event.Subscribe;
@@ -19,11 +20,13 @@ public final class HeartbeatListener {
     private final ServerStatusRegistry registry;
     private final QueueDispatcher dispatcher;
     private final Logger logger;
+    private final ProxyMetrics metrics;
 
-    public HeartbeatListener(ServerStatusRegistry registry, QueueDispatcher dispatcher, Logger logger) {
+    public HeartbeatListener(ServerStatusRegistry registry, QueueDispatcher dispatcher, Logger logger, ProxyMetrics metrics) {
         this.registry = registry;
         this.dispatcher = dispatcher;
         this.logger = logger;
+        this.metrics = metrics;
     }
 
     @Subscribe
@@ -37,8 +40,10 @@ public final class HeartbeatListener {
         try {
             ServerStatus status = ServerStatus.fromPayload(payload);
             registry.update(status);
+            metrics.heartbeats.inc();
             dispatcher.tryDispatch();
         } catch (Exception ex) {
+            metrics.heartbeatErrors.inc();
             logger.warn("Failed to parse heartbeat payload: {}", payload, ex);
         }
     }
@@ -1,59 +1,135 @@
 package com.mmhq.proxy.status;
 
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteStreams;
+import com.mmhq.proxy.fleet.BackendDiscovery;
+import com.mmhq.sharedapi.fleet.Announcement;
+import com.mmhq.sharedapi.game.ServerStatus;
 import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.PluginMessageEvent;
 import com.velocitypowered.api.event.player.ServerConnectedEvent;
-import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.ServerConnection;
+import com.velocitypowered.api.proxy.messages.ChannelMessageSink;
 import com.velocitypowered.api.proxy.messages.MinecraftChannelIdentifier;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
 import org.slf4j.Logger;
 
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 
 /**
- * Listens for players connecting to mm1 and sends the selected map.
+ * Pushes each game server its map assignment and records the acknowledgements.
+ * Game servers are the ones that have sent a heartbeat and accept SET_MAP.
+ *
+ * An assignment is pushed when it changes ({@link #push}) and, until the
+ * server acknowledges it, at most once per resend window when players
+ * connect - needed because plugin messages only reach a server with a
+ * player on it. Format: SET_MAP, map, version; the server answers MAP_ACK,
+ * version. Heartbeats carry the version a server has applied; one that drops
+ * below its acknowledgement (the server restarted) gets its assignment again.
  */
 public class MapSelectionListener {
-    
-    private static final MinecraftChannelIdentifier CHANNEL = 
+
+    private static final MinecraftChannelIdentifier CHANNEL =
             MinecraftChannelIdentifier.create("mmhq", "mapselect");
-    
+
+    private final ProxyServer proxy;
     private final MapSelectionRegistry mapRegistry;
+    private final ServerStatusRegistry statusRegistry;
+    private final BackendDiscovery discovery;
     private final Logger logger;
 
-    public MapSelectionListener(MapSelectionRegistry mapRegistry, Logger logger) {
+    public MapSelectionListener(ProxyServer proxy, MapSelectionRegistry mapRegistry, ServerStatusRegistry statusRegistry,
+                                BackendDiscovery discovery, Logger logger) {
+        this.proxy = proxy;
         this.mapRegistry = mapRegistry;
+        this.statusRegistry = statusRegistry;
+        this.discovery = discovery;
         this.logger = logger;
+        statusRegistry.addListener(this::onHeartbeat);
+    }
+
+    private void onHeartbeat(ServerStatus status) {
+        if (status.mapVersion() < 0L) return;  // doesn't report it
+        if (mapRegistry.reported(status.serverId(), status.mapVersion())) {
+            logger.info("[MapSelection] {} reports map v{}, behind its ack - resending", status.serverId(), status.mapVersion());
+            push(status.serverId());
+        }
     }
 
     @Subscribe
     public void onServerConnected(ServerConnectedEvent event) {
-        Player player = event.getPlayer();
-        String serverName = event.getServer().getServerInfo().getName();
-        
-        // Only send map selection when joining mm1
-        if (!"mm1".equalsIgnoreCase(serverName)) {
+        push(event.getServer());
+    }
+
+    @Subscribe
+    public void onPluginMessage(PluginMessageEvent event) {
+        if (!event.getIdentifier().equals(CHANNEL) || !(event.getSource() instanceof ServerConnection source)) {
             return;
         }
+        // Ours, not the client's
+        event.setResult(PluginMessageEvent.ForwardResult.handled());
+        try {
+            ByteArrayDataInput in = ByteStreams.newDataInput(event.getData());
+            if ("MAP_ACK".equals(in.readUTF())) {
+                long version = in.readLong();
+                mapRegistry.acknowledge(source.getServerInfo().getName(), version);
+            }
+        } catch (Exception e) {
+            logger.warn("[MapSelection] Bad message from {}: {}", source.getServerInfo().getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Push {@code serverId}'s assignment now if it has not acknowledged it.
+     */
+    public void push(String serverId) {
+        proxy.getServer(serverId).ifPresent(this::push);
+    }
+
+    /**
+     * Push to every game server (after the default map changed).
+     */
+    public void pushAll() {
+        for (RegisteredServer server : proxy.getAllServers()) {
+            push(server);
+        }
+    }
+
+    private void push(RegisteredServer server) {
+        String serverName = server.getServerInfo().getName();
 
-        String selectedMap = mapRegistry.getSelectedMap();
-        logger.info("[MapSelection] Player {} joining mm1, sending map selection: {}", 
-                player.getUsername(), selectedMap);
+        // Only send map selection to game servers
+        if (!statusRegistry.contains(serverName) || !discovery.supports(serverName, Announcement.CAP_MAP_SELECT)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        MapSelectionRegistry.Assignment assignment = mapRegistry.pendingFor(serverName, now);
+        if (assignment == null) {
+            return; // already acknowledged, or sent moments ago
+        }
+        if (send(server, assignment)) {
+            mapRegistry.markSent(serverName, assignment.version(), now);
+            logger.info("[MapSelection] Sent SET_MAP:{} v{} to {}", assignment.mapId(), assignment.version(), serverName);
+        }
+    }
 
-        // Send the selected map to mm1 via plugin message
+    /**
+     * @return false if nobody is on the server to carry the message
+     */
+    private boolean send(ChannelMessageSink server, MapSelectionRegistry.Assignment assignment) {
         try {
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
             DataOutputStream out = new DataOutputStream(baos);
             out.writeUTF("SET_MAP");
-            out.writeUTF(selectedMap);
+            out.writeUTF(assignment.mapId());
+            out.writeLong(assignment.version());
             out.flush();
-
-            // Send on the next tick to ensure the player is fully connected
-            event.getServer().sendPluginMessage(CHANNEL, baos.toByteArray());
-            
-            logger.info("[MapSelection] Sent SET_MAP:{} to mm1 for player {}", 
-                    selectedMap, player.getUsername());
+            return server.sendPluginMessage(CHANNEL, baos.toByteArray());
         } catch (Exception e) {
             logger.error("[MapSelection] Failed to send map selection: {}", e.getMessage());
+            return false;
         }
     }
 }
@@ -1,33 +1,121 @@
 package com.mmhq.proxy.status;
 
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Stores the currently selected map for mm1.
- * This allows lobby to set the map before players join mm1.
+ * Versioned map assignments for game servers.
+ *
+ * Every change - the global default set with /preparemm1, or a server's own
+ * map from the pre-warmer or /preparemm1 &lt;map&gt; &lt;server&gt; - gets a new
+ * version. A server plays its own assignment if it has one, else the
+ * default. The proxy pushes a server's assignment until the server
+ * acknowledges that version, so a join burst costs one SET_MAP rather than
+ * one per player. Versions start at the proxy's start time in millis, so
+ * they keep increasing across proxy restarts and game servers can drop
+ * anything not newer than what they applied.
  */
 public class MapSelectionRegistry {
-    
-    private final AtomicReference<String> selectedMap = new AtomicReference<>("AncientTomb");
-    
+
+    /**
+     * A map and the version it was assigned at.
+     */
+    public record Assignment(String mapId, long version) { }
+
+    private static final long RESEND_MILLIS = 5_000L;    // re-push an unacknowledged version after this long
+
+    private final AtomicLong versions = new AtomicLong(System.currentTimeMillis());
+    private final AtomicReference<Assignment> selectedMap =
+            new AtomicReference<>(new Assignment("AncientTomb", versions.incrementAndGet()));
+    private final Map<String, Assignment> byServer = new ConcurrentHashMap<>();
+    private final Map<String, Delivery> deliveries = new ConcurrentHashMap<>();
+
+    private record Delivery(long sentVersion, long sentAt, long ackedVersion) { }
+
     /**
-     * Set the selected map for the next game.
+     * Set the default map for servers without their own assignment.
      */
-    public void setSelectedMap(String mapName) {
-        selectedMap.set(mapName);
+    public Assignment setSelectedMap(String mapName) {
+        Assignment current = selectedMap.get();
+        if (current.mapId().equalsIgnoreCase(mapName)) return current;
+        Assignment next = new Assignment(mapName, versions.incrementAndGet());
+        selectedMap.set(next);
+        return next;
     }
-    
+
     /**
-     * Get the currently selected map.
+     * Get the default map.
      */
     public String getSelectedMap() {
-        return selectedMap.get();
+        return selectedMap.get().mapId();
+    }
+
+    /**
+     * Assign {@code mapName} to a server. Re-assigning its current map keeps the version.
+     */
+    public Assignment assign(String serverId, String mapName) {
+        return byServer.compute(key(serverId), (k, current) ->
+                current != null && current.mapId().equalsIgnoreCase(mapName)
+                        ? current : new Assignment(mapName, versions.incrementAndGet()));
+    }
+
+    /**
+     * The server's own assignment, else the default.
+     */
+    public Assignment assignmentFor(String serverId) {
+        Assignment own = byServer.get(key(serverId));
+        return own != null ? own : selectedMap.get();
     }
-    
+
+    // ===== Delivery =====
+
     /**
-     * Clear the selection (reset to default).
+     * The assignment to push to {@code serverId} now, or null if it has
+     * acknowledged it or it was just sent and the ack may still be in flight.
      */
-    public void clearSelection() {
-        selectedMap.set("AncientTomb");
+    public Assignment pendingFor(String serverId, long now) {
+        Assignment a = assignmentFor(serverId);
+        Delivery d = deliveries.get(key(serverId));
+        if (d == null) return a;
+        if (d.ackedVersion() >= a.version()) return null;
+        if (d.sentVersion() >= a.version() && now - d.sentAt() < RESEND_MILLIS) return null;
+        return a;
+    }
+
+    public void markSent(String serverId, long version, long now) {
+        deliveries.merge(key(serverId), new Delivery(version, now, 0L),
+                (old, sent) -> new Delivery(version, now, old.ackedVersion()));
+    }
+
+    /**
+     * The server's heartbeat says {@code version} is the newest it applied.
+     * Below what it acknowledged means it restarted and lost its map, so the
+     * assignment is pending again (sendable right away).
+     *
+     * @return true if the server fell behind
+     */
+    public boolean reported(String serverId, long version) {
+        boolean[] behind = new boolean[1];
+        deliveries.computeIfPresent(key(serverId), (k, d) -> {
+            if (version >= d.ackedVersion()) return d;
+            behind[0] = true;
+            return new Delivery(0L, 0L, version);
+        });
+        return behind[0];
+    }
+
+    /**
+     * The server reports {@code version} (or a newer one) applied.
+     */
+    public void acknowledge(String serverId, long version) {
+        deliveries.merge(key(serverId), new Delivery(0L, 0L, version),
+                (old, ack) -> new Delivery(old.sentVersion(), old.sentAt(), Math.max(old.ackedVersion(), version)));
+    }
+
+    private static String key(String serverId) {
+        return serverId.toLowerCase(Locale.ROOT);
     }
 }
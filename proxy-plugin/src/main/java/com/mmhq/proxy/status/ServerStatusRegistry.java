@@ -3,25 +3,130 @@ package com.mmhq.proxy.status;
 import com.mmhq.sharedapi.game.GameState;
 import com.mmhq.sharedapi.game.ServerStatus;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 public final class ServerStatusRegistry {
     private final Map<String, TimedStatus> statuses = new ConcurrentHashMap<>();
+    private final List<Consumer<ServerStatus>> listeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<String>> removalListeners = new CopyOnWriteArrayList<>();
 
     public void update(ServerStatus status) {
         statuses.put(status.serverId(), new TimedStatus(status, Instant.now()));
+        for (Consumer<ServerStatus> listener : listeners) {
+            listener.accept(status);
+        }
     }
 
+    /**
+     * Be handed every status as it arrives, on the thread that received it
+     * (a Velocity event thread or the discovery receiver).
+     */
+    public void addListener(Consumer<ServerStatus> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Be handed the id of every server whose status is dropped.
+     */
+    public void addRemovalListener(Consumer<String> listener) {
+        removalListeners.add(listener);
+    }
+
+    public void remove(String serverId) {
+        if (statuses.remove(serverId) == null) return;
+        for (Consumer<String> listener : removalListeners) {
+            listener.accept(serverId);
+        }
+    }
+
+    /**
+     * Ids of servers whose last heartbeat is older than {@code maxAge}.
+     */
+    public List<String> staleIds(Duration maxAge) {
+        Instant cutoff = Instant.now().minus(maxAge);
+        return statuses.entrySet().stream()
+                .filter(e -> e.getValue().seenAt().isBefore(cutoff))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Drop {@code serverId}'s status if it is still older than {@code maxAge}
+     * (a heartbeat may have arrived in the meantime).
+     *
+     * @return true if it was dropped
+     */
+    public boolean removeIfStale(String serverId, Duration maxAge) {
+        TimedStatus t = statuses.get(serverId);
+        if (t == null || !t.seenAt().isBefore(Instant.now().minus(maxAge))) return false;
+        if (!statuses.remove(serverId, t)) return false;
+        for (Consumer<String> listener : removalListeners) {
+            listener.accept(serverId);
+        }
+        return true;
+    }
+
+    /**
+     * Whether {@code serverId} has sent a heartbeat (so it is a game server).
+     */
+    public boolean contains(String serverId) {
+        return statuses.containsKey(serverId);
+    }
+
+    /**
+     * A joinable server with room for {@code presetId}, preferring ones whose
+     * arena is already prepared (WAITING) over ones still waiting for a PREPARE.
+     */
     public Optional<ServerStatus> findJoinable(String presetId) {
         return statuses.values().stream()
                 .map(TimedStatus::status)
                 .filter(s -> s.presetId().equalsIgnoreCase(presetId))
                 .filter(s -> s.joinable() && s.currentPlayers() < s.maxPlayers())
-                .findFirst();
+                .min(Comparator.comparingInt(s -> "WAITING".equals(s.arenaState()) ? 0 : 1));
+    }
+
+    public int size() {
+        return statuses.size();
+    }
+
+    public long joinableCount() {
+        return statuses.values().stream()
+                .map(TimedStatus::status)
+                .filter(s -> s.joinable() && s.currentPlayers() < s.maxPlayers())
+                .count();
+    }
+
+    /**
+     * Age of the oldest heartbeat we still hold, or 0 if none.
+     */
+    public Duration maxStaleness() {
+        Instant now = Instant.now();
+        Duration max = Duration.ZERO;
+        for (TimedStatus t : statuses.values()) {
+            Duration age = Duration.between(t.seenAt(), now);
+            if (age.compareTo(max) > 0) max = age;
+        }
+        return max;
+    }
+
+    /**
+     * Statuses whose last heartbeat is at most {@code maxAge} old.
+     */
+    public Collection<ServerStatus> seenWithin(Duration maxAge) {
+        Instant cutoff = Instant.now().minus(maxAge);
+        return statuses.values().stream()
+                .filter(t -> !t.seenAt().isBefore(cutoff))
+                .map(TimedStatus::status)
+                .toList();
     }
 
     public Collection<ServerStatus> all() {
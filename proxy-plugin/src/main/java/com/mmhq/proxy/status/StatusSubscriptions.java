@@ -0,0 +1,117 @@
+package com.mmhq.proxy.status;
+
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import com.mmhq.sharedapi.game.ServerStatus;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.PluginMessageEvent;
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.ServerConnection;
+import com.velocitypowered.api.proxy.messages.MinecraftChannelIdentifier;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import org.slf4j.Logger;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes game server status to the lobby servers that asked for it, so a
+ * lobby keeps a live copy of every game server's status instead of polling.
+ *
+ * A lobby sends STATUS_SUBSCRIBE on the control channel and gets a
+ * STATUS_SNAPSHOT (count, then one status payload each) of everything the
+ * registry holds. After that it gets STATUS_UPDATE, payload whenever a game
+ * server's heartbeat differs from the last one pushed, and STATUS_REMOVED,
+ * serverId when one goes away. Periodic heartbeats that change nothing cost
+ * the lobby nothing.
+ *
+ * Pushes ride on a player connected to the lobby; when one can't be
+ * delivered the lobby is dropped, and it subscribes again (for a fresh
+ * snapshot) when its next player arrives.
+ */
+public final class StatusSubscriptions {
+    private static final MinecraftChannelIdentifier CONTROL = MinecraftChannelIdentifier.create("mmhq", "control");
+
+    private final ProxyServer proxy;
+    private final ServerStatusRegistry registry;
+    private final Logger logger;
+
+    private final Set<String> subscribers = ConcurrentHashMap.newKeySet();     // lobby server names
+    private final Map<String, String> lastPushed = new ConcurrentHashMap<>();   // game server id -> payload
+
+    public StatusSubscriptions(ProxyServer proxy, ServerStatusRegistry registry, Logger logger) {
+        this.proxy = proxy;
+        this.registry = registry;
+        this.logger = logger;
+        registry.addListener(this::onStatus);
+        registry.addRemovalListener(this::onRemoved);
+    }
+
+    @Subscribe
+    public void onPluginMessage(PluginMessageEvent event) {
+        if (!event.getIdentifier().equals(CONTROL) || !(event.getSource() instanceof ServerConnection source)) {
+            return;
+        }
+        try {
+            ByteArrayDataInput in = ByteStreams.newDataInput(event.getData());
+            if (!"STATUS_SUBSCRIBE".equals(in.readUTF())) {
+                return;
+            }
+        } catch (IllegalStateException e) {
+            return; // not one of ours
+        }
+        event.setResult(PluginMessageEvent.ForwardResult.handled());
+
+        RegisteredServer lobby = source.getServer();
+        String name = lobby.getServerInfo().getName();
+        Collection<ServerStatus> all = registry.all();
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeUTF("STATUS_SNAPSHOT");
+        out.writeShort(all.size());
+        for (ServerStatus s : all) {
+            out.writeUTF(s.toPayload());
+        }
+        if (lobby.sendPluginMessage(CONTROL, out.toByteArray())) {
+            subscribers.add(name);
+            logger.info("[Status] {} subscribed ({} game servers)", name, all.size());
+        }
+    }
+
+    private void onStatus(ServerStatus status) {
+        String payload = status.toPayload();
+        if (payload.equals(lastPushed.put(status.serverId(), payload))) {
+            return; // nothing changed
+        }
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeUTF("STATUS_UPDATE");
+        out.writeUTF(payload);
+        push(out.toByteArray());
+    }
+
+    private void onRemoved(String serverId) {
+        lastPushed.remove(serverId);
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeUTF("STATUS_REMOVED");
+        out.writeUTF(serverId);
+        push(out.toByteArray());
+    }
+
+    private void push(byte[] message) {
+        for (String name : subscribers) {
+            boolean sent = proxy.getServer(name)
+                    .map(lobby -> lobby.sendPluginMessage(CONTROL, message))
+                    .orElse(false);
+            if (!sent) {
+                subscribers.remove(name);
+                logger.info("[Status] {} unreachable - dropped until it subscribes again", name);
+            }
+        }
+    }
+
+    public int size() {
+        return subscribers.size();
+    }
+}
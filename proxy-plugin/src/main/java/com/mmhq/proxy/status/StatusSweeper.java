@@ -0,0 +1,72 @@
+package com.mmhq.proxy.status;
+
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drops the status of game servers that went away without saying so - a
+ * velocity.toml server that crashed or was stopped - so it stops counting
+ * as joinable here and in every lobby (through STATUS_REMOVED).
+ *
+ * A status older than {@code mmhq.status.staleSeconds} (default 30) is not
+ * enough on its own: plugin-message heartbeats need a player on the server,
+ * so an empty server that doesn't announce over UDP goes quiet while alive.
+ * Such a server is pinged and dropped only if the ping fails. Servers
+ * registered by discovery are dropped by {@link com.mmhq.proxy.fleet.BackendDiscovery}
+ * when their announcements stop.
+ */
+public final class StatusSweeper {
+    private static final Duration SWEEP = Duration.ofSeconds(10);
+
+    private final ProxyServer proxy;
+    private final ServerStatusRegistry registry;
+    private final Logger logger;
+    private final Duration staleAfter =
+            Duration.ofSeconds(Math.max(10, Integer.getInteger("mmhq.status.staleSeconds", 30)));
+    private ScheduledTask task;
+
+    public StatusSweeper(ProxyServer proxy, ServerStatusRegistry registry, Logger logger) {
+        this.proxy = proxy;
+        this.registry = registry;
+        this.logger = logger;
+    }
+
+    public void start(Object plugin) {
+        task = proxy.getScheduler().buildTask(plugin, this::sweep)
+                .delay(SWEEP.toMillis(), TimeUnit.MILLISECONDS)
+                .repeat(SWEEP.toMillis(), TimeUnit.MILLISECONDS)
+                .schedule();
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private void sweep() {
+        for (String serverId : registry.staleIds(staleAfter)) {
+            Optional<RegisteredServer> server = proxy.getServer(serverId);
+            if (server.isEmpty()) {
+                drop(serverId, "not registered");
+                continue;
+            }
+            server.get().ping().whenComplete((ping, err) -> {
+                if (err != null) drop(serverId, "no heartbeat for " + staleAfter.toSeconds() + "s and no ping reply");
+            });
+        }
+    }
+
+    private void drop(String serverId, String reason) {
+        if (registry.removeIfStale(serverId, staleAfter)) {
+            logger.info("[Status] Dropped {} ({})", serverId, reason);
+        }
+    }
+}
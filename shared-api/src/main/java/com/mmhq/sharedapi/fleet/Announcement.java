@@ -0,0 +1,129 @@
+package com.mmhq.sharedapi.fleet;
+
+import com.mmhq.sharedapi.game.ServerStatus;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A game server announcing itself to the proxy: where players should be sent
+ * (host and port), what it can do, and its current {@link ServerStatus}.
+ * Sent as a UDP datagram every heartbeat, so unlike plugin messages it needs
+ * no player online to carry it; a {@link Kind#LEAVE} is sent on shutdown.
+ *
+ * <pre>
+ * MMA1|kind|host|port|cap,cap|sentAtMillis|status payload#hex HMAC-SHA256
+ * </pre>
+ *
+ * The HMAC covers everything before '#', keyed with a secret shared by the
+ * proxy and its game servers; announcements older than {@link #MAX_AGE_MILLIS}
+ * are rejected so a captured one can't be replayed later.
+ */
+public final class Announcement {
+    public static final String MAGIC = "MMA1";
+    public static final long MAX_AGE_MILLIS = 30_000L;
+    public static final int MAX_DATAGRAM = 1024;
+
+    /** Can be sent PREPARE / OPEN_JOIN / CLOSE_JOIN on the control channel. */
+    public static final String CAP_PREPARE = "prepare";
+    /** Accepts SET_MAP on the map selection channel. */
+    public static final String CAP_MAP_SELECT = "mapselect";
+
+    private static final String HMAC = "HmacSHA256";
+
+    public enum Kind { ALIVE, LEAVE }
+
+    private final Kind kind;
+    private final String host;
+    private final int port;
+    private final Set<String> capabilities;
+    private final long sentAt;
+    private final ServerStatus status;
+
+    public Announcement(Kind kind, String host, int port, Set<String> capabilities, long sentAt, ServerStatus status) {
+        this.kind = Objects.requireNonNull(kind, "kind");
+        this.host = Objects.requireNonNull(host, "host");
+        this.port = port;
+        this.capabilities = Collections.unmodifiableSet(new LinkedHashSet<>(capabilities));
+        this.sentAt = sentAt;
+        this.status = Objects.requireNonNull(status, "status");
+    }
+
+    public Kind kind() { return kind; }
+    public String host() { return host; }
+    public int port() { return port; }
+    public Set<String> capabilities() { return capabilities; }
+    public long sentAt() { return sentAt; }
+    public ServerStatus status() { return status; }
+    public String serverId() { return status.serverId(); }
+
+    public boolean can(String capability) {
+        return capabilities.contains(capability);
+    }
+
+    public byte[] encode(byte[] secret) {
+        String body = MAGIC + "|" + kind.name() + "|" + host + "|" + port + "|"
+                + String.join(",", capabilities) + "|" + sentAt + "|" + status.toPayload();
+        return (body + "#" + HexFormat.of().formatHex(sign(secret, body))).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param now receiver clock, for the age check
+     * @throws IllegalArgumentException if the datagram is malformed, badly signed or too old
+     */
+    public static Announcement decode(byte[] data, int length, byte[] secret, long now) {
+        String text = new String(data, 0, length, StandardCharsets.UTF_8);
+        int hash = text.lastIndexOf('#');
+        if (hash < 0) throw new IllegalArgumentException("unsigned announcement");
+        String body = text.substring(0, hash);
+        byte[] mac;
+        try {
+            mac = HexFormat.of().parseHex(text.substring(hash + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("bad signature encoding");
+        }
+        if (!MessageDigest.isEqual(mac, sign(secret, body))) {
+            throw new IllegalArgumentException("bad signature");
+        }
+
+        String[] parts = body.split("\\|", 7);
+        if (parts.length < 7 || !MAGIC.equals(parts[0])) {
+            throw new IllegalArgumentException("not an announcement");
+        }
+        long sentAt = Long.parseLong(parts[5]);
+        if (Math.abs(now - sentAt) > MAX_AGE_MILLIS) {
+            throw new IllegalArgumentException("stale announcement (" + (now - sentAt) + "ms)");
+        }
+        Set<String> caps = new LinkedHashSet<>();
+        for (String cap : parts[4].split(",")) {
+            if (!cap.isBlank()) caps.add(cap.trim());
+        }
+        int port = Integer.parseInt(parts[3]);
+        if (port < 1 || port > 65535) throw new IllegalArgumentException("bad port " + port);
+        return new Announcement(Kind.valueOf(parts[1]), parts[2], port, caps, sentAt,
+                ServerStatus.fromPayload(parts[6]));
+    }
+
+    static byte[] sign(byte[] secret, String body) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(new SecretKeySpec(secret, HMAC));
+            return mac.doFinal(body.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC + " unavailable", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + serverId() + " @ " + host + ":" + port + " " + capabilities;
+    }
+}
@@ -0,0 +1,80 @@
+package com.mmhq.sharedapi.fleet;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * A control-channel message (PREPARE, OPEN_JOIN, ...) sent by the proxy to a
+ * game server over UDP, back to the address its {@link Announcement}s come
+ * from. Plugin messages need a player on the server to carry them; this
+ * doesn't, so an empty server can be told to prepare.
+ *
+ * <pre>
+ * MMC1|serverId|seq|hex control payload#hex HMAC-SHA256
+ * </pre>
+ *
+ * The payload is exactly what would have gone out on {@code mmhq:control}.
+ * Signed with the discovery secret like announcements; {@code seq} is the
+ * sender's clock in millis, bumped so it only grows, and a receiver drops
+ * anything not newer than the last one it accepted, or older than
+ * {@link Announcement#MAX_AGE_MILLIS}, so a captured datagram can't be replayed.
+ */
+public final class ControlDatagram {
+    public static final String MAGIC = "MMC1";
+
+    private final String serverId;
+    private final long seq;
+    private final byte[] payload;
+
+    public ControlDatagram(String serverId, long seq, byte[] payload) {
+        this.serverId = Objects.requireNonNull(serverId, "serverId");
+        this.seq = seq;
+        this.payload = payload.clone();
+    }
+
+    public String serverId() { return serverId; }
+    public long seq() { return seq; }
+    public byte[] payload() { return payload.clone(); }
+
+    public byte[] encode(byte[] secret) {
+        String body = MAGIC + "|" + serverId + "|" + seq + "|" + HexFormat.of().formatHex(payload);
+        return (body + "#" + HexFormat.of().formatHex(Announcement.sign(secret, body))).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param now receiver clock, for the age check
+     * @throws IllegalArgumentException if the datagram is malformed, badly signed or too old
+     */
+    public static ControlDatagram decode(byte[] data, int length, byte[] secret, long now) {
+        String text = new String(data, 0, length, StandardCharsets.UTF_8);
+        int hash = text.lastIndexOf('#');
+        if (hash < 0) throw new IllegalArgumentException("unsigned control datagram");
+        String body = text.substring(0, hash);
+        byte[] mac;
+        try {
+            mac = HexFormat.of().parseHex(text.substring(hash + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("bad signature encoding");
+        }
+        if (!MessageDigest.isEqual(mac, Announcement.sign(secret, body))) {
+            throw new IllegalArgumentException("bad signature");
+        }
+
+        String[] parts = body.split("\\|", 4);
+        if (parts.length < 4 || !MAGIC.equals(parts[0])) {
+            throw new IllegalArgumentException("not a control datagram");
+        }
+        long seq = Long.parseLong(parts[2]);
+        if (Math.abs(now - seq) > Announcement.MAX_AGE_MILLIS) {
+            throw new IllegalArgumentException("stale control datagram (" + (now - seq) + "ms)");
+        }
+        return new ControlDatagram(parts[1], seq, HexFormat.of().parseHex(parts[3]));
+    }
+
+    @Override
+    public String toString() {
+        return "control " + serverId + " #" + seq + " (" + payload.length + " bytes)";
+    }
+}
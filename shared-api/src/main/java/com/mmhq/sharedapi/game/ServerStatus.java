@@ -13,8 +13,30 @@ public final class ServerStatus {
     private final int currentPlayers;
     private final int maxPlayers;
     private final boolean joinable;
+    private final String arenaState;
+    private final int prepareProgress;
+    private final long mapVersion;
 
     public ServerStatus(String serverId, String presetId, String mapName, GameState state, int currentPlayers, int maxPlayers, boolean joinable) {
+        this(serverId, presetId, mapName, state, currentPlayers, maxPlayers, joinable, "");
+    }
+
+    public ServerStatus(String serverId, String presetId, String mapName, GameState state, int currentPlayers, int maxPlayers, boolean joinable, String arenaState) {
+        this(serverId, presetId, mapName, state, currentPlayers, maxPlayers, joinable, arenaState, 0);
+    }
+
+    /**
+     * @param arenaState the backend's arena phase (IDLE, PREPARING, WAITING, ...), or "" if it doesn't report one
+     * @param prepareProgress percent done of the last PREPARE (0-100); meaningful while arenaState is PREPARING
+     */
+    public ServerStatus(String serverId, String presetId, String mapName, GameState state, int currentPlayers, int maxPlayers, boolean joinable, String arenaState, int prepareProgress) {
+        this(serverId, presetId, mapName, state, currentPlayers, maxPlayers, joinable, arenaState, prepareProgress, -1L);
+    }
+
+    /**
+     * @param mapVersion newest SET_MAP version the backend applied (0 if none since it started), or -1 if it doesn't report one
+     */
+    public ServerStatus(String serverId, String presetId, String mapName, GameState state, int currentPlayers, int maxPlayers, boolean joinable, String arenaState, int prepareProgress, long mapVersion) {
         this.serverId = Objects.requireNonNull(serverId, "serverId");
         this.presetId = Objects.requireNonNull(presetId, "presetId");
         this.mapName = Objects.requireNonNull(mapName, "mapName");
@@ -22,6 +44,9 @@ public final class ServerStatus {
         this.currentPlayers = currentPlayers;
         this.maxPlayers = maxPlayers;
         this.joinable = joinable;
+        this.arenaState = Objects.requireNonNull(arenaState, "arenaState");
+        this.prepareProgress = prepareProgress;
+        this.mapVersion = mapVersion;
     }
 
     public String serverId() { return serverId; }
@@ -31,13 +56,17 @@ public final class ServerStatus {
     public int currentPlayers() { return currentPlayers; }
     public int maxPlayers() { return maxPlayers; }
     public boolean joinable() { return joinable; }
+    public String arenaState() { return arenaState; }
+    public int prepareProgress() { return prepareProgress; }
+    public long mapVersion() { return mapVersion; }
 
     /**
      * Serialize to a compact string for plugin messaging. Format:
-     * serverId|presetId|mapName|state|current|max|joinable
+     * serverId|presetId|mapName|state|current|max|joinable|arenaState|prepareProgress|mapVersion
+     * (readers accept payloads without the trailing arenaState / prepareProgress / mapVersion)
      */
     public String toPayload() {
-        return serverId + "|" + presetId + "|" + mapName.replace("|", "_") + "|" + state.name() + "|" + currentPlayers + "|" + maxPlayers + "|" + (joinable ? "1" : "0");
+        return serverId + "|" + presetId + "|" + mapName.replace("|", "_") + "|" + state.name() + "|" + currentPlayers + "|" + maxPlayers + "|" + (joinable ? "1" : "0") + "|" + arenaState + "|" + prepareProgress + "|" + mapVersion;
     }
 
     public static ServerStatus fromPayload(String payload) {
@@ -52,6 +81,9 @@ public final class ServerStatus {
         int current = Integer.parseInt(parts[4]);
         int max = Integer.parseInt(parts[5]);
         boolean joinable = "1".equals(parts[6]);
-        return new ServerStatus(serverId, presetId, mapName, state, current, max, joinable);
+        String arenaState = parts.length > 7 ? parts[7] : "";
+        int prepareProgress = parts.length > 8 ? Integer.parseInt(parts[8]) : 0;
+        long mapVersion = parts.length > 9 ? Long.parseLong(parts[9]) : -1L;
+        return new ServerStatus(serverId, presetId, mapName, state, current, max, joinable, arenaState, prepareProgress, mapVersion);
     }
 }
@@ -0,0 +1,47 @@
+package com.mmhq.sharedapi.journal;
+
+/**
+ * Record types in a match journal. The byte code is what is stored on disk;
+ * never renumber an existing entry.
+ */
+public enum JournalEvent {
+    /** Phase change; detail = previous GameState ordinal, value = new GameState ordinal. */
+    PHASE(1),
+    /** Player death; actor = killer (or none), target = victim, detail = weapon, pos = victim, pos2 = killer. */
+    KILL(2),
+    /** Gold pickup; actor = player, value = amount. */
+    GOLD_PICKUP(3),
+    /** Detective bow dropped; pos = drop location. */
+    BOW_DROP(4),
+    /** Dropped bow picked up; actor = player, detail = new role ordinal. */
+    BOW_PICKUP(5),
+    /** Knife thrown; actor = thrower, detail = throw kind, pos = eye, pos2 = look direction. */
+    KNIFE_THROW(6),
+    /** Detective bow fired; actor = shooter, pos = eye, pos2 = look direction, value = charge * 1000. */
+    ARROW_SHOT(7),
+    /** Participant disconnected mid-match; actor = player. */
+    QUIT(8);
+
+    private static final JournalEvent[] BY_CODE = new JournalEvent[256];
+
+    static {
+        for (JournalEvent e : values()) BY_CODE[e.code] = e;
+    }
+
+    private final byte code;
+
+    JournalEvent(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    /**
+     * @return The event for an on-disk code, or null if unknown (written by a newer version)
+     */
+    public static JournalEvent fromCode(byte code) {
+        return BY_CODE[code & 0xFF];
+    }
+}
@@ -0,0 +1,89 @@
+package com.mmhq.sharedapi.journal;
+
+/**
+ * On-disk layout of a match journal ({@code .mmj}).
+ *
+ * <pre>
+ * Header (4096 bytes, big-endian)
+ *   0  int    magic "MMJ1"
+ *   4  short  version
+ *   6  short  record size
+ *   8  long   match id (most significant bits)
+ *  16  long   match id (least significant bits)
+ *  24  long   start epoch millis
+ *  32  long   end epoch millis (0 while recording)
+ *  40  int    record count (updated on every append)
+ *  44  byte   flags
+ *  45  byte   player count
+ *  48  32B    map name (UTF-8, zero padded)
+ *  80  16B    outcome (ASCII, zero padded)
+ * 128  64 x player entries:
+ *        16B uuid, byte role ordinal, byte name length, 16B name (UTF-8)
+ *
+ * Record (40 bytes)
+ *   0  byte   event code
+ *   1  byte   actor slot  (0xFF = none)
+ *   2  byte   target slot (0xFF = none)
+ *   3  byte   detail
+ *   4  int    millis since start
+ *   8  float  x, y, z
+ *  20  float  x2, y2, z2
+ *  32  int    value
+ *  36  int    reserved
+ * </pre>
+ */
+public final class JournalFormat {
+    public static final int MAGIC = 0x4D4D4A31; // "MMJ1"
+    public static final short VERSION = 1;
+    public static final String EXTENSION = ".mmj";
+
+    public static final int HEADER_SIZE = 4096;
+    public static final int RECORD_SIZE = 40;
+    public static final int MAX_PLAYERS = 64;
+    public static final int NO_SLOT = 0xFF;
+
+    public static final int FLAG_COMPLETE = 1;
+
+    // ===== Header offsets =====
+    static final int H_MAGIC = 0;
+    static final int H_VERSION = 4;
+    static final int H_RECORD_SIZE = 6;
+    static final int H_MATCH_MSB = 8;
+    static final int H_MATCH_LSB = 16;
+    static final int H_START = 24;
+    static final int H_END = 32;
+    static final int H_COUNT = 40;
+    static final int H_FLAGS = 44;
+    static final int H_PLAYERS = 45;
+    static final int H_MAP = 48;
+    static final int MAP_LEN = 32;
+    static final int H_OUTCOME = 80;
+    static final int OUTCOME_LEN = 16;
+    static final int H_PLAYER_TABLE = 128;
+    static final int PLAYER_ENTRY = 48;
+    static final int NAME_LEN = 16;
+
+    // ===== Record offsets =====
+    static final int R_TYPE = 0;
+    static final int R_ACTOR = 1;
+    static final int R_TARGET = 2;
+    static final int R_DETAIL = 3;
+    static final int R_MILLIS = 4;
+    static final int R_X = 8;
+    static final int R_X2 = 20;
+    static final int R_VALUE = 32;
+
+    // ===== KILL detail (weapon) =====
+    public static final byte WEAPON_UNKNOWN = 0;
+    public static final byte WEAPON_KNIFE = 1;
+    public static final byte WEAPON_THROWN_KNIFE = 2;
+    public static final byte WEAPON_ARROW = 3;
+    public static final byte WEAPON_ENVIRONMENT = 4;
+
+    // ===== KNIFE_THROW detail =====
+    public static final byte THROW_HITSCAN = 0;
+    public static final byte THROW_FLYING_SWORD = 1;
+
+    private JournalFormat() {
+    }
+}
@@ -0,0 +1,266 @@
+package com.mmhq.sharedapi.journal;
+
+import com.mmhq.sharedapi.game.MurderRole;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+import static com.mmhq.sharedapi.journal.JournalFormat.*;
+
+/**
+ * Read-only view of a match journal.
+ *
+ * The file is mapped, not parsed: header accessors and the {@link Cursor}
+ * read fields in place, so scanning a directory of journals costs one mmap
+ * per file and no per-record allocation. Journals that were never closed
+ * (crash mid-match) are readable up to the last appended record;
+ * {@link #complete()} tells them apart.
+ *
+ * <pre>
+ * JournalReader.scan(dir, journal -> {
+ *     JournalReader.Cursor c = journal.cursor();
+ *     while (c.next()) {
+ *         if (c.event() == JournalEvent.KILL) ...
+ *     }
+ * });
+ * </pre>
+ */
+public final class JournalReader {
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int count;
+
+    private JournalReader(Path path, MappedByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(H_MAGIC) != MAGIC) {
+            throw new IOException("Not a match journal: " + path);
+        }
+        if (buffer.getShort(H_VERSION) > VERSION || buffer.getShort(H_RECORD_SIZE) != RECORD_SIZE) {
+            throw new IOException("Unsupported journal version " + buffer.getShort(H_VERSION) + ": " + path);
+        }
+        long available = (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE;
+        this.count = (int) Math.min(buffer.getInt(H_COUNT), available);
+    }
+
+    public static JournalReader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new JournalReader(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Open every {@code .mmj} file in a directory and hand it to the visitor.
+     * Unreadable or foreign files are skipped.
+     *
+     * @return Number of journals visited
+     */
+    public static int scan(Path directory, java.util.function.Consumer<JournalReader> visitor) throws IOException {
+        int visited = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                JournalReader reader;
+                try {
+                    reader = open(file);
+                } catch (IOException e) {
+                    continue;
+                }
+                visitor.accept(reader);
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    // ===== Header =====
+
+    public Path path() {
+        return path;
+    }
+
+    public UUID matchId() {
+        return new UUID(buffer.getLong(H_MATCH_MSB), buffer.getLong(H_MATCH_LSB));
+    }
+
+    public long startedAt() {
+        return buffer.getLong(H_START);
+    }
+
+    /**
+     * @return End epoch millis, or 0 if the journal was never closed
+     */
+    public long endedAt() {
+        return buffer.getLong(H_END);
+    }
+
+    public boolean complete() {
+        return (buffer.get(H_FLAGS) & FLAG_COMPLETE) != 0;
+    }
+
+    public String mapName() {
+        return getString(H_MAP, MAP_LEN);
+    }
+
+    /**
+     * @return Outcome passed at close (e.g. "innocents", "murderer"), empty if unknown
+     */
+    public String outcome() {
+        return getString(H_OUTCOME, OUTCOME_LEN);
+    }
+
+    public int recordCount() {
+        return count;
+    }
+
+    public int playerCount() {
+        return buffer.get(H_PLAYERS) & 0xFF;
+    }
+
+    public UUID playerId(int slot) {
+        int base = playerBase(slot);
+        return new UUID(buffer.getLong(base), buffer.getLong(base + 8));
+    }
+
+    public String playerName(int slot) {
+        int base = playerBase(slot);
+        int len = Math.min(buffer.get(base + 17) & 0xFF, NAME_LEN);
+        return getString(base + 18, len);
+    }
+
+    /**
+     * @return Role at match start (a bow pickup later is a {@link JournalEvent#BOW_PICKUP} record)
+     */
+    public MurderRole playerRole(int slot) {
+        int ordinal = buffer.get(playerBase(slot) + 16) & 0xFF;
+        MurderRole[] roles = MurderRole.values();
+        return ordinal < roles.length ? roles[ordinal] : null;
+    }
+
+    /**
+     * @return Slot of the player, or -1 if they were not in this match
+     */
+    public int slotOf(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        for (int i = 0, n = playerCount(); i < n; i++) {
+            int base = H_PLAYER_TABLE + i * PLAYER_ENTRY;
+            if (buffer.getLong(base) == msb && buffer.getLong(base + 8) == lsb) return i;
+        }
+        return -1;
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    private int playerBase(int slot) {
+        if (slot < 0 || slot >= playerCount()) throw new IndexOutOfBoundsException("slot " + slot);
+        return H_PLAYER_TABLE + slot * PLAYER_ENTRY;
+    }
+
+    private String getString(int offset, int max) {
+        int len = 0;
+        while (len < max && buffer.get(offset + len) != 0) len++;
+        byte[] bytes = new byte[len];
+        buffer.get(offset, bytes, 0, len);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Forward iterator over records. Accessors read the current record in place;
+     * call {@link #next()} before the first read. Slots are -1 when absent.
+     */
+    public final class Cursor {
+        private int index = -1;
+        private int base;
+
+        public boolean next() {
+            if (index + 1 >= count) return false;
+            index++;
+            base = HEADER_SIZE + index * RECORD_SIZE;
+            return true;
+        }
+
+        /**
+         * Jump to a record so the following {@link #next()} returns it.
+         */
+        public void seek(int record) {
+            index = Math.max(-1, Math.min(record, count) - 1);
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public byte code() {
+            return buffer.get(base + R_TYPE);
+        }
+
+        /**
+         * @return The event, or null for a code this reader does not know
+         */
+        public JournalEvent event() {
+            return JournalEvent.fromCode(code());
+        }
+
+        public int actor() {
+            return slot(buffer.get(base + R_ACTOR));
+        }
+
+        public int target() {
+            return slot(buffer.get(base + R_TARGET));
+        }
+
+        public int detail() {
+            return buffer.get(base + R_DETAIL) & 0xFF;
+        }
+
+        /**
+         * @return Milliseconds since the journal was started
+         */
+        public int millis() {
+            return buffer.getInt(base + R_MILLIS);
+        }
+
+        public float x() {
+            return buffer.getFloat(base + R_X);
+        }
+
+        public float y() {
+            return buffer.getFloat(base + R_X + 4);
+        }
+
+        public float z() {
+            return buffer.getFloat(base + R_X + 8);
+        }
+
+        public float x2() {
+            return buffer.getFloat(base + R_X2);
+        }
+
+        public float y2() {
+            return buffer.getFloat(base + R_X2 + 4);
+        }
+
+        public float z2() {
+            return buffer.getFloat(base + R_X2 + 8);
+        }
+
+        public int value() {
+            return buffer.getInt(base + R_VALUE);
+        }
+
+        private int slot(byte b) {
+            int s = b & 0xFF;
+            return s == NO_SLOT ? -1 : s;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.mmhq.sharedapi.journal;
+
+import com.mmhq.sharedapi.game.MurderRole;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.UUID;
+
+import static com.mmhq.sharedapi.journal.JournalFormat.*;
+
+/**
+ * Append-only writer for one match journal.
+ *
+ * Records are written with absolute puts straight into a memory-mapped region,
+ * so {@link #append} does no allocation and no syscall; the OS flushes dirty
+ * pages in the background and {@link #close} forces them once at match end.
+ * The mapping grows by remapping a larger region when the preallocated
+ * records run out.
+ *
+ * Not thread-safe: append from one thread, then close (from any thread) once
+ * appends have stopped.
+ */
+public final class JournalWriter implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long startMillis;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int count;
+    private int players;
+    private boolean closed;
+
+    private JournalWriter(Path path, FileChannel channel, long startMillis, int capacity) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.startMillis = startMillis;
+        this.capacity = capacity;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+    }
+
+    /**
+     * Create (or replace) a journal file and write its header.
+     */
+    public static JournalWriter create(Path path, UUID matchId, long startMillis, String mapName) throws IOException {
+        Objects.requireNonNull(matchId, "matchId");
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        JournalWriter writer;
+        try {
+            writer = new JournalWriter(path, channel, startMillis, DEFAULT_CAPACITY);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        MappedByteBuffer b = writer.buffer;
+        b.putInt(H_MAGIC, MAGIC);
+        b.putShort(H_VERSION, VERSION);
+        b.putShort(H_RECORD_SIZE, (short) RECORD_SIZE);
+        b.putLong(H_MATCH_MSB, matchId.getMostSignificantBits());
+        b.putLong(H_MATCH_LSB, matchId.getLeastSignificantBits());
+        b.putLong(H_START, startMillis);
+        putString(b, H_MAP, MAP_LEN, mapName == null ? "" : mapName);
+        return writer;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public int recordCount() {
+        return count;
+    }
+
+    /**
+     * Add a participant to the header's player table.
+     *
+     * @return The slot used to reference the player in records
+     * @throws IllegalStateException if the table is full
+     */
+    public int addPlayer(UUID id, String name, MurderRole role) {
+        if (players >= MAX_PLAYERS) throw new IllegalStateException("Journal player table full (" + MAX_PLAYERS + ")");
+        int slot = players++;
+        int base = H_PLAYER_TABLE + slot * PLAYER_ENTRY;
+        buffer.putLong(base, id.getMostSignificantBits());
+        buffer.putLong(base + 8, id.getLeastSignificantBits());
+        buffer.put(base + 16, (byte) (role == null ? NO_SLOT : role.ordinal()));
+        byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+        int len = Math.min(utf8.length, NAME_LEN);
+        buffer.put(base + 17, (byte) len);
+        buffer.put(base + 18, utf8, 0, len);
+        buffer.put(H_PLAYERS, (byte) players);
+        return slot;
+    }
+
+    /**
+     * Append one record. Slots outside {@code [0, 64)} are stored as "none".
+     */
+    public void append(JournalEvent event, int actor, int target, int detail,
+                       float x, float y, float z, float x2, float y2, float z2, int value) {
+        if (closed) return;
+        if (count == capacity) grow();
+        int base = HEADER_SIZE + count * RECORD_SIZE;
+        MappedByteBuffer b = buffer;
+        b.put(base + R_TYPE, event.code());
+        b.put(base + R_ACTOR, (byte) (actor >= 0 && actor < MAX_PLAYERS ? actor : NO_SLOT));
+        b.put(base + R_TARGET, (byte) (target >= 0 && target < MAX_PLAYERS ? target : NO_SLOT));
+        b.put(base + R_DETAIL, (byte) detail);
+        b.putInt(base + R_MILLIS, (int) (System.currentTimeMillis() - startMillis));
+        b.putFloat(base + R_X, x);
+        b.putFloat(base + R_X + 4, y);
+        b.putFloat(base + R_X + 8, z);
+        b.putFloat(base + R_X2, x2);
+        b.putFloat(base + R_X2 + 4, y2);
+        b.putFloat(base + R_X2 + 8, z2);
+        b.putInt(base + R_VALUE, value);
+        count++;
+        b.putInt(H_COUNT, count);
+    }
+
+    /**
+     * Mark the journal complete, fsync it and trim the unused preallocation.
+     * Safe to call more than once.
+     */
+    public void close(String outcome) throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            buffer.putLong(H_END, System.currentTimeMillis());
+            putString(buffer, H_OUTCOME, OUTCOME_LEN, outcome == null ? "" : outcome);
+            buffer.put(H_FLAGS, (byte) FLAG_COMPLETE);
+            buffer.force();
+            try {
+                channel.truncate(HEADER_SIZE + (long) count * RECORD_SIZE);
+            } catch (IOException ignored) {
+                // Some platforms refuse to shrink a mapped file; readers use the header count
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        close(null);
+    }
+
+    private void grow() {
+        int newCapacity = capacity * 2;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) newCapacity * RECORD_SIZE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not grow journal " + path, e);
+        }
+        capacity = newCapacity;
+    }
+
+    private static void putString(MappedByteBuffer b, int offset, int max, String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        int len = Math.min(utf8.length, max);
+        b.put(offset, utf8, 0, len);
+        for (int i = len; i < max; i++) b.put(offset + i, (byte) 0);
+    }
+}
@@ -0,0 +1,224 @@
+package com.mmhq.sharedapi.leaderboard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Players ordered by score (highest first, ties by UUID) with O(log n)
+ * update, rank and page queries.
+ *
+ * Backed by a treap whose nodes carry their subtree size, so the position
+ * of any node is the sum of left-subtree sizes on its root path and page
+ * {@code k} starts with a single descent. Nodes are also indexed by player,
+ * which makes an update a remove plus an insert instead of a scan.
+ *
+ * Not thread-safe.
+ */
+public final class RankedIndex {
+    private final Map<UUID, Node> nodes = new HashMap<>();
+    private Node root;
+    private long seed = 0x9E3779B97F4A7C15L;
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public boolean contains(UUID id) {
+        return nodes.containsKey(id);
+    }
+
+    /**
+     * Current score, or {@code absent} if the player is not ranked.
+     */
+    public long score(UUID id, long absent) {
+        Node n = nodes.get(id);
+        return n != null ? n.score : absent;
+    }
+
+    /**
+     * Insert the player or move them to a new score.
+     *
+     * @return true if the player's position may have changed
+     */
+    public boolean update(UUID id, long score) {
+        Objects.requireNonNull(id, "id");
+        Node n = nodes.get(id);
+        if (n != null) {
+            if (n.score == score) return false;
+            root = remove(root, n);
+        } else {
+            n = new Node(id, nextPriority());
+            nodes.put(id, n);
+        }
+        n.score = score;
+        n.left = n.right = null;
+        n.size = 1;
+        root = insert(root, n);
+        return true;
+    }
+
+    public boolean remove(UUID id) {
+        Node n = nodes.remove(id);
+        if (n == null) return false;
+        root = remove(root, n);
+        return true;
+    }
+
+    /**
+     * 1-based rank, or 0 if the player is not ranked.
+     */
+    public int rank(UUID id) {
+        Node n = nodes.get(id);
+        if (n == null) return 0;
+        int before = 0;
+        Node t = root;
+        while (t != n) {
+            if (before(n, t)) {
+                t = t.left;
+            } else {
+                before += size(t.left) + 1;
+                t = t.right;
+            }
+        }
+        return before + size(n.left) + 1;
+    }
+
+    /**
+     * Up to {@code limit} entries starting at 0-based position {@code offset}.
+     */
+    public List<Entry> page(int offset, int limit) {
+        List<Entry> out = new ArrayList<>(Math.max(0, Math.min(limit, size() - offset)));
+        if (offset >= 0 && limit > 0) collect(root, offset, offset + limit, 0, out);
+        return out;
+    }
+
+    // ===== Treap =====
+
+    private static boolean before(Node a, Node b) {
+        if (a.score != b.score) return a.score > b.score;
+        return a.id.compareTo(b.id) < 0;
+    }
+
+    private static int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static Node fix(Node n) {
+        n.size = size(n.left) + size(n.right) + 1;
+        return n;
+    }
+
+    private static Node insert(Node t, Node n) {
+        if (t == null) return n;
+        if (n.priority > t.priority) {
+            split(t, n);
+            return fix(n);
+        }
+        if (before(n, t)) {
+            t.left = insert(t.left, n);
+        } else {
+            t.right = insert(t.right, n);
+        }
+        return fix(t);
+    }
+
+    /**
+     * Split {@code t} around {@code pivot} into {@code pivot.left} / {@code pivot.right}.
+     */
+    private static void split(Node t, Node pivot) {
+        if (t == null) {
+            pivot.left = pivot.right = null;
+            return;
+        }
+        if (before(t, pivot)) {
+            Node right = t.right;
+            split(right, pivot);
+            t.right = pivot.left;
+            pivot.left = fix(t);
+        } else {
+            Node left = t.left;
+            split(left, pivot);
+            t.left = pivot.right;
+            pivot.right = fix(t);
+        }
+    }
+
+    private static Node remove(Node t, Node n) {
+        if (t == n) return merge(t.left, t.right);
+        if (before(n, t)) {
+            t.left = remove(t.left, n);
+        } else {
+            t.right = remove(t.right, n);
+        }
+        return fix(t);
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            return fix(a);
+        }
+        b.left = merge(a, b.left);
+        return fix(b);
+    }
+
+    private static void collect(Node t, int from, int to, int base, List<Entry> out) {
+        if (t == null || base >= to || base + t.size <= from) return;
+        collect(t.left, from, to, base, out);
+        int index = base + size(t.left);
+        if (index >= from && index < to) out.add(new Entry(index + 1, t.id, t.score));
+        collect(t.right, from, to, index + 1, out);
+    }
+
+    private int nextPriority() {
+        // xorshift64*; deterministic so rebuilt indexes have the same shape
+        seed ^= seed >>> 12;
+        seed ^= seed << 25;
+        seed ^= seed >>> 27;
+        return (int) ((seed * 0x2545F4914F6CDD1DL) >>> 32);
+    }
+
+    private static final class Node {
+        final UUID id;
+        final int priority;
+        long score;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(UUID id, int priority) {
+            this.id = id;
+            this.priority = priority;
+        }
+    }
+
+    public static final class Entry {
+        private final int rank;
+        private final UUID id;
+        private final long score;
+
+        Entry(int rank, UUID id, long score) {
+            this.rank = rank;
+            this.id = id;
+            this.score = score;
+        }
+
+        public int rank() {
+            return rank;
+        }
+
+        public UUID id() {
+            return id;
+        }
+
+        public long score() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.mmhq.sharedapi.mappack;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Precomputed geometry for one map, produced offline by the map compiler
+ * from the template world's region files (see {@link MapPackFormat}).
+ *
+ * Holds the validated spawns, the block occupancy and walkable-cell bitsets
+ * over the map's bounds, the chunk footprint and gold candidate points, so
+ * the live server can answer "is this solid / can a player stand here"
+ * with a bit lookup instead of touching the world.
+ *
+ * Immutable; arrays are never handed out.
+ */
+public final class MapPack {
+    private final String id;
+    private final String templateWorld;
+    private final long compiledAt;
+    private final long sourceHash;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final int[] chunks;
+    private final Point waiting;
+    private final Point spectator;
+    private final List<Spawn> spawns;
+    private final int[] gold;
+    private final long[] solid;
+    private final long[] walkable;
+
+    /**
+     * @param sourceHash {@link #sourceHash} of the configured points compiled from
+     * @param chunks   interleaved chunk coordinates (cx0, cz0, cx1, cz1, ...)
+     * @param gold     interleaved block coordinates (x0, y0, z0, x1, ...)
+     * @param solid    occupancy bits, index {@code (y * sizeZ + z) * sizeX + x} relative to the minimum corner
+     * @param walkable cells a player can stand in, same indexing
+     */
+    public MapPack(String id, String templateWorld, long compiledAt, long sourceHash,
+                   int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ,
+                   int[] chunks, Point waiting, Point spectator, List<Spawn> spawns,
+                   int[] gold, long[] solid, long[] walkable) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.templateWorld = Objects.requireNonNull(templateWorld, "templateWorld");
+        this.compiledAt = compiledAt;
+        this.sourceHash = sourceHash;
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.chunks = chunks.clone();
+        this.waiting = Objects.requireNonNull(waiting, "waiting");
+        this.spectator = Objects.requireNonNull(spectator, "spectator");
+        this.spawns = Collections.unmodifiableList(new ArrayList<>(spawns));
+        this.gold = gold.clone();
+        long cells = (long) sizeX * sizeY * sizeZ;
+        if (solid.length < words(cells) || walkable.length < words(cells)) {
+            throw new IllegalArgumentException("Bitsets too short for " + sizeX + "x" + sizeY + "x" + sizeZ);
+        }
+        this.solid = solid.clone();
+        this.walkable = walkable.clone();
+    }
+
+    public static int words(long cells) {
+        return (int) ((cells + 63) >>> 6);
+    }
+
+    /**
+     * 64-bit FNV-1a over the configured waiting, spectator and game spawn
+     * points (game spawns in config order, before any correction), so the
+     * compiler and the live server can tell whether a pack still matches
+     * the config.
+     */
+    public static long sourceHash(Point waiting, Point spectator, List<? extends Point> spawns) {
+        long h = 0xcbf29ce484222325L;
+        h = mix(h, waiting);
+        h = mix(h, spectator);
+        h = mix(h, spawns.size());
+        for (Point p : spawns) h = mix(h, p);
+        return h;
+    }
+
+    private static long mix(long h, Point p) {
+        h = mix(h, Double.doubleToLongBits(p.x));
+        h = mix(h, Double.doubleToLongBits(p.y));
+        h = mix(h, Double.doubleToLongBits(p.z));
+        h = mix(h, Float.floatToIntBits(p.yaw));
+        return mix(h, Float.floatToIntBits(p.pitch));
+    }
+
+    private static long mix(long h, long v) {
+        for (int i = 0; i < 8; i++) {
+            h ^= (v >>> (i * 8)) & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // ===== Header =====
+
+    public String id() {
+        return id;
+    }
+
+    public String templateWorld() {
+        return templateWorld;
+    }
+
+    public long compiledAt() {
+        return compiledAt;
+    }
+
+    public long sourceHash() {
+        return sourceHash;
+    }
+
+    public int minX() {
+        return minX;
+    }
+
+    public int minY() {
+        return minY;
+    }
+
+    public int minZ() {
+        return minZ;
+    }
+
+    public int maxX() {
+        return minX + sizeX - 1;
+    }
+
+    public int maxY() {
+        return minY + sizeY - 1;
+    }
+
+    public int maxZ() {
+        return minZ + sizeZ - 1;
+    }
+
+    public int chunkCount() {
+        return chunks.length / 2;
+    }
+
+    public int chunkX(int i) {
+        return chunks[i * 2];
+    }
+
+    public int chunkZ(int i) {
+        return chunks[i * 2 + 1];
+    }
+
+    public Point waiting() {
+        return waiting;
+    }
+
+    public Point spectator() {
+        return spectator;
+    }
+
+    /**
+     * Validated spawns in assignment order.
+     */
+    public List<Spawn> spawns() {
+        return spawns;
+    }
+
+    public int goldCount() {
+        return gold.length / 3;
+    }
+
+    public int goldX(int i) {
+        return gold[i * 3];
+    }
+
+    public int goldY(int i) {
+        return gold[i * 3 + 1];
+    }
+
+    public int goldZ(int i) {
+        return gold[i * 3 + 2];
+    }
+
+    // ===== Geometry =====
+
+    public boolean contains(int x, int y, int z) {
+        return x >= minX && y >= minY && z >= minZ && x < minX + sizeX && y < minY + sizeY && z < minZ + sizeZ;
+    }
+
+    /**
+     * Solid block at the position; outside the bounds counts as empty.
+     */
+    public boolean isSolid(int x, int y, int z) {
+        return contains(x, y, z) && bit(solid, index(x, y, z));
+    }
+
+    /**
+     * A player can stand with their feet in this block and reach it from a spawn.
+     */
+    public boolean isWalkable(int x, int y, int z) {
+        return contains(x, y, z) && bit(walkable, index(x, y, z));
+    }
+
+    private long index(int x, int y, int z) {
+        return ((long) (y - minY) * sizeZ + (z - minZ)) * sizeX + (x - minX);
+    }
+
+    private static boolean bit(long[] bits, long index) {
+        return (bits[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    // ===== IO =====
+
+    public void write(Path path) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream raw = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+            raw.write(MapPackFormat.MAGIC);
+            new DataOutputStream(raw).writeInt(MapPackFormat.VERSION);
+            DeflaterOutputStream deflate = new DeflaterOutputStream(raw, new Deflater(Deflater.BEST_COMPRESSION), 1 << 16);
+            DataOutputStream out = new DataOutputStream(deflate);
+            out.writeUTF(id);
+            out.writeUTF(templateWorld);
+            out.writeLong(compiledAt);
+            out.writeLong(sourceHash);
+            out.writeInt(minX);
+            out.writeInt(minY);
+            out.writeInt(minZ);
+            out.writeInt(sizeX);
+            out.writeInt(sizeY);
+            out.writeInt(sizeZ);
+            out.writeInt(chunkCount());
+            for (int v : chunks) out.writeInt(v);
+            waiting.write(out);
+            spectator.write(out);
+            out.writeInt(spawns.size());
+            for (Spawn s : spawns) {
+                s.write(out);
+                out.writeByte(s.corrected() ? 1 : 0);
+                out.writeDouble(s.configuredY);
+            }
+            out.writeInt(goldCount());
+            for (int v : gold) out.writeInt(v);
+            writeBits(out, solid);
+            writeBits(out, walkable);
+            out.flush();
+            deflate.finish();
+        }
+        Files.move(tmp, path, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public static MapPack read(Path path) throws IOException {
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(path))) {
+            byte[] magic = raw.readNBytes(4);
+            if (!Arrays.equals(magic, MapPackFormat.MAGIC)) {
+                throw new IOException(path.getFileName() + " is not a map pack");
+            }
+            int version = new DataInputStream(raw).readInt();
+            if (version != MapPackFormat.VERSION) {
+                throw new IOException(path.getFileName() + " has unsupported version " + version);
+            }
+            DataInputStream in = new DataInputStream(new InflaterInputStream(raw, new java.util.zip.Inflater(), 1 << 16));
+            String id = in.readUTF();
+            String world = in.readUTF();
+            long compiledAt = in.readLong();
+            long sourceHash = in.readLong();
+            int minX = in.readInt();
+            int minY = in.readInt();
+            int minZ = in.readInt();
+            int sizeX = in.readInt();
+            int sizeY = in.readInt();
+            int sizeZ = in.readInt();
+            int[] chunks = new int[in.readInt() * 2];
+            for (int i = 0; i < chunks.length; i++) chunks[i] = in.readInt();
+            Point waiting = Point.read(in);
+            Point spectator = Point.read(in);
+            int spawnCount = in.readInt();
+            List<Spawn> spawns = new ArrayList<>(spawnCount);
+            for (int i = 0; i < spawnCount; i++) {
+                Point p = Point.read(in);
+                in.readByte(); // corrected flag, implied by configuredY
+                spawns.add(new Spawn(p.x, p.y, p.z, p.yaw, p.pitch, in.readDouble()));
+            }
+            int[] gold = new int[in.readInt() * 3];
+            for (int i = 0; i < gold.length; i++) gold[i] = in.readInt();
+            long[] solid = readBits(in);
+            long[] walkable = readBits(in);
+            return new MapPack(id, world, compiledAt, sourceHash, minX, minY, minZ, sizeX, sizeY, sizeZ,
+                    chunks, waiting, spectator, spawns, gold, solid, walkable);
+        }
+    }
+
+    private static void writeBits(DataOutputStream out, long[] bits) throws IOException {
+        out.writeInt(bits.length);
+        for (long w : bits) out.writeLong(w);
+    }
+
+    private static long[] readBits(DataInputStream in) throws IOException {
+        long[] bits = new long[in.readInt()];
+        for (int i = 0; i < bits.length; i++) bits[i] = in.readLong();
+        return bits;
+    }
+
+    /**
+     * A position with a look direction.
+     */
+    public static class Point {
+        private final double x;
+        private final double y;
+        private final double z;
+        private final float yaw;
+        private final float pitch;
+
+        public Point(double x, double y, double z, float yaw, float pitch) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.yaw = yaw;
+            this.pitch = pitch;
+        }
+
+        public double x() {
+            return x;
+        }
+
+        public double y() {
+            return y;
+        }
+
+        public double z() {
+            return z;
+        }
+
+        public float yaw() {
+            return yaw;
+        }
+
+        public float pitch() {
+            return pitch;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeDouble(x);
+            out.writeDouble(y);
+            out.writeDouble(z);
+            out.writeFloat(yaw);
+            out.writeFloat(pitch);
+        }
+
+        static Point read(DataInputStream in) throws IOException {
+            return new Point(in.readDouble(), in.readDouble(), in.readDouble(), in.readFloat(), in.readFloat());
+        }
+    }
+
+    /**
+     * A validated spawn; {@link #configuredY()} is the Y from the map config.
+     */
+    public static final class Spawn extends Point {
+        private final double configuredY;
+
+        public Spawn(double x, double y, double z, float yaw, float pitch, double configuredY) {
+            super(x, y, z, yaw, pitch);
+            this.configuredY = configuredY;
+        }
+
+        public double configuredY() {
+            return configuredY;
+        }
+
+        public boolean corrected() {
+            return y() != configuredY;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.mmhq.sharedapi.mappack;
+
+import java.util.Locale;
+
+/**
+ * Binary layout of a compiled map pack ({@code <map>.mmpack}).
+ *
+ * <pre>
+ * magic "MMP1", int version             (uncompressed)
+ * --- rest is deflated ---
+ * UTF id, UTF templateWorld, long compiledAt, long sourceHash
+ * int minX, minY, minZ, sizeX, sizeY, sizeZ
+ * int chunks, then chunks x (int cx, int cz)
+ * point waiting, point spectator         (double x, y, z, float yaw, pitch)
+ * int spawns, then spawns x (point, byte corrected, double configuredY)
+ * int gold, then gold x (int x, int y, int z)
+ * int words, long[words] solid           (bit ((y * sizeZ + z) * sizeX + x), relative to min)
+ * int words, long[words] walkable
+ * </pre>
+ *
+ * Spawns are stored validated (Y corrected where the configured spot was
+ * obstructed) and already in {@link SpawnOrder} assignment order.
+ * {@code sourceHash} is {@link MapPack#sourceHash} of the configured points
+ * the pack was compiled from; a pack whose hash no longer matches the config
+ * is stale.
+ */
+public final class MapPackFormat {
+    public static final byte[] MAGIC = {'M', 'M', 'P', '1'};
+    public static final int VERSION = 2;
+    public static final String EXTENSION = ".mmpack";
+    /** Obstructed spawns are raised at most this many blocks before falling back to the highest block. */
+    public static final int MAX_SPAWN_RAISE = 10;
+    /** Gold candidates are walkable cells on this XZ grid. */
+    public static final int GOLD_GRID = 3;
+
+    private MapPackFormat() {
+    }
+
+    public static String fileName(String mapId) {
+        return mapId.toLowerCase(Locale.ROOT) + EXTENSION;
+    }
+}
@@ -0,0 +1,65 @@
+package com.mmhq.sharedapi.mappack;
+
+import java.util.Arrays;
+
+/**
+ * Spread-maximising spawn order, shared by the map compiler and the live
+ * spawn tables so both hand out spawns the same way.
+ */
+public final class SpawnOrder {
+    private SpawnOrder() {
+    }
+
+    /**
+     * Farthest-point order: start with the spawn farthest from the centroid,
+     * then repeatedly take the spawn whose nearest chosen spawn is farthest away.
+     *
+     * @return indexes into {@code x}/{@code z} in assignment order
+     */
+    public static int[] farthestFirst(double[] x, double[] z) {
+        int n = x.length;
+        int[] order = new int[n];
+        if (n == 0) return order;
+        double cx = 0;
+        double cz = 0;
+        for (int i = 0; i < n; i++) {
+            cx += x[i];
+            cz += z[i];
+        }
+        cx /= n;
+        cz /= n;
+        int first = 0;
+        double best = -1;
+        for (int i = 0; i < n; i++) {
+            double d = sq(x[i] - cx) + sq(z[i] - cz);
+            if (d > best) {
+                best = d;
+                first = i;
+            }
+        }
+        double[] nearest = new double[n];
+        boolean[] used = new boolean[n];
+        Arrays.fill(nearest, Double.MAX_VALUE);
+        int next = first;
+        for (int k = 0; k < n; k++) {
+            order[k] = next;
+            used[next] = true;
+            int pick = -1;
+            double far = -1;
+            for (int i = 0; i < n; i++) {
+                if (used[i]) continue;
+                nearest[i] = Math.min(nearest[i], sq(x[i] - x[next]) + sq(z[i] - z[next]));
+                if (nearest[i] > far) {
+                    far = nearest[i];
+                    pick = i;
+                }
+            }
+            next = pick;
+        }
+        return order;
+    }
+
+    private static double sq(double v) {
+        return v * v;
+    }
+}
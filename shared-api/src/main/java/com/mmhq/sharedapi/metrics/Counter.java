@@ -0,0 +1,43 @@
+package com.mmhq.sharedapi.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic counter backed by a striped {@link LongAdder}: increments from
+ * many threads don't contend on a single cache line.
+ */
+public final class Counter extends Metric<Counter> {
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name, String help, String[] labelNames, String[] labelValues) {
+        super(name, help, labelNames, labelValues);
+    }
+
+    public void inc() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        if (amount < 0) throw new IllegalArgumentException("Counter " + name + " cannot decrease");
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    @Override
+    Counter newChild(String[] values) {
+        return new Counter(name, help, labelNames, values);
+    }
+
+    @Override
+    String type() {
+        return "counter";
+    }
+
+    @Override
+    void writeSamples(StringBuilder out) {
+        sample(out, "", null, null, value.sum());
+    }
+}
@@ -0,0 +1,65 @@
+package com.mmhq.sharedapi.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Value that can go up and down. Either set directly, or computed at scrape
+ * time from a supplier (which then runs on the HTTP thread and must be
+ * safe to call from there).
+ */
+public final class Gauge extends Metric<Gauge> {
+    private final AtomicLong bits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+    private final DoubleSupplier supplier;
+
+    Gauge(String name, String help, String[] labelNames, String[] labelValues, DoubleSupplier supplier) {
+        super(name, help, labelNames, labelValues);
+        this.supplier = supplier;
+    }
+
+    public void set(double v) {
+        bits.set(Double.doubleToRawLongBits(v));
+    }
+
+    public void inc() {
+        add(1.0);
+    }
+
+    public void dec() {
+        add(-1.0);
+    }
+
+    public void add(double delta) {
+        long prev, next;
+        do {
+            prev = bits.get();
+            next = Double.doubleToRawLongBits(Double.longBitsToDouble(prev) + delta);
+        } while (!bits.compareAndSet(prev, next));
+    }
+
+    public double get() {
+        if (supplier != null) {
+            try {
+                return supplier.getAsDouble();
+            } catch (RuntimeException e) {
+                return Double.NaN;
+            }
+        }
+        return Double.longBitsToDouble(bits.get());
+    }
+
+    @Override
+    Gauge newChild(String[] values) {
+        return new Gauge(name, help, labelNames, values, null);
+    }
+
+    @Override
+    String type() {
+        return "gauge";
+    }
+
+    @Override
+    void writeSamples(StringBuilder out) {
+        sample(out, "", null, null, get());
+    }
+}
@@ -0,0 +1,71 @@
+package com.mmhq.sharedapi.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket histogram. Each bucket is its own {@link LongAdder}, so
+ * observing is a short search plus a striped increment.
+ */
+public final class Histogram extends Metric<Histogram> {
+    /** Latency buckets in seconds, 1ms .. 10s. */
+    public static final double[] LATENCY_SECONDS = {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private final double[] bounds;      // upper bounds, ascending, without +Inf
+    private final LongAdder[] buckets;  // buckets[bounds.length] is +Inf
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+
+    Histogram(String name, String help, double[] bounds, String[] labelNames, String[] labelValues) {
+        super(name, help, labelNames, labelValues);
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i] <= bounds[i - 1]) throw new IllegalArgumentException("Histogram " + name + ": buckets must ascend");
+        }
+        this.bounds = bounds;
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+    }
+
+    public void observe(double value) {
+        int i = Arrays.binarySearch(bounds, value);
+        if (i < 0) i = -i - 1;             // first bound >= value
+        buckets[i].increment();
+        count.increment();
+        sum.add(value);
+    }
+
+    /**
+     * Observe a duration given in nanoseconds (recorded in seconds).
+     */
+    public void observeNanos(long nanos) {
+        observe(nanos / 1.0e9);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    @Override
+    Histogram newChild(String[] values) {
+        return new Histogram(name, help, bounds, labelNames, values);
+    }
+
+    @Override
+    String type() {
+        return "histogram";
+    }
+
+    @Override
+    void writeSamples(StringBuilder out) {
+        long cumulative = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            cumulative += buckets[i].sum();
+            sample(out, "_bucket", "le", format(bounds[i]), cumulative);
+        }
+        cumulative += buckets[bounds.length].sum();
+        sample(out, "_bucket", "le", "+Inf", cumulative);
+        sample(out, "_sum", null, null, sum.sum());
+        sample(out, "_count", null, null, cumulative);
+    }
+}
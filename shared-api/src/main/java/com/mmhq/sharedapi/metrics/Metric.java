@@ -0,0 +1,129 @@
+package com.mmhq.sharedapi.metrics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Base for a metric family: a name, help text, optional label names and one
+ * child per distinct set of label values. Unlabelled families are their own
+ * single child.
+ *
+ * @param <C> Concrete metric type (children are the same type)
+ */
+public abstract class Metric<C extends Metric<C>> {
+    private static final Pattern NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+    private static final Pattern LABEL = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
+
+    final String name;
+    final String help;
+    final String[] labelNames;
+    final String[] labelValues;
+    private final Map<List<String>, C> children;
+
+    Metric(String name, String help, String[] labelNames, String[] labelValues) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.help = Objects.requireNonNull(help, "help");
+        this.labelNames = labelNames;
+        this.labelValues = labelValues;
+        this.children = labelValues == null && labelNames.length > 0 ? new ConcurrentHashMap<>() : null;
+        if (labelValues == null) {
+            if (!NAME.matcher(name).matches()) throw new IllegalArgumentException("Invalid metric name: " + name);
+            for (String l : labelNames) {
+                if (!LABEL.matcher(l).matches() || l.startsWith("__")) {
+                    throw new IllegalArgumentException("Invalid label name for " + name + ": " + l);
+                }
+            }
+        }
+    }
+
+    /**
+     * Child for these label values, created on first use. Cache the result on hot paths.
+     */
+    public C labels(String... values) {
+        if (children == null) throw new IllegalStateException(name + " has no labels");
+        if (values.length != labelNames.length) {
+            throw new IllegalArgumentException(name + " expects " + labelNames.length + " label values, got " + values.length);
+        }
+        return children.computeIfAbsent(Arrays.asList(values.clone()), k -> newChild(k.toArray(new String[0])));
+    }
+
+    abstract C newChild(String[] values);
+
+    abstract String type();
+
+    /**
+     * Append this child's sample lines (no HELP/TYPE header).
+     */
+    abstract void writeSamples(StringBuilder out);
+
+    final void write(StringBuilder out) {
+        out.append("# HELP ").append(name).append(' ');
+        escapeHelp(help, out);
+        out.append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type()).append('\n');
+        if (children == null) {
+            writeSamples(out);
+        } else {
+            for (C child : children.values()) child.writeSamples(out);
+        }
+    }
+
+    // ===== Exposition helpers =====
+
+    /**
+     * {@code name{labels,extra="value"} value}
+     */
+    final void sample(StringBuilder out, String suffix, String extraLabel, String extraValue, double value) {
+        out.append(name).append(suffix);
+        boolean any = labelValues != null && labelValues.length > 0;
+        if (any || extraLabel != null) {
+            out.append('{');
+            boolean first = true;
+            if (any) {
+                for (int i = 0; i < labelNames.length; i++) {
+                    if (!first) out.append(',');
+                    first = false;
+                    out.append(labelNames[i]).append("=\"");
+                    escapeLabel(labelValues[i], out);
+                    out.append('"');
+                }
+            }
+            if (extraLabel != null) {
+                if (!first) out.append(',');
+                out.append(extraLabel).append("=\"").append(extraValue).append('"');
+            }
+            out.append('}');
+        }
+        out.append(' ').append(format(value)).append('\n');
+    }
+
+    static String format(double v) {
+        if (Double.isNaN(v)) return "NaN";
+        if (Double.isInfinite(v)) return v > 0 ? "+Inf" : "-Inf";
+        if (v == Math.rint(v) && Math.abs(v) < 1e15) return Long.toString((long) v);
+        return Double.toString(v);
+    }
+
+    private static void escapeHelp(String s, StringBuilder out) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\') out.append("\\\\");
+            else if (c == '\n') out.append("\\n");
+            else out.append(c);
+        }
+    }
+
+    private static void escapeLabel(String s, StringBuilder out) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\') out.append("\\\\");
+            else if (c == '"') out.append("\\\"");
+            else if (c == '\n') out.append("\\n");
+            else out.append(c);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.mmhq.sharedapi.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Process-local set of metrics, rendered in the Prometheus text exposition
+ * format (version 0.0.4) by {@link #scrape()}.
+ *
+ * Lookups are get-or-create by name, so the same metric can be requested from
+ * several places; asking for an existing name with a different type throws.
+ * Hot paths should hold on to the returned instance.
+ */
+public final class MetricsRegistry {
+    private final Map<String, Metric<?>> metrics = new ConcurrentHashMap<>();
+
+    public Counter counter(String name, String help, String... labelNames) {
+        return register(name, Counter.class, () -> new Counter(name, help, labelNames.clone(), null));
+    }
+
+    public Gauge gauge(String name, String help, String... labelNames) {
+        return register(name, Gauge.class, () -> new Gauge(name, help, labelNames.clone(), null, null));
+    }
+
+    /**
+     * Gauge computed at scrape time. {@code supplier} runs on the metrics HTTP thread.
+     */
+    public Gauge gauge(String name, String help, DoubleSupplier supplier) {
+        return register(name, Gauge.class, () -> new Gauge(name, help, new String[0], null, supplier));
+    }
+
+    public Histogram histogram(String name, String help, double[] buckets, String... labelNames) {
+        return register(name, Histogram.class, () -> new Histogram(name, help, buckets.clone(), labelNames.clone(), null));
+    }
+
+    private <M extends Metric<M>> M register(String name, Class<M> type, java.util.function.Supplier<M> factory) {
+        Metric<?> existing = metrics.computeIfAbsent(name, k -> factory.get());
+        if (!type.isInstance(existing)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as " + existing.type());
+        }
+        return type.cast(existing);
+    }
+
+    /**
+     * Render every metric, sorted by name.
+     */
+    public String scrape() {
+        List<Metric<?>> sorted = new ArrayList<>(metrics.values());
+        sorted.sort((a, b) -> a.name.compareTo(b.name));
+        StringBuilder out = new StringBuilder(4096);
+        for (Metric<?> m : sorted) m.write(out);
+        return out.toString();
+    }
+}
@@ -13,8 +13,17 @@ public final class PlayerProfile {
     private int losses;
 
     public PlayerProfile(UUID uniqueId, String name) {
+        this(uniqueId, name, 0, 0);
+    }
+
+    /**
+     * Restore a persisted profile.
+     */
+    public PlayerProfile(UUID uniqueId, String name, int wins, int losses) {
         this.uniqueId = Objects.requireNonNull(uniqueId, "uniqueId");
         this.name = Objects.requireNonNull(name, "name");
+        this.wins = wins;
+        this.losses = losses;
     }
 
     public UUID uniqueId() {
@@ -48,4 +57,12 @@ public final class PlayerProfile {
     public void recordLoss() {
         losses++;
     }
+
+    /**
+     * Fold in totals loaded after the profile was already in use.
+     */
+    public void addHistory(int wins, int losses) {
+        this.wins += wins;
+        this.losses += losses;
+    }
 }
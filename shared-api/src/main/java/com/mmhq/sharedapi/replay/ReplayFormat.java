@@ -0,0 +1,85 @@
+package com.mmhq.sharedapi.replay;
+
+/**
+ * On-disk layout of a positional replay ({@code .mmr}).
+ *
+ * <pre>
+ * Header (DataOutput, uncompressed)
+ *   int    magic "MMR1"
+ *   short  version
+ *   byte   ticks per second
+ *   long   start epoch millis
+ *   UTF    map name
+ *   UTF    world name
+ *   byte   participant count, then per participant: long msb, long lsb, UTF name, byte role
+ *
+ * Blocks until EOF
+ *   int    raw length
+ *   int    compressed length
+ *   int    first tick
+ *   int    frame count
+ *   byte[] deflated frames
+ *
+ * Frame
+ *   varint changed-participant count, then per participant:
+ *   varint slot, byte field mask, then the masked fields in mask-bit order:
+ *     POS   3 x zigzag varint delta, in 1/32 block units
+ *     LOOK  byte yaw, byte pitch (256 steps per turn)
+ *     ITEM  varint held material id
+ *     FLAGS byte state flags
+ *     ROLE  byte role ordinal
+ * </pre>
+ *
+ * The first frame of every block is a keyframe: its deltas are taken from a
+ * zero baseline and every field is present, so a block decodes on its own and
+ * seeking only needs to inflate one block.
+ */
+public final class ReplayFormat {
+    public static final int MAGIC = 0x4D4D5231; // "MMR1"
+    public static final short VERSION = 1;
+    public static final String EXTENSION = ".mmr";
+    public static final int TICKS_PER_SECOND = 20;
+    public static final int MAX_PLAYERS = 64;
+
+    /** Frames per block (5 seconds); also the worst-case seek distance. */
+    static final int BLOCK_FRAMES = 100;
+    static final int BLOCK_HEADER = 16;
+    /** Worst-case encoded size of one frame (every field for every slot). */
+    static final int MAX_FRAME_BYTES = 5 + MAX_PLAYERS * 26;
+
+    /** Position fixed-point scale (matches the 1.8 protocol's 1/32 block). */
+    public static final int POS_SCALE = 32;
+
+    // ===== Field mask =====
+    static final int F_POS = 1;
+    static final int F_LOOK = 2;
+    static final int F_ITEM = 4;
+    static final int F_FLAGS = 8;
+    static final int F_ROLE = 16;
+    static final int F_ALL = F_POS | F_LOOK | F_ITEM | F_FLAGS | F_ROLE;
+
+    // ===== State flags =====
+    public static final int PRESENT = 1;
+    public static final int ALIVE = 2;
+    public static final int SNEAKING = 4;
+    public static final int SPRINTING = 8;
+
+    private ReplayFormat() {
+    }
+
+    static int zigzag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    static int unzigzag(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    static byte angle(float degrees) {
+        return (byte) (int) (degrees * 256.0f / 360.0f);
+    }
+
+    static float degrees(byte angle) {
+        return angle * 360.0f / 256.0f;
+    }
+}
@@ -0,0 +1,108 @@
+package com.mmhq.sharedapi.replay;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Match-level metadata stored at the start of a replay file.
+ * Participant slots are list indices.
+ */
+public final class ReplayHeader {
+    private final String mapName;
+    private final String worldName;
+    private final long startMillis;
+    private final List<Participant> participants;
+
+    public ReplayHeader(String mapName, String worldName, long startMillis, List<Participant> participants) {
+        this.mapName = Objects.requireNonNull(mapName, "mapName");
+        this.worldName = Objects.requireNonNull(worldName, "worldName");
+        this.startMillis = startMillis;
+        if (participants.size() > ReplayFormat.MAX_PLAYERS) {
+            throw new IllegalArgumentException("At most " + ReplayFormat.MAX_PLAYERS + " participants");
+        }
+        this.participants = Collections.unmodifiableList(new ArrayList<>(participants));
+    }
+
+    public String mapName() {
+        return mapName;
+    }
+
+    public String worldName() {
+        return worldName;
+    }
+
+    public long startMillis() {
+        return startMillis;
+    }
+
+    public List<Participant> participants() {
+        return participants;
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeInt(ReplayFormat.MAGIC);
+        out.writeShort(ReplayFormat.VERSION);
+        out.writeByte(ReplayFormat.TICKS_PER_SECOND);
+        out.writeLong(startMillis);
+        out.writeUTF(mapName);
+        out.writeUTF(worldName);
+        out.writeByte(participants.size());
+        for (Participant p : participants) {
+            out.writeLong(p.id.getMostSignificantBits());
+            out.writeLong(p.id.getLeastSignificantBits());
+            out.writeUTF(p.name);
+            out.writeByte(p.role);
+        }
+    }
+
+    static ReplayHeader read(DataInput in) throws IOException {
+        if (in.readInt() != ReplayFormat.MAGIC) throw new IOException("Not a replay file");
+        short version = in.readShort();
+        if (version > ReplayFormat.VERSION) throw new IOException("Unsupported replay version " + version);
+        int tps = in.readUnsignedByte();
+        if (tps != ReplayFormat.TICKS_PER_SECOND) throw new IOException("Unsupported tick rate " + tps);
+        long start = in.readLong();
+        String map = in.readUTF();
+        String world = in.readUTF();
+        int count = in.readUnsignedByte();
+        List<Participant> participants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UUID id = new UUID(in.readLong(), in.readLong());
+            participants.add(new Participant(id, in.readUTF(), in.readUnsignedByte()));
+        }
+        return new ReplayHeader(map, world, start, participants);
+    }
+
+    public static final class Participant {
+        private final UUID id;
+        private final String name;
+        private final int role;
+
+        /**
+         * @param role Starting role ordinal (MurderRole)
+         */
+        public Participant(UUID id, String name, int role) {
+            this.id = Objects.requireNonNull(id, "id");
+            this.name = Objects.requireNonNull(name, "name");
+            this.role = role;
+        }
+
+        public UUID id() {
+            return id;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public int role() {
+            return role;
+        }
+    }
+}
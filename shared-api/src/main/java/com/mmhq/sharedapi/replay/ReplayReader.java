@@ -0,0 +1,260 @@
+package com.mmhq.sharedapi.replay;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static com.mmhq.sharedapi.replay.ReplayFormat.*;
+
+/**
+ * Random-access player over a replay file.
+ *
+ * The file is read into memory and its block headers indexed on open.
+ * {@link #seek} inflates the one block containing the target tick and
+ * decodes forward from its keyframe; {@link #next} steps one tick.
+ * Per-slot state is read through the accessors and reflects the current
+ * tick. A file cut short by a crash plays up to its last complete block.
+ */
+public final class ReplayReader {
+    private final Path path;
+    private final ReplayHeader header;
+    private final byte[] data;
+    private final int players;
+
+    // Block index
+    private int blocks;
+    private int[] blockOffset = new int[16];
+    private int[] blockRaw = new int[16];
+    private int[] blockComp = new int[16];
+    private int[] blockFirst = new int[16];
+    private int[] blockFrames = new int[16];
+    private final int totalTicks;
+
+    // Decoder
+    private final Inflater inflater = new Inflater();
+    private byte[] raw = new byte[0];
+    private int pos;
+    private int block = -1;
+    private int frameInBlock;
+    private int tick = -1;
+
+    // Current state per slot
+    private final int[] x;
+    private final int[] y;
+    private final int[] z;
+    private final byte[] yaw;
+    private final byte[] pitch;
+    private final int[] item;
+    private final byte[] flags;
+    private final byte[] role;
+
+    private ReplayReader(Path path, byte[] data) throws IOException {
+        this.path = path;
+        this.data = data;
+        ByteArrayInputStream bytes = new ByteArrayInputStream(data);
+        this.header = ReplayHeader.read(new DataInputStream(bytes));
+        this.players = header.participants().size();
+        int offset = data.length - bytes.available();
+        ByteBuffer buf = ByteBuffer.wrap(data);
+        int ticks = 0;
+        while (offset + BLOCK_HEADER <= data.length) {
+            int rawLen = buf.getInt(offset);
+            int compLen = buf.getInt(offset + 4);
+            if (rawLen < 0 || compLen < 0 || offset + BLOCK_HEADER + compLen > data.length) break;
+            if (blocks == blockOffset.length) growIndex();
+            blockOffset[blocks] = offset + BLOCK_HEADER;
+            blockRaw[blocks] = rawLen;
+            blockComp[blocks] = compLen;
+            blockFirst[blocks] = buf.getInt(offset + 8);
+            blockFrames[blocks] = buf.getInt(offset + 12);
+            ticks = blockFirst[blocks] + blockFrames[blocks];
+            blocks++;
+            offset += BLOCK_HEADER + compLen;
+        }
+        this.totalTicks = ticks;
+        x = new int[players];
+        y = new int[players];
+        z = new int[players];
+        yaw = new byte[players];
+        pitch = new byte[players];
+        item = new int[players];
+        flags = new byte[players];
+        role = new byte[players];
+    }
+
+    public static ReplayReader open(Path path) throws IOException {
+        return new ReplayReader(path, Files.readAllBytes(path));
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public ReplayHeader header() {
+        return header;
+    }
+
+    public int totalTicks() {
+        return totalTicks;
+    }
+
+    /**
+     * @return Current tick, or -1 before the first {@link #next()}/{@link #seek}
+     */
+    public int tick() {
+        return tick;
+    }
+
+    /**
+     * Advance one tick.
+     *
+     * @return false at the end of the recording
+     */
+    public boolean next() throws IOException {
+        if (tick + 1 >= totalTicks) return false;
+        if (block < 0 || frameInBlock == blockFrames[block]) loadBlock(block + 1);
+        decodeFrame();
+        return true;
+    }
+
+    /**
+     * Jump to a tick (clamped to the recording).
+     */
+    public void seek(int target) throws IOException {
+        if (totalTicks == 0) return;
+        target = Math.max(0, Math.min(target, totalTicks - 1));
+        if (block < 0 || target < tick || target >= blockFirst[block] + blockFrames[block]) {
+            int b = Arrays.binarySearch(blockFirst, 0, blocks, target);
+            if (b < 0) b = -b - 2;
+            loadBlock(b);
+        }
+        while (tick < target) decodeFrame();
+    }
+
+    // ===== State of the current tick =====
+
+    public int players() {
+        return players;
+    }
+
+    public double x(int slot) {
+        return x[slot] / (double) POS_SCALE;
+    }
+
+    public double y(int slot) {
+        return y[slot] / (double) POS_SCALE;
+    }
+
+    public double z(int slot) {
+        return z[slot] / (double) POS_SCALE;
+    }
+
+    public float yaw(int slot) {
+        return degrees(yaw[slot]);
+    }
+
+    public float pitch(int slot) {
+        return degrees(pitch[slot]);
+    }
+
+    /**
+     * Protocol angle byte, as sent in entity packets.
+     */
+    public byte yawAngle(int slot) {
+        return yaw[slot];
+    }
+
+    public byte pitchAngle(int slot) {
+        return pitch[slot];
+    }
+
+    public int item(int slot) {
+        return item[slot];
+    }
+
+    public int flags(int slot) {
+        return flags[slot] & 0xFF;
+    }
+
+    public int role(int slot) {
+        return role[slot] & 0xFF;
+    }
+
+    // ===== Decoding =====
+
+    private void loadBlock(int b) throws IOException {
+        if (raw.length < blockRaw[b]) raw = new byte[blockRaw[b]];
+        inflater.reset();
+        inflater.setInput(data, blockOffset[b], blockComp[b]);
+        try {
+            int n = 0;
+            while (n < blockRaw[b] && !inflater.finished()) {
+                int r = inflater.inflate(raw, n, blockRaw[b] - n);
+                if (r == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                n += r;
+            }
+            if (n != blockRaw[b]) throw new IOException("Truncated block " + b + " in " + path);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt block " + b + " in " + path, e);
+        }
+        block = b;
+        pos = 0;
+        frameInBlock = 0;
+        tick = blockFirst[b] - 1;
+        // Keyframe deltas are relative to zero
+        Arrays.fill(x, 0);
+        Arrays.fill(y, 0);
+        Arrays.fill(z, 0);
+    }
+
+    private void decodeFrame() throws IOException {
+        if (frameInBlock == blockFrames[block]) loadBlock(block + 1);
+        int changed = readVarint();
+        for (int i = 0; i < changed; i++) {
+            int slot = readVarint();
+            if (slot >= players) throw new IOException("Bad slot " + slot + " in " + path);
+            int mask = raw[pos++];
+            if ((mask & F_POS) != 0) {
+                x[slot] += unzigzag(readVarint());
+                y[slot] += unzigzag(readVarint());
+                z[slot] += unzigzag(readVarint());
+            }
+            if ((mask & F_LOOK) != 0) {
+                yaw[slot] = raw[pos++];
+                pitch[slot] = raw[pos++];
+            }
+            if ((mask & F_ITEM) != 0) item[slot] = readVarint();
+            if ((mask & F_FLAGS) != 0) flags[slot] = raw[pos++];
+            if ((mask & F_ROLE) != 0) role[slot] = raw[pos++];
+        }
+        frameInBlock++;
+        tick++;
+    }
+
+    private int readVarint() {
+        int v = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = raw[pos++];
+            v |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return v;
+    }
+
+    private void growIndex() {
+        int n = blockOffset.length * 2;
+        blockOffset = Arrays.copyOf(blockOffset, n);
+        blockRaw = Arrays.copyOf(blockRaw, n);
+        blockComp = Arrays.copyOf(blockComp, n);
+        blockFirst = Arrays.copyOf(blockFirst, n);
+        blockFrames = Arrays.copyOf(blockFrames, n);
+    }
+}
@@ -0,0 +1,286 @@
+package com.mmhq.sharedapi.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import static com.mmhq.sharedapi.replay.ReplayFormat.*;
+
+/**
+ * Streams a replay to disk.
+ *
+ * The recording thread calls {@link #player} for every slot and then
+ * {@link #endFrame} once per tick. Only fields that changed since the
+ * previous frame are encoded (positions as varint deltas), into a plain byte
+ * array; nothing is allocated per frame. Every {@value ReplayFormat#BLOCK_FRAMES}
+ * frames the block is handed to a single background thread that deflates and
+ * writes it, and recording continues into a pooled buffer.
+ *
+ * Not thread-safe: record from one thread.
+ */
+public final class ReplayWriter implements AutoCloseable {
+    private static final int BLOCK_BYTES = 64 * 1024;
+    private static final int POOLED_BLOCKS = 3;
+
+    private final Path path;
+    private final DataOutputStream out;
+    private final ExecutorService io;
+    private final ArrayBlockingQueue<byte[]> pool = new ArrayBlockingQueue<>(POOLED_BLOCKS);
+    private final int players;
+
+    // Last encoded value per slot (reset to zero at each keyframe)
+    private final int[] lastX;
+    private final int[] lastY;
+    private final int[] lastZ;
+    private final byte[] lastYaw;
+    private final byte[] lastPitch;
+    private final int[] lastItem;
+    private final byte[] lastFlags;
+    private final byte[] lastRole;
+
+    private final byte[] frame = new byte[MAX_FRAME_BYTES];
+    private int frameLen;
+    private int frameChanged;
+    private boolean keyframe = true;
+
+    private byte[] block = new byte[BLOCK_BYTES];
+    private int blockLen;
+    private int blockFrames;
+    private int blockFirstTick;
+    private int tick;
+
+    private volatile IOException failure;
+    private boolean closed;
+
+    // Background thread only
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private byte[] compressed = new byte[BLOCK_BYTES];
+
+    public ReplayWriter(Path path, ReplayHeader header) throws IOException {
+        this.path = path;
+        this.players = header.participants().size();
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BLOCK_BYTES));
+        try {
+            header.write(out);
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+        this.io = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "mmhq-replay-writer");
+            t.setDaemon(false); // let queued blocks reach disk on shutdown
+            return t;
+        });
+        lastX = new int[players];
+        lastY = new int[players];
+        lastZ = new int[players];
+        lastYaw = new byte[players];
+        lastPitch = new byte[players];
+        lastItem = new int[players];
+        lastFlags = new byte[players];
+        lastRole = new byte[players];
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * @return Frames recorded so far
+     */
+    public int ticks() {
+        return tick;
+    }
+
+    /**
+     * Record one participant for the current frame. Call for every slot each frame.
+     *
+     * @param item  Held material id (0 = empty hand)
+     * @param flags {@link ReplayFormat#PRESENT} etc.
+     * @param role  Current role ordinal
+     */
+    public void player(int slot, double x, double y, double z, float yaw, float pitch, int item, int flags, int role) {
+        int fx = (int) Math.round(x * POS_SCALE);
+        int fy = (int) Math.round(y * POS_SCALE);
+        int fz = (int) Math.round(z * POS_SCALE);
+        byte ya = angle(yaw);
+        byte pa = angle(pitch);
+        int mask;
+        if (keyframe) {
+            mask = F_ALL;
+        } else {
+            mask = 0;
+            if (fx != lastX[slot] || fy != lastY[slot] || fz != lastZ[slot]) mask |= F_POS;
+            if (ya != lastYaw[slot] || pa != lastPitch[slot]) mask |= F_LOOK;
+            if (item != lastItem[slot]) mask |= F_ITEM;
+            if ((byte) flags != lastFlags[slot]) mask |= F_FLAGS;
+            if ((byte) role != lastRole[slot]) mask |= F_ROLE;
+            if (mask == 0) return;
+        }
+        writeVarint(slot);
+        frame[frameLen++] = (byte) mask;
+        if ((mask & F_POS) != 0) {
+            writeVarint(zigzag(fx - lastX[slot]));
+            writeVarint(zigzag(fy - lastY[slot]));
+            writeVarint(zigzag(fz - lastZ[slot]));
+            lastX[slot] = fx;
+            lastY[slot] = fy;
+            lastZ[slot] = fz;
+        }
+        if ((mask & F_LOOK) != 0) {
+            frame[frameLen++] = ya;
+            frame[frameLen++] = pa;
+            lastYaw[slot] = ya;
+            lastPitch[slot] = pa;
+        }
+        if ((mask & F_ITEM) != 0) {
+            writeVarint(item);
+            lastItem[slot] = item;
+        }
+        if ((mask & F_FLAGS) != 0) {
+            frame[frameLen++] = (byte) flags;
+            lastFlags[slot] = (byte) flags;
+        }
+        if ((mask & F_ROLE) != 0) {
+            frame[frameLen++] = (byte) role;
+            lastRole[slot] = (byte) role;
+        }
+        frameChanged++;
+    }
+
+    /**
+     * Record a participant that is not online: only the cleared
+     * {@link ReplayFormat#PRESENT} flag is written (once).
+     */
+    public void absent(int slot) {
+        if (keyframe) {
+            player(slot, 0, 0, 0, 0, 0, 0, 0, lastRole[slot]);
+            return;
+        }
+        if (lastFlags[slot] == 0) return;
+        writeVarint(slot);
+        frame[frameLen++] = (byte) F_FLAGS;
+        frame[frameLen++] = 0;
+        lastFlags[slot] = 0;
+        frameChanged++;
+    }
+
+    /**
+     * Close the current frame into the block; hands the block off when full.
+     */
+    public void endFrame() {
+        if (closed) return;
+        blockLen = putVarint(block, blockLen, frameChanged);
+        System.arraycopy(frame, 0, block, blockLen, frameLen);
+        blockLen += frameLen;
+        frameLen = 0;
+        frameChanged = 0;
+        keyframe = false;
+        tick++;
+        blockFrames++;
+        if (blockFrames == BLOCK_FRAMES || blockLen > block.length - MAX_FRAME_BYTES - 5) {
+            submitBlock();
+        }
+    }
+
+    /**
+     * Flush the last block and close the file on the background thread.
+     * Returns immediately; see {@link #awaitClosed}.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        if (blockFrames > 0) submitBlock();
+        closed = true;
+        io.execute(() -> {
+            try {
+                out.close();
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+            } finally {
+                deflater.end();
+            }
+        });
+        io.shutdown();
+    }
+
+    /**
+     * Wait for queued blocks to be written.
+     *
+     * @return The first write error, or null if everything reached the file
+     */
+    public IOException awaitClosed(long timeoutMillis) throws InterruptedException {
+        if (!io.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            return new IOException("Timed out writing " + path);
+        }
+        return failure;
+    }
+
+    // ===== Internals =====
+
+    private void submitBlock() {
+        final byte[] raw = block;
+        final int len = blockLen;
+        final int first = blockFirstTick;
+        final int frames = blockFrames;
+        io.execute(() -> {
+            try {
+                if (failure == null) writeBlock(raw, len, first, frames);
+            } catch (IOException e) {
+                failure = e;
+            } finally {
+                pool.offer(raw);
+            }
+        });
+        byte[] next = pool.poll();
+        block = next != null ? next : new byte[BLOCK_BYTES];
+        blockLen = 0;
+        blockFrames = 0;
+        blockFirstTick = tick;
+        keyframe = true;
+        java.util.Arrays.fill(lastX, 0);
+        java.util.Arrays.fill(lastY, 0);
+        java.util.Arrays.fill(lastZ, 0);
+        java.util.Arrays.fill(lastYaw, (byte) 0);
+        java.util.Arrays.fill(lastPitch, (byte) 0);
+        java.util.Arrays.fill(lastItem, 0);
+        java.util.Arrays.fill(lastFlags, (byte) 0);
+    }
+
+    private void writeBlock(byte[] raw, int len, int firstTick, int frames) throws IOException {
+        deflater.reset();
+        deflater.setInput(raw, 0, len);
+        deflater.finish();
+        int clen = 0;
+        while (!deflater.finished()) {
+            if (clen == compressed.length) compressed = java.util.Arrays.copyOf(compressed, compressed.length * 2);
+            clen += deflater.deflate(compressed, clen, compressed.length - clen);
+        }
+        out.writeInt(len);
+        out.writeInt(clen);
+        out.writeInt(firstTick);
+        out.writeInt(frames);
+        out.write(compressed, 0, clen);
+        out.flush();
+    }
+
+    private void writeVarint(int v) {
+        frameLen = putVarint(frame, frameLen, v);
+    }
+
+    private static int putVarint(byte[] buf, int pos, int v) {
+        while ((v & ~0x7F) != 0) {
+            buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+        return pos;
+    }
+}